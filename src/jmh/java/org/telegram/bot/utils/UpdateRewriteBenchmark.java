@@ -0,0 +1,94 @@
+package org.telegram.bot.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.MessageEntity;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparison of rewriting the text of update with the former deep copy through json.
+ * Run with: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpdateRewriteBenchmark {
+
+    private static final String NEW_TEXT = "echo how are you?";
+
+    private final ObjectMapper sharedMapper = new ObjectMapper();
+    private Update update;
+
+    @Setup
+    public void setUp() {
+        Chat chat = new Chat();
+        chat.setId(-1001234567890L);
+        chat.setType("supergroup");
+        chat.setTitle("test chat");
+
+        User user = new User();
+        user.setId(123456789L);
+        user.setFirstName("first name");
+        user.setLastName("last name");
+        user.setUserName("username");
+        user.setLanguageCode("ru");
+
+        Message repliedMessage = new Message();
+        repliedMessage.setMessageId(1);
+        repliedMessage.setDate(1691300000);
+        repliedMessage.setChat(chat);
+        repliedMessage.setFrom(user);
+        repliedMessage.setText("some replied text of medium length to look like a real chat message");
+
+        Message message = new Message();
+        message.setMessageId(2);
+        message.setDate(1691300060);
+        message.setChat(chat);
+        message.setFrom(user);
+        message.setReplyToMessage(repliedMessage);
+        message.setText("/alias@jtelebot how are you?");
+        message.setEntities(List.of(new MessageEntity("bot_command", 0, 15)));
+
+        update = new Update();
+        update.setUpdateId(100500);
+        update.setMessage(message);
+    }
+
+    @Benchmark
+    public Update jsonCopyWithNewMapper() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Update newUpdate = mapper.readValue(mapper.writeValueAsString(update), Update.class);
+        newUpdate.getMessage().setText(NEW_TEXT);
+        return newUpdate;
+    }
+
+    @Benchmark
+    public Update jsonCopyWithSharedMapper() throws Exception {
+        Update newUpdate = sharedMapper.readValue(sharedMapper.writeValueAsString(update), Update.class);
+        newUpdate.getMessage().setText(NEW_TEXT);
+        return newUpdate;
+    }
+
+    @Benchmark
+    public Update rewriteText() {
+        return UpdateRewriter.rewriteText(update, NEW_TEXT);
+    }
+}
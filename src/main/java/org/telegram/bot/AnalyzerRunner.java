@@ -0,0 +1,80 @@
+package org.telegram.bot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.domain.CommandParent;
+import org.telegram.bot.domain.TextAnalyzer;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.utils.ChatLaneExecutor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs text analyzers of update off the thread that receives updates.
+ * Analyzers of the same chat run one by one, so they see messages in order of receiving.
+ * Analyzers dispatching commands are run on the calling thread before the command of update is dispatched,
+ * so the order of replies is the same as the order of analyzers followed by the command.
+ */
+@Component
+@Slf4j
+public class AnalyzerRunner {
+
+    private final List<TextAnalyzer> textAnalyzerList;
+    private final ChatLaneExecutor analyzerLaneExecutor;
+    private final BotStats botStats;
+
+    public AnalyzerRunner(@Lazy List<TextAnalyzer> textAnalyzerList,
+                          @Qualifier("analyzerLaneExecutor") ChatLaneExecutor analyzerLaneExecutor,
+                          BotStats botStats) {
+        this.textAnalyzerList = textAnalyzerList;
+        this.analyzerLaneExecutor = analyzerLaneExecutor;
+        this.botStats = botStats;
+    }
+
+    /**
+     * Analyze update by analyzers, which requirements are satisfied by update.
+     * Analyzers dispatching commands are run immediately in order, the others are queued.
+     *
+     * @param updateContext context of received update.
+     */
+    public void analyze(UpdateContext updateContext) {
+        Map<Boolean, List<TextAnalyzer>> matchingAnalyzers = textAnalyzerList
+                .stream()
+                .filter(textAnalyzer -> textAnalyzer.getRequirements()
+                        .stream()
+                        .allMatch(requirement -> requirement.isSatisfiedBy(updateContext)))
+                .collect(Collectors.partitioningBy(TextAnalyzer::isDispatchingCommands));
+
+        matchingAnalyzers.get(true).forEach(textAnalyzer -> analyze(textAnalyzer, updateContext));
+
+        List<TextAnalyzer> queuedAnalyzers = matchingAnalyzers.get(false);
+        if (queuedAnalyzers.isEmpty()) {
+            return;
+        }
+
+        Long chatId = updateContext.getChatId();
+        if (!analyzerLaneExecutor.execute(chatId, () -> queuedAnalyzers.forEach(textAnalyzer -> analyze(textAnalyzer, updateContext)))) {
+            log.warn("Analyzing of update {} for chat {} is rejected", updateContext.getUpdate().getUpdateId(), chatId);
+        }
+    }
+
+    private void analyze(TextAnalyzer textAnalyzer, UpdateContext updateContext) {
+        String analyzerName = textAnalyzer.getClass().getSimpleName();
+        long startTime = System.nanoTime();
+
+        try {
+            textAnalyzer.analyze((CommandParent<?>) textAnalyzer, updateContext.getUpdate(), updateContext);
+        } catch (Exception e) {
+            botStats.incrementErrors(updateContext.getUpdate(), e, "ошибка анализатора " + analyzerName);
+            log.error("Analyzer {} failed: ", analyzerName, e);
+        } finally {
+            botStats.registerAnalyzerExecutionTime(analyzerName, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+    }
+}
@@ -2,27 +2,33 @@ package org.telegram.bot;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.CommandParent;
-import org.telegram.bot.domain.TextAnalyzer;
-import org.telegram.bot.domain.entities.Chat;
+import org.telegram.bot.domain.UpdateContext;
 import org.telegram.bot.domain.entities.CommandProperties;
 import org.telegram.bot.domain.entities.CommandWaiting;
 import org.telegram.bot.domain.enums.AccessLevel;
+import org.telegram.bot.domain.enums.OutboundPriority;
 import org.telegram.bot.services.*;
 import org.telegram.bot.services.config.PropertiesConfig;
+import org.telegram.bot.utils.OutboundDispatcher;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
 import org.telegram.telegrambots.meta.api.methods.ActionType;
 import org.telegram.telegrambots.meta.api.methods.GetMe;
+import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.*;
 import org.telegram.telegrambots.meta.api.objects.*;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import static org.telegram.bot.utils.TelegramUtils.coalesceEditedMessages;
 import static org.telegram.bot.utils.TelegramUtils.getMessage;
 import static org.telegram.bot.utils.TelegramUtils.isThatAnOldMessage;
 
@@ -30,45 +36,96 @@ import static org.telegram.bot.utils.TelegramUtils.isThatAnOldMessage;
 @Slf4j
 public class Bot extends TelegramLongPollingBot {
 
-    private final List<TextAnalyzer> textAnalyzerList;
-    private final ApplicationContext context;
+    private final AnalyzerRunner analyzerRunner;
     private final BotStats botStats;
 
     private final PropertiesConfig propertiesConfig;
     private final CommandPropertiesService commandPropertiesService;
     private final UserService userService;
     private final UserStatsService userStatsService;
-    private final CommandWaitingService commandWaitingService;
-    private final DisableCommandService disableCommandService;
+    private final UpdateContextService updateContextService;
+    private final PermissionService permissionService;
     private final SpyModeService spyModeService;
+    private final ChatActionService chatActionService;
     private final Parser parser;
+    private final OutboundDispatcher outboundDispatcher;
 
-    public Bot(@Lazy List<TextAnalyzer> textAnalyzerList,
-               ApplicationContext context,
+    public Bot(AnalyzerRunner analyzerRunner,
                BotStats botStats,
                PropertiesConfig propertiesConfig,
                CommandPropertiesService commandPropertiesService,
                UserService userService, UserStatsService userStatsService,
-               CommandWaitingService commandWaitingService,
-               DisableCommandService disableCommandService,
+               UpdateContextService updateContextService,
+               PermissionService permissionService,
                SpyModeService spyModeService,
-               @Value("${telegramBotApiToken}") String botToken, Parser parser) {
-        super(botToken);
-        this.textAnalyzerList = textAnalyzerList;
-        this.context = context;
+               ChatActionService chatActionService,
+               @Value("${telegramBotApiToken}") String botToken, Parser parser,
+               OutboundDispatcher outboundDispatcher) {
+        super(getBotOptions(propertiesConfig), botToken);
+        this.analyzerRunner = analyzerRunner;
         this.botStats = botStats;
         this.propertiesConfig = propertiesConfig;
         this.commandPropertiesService = commandPropertiesService;
         this.userService = userService;
         this.userStatsService = userStatsService;
-        this.commandWaitingService = commandWaitingService;
-        this.disableCommandService = disableCommandService;
+        this.updateContextService = updateContextService;
+        this.permissionService = permissionService;
         this.spyModeService = spyModeService;
+        this.chatActionService = chatActionService;
         this.parser = parser;
+        this.outboundDispatcher = outboundDispatcher;
+    }
+
+    private static DefaultBotOptions getBotOptions(PropertiesConfig propertiesConfig) {
+        DefaultBotOptions botOptions = new DefaultBotOptions();
+        // requests of executeAsync are performed by these threads, while callers are not waiting for the response
+        botOptions.setMaxThreads(propertiesConfig.getOutboundThreads());
+
+        return botOptions;
     }
 
     @Override
     public void onUpdateReceived(Update update) {
+        onUpdatesReceived(List.of(update));
+    }
+
+    @Override
+    public void onUpdatesReceived(List<Update> updates) {
+        List<UpdateContext> updateContexts = coalesceEditedMessages(updates)
+                .stream()
+                .map(this::createUpdateContext)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (updateContexts.isEmpty()) {
+            return;
+        }
+
+        List<UpdateContext> allowedUpdateContexts = updateContexts
+                .stream()
+                .filter(updateContext -> {
+                    if (AccessLevel.BANNED.equals(updateContext.getAccessLevel())) {
+                        log.info("Banned user. Ignoring...");
+                        return false;
+                    }
+                    return true;
+                })
+                .collect(Collectors.toList());
+        if (allowedUpdateContexts.isEmpty()) {
+            return;
+        }
+
+        // users and chats are saved once per batch, not once per update
+        userStatsService.updateEntitiesInfo(allowedUpdateContexts);
+        userStatsService.updateUserStats(allowedUpdateContexts);
+
+        allowedUpdateContexts
+                .stream()
+                .collect(Collectors.groupingBy(UpdateContext::getChatId, LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .forEach(updateContextsOfChat -> updateContextsOfChat.forEach(this::processUpdate));
+    }
+
+    private UpdateContext createUpdateContext(Update update) {
         Message message;
         User user;
         String textOfMessage;
@@ -86,40 +143,44 @@ public class Bot extends TelegramLongPollingBot {
             } else if (update.hasEditedMessage()) {
                 message = update.getEditedMessage();
                 if (isThatAnOldMessage(message)) {
-                    return;
+                    return null;
                 }
                 editedMessage = true;
             } else {
-                return;
+                return null;
             }
             textOfMessage = message.getText();
             user = message.getFrom();
         }
 
-        botStats.incrementReceivedMessages();
-
         Long chatId = message.getChatId();
+        botStats.incrementReceivedMessages(chatId);
+
         Long userId = user.getId();
         log.info("From " + chatId + " (" + user.getUserName() + "-" + userId + "): " + textOfMessage);
         if (chatId > 0 && spyMode != null && spyMode) {
             reportToAdmin(user, textOfMessage);
         }
 
-        AccessLevel userAccessLevel = userService.getCurrentAccessLevel(userId, chatId);
-        if (userAccessLevel.equals(AccessLevel.BANNED)) {
-            log.info("Banned user. Ignoring...");
-            return;
-        }
-
-        userStatsService.updateEntitiesInfo(message, editedMessage);
+        return updateContextService.create(update, message, user, textOfMessage, editedMessage);
+    }
 
-        textAnalyzerList.forEach(textAnalyzer -> textAnalyzer.analyze((CommandParent<?>) textAnalyzer, update));
+    private void processUpdate(UpdateContext updateContext) {
+        Update update = updateContext.getUpdate();
+        try {
+            processUpdate(update, updateContext);
+        } catch (Exception e) {
+            botStats.incrementErrors(update, e, "ошибка при обработке обновления");
+            log.error("Failed to process update {}: ", update.getUpdateId(), e);
+        }
+    }
 
-        Chat chatEntity = new Chat().setChatId(chatId);
-        org.telegram.bot.domain.entities.User userEntity = new org.telegram.bot.domain.entities.User().setUserId(userId);
+    private void processUpdate(Update update, UpdateContext updateContext) {
+        analyzerRunner.analyze(updateContext);
 
+        String textOfMessage = updateContext.getTextOfMessage();
         CommandProperties commandProperties;
-        CommandWaiting commandWaiting = commandWaitingService.get(chatEntity, userEntity);
+        CommandWaiting commandWaiting = updateContext.getCommandWaiting();
         if (commandWaiting != null) {
             commandProperties = commandPropertiesService.getCommand(commandWaiting.getCommandName());
         } else if (textOfMessage != null) {
@@ -128,26 +189,26 @@ public class Bot extends TelegramLongPollingBot {
             return;
         }
 
-        if (commandProperties == null || disableCommandService.get(chatEntity, commandProperties) != null) {
+        if (commandProperties == null) {
             return;
         }
 
-        CommandParent<?> command = null;
-        try {
-            command = (CommandParent<?>) context.getBean(commandProperties.getClassName());
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
+        updateContext.registerQuery();
+        if (permissionService.isCommandDisabled(updateContext.getChatId(), commandProperties)) {
+            return;
         }
 
+        CommandParent<?> command = commandPropertiesService.getCommandInstance(commandProperties);
         if (command == null) {
             return;
         }
 
-        if (userService.isUserHaveAccessForCommand(userAccessLevel.getValue(), commandProperties.getAccessLevel())) {
-            userStatsService.incrementUserStatsCommands(chatEntity, userEntity, commandProperties);
-            parseAsync(update, command);
+        if (userService.isUserHaveAccessForCommand(updateContext.getAccessLevel().getValue(), commandProperties.getAccessLevel())) {
+            userStatsService.incrementUserStatsCommands(updateContext, commandProperties);
+            parseAsync(update, command, updateContext, commandProperties.getPriority());
         }
 
+        log.debug("Update {} took {} queries before command processing", update.getUpdateId(), updateContext.getQueriesCount());
     }
 
     @Override
@@ -167,8 +228,16 @@ public class Bot extends TelegramLongPollingBot {
         return botUserName;
     }
 
-    public void parseAsync(Update update, CommandParent<?> command) {
-        parser.parseAsync(update, command);
+    public void parseAsync(Update update, CommandParent<?> command, UpdateContext updateContext) {
+        parser.parseAsync(update, command, updateContext, Parser.DEFAULT_PRIORITY);
+    }
+
+    public void parseAsync(Update update, CommandParent<?> command, UpdateContext updateContext, Integer priority) {
+        parser.parseAsync(update, command, updateContext, priority == null ? Parser.DEFAULT_PRIORITY : priority);
+    }
+
+    public void executeAsync(Update update, int priority, Supplier<PartialBotApiMethod<?>> methodSupplier) {
+        parser.executeAsync(update, priority, methodSupplier);
     }
 
     private void reportToAdmin(User user, String textMessage) {
@@ -179,11 +248,13 @@ public class Bot extends TelegramLongPollingBot {
 
         SendMessage sendMessage = spyModeService.generateMessage(user, textMessage);
 
-        try {
-            execute(sendMessage);
-        } catch (TelegramApiException e) {
-            e.printStackTrace();
-        }
+        outboundDispatcher.submit(adminId, OutboundPriority.NOTIFICATION, () -> executeAsync(sendMessage))
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        botStats.incrementErrors(sendMessage, e, "ошибка при отправке сообщения админу");
+                        log.error("Error: cannot report to admin: {}", e.getMessage());
+                    }
+                });
     }
 
     public void sendTyping(Update update) {
@@ -211,16 +282,7 @@ public class Bot extends TelegramLongPollingBot {
     }
 
     public void sendAction(Long chatId, ActionType action) {
-        SendChatAction sendChatAction = new SendChatAction();
-        sendChatAction.setChatId(chatId);
-        sendChatAction.setAction(action);
-
-        try {
-            execute(sendChatAction);
-        } catch (TelegramApiException e) {
-            botStats.incrementErrors(sendChatAction, e, "ошибка при отправке Action");
-            log.error("Error: cannot send chat action: {}", e.getMessage());
-        }
+        chatActionService.sendAction(chatId, action);
     }
 
 }
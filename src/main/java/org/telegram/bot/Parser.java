@@ -2,18 +2,35 @@ package org.telegram.bot;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.CommandParent;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.domain.enums.BotSpeechTag;
+import org.telegram.bot.domain.enums.CommandExecutionMode;
+import org.telegram.bot.domain.enums.LatencyMetric;
 import org.telegram.bot.exception.BotException;
+import org.telegram.bot.services.ChatActionService;
+import org.telegram.bot.services.SpeechService;
+import org.telegram.bot.services.config.PropertiesConfig;
 import org.telegram.bot.services.executors.MethodExecutor;
+import org.telegram.bot.utils.BoundedPriorityExecutor;
+import org.telegram.bot.utils.ChatLaneExecutor;
+import org.telegram.telegrambots.meta.api.methods.ActionType;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import static org.telegram.bot.utils.TelegramUtils.getMessage;
 
@@ -21,23 +38,129 @@ import static org.telegram.bot.utils.TelegramUtils.getMessage;
 @Slf4j
 public class Parser {
 
+    public static final int LOW_PRIORITY = -1;
+    public static final int DEFAULT_PRIORITY = 0;
+    private static final long BUSY_REPLY_INTERVAL_MILLIS = 10000;
+
     private final List<MethodExecutor> methodExecutors;
     private final BotStats botStats;
-
-    public Parser(@Lazy List<MethodExecutor> methodExecutors, BotStats botStats) {
+    private final PropertiesConfig propertiesConfig;
+    private final SpeechService speechService;
+    private final ChatActionService chatActionService;
+    private final BoundedPriorityExecutor commandExecutor;
+    private final ChatLaneExecutor chatLaneExecutor;
+    private final Map<Long, Long> lastBusyReplies = new ConcurrentHashMap<>();
+
+    public Parser(@Lazy List<MethodExecutor> methodExecutors,
+                  BotStats botStats,
+                  PropertiesConfig propertiesConfig,
+                  SpeechService speechService,
+                  ChatActionService chatActionService,
+                  BoundedPriorityExecutor commandExecutor,
+                  ChatLaneExecutor chatLaneExecutor) {
         this.methodExecutors = methodExecutors;
         this.botStats = botStats;
+        this.propertiesConfig = propertiesConfig;
+        this.speechService = speechService;
+        this.chatActionService = chatActionService;
+        this.commandExecutor = commandExecutor;
+        this.chatLaneExecutor = chatLaneExecutor;
+    }
+
+    public void parseAsync(Update update, CommandParent<?> command, UpdateContext updateContext, int priority) {
+        executeAsync(update, priority, command.getClass().getSimpleName(), () -> command.parse(update, updateContext));
+    }
+
+    /**
+     * Queue the producing of response for update and sending of it.
+     * Negative priority marks low-value work: it is dropped silently under load,
+     * while a rejected work of higher priority is answered with busy reply.
+     *
+     * @param update received update.
+     * @param priority priority of work.
+     * @param methodSupplier producer of response.
+     */
+    public void executeAsync(Update update, int priority, Supplier<PartialBotApiMethod<?>> methodSupplier) {
+        executeAsync(update, priority, null, methodSupplier);
+    }
+
+    private void executeAsync(Update update, int priority, String commandName, Supplier<PartialBotApiMethod<?>> methodSupplier) {
+        Long chatId = getMessage(update).getChatId();
+        long submitTime = System.nanoTime();
+        Runnable task = () -> {
+            long waitTime = System.nanoTime() - submitTime;
+            botStats.addCommandQueueWaitTime(TimeUnit.NANOSECONDS.toMillis(waitTime));
+            if (commandName != null) {
+                botStats.registerLatency(LatencyMetric.COMMAND_QUEUE_WAIT, commandName, waitTime, false);
+            }
+            execute(update, commandName, methodSupplier);
+        };
+
+        boolean accepted;
+        if (CommandExecutionMode.CHAT_LANES.equals(propertiesConfig.getCommandExecutionMode())) {
+            if (priority < DEFAULT_PRIORITY && chatLaneExecutor.getQueueDepth(chatId) >= chatLaneExecutor.getMailboxCapacity() / 2) {
+                accepted = false;
+            } else {
+                accepted = chatLaneExecutor.execute(chatId, task);
+            }
+        } else {
+            accepted = commandExecutor.execute(priority, task, () -> reject(update, priority));
+        }
+
+        if (!accepted) {
+            reject(update, priority);
+        }
     }
 
-    @Async
-    public void parseAsync(Update update, CommandParent<?> command) {
+    private void execute(Update update, String commandName, Supplier<PartialBotApiMethod<?>> methodSupplier) {
         PartialBotApiMethod<?> method = null;
+        long start = System.nanoTime();
+        boolean error = true;
+        chatActionService.startCommand();
         try {
-            method = command.parse(update);
+            method = methodSupplier.get();
+            error = false;
         } catch (Exception e) {
             method = handleException(update, e);
         } finally {
-            executeMethod(update, method);
+            if (commandName != null) {
+                botStats.registerLatency(LatencyMetric.COMMAND_PARSE, commandName, System.nanoTime() - start, error);
+            }
+            executeMethod(update, commandName, method, chatActionService.finishCommand());
+        }
+    }
+
+    private void reject(Update update, int priority) {
+        Long chatId = getMessage(update).getChatId();
+
+        if (priority < DEFAULT_PRIORITY) {
+            botStats.incrementCommandsShed();
+            log.debug("Low-value work for chat {} is shed", chatId);
+            return;
+        }
+
+        botStats.incrementCommandsRejected();
+        log.warn("Command for chat {} is rejected: too many queued commands", chatId);
+
+        long now = System.currentTimeMillis();
+        AtomicBoolean replyRequired = new AtomicBoolean();
+        lastBusyReplies.compute(chatId, (id, lastReply) -> {
+            if (lastReply != null && now - lastReply < BUSY_REPLY_INTERVAL_MILLIS) {
+                return lastReply;
+            }
+            replyRequired.set(true);
+            return now;
+        });
+
+        if (replyRequired.get()) {
+            Message message = getMessage(update);
+
+            SendMessage sendMessage = new SendMessage();
+            sendMessage.setReplyToMessageId(message.getMessageId());
+            sendMessage.setChatId(chatId.toString());
+            sendMessage.setText(speechService.getRandomMessageByTag(BotSpeechTag.BUSY));
+
+            sendMethod(update, sendMessage);
         }
     }
 
@@ -59,22 +182,39 @@ public class Parser {
         return null;
     }
 
-    private void executeMethod(Update update, PartialBotApiMethod<?> method) {
+    private void executeMethod(Update update, String commandName, PartialBotApiMethod<?> method, Set<ActionType> actions) {
+        Long chatId = getMessage(update).getChatId();
         if (method == null) {
+            chatActionService.stopActions(chatId, actions);
             return;
         }
 
+        long start = System.nanoTime();
+        sendMethod(update, method)
+                .whenComplete((result, e) -> {
+                    chatActionService.stopActions(chatId, actions);
+                    if (commandName != null) {
+                        // executors handle errors by themselves and complete with null
+                        botStats.registerLatency(LatencyMetric.COMMAND_SEND, commandName, System.nanoTime() - start, result == null);
+                    }
+                })
+                .thenRun(() -> botStats.incrementCommandsProcessed(commandName));
+    }
+
+    private CompletionStage<?> sendMethod(Update update, PartialBotApiMethod<?> method) {
         Message message = getMessage(update);
 
-        methodExecutors
+        MethodExecutor methodExecutor = methodExecutors
                 .stream()
-                .filter(methodExecutor -> methodExecutor.getMethod().equals(method.getMethod()))
+                .filter(executor -> executor.getMethod().equals(method.getMethod()))
                 .findFirst()
-                .ifPresentOrElse(
-                        methodExecutor -> methodExecutor.executeMethod(method, message),
-                        () -> log.error("Missing executor for {}", method.getMethod()));
+                .orElse(null);
+        if (methodExecutor == null) {
+            log.error("Missing executor for {}", method.getMethod());
+            return CompletableFuture.completedFuture(null);
+        }
 
-        botStats.incrementCommandsProcessed();
+        return methodExecutor.executeMethod(method, message);
     }
 
 }
@@ -0,0 +1,56 @@
+package org.telegram.bot.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.services.config.PropertiesConfig;
+import org.telegram.bot.utils.PrometheusFormatter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Endpoint for scraping of bot metrics by Prometheus.
+ * It is served only when metricsToken is set, and Prometheus has to send it as a bearer token.
+ */
+@RestController
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final BotStats botStats;
+    private final PropertiesConfig propertiesConfig;
+
+    @GetMapping("/metrics")
+    public ResponseEntity<String> getMetrics(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String metricsToken = propertiesConfig.getMetricsToken();
+        if (StringUtils.isBlank(metricsToken)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (!isTokenValid(metricsToken, authorization)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, PrometheusFormatter.CONTENT_TYPE)
+                .body(PrometheusFormatter.format(botStats.getSnapshot()));
+    }
+
+    private boolean isTokenValid(String metricsToken, String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return false;
+        }
+
+        return MessageDigest.isEqual(
+                metricsToken.getBytes(StandardCharsets.UTF_8),
+                authorization.substring(BEARER_PREFIX.length()).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,47 @@
+package org.telegram.bot.controllers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.telegram.bot.services.WebhookService;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+/**
+ * Endpoint for updates posted by Telegram in webhook mode.
+ * Processing is handed off, so Telegram gets the answer immediately.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookController {
+
+    public static final String SECRET_TOKEN_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+
+    private final WebhookService webhookService;
+
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> onUpdateReceived(@RequestHeader(value = SECRET_TOKEN_HEADER, required = false) String secretToken,
+                                                 @RequestBody Update update) {
+        if (!webhookService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (!webhookService.isSecretTokenValid(secretToken)) {
+            log.warn("Update {} with wrong secret token is ignored", update.getUpdateId());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (!webhookService.receive(update)) {
+            // Telegram will deliver the update again later
+            log.warn("Update {} is rejected: too many queued updates", update.getUpdateId());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        return ResponseEntity.ok().build();
+    }
+}
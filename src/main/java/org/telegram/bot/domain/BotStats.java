@@ -6,6 +6,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.domain.entities.WorkParam;
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.domain.enums.LatencyMetric;
 import org.telegram.bot.services.ErrorService;
 import org.telegram.bot.services.WorkParamService;
 import org.telegram.bot.services.config.PropertiesConfig;
@@ -14,11 +16,14 @@ import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
-import static org.telegram.bot.utils.DateUtils.getDuration;
-
 @Component
 @Scope("singleton")
 @Getter
@@ -30,226 +35,203 @@ public class BotStats {
 
     private final String botToken;
     private final LocalDateTime botStartDateTime;
-    private Integer receivedMessages;
-    private Long totalReceivedMessages;
     @Getter(value = AccessLevel.NONE)
-    private Long totalRunningTime;
+    private final MetricsRegistry metricsRegistry;
+    @Getter(value = AccessLevel.NONE)
+    private long lastRunningTimeCheck;
+    @Getter(value = AccessLevel.NONE)
+    private final AtomicLong commandsRejected = new AtomicLong();
+    @Getter(value = AccessLevel.NONE)
+    private final AtomicLong commandsShed = new AtomicLong();
+    @Getter(value = AccessLevel.NONE)
+    private final AtomicLong commandsDequeued = new AtomicLong();
+    @Getter(value = AccessLevel.NONE)
+    private final AtomicLong commandsQueueWaitTime = new AtomicLong();
+    @Getter(value = AccessLevel.NONE)
+    private final AtomicLong maxCommandQueueWaitTime = new AtomicLong();
     @Getter(value = AccessLevel.NONE)
-    private LocalDateTime lastTotalRunningCheck;
-    private Integer commandsProcessed;
-    private Long totalCommandsProcessed;
-    private Integer errors;
-    private Integer screenshots;
-    private Integer googleRequests;
-    private Integer kinopoiskRequests;
-    private Integer wolframRequests;
-    private Integer russianPostRequests;
-    private Long lastTvUpdate;
-    private Long lastTracksUpdate;
-
-    private static final String TOTAL_RECEIVED_MESSAGES = "totalReceivedMessages";
-    private static final String TOTAL_RUNNING_TIME = "totalRunningTime";
-    private static final String TOTAL_COMMANDS_PROCESSED = "totalCommandsProcessed";
-    private static final String GOOGLE_REQUESTS = "googleRequests";
-    private static final String KINOPOISK_REQUESTS = "kinopoiskRequests";
-    private static final String WOLFRAM_REQUESTS = "wolframRequests";
-    private static final String RUSSIAN_POST_REQUESTS = "russianPostRequests";
-    private static final String LAST_TV_UPDATE = "lastTvUpdate";
-    private static final String LAST_TRACKS_UPDATE = "lastTracksUpdate";
-    private final List<String> botStatsFieldsToSave = Arrays.asList(
-                                                            TOTAL_RECEIVED_MESSAGES,
-                                                            TOTAL_RUNNING_TIME,
-                                                            TOTAL_COMMANDS_PROCESSED,
-                                                            GOOGLE_REQUESTS,
-                                                            KINOPOISK_REQUESTS,
-                                                            WOLFRAM_REQUESTS,
-                                                            RUSSIAN_POST_REQUESTS,
-                                                            LAST_TV_UPDATE,
-                                                            LAST_TRACKS_UPDATE);
-
-    public BotStats(WorkParamService workParamService, ErrorService errorService, PropertiesConfig propertiesConfig) {
+    private final Map<String, ExecutionTimeStats> analyzersExecutionTime = new ConcurrentSkipListMap<>();
+
+    private static final List<BotMetric> PERSISTED_METRICS = Arrays.stream(BotMetric.values())
+            .filter(BotMetric::isPersisted)
+            .collect(Collectors.toList());
+    private static final List<String> PERSISTED_METRICS_NAMES = PERSISTED_METRICS
+            .stream()
+            .map(BotMetric::getWorkParamName)
+            .collect(Collectors.toList());
+
+    public BotStats(WorkParamService workParamService,
+                    ErrorService errorService,
+                    PropertiesConfig propertiesConfig,
+                    MetricsRegistry metricsRegistry) {
         this.workParamService = workParamService;
+        this.metricsRegistry = metricsRegistry;
         this.errorService = errorService;
         this.propertiesConfig = propertiesConfig;
         this.botToken = propertiesConfig.getTelegramBotApiToken();
-
-        List<WorkParam> workParamList = workParamService.get(this.botToken);
         this.botStartDateTime = LocalDateTime.now();
-        this.receivedMessages = 0;
-        this.commandsProcessed = 0;
-        this.errors = 0;
-        this.screenshots = 0;
-        Arrays.asList(TOTAL_RECEIVED_MESSAGES, TOTAL_COMMANDS_PROCESSED, LAST_TV_UPDATE, LAST_TRACKS_UPDATE)
-                .forEach(field -> setTotalBaseField(workParamList, field));
-        setTotalRunningTime(workParamList);
-        setGoogleRequests(workParamList);
-        setKinopoiskRequests(workParamList);
-        setWolframRequests(workParamList);
-        setRussianPostRequests(workParamList);
+        this.lastRunningTimeCheck = System.nanoTime();
+
+        List<WorkParam> workParamList = workParamService.get(this.botToken, PERSISTED_METRICS_NAMES);
+        PERSISTED_METRICS.forEach(metric -> {
+            WorkParam workParam = getWorkParamByName(workParamList, metric.getWorkParamName());
+            if (workParam != null) {
+                metricsRegistry.set(metric, Long.parseLong(workParam.getValue()));
+            }
+        });
+    }
+
+    /**
+     * Register received message.
+     *
+     * @param chatId id of chat of message.
+     */
+    public void incrementReceivedMessages(Long chatId) {
+        metricsRegistry.increment(BotMetric.RECEIVED_MESSAGES);
+        metricsRegistry.incrementChat(chatId);
+    }
+
+    /**
+     * Register sent response to command.
+     *
+     * @param commandName name of command, may be null for responses to not a command.
+     */
+    public void incrementCommandsProcessed(String commandName) {
+        metricsRegistry.increment(BotMetric.COMMANDS_PROCESSED);
+        if (commandName != null) {
+            metricsRegistry.incrementCommand(commandName);
+        }
     }
 
-    public void incrementReceivedMessages() {
-        this.receivedMessages = this.receivedMessages + 1;
-        this.totalReceivedMessages = this.totalReceivedMessages + 1L;
+    public void incrementCommandsRejected() {
+        this.commandsRejected.incrementAndGet();
     }
 
-    public void incrementCommandsProcessed() {
-        this.commandsProcessed = this.commandsProcessed + 1;
-        this.totalCommandsProcessed = this.totalCommandsProcessed + 1;
+    public void incrementCommandsShed() {
+        this.commandsShed.incrementAndGet();
     }
 
-    public void incrementErrors(PartialBotApiMethod<?> response, Throwable throwable, String comment) {
-        this.errors = this.errors + 1;
-        errorService.save(response, throwable, comment);
+    /**
+     * Register time that command spent in queue before processing.
+     *
+     * @param waitTime time in queue in milliseconds.
+     */
+    public void addCommandQueueWaitTime(long waitTime) {
+        this.commandsDequeued.incrementAndGet();
+        this.commandsQueueWaitTime.addAndGet(waitTime);
+        this.maxCommandQueueWaitTime.accumulateAndGet(waitTime, Math::max);
     }
 
-    public void incrementErrors(Object request, String comment) {
-        this.errors = this.errors + 1;
-        errorService.save(request, comment);
+    public long getCommandsRejected() {
+        return commandsRejected.get();
     }
 
-    public void incrementErrors(Object request, Throwable throwable, String comment) {
-        this.errors = this.errors + 1;
-        errorService.save(request, throwable, comment);
+    public long getCommandsShed() {
+        return commandsShed.get();
     }
 
-    public void incrementErrors(Object request, PartialBotApiMethod<?> response, Throwable throwable, String comment) {
-        this.errors = this.errors + 1;
-        errorService.save(request, response, throwable, comment);
+    public long getAverageCommandQueueWaitTime() {
+        long dequeued = commandsDequeued.get();
+        if (dequeued == 0) {
+            return 0;
+        }
+
+        return commandsQueueWaitTime.get() / dequeued;
     }
 
-    public void incrementScreenshots() {
-        this.screenshots = this.screenshots + 1;
+    public long getMaxCommandQueueWaitTime() {
+        return maxCommandQueueWaitTime.get();
     }
 
-    public void incrementGoogleRequests() {
-        this.googleRequests = this.googleRequests - 1;
+    /**
+     * Register latency of execution.
+     *
+     * @param metric histogram family.
+     * @param label value of label of histogram (name of command, API...).
+     * @param nanos time of execution in nanoseconds.
+     * @param error true if execution is failed.
+     */
+    public void registerLatency(LatencyMetric metric, String label, long nanos, boolean error) {
+        metricsRegistry.registerLatency(metric, label, nanos, error);
     }
 
-    public void incrementKinopoiskRequests() {
-        this.kinopoiskRequests = this.kinopoiskRequests - 1;
+    /**
+     * Register time of analyzing of update by analyzer.
+     *
+     * @param analyzerName name of analyzer.
+     * @param time time of execution in milliseconds.
+     */
+    public void registerAnalyzerExecutionTime(String analyzerName, long time) {
+        this.analyzersExecutionTime.computeIfAbsent(analyzerName, name -> new ExecutionTimeStats()).register(time);
     }
 
-    public void incrementWorlframRequests() {
-        this.wolframRequests = this.wolframRequests - 1;
+    public Map<String, ExecutionTimeStats> getAnalyzersExecutionTime() {
+        return Collections.unmodifiableMap(analyzersExecutionTime);
     }
 
-    public void incrementRussianPostRequests() {
-        this.russianPostRequests = this.russianPostRequests - 1;
+    public void incrementErrors(PartialBotApiMethod<?> response, Throwable throwable, String comment) {
+        metricsRegistry.increment(BotMetric.ERRORS);
+        errorService.save(response, throwable, comment);
     }
 
-    public void resetGoogleRequests() {
-        this.googleRequests = 100;
+    public void incrementErrors(Object request, String comment) {
+        metricsRegistry.increment(BotMetric.ERRORS);
+        errorService.save(request, comment);
     }
 
-    public void resetKinopoiskRequests() {
-        this.kinopoiskRequests = 200;
+    public void incrementErrors(Object request, Throwable throwable, String comment) {
+        metricsRegistry.increment(BotMetric.ERRORS);
+        errorService.save(request, throwable, comment);
     }
 
-    public void resetWolframRequests() {
-        this.wolframRequests = 1000;
+    public void incrementErrors(Object request, PartialBotApiMethod<?> response, Throwable throwable, String comment) {
+        metricsRegistry.increment(BotMetric.ERRORS);
+        errorService.save(request, response, throwable, comment);
     }
 
-    public void resetRussianPostRequests() {
-        this.russianPostRequests = propertiesConfig.getRussianPostRequestsLimit();
+    public void incrementScreenshots() {
+        metricsRegistry.increment(BotMetric.SCREENSHOTS);
     }
 
-    public void saveStats() {
-        List<WorkParam> workParamList = workParamService.get(botToken, botStatsFieldsToSave);
+    /**
+     * Take values of all metrics at one moment.
+     *
+     * @return snapshot of metrics.
+     */
+    public synchronized MetricsSnapshot getSnapshot() {
+        long now = System.nanoTime();
+        metricsRegistry.add(BotMetric.RUNNING_TIME, TimeUnit.NANOSECONDS.toMillis(now - lastRunningTimeCheck));
+        lastRunningTimeCheck = now;
 
-        this.totalRunningTime = getTotalRunningTime();
+        return metricsRegistry.snapshot();
+    }
 
-        List<WorkParam> updatedWorkParamList = botStatsFieldsToSave
+    /**
+     * Write persisted metrics from one snapshot to WorkParams with a single batch.
+     */
+    public void saveStats() {
+        MetricsSnapshot snapshot = getSnapshot();
+        List<WorkParam> workParamList = workParamService.get(botToken, PERSISTED_METRICS_NAMES);
+
+        List<WorkParam> updatedWorkParamList = PERSISTED_METRICS
                 .stream()
-                .map(botStatsField -> {
-                    String value = null;
-                    try {
-                        value = this.getClass().getDeclaredField(botStatsField).get(this).toString();
-                    } catch (IllegalAccessException | NoSuchFieldException e) {
-                        e.printStackTrace();
-                    }
-                    return setWorkParamByName(workParamList, botStatsField, value);
-                })
+                .map(metric -> setWorkParamByName(
+                        workParamList, metric.getWorkParamName(), String.valueOf(snapshot.getTotalValue(metric))))
                 .collect(Collectors.toList());
 
         workParamService.save(updatedWorkParamList);
     }
 
-    public Long getTotalRunningTime() {
-        LocalDateTime dateTimeNow = LocalDateTime.now();
-        this.totalRunningTime = this.totalRunningTime + getDuration(this.lastTotalRunningCheck, dateTimeNow).toMillis();
-        this.lastTotalRunningCheck = dateTimeNow;
-        return this.totalRunningTime;
+    public long getLastTracksUpdate() {
+        return metricsRegistry.get(BotMetric.LAST_TRACKS_UPDATE);
     }
 
     public void setLastTvUpdate(Instant lastTvUpdate) {
-        this.lastTvUpdate = lastTvUpdate.toEpochMilli();
+        metricsRegistry.set(BotMetric.LAST_TV_UPDATE, lastTvUpdate.toEpochMilli());
     }
 
     public void setLastTracksUpdate(Instant lastTracksUpdate) {
-        this.lastTracksUpdate = lastTracksUpdate.toEpochMilli();
-    }
-
-    private void setTotalBaseField(List<WorkParam> workParamList, String fieldName) {
-        WorkParam workParam = getWorkParamByName(workParamList, fieldName);
-        long value;
-        if (workParam == null) {
-            value = 0L;
-        } else {
-            value = Long.parseLong(workParam.getValue());
-        }
-
-        try {
-            this.getClass().getDeclaredField(fieldName).set(this, value);
-        } catch (IllegalAccessException | NoSuchFieldException e) {
-            e.printStackTrace();
-        }
-    }
-
-    private void setGoogleRequests(List<WorkParam> workParamList) {
-        WorkParam workParam = getWorkParamByName(workParamList, GOOGLE_REQUESTS);
-        if (workParam == null) {
-            this.googleRequests = 100;
-        } else {
-            this.googleRequests = Integer.parseInt(workParam.getValue());
-        }
-    }
-
-    private void setKinopoiskRequests(List<WorkParam> workParamList) {
-        WorkParam workParam = getWorkParamByName(workParamList, KINOPOISK_REQUESTS);
-        if (workParam == null) {
-            this.kinopoiskRequests = 200;
-        } else {
-            this.kinopoiskRequests = Integer.parseInt(workParam.getValue());
-        }
-    }
-
-    private void setWolframRequests(List<WorkParam> workParamList) {
-        WorkParam workParam = getWorkParamByName(workParamList, WOLFRAM_REQUESTS);
-        if (workParam == null) {
-            this.wolframRequests = 1000;
-        } else {
-            this.wolframRequests = Integer.parseInt(workParam.getValue());
-        }
-    }
-
-    private void setRussianPostRequests(List<WorkParam> workParamList) {
-        WorkParam workParam = getWorkParamByName(workParamList, RUSSIAN_POST_REQUESTS);
-        if (workParam == null) {
-            this.russianPostRequests = 100;
-        } else {
-            this.russianPostRequests = Integer.parseInt(workParam.getValue());
-        }
-    }
-
-    private void setTotalRunningTime(List<WorkParam> workParamList) {
-        this.lastTotalRunningCheck = LocalDateTime.now();
-        WorkParam workParam = getWorkParamByName(workParamList, TOTAL_RUNNING_TIME);
-        if (workParam == null) {
-            this.totalRunningTime = getDuration(this.botStartDateTime, this.lastTotalRunningCheck).toMillis();
-        } else {
-            this.totalRunningTime = Long.parseLong(workParam.getValue());
-        }
+        metricsRegistry.set(BotMetric.LAST_TRACKS_UPDATE, lastTracksUpdate.toEpochMilli());
     }
 
     private WorkParam setWorkParamByName(List<WorkParam> workParamList, String name, String value) {
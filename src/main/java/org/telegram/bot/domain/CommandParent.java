@@ -10,6 +10,18 @@ public interface CommandParent<T extends PartialBotApiMethod<?>> {
 
     T parse(Update update);
 
+    /**
+     * Parse the update with data already resolved by the bot for this update.
+     * Commands that need User, Chat, access level or waiting state should override it instead of querying them again.
+     *
+     * @param update received update.
+     * @param updateContext context of received update.
+     * @return method to execute.
+     */
+    default T parse(Update update, UpdateContext updateContext) {
+        return parse(update);
+    }
+
     default Message getMessageFromUpdate(Update update) {
         if (update.hasMessage()) {
             return update.getMessage();
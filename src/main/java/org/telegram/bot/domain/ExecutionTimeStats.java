@@ -0,0 +1,41 @@
+package org.telegram.bot.domain;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number, average and max time of executions of something.
+ */
+public class ExecutionTimeStats {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final AtomicLong maxTime = new AtomicLong();
+
+    /**
+     * Register an execution.
+     *
+     * @param time time of execution in milliseconds.
+     */
+    public void register(long time) {
+        count.increment();
+        totalTime.add(time);
+        maxTime.accumulateAndGet(time, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getAverageTime() {
+        long executions = count.sum();
+        if (executions == 0) {
+            return 0;
+        }
+
+        return totalTime.sum() / executions;
+    }
+
+    public long getMaxTime() {
+        return maxTime.get();
+    }
+}
@@ -0,0 +1,94 @@
+package org.telegram.bot.domain;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies with fixed buckets and number of failed executions.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Upper bounds of buckets in milliseconds. Latencies above the last one fall into the implicit +Inf bucket.
+     */
+    public static final long[] BUCKET_BOUNDS_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MILLIS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Register an execution.
+     *
+     * @param nanos time of execution in nanoseconds.
+     * @param error true if execution is failed.
+     */
+    public void register(long nanos, boolean error) {
+        buckets[getBucketIndex(nanos)].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] bucketCounts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            bucketCounts[i] = buckets[i].sum();
+        }
+
+        return new Snapshot(bucketCounts, count.sum(), errors.sum(), totalNanos.sum(), maxNanos.get());
+    }
+
+    private static int getBucketIndex(long nanos) {
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            if (nanos <= TimeUnit.MILLISECONDS.toNanos(BUCKET_BOUNDS_MILLIS[i])) {
+                return i;
+            }
+        }
+
+        return BUCKET_BOUNDS_MILLIS.length;
+    }
+
+    /**
+     * Values of histogram taken at one moment.
+     */
+    @RequiredArgsConstructor
+    @Getter
+    public static class Snapshot {
+        /**
+         * Numbers of executions in buckets (not cumulative), the last one is +Inf bucket.
+         */
+        private final long[] bucketCounts;
+        private final long count;
+        private final long errors;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        public long getAverageMillis() {
+            if (count == 0) {
+                return 0;
+            }
+
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos / count);
+        }
+
+        public long getMaxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.telegram.bot.domain;
+
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.domain.enums.LatencyMetric;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free registry of bot metrics, per-command and per-chat counters and latency histograms.
+ * Maps of metrics are filled once in constructor, so they are safe to read from any thread.
+ */
+public class MetricsRegistry {
+    private final Map<BotMetric, AtomicLong> values = new EnumMap<>(BotMetric.class);
+    private final Map<BotMetric, LongAdder> increments = new EnumMap<>(BotMetric.class);
+    private final Map<String, LongAdder> commandCounters = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> chatCounters = new ConcurrentHashMap<>();
+    private final Map<LatencyMetric, Map<String, LatencyHistogram>> latencies = new EnumMap<>(LatencyMetric.class);
+
+    public MetricsRegistry() {
+        for (BotMetric metric : BotMetric.values()) {
+            values.put(metric, new AtomicLong(metric.getDefaultValue()));
+            increments.put(metric, new LongAdder());
+        }
+        for (LatencyMetric metric : LatencyMetric.values()) {
+            latencies.put(metric, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Set the value of metric. For counter it is the persisted total, to which the increments are added.
+     *
+     * @param metric metric.
+     * @param value new value.
+     */
+    public void set(BotMetric metric, long value) {
+        values.get(metric).set(value);
+    }
+
+    /**
+     * Add delta to the metric.
+     *
+     * @param metric metric.
+     * @param delta value to add.
+     */
+    public void add(BotMetric metric, long delta) {
+        if (BotMetric.Type.COUNTER.equals(metric.getType())) {
+            increments.get(metric).add(delta);
+        } else {
+            values.get(metric).addAndGet(delta);
+        }
+    }
+
+    public void increment(BotMetric metric) {
+        add(metric, 1);
+    }
+
+    public void incrementCommand(String commandName) {
+        commandCounters.computeIfAbsent(commandName, name -> new LongAdder()).increment();
+    }
+
+    public void incrementChat(Long chatId) {
+        chatCounters.computeIfAbsent(chatId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Register latency of execution.
+     *
+     * @param metric histogram family.
+     * @param label value of label of histogram (name of command, API...).
+     * @param nanos time of execution in nanoseconds.
+     * @param error true if execution is failed.
+     */
+    public void registerLatency(LatencyMetric metric, String label, long nanos, boolean error) {
+        latencies.get(metric).computeIfAbsent(label, key -> new LatencyHistogram()).register(nanos, error);
+    }
+
+    public long get(BotMetric metric) {
+        return values.get(metric).get() + increments.get(metric).sum();
+    }
+
+    /**
+     * Take values of all metrics. Session and total values of counter are taken from a single read,
+     * so they always agree with each other.
+     *
+     * @return snapshot of metrics.
+     */
+    public MetricsSnapshot snapshot() {
+        Map<BotMetric, Long> sessionValues = new EnumMap<>(BotMetric.class);
+        Map<BotMetric, Long> totalValues = new EnumMap<>(BotMetric.class);
+        for (BotMetric metric : BotMetric.values()) {
+            long value = values.get(metric).get();
+            if (BotMetric.Type.COUNTER.equals(metric.getType())) {
+                long increment = increments.get(metric).sum();
+                sessionValues.put(metric, increment);
+                totalValues.put(metric, value + increment);
+            } else {
+                sessionValues.put(metric, value);
+                totalValues.put(metric, value);
+            }
+        }
+
+        Map<String, Long> commands = new HashMap<>();
+        commandCounters.forEach((commandName, counter) -> commands.put(commandName, counter.sum()));
+        Map<Long, Long> chats = new HashMap<>();
+        chatCounters.forEach((chatId, counter) -> chats.put(chatId, counter.sum()));
+
+        Map<LatencyMetric, Map<String, LatencyHistogram.Snapshot>> latencySnapshots = new EnumMap<>(LatencyMetric.class);
+        latencies.forEach((metric, histograms) -> {
+            Map<String, LatencyHistogram.Snapshot> histogramSnapshots = new TreeMap<>();
+            histograms.forEach((label, histogram) -> histogramSnapshots.put(label, histogram.snapshot()));
+            latencySnapshots.put(metric, histogramSnapshots);
+        });
+
+        return new MetricsSnapshot(sessionValues, totalValues, commands, chats, latencySnapshots);
+    }
+}
@@ -0,0 +1,74 @@
+package org.telegram.bot.domain;
+
+import lombok.RequiredArgsConstructor;
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.domain.enums.LatencyMetric;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Values of metrics taken at one moment.
+ */
+@RequiredArgsConstructor
+public class MetricsSnapshot {
+    private final Map<BotMetric, Long> sessionValues;
+    private final Map<BotMetric, Long> totalValues;
+    private final Map<String, Long> commandCounts;
+    private final Map<Long, Long> chatCounts;
+    private final Map<LatencyMetric, Map<String, LatencyHistogram.Snapshot>> latencies;
+
+    /**
+     * Get the value of metric since start of bot. For gauge it is the current value.
+     *
+     * @param metric metric.
+     * @return value of metric.
+     */
+    public long getSessionValue(BotMetric metric) {
+        return sessionValues.get(metric);
+    }
+
+    /**
+     * Get the value of metric including the persisted one.
+     *
+     * @param metric metric.
+     * @return value of metric.
+     */
+    public long getTotalValue(BotMetric metric) {
+        return totalValues.get(metric);
+    }
+
+    public long getChatCount(Long chatId) {
+        return chatCounts.getOrDefault(chatId, 0L);
+    }
+
+    /**
+     * Get latency histograms of the family.
+     *
+     * @param metric histogram family.
+     * @return histograms by values of label, sorted by label.
+     */
+    public Map<String, LatencyHistogram.Snapshot> getLatencies(LatencyMetric metric) {
+        return Collections.unmodifiableMap(latencies.get(metric));
+    }
+
+    public Map<String, Long> getCommandCounts() {
+        return Collections.unmodifiableMap(commandCounts);
+    }
+
+    /**
+     * Get the most used commands.
+     *
+     * @param limit max number of commands.
+     * @return names of commands with number of processings, most used first.
+     */
+    public Map<String, Long> getTopCommands(int limit) {
+        return commandCounts.entrySet()
+                .stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first, LinkedHashMap::new));
+    }
+}
@@ -0,0 +1,56 @@
+package org.telegram.bot.domain;
+
+import lombok.Getter;
+import org.telegram.bot.utils.TextUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Result of compaction of talker corpus.
+ */
+@Getter
+public class TalkerCompactionReport {
+    private int hashedPhrases;
+    private int mergedPhrases;
+    private int prunedPhrases;
+    private int deletedPairs;
+    private int deletedWords;
+    private long reclaimedBytes;
+    private final Set<Long> affectedChatIds = new HashSet<>();
+
+    public void addHashedPhrases(int count) {
+        hashedPhrases = hashedPhrases + count;
+    }
+
+    public void addMergedPhrase(Long chatId, long bytes) {
+        mergedPhrases++;
+        reclaimedBytes = reclaimedBytes + bytes;
+        affectedChatIds.add(chatId);
+    }
+
+    public void addPrunedPhrase(Long chatId, long bytes) {
+        prunedPhrases++;
+        reclaimedBytes = reclaimedBytes + bytes;
+        affectedChatIds.add(chatId);
+    }
+
+    public void addDeletedPairs(int count) {
+        deletedPairs = deletedPairs + count;
+    }
+
+    public void addDeletedWords(int count, long bytes) {
+        deletedWords = deletedWords + count;
+        reclaimedBytes = reclaimedBytes + bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "hashed phrases: " + hashedPhrases
+                + ", merged phrases: " + mergedPhrases
+                + ", pruned phrases: " + prunedPhrases
+                + ", deleted pairs: " + deletedPairs
+                + ", deleted words: " + deletedWords
+                + ", reclaimed text: " + TextUtils.formatFileSize(reclaimedBytes);
+    }
+}
@@ -0,0 +1,137 @@
+package org.telegram.bot.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Inverted index of talker of one chat: from word to the phrases, which were said in reply to it.
+ * Phrases are numbered inside of the index, postings are kept as growing sorted arrays of these numbers.
+ * Thread-safe.
+ */
+public class TalkerIndex {
+
+    private static final int INITIAL_POSTINGS_CAPACITY = 4;
+
+    private final Map<Long, Integer> phraseNumbers = new HashMap<>();
+    private final List<String> phrases = new ArrayList<>();
+    private final Map<String, Postings> postingsByWord = new HashMap<>();
+
+    /**
+     * Add pair of word and phrase to the index. Repeated pair is ignored.
+     *
+     * @param word word of replied message.
+     * @param phraseId id of phrase.
+     * @param phrase text of phrase.
+     */
+    public synchronized void add(String word, Long phraseId, String phrase) {
+        Integer phraseNumber = phraseNumbers.get(phraseId);
+        if (phraseNumber == null) {
+            phraseNumber = phrases.size();
+            phrases.add(phrase);
+            phraseNumbers.put(phraseId, phraseNumber);
+        }
+
+        postingsByWord.computeIfAbsent(word.toLowerCase(Locale.ROOT), key -> new Postings()).add(phraseNumber);
+    }
+
+    /**
+     * Rate phrases by the number of words of text they were said in reply to.
+     *
+     * @param words words of text.
+     * @param phraseFilter filter of phrases.
+     * @return rating of phrases by their texts.
+     */
+    public Map<String, Integer> rate(Collection<String> words, Predicate<String> phraseFilter) {
+        int[] matched;
+        synchronized (this) {
+            List<Postings> postingsList = new ArrayList<>();
+            int size = 0;
+            for (String word : new LinkedHashSet<>(lowerCase(words))) {
+                Postings postings = postingsByWord.get(word);
+                if (postings != null) {
+                    postingsList.add(postings);
+                    size = size + postings.size;
+                }
+            }
+
+            matched = new int[size];
+            int position = 0;
+            for (Postings postings : postingsList) {
+                System.arraycopy(postings.phraseNumbers, 0, matched, position, postings.size);
+                position = position + postings.size;
+            }
+        }
+        Arrays.sort(matched);
+
+        Map<String, Integer> rating = new HashMap<>();
+        int i = 0;
+        while (i < matched.length) {
+            int phraseNumber = matched[i];
+            int count = 0;
+            while (i < matched.length && matched[i] == phraseNumber) {
+                count++;
+                i++;
+            }
+
+            String phrase = getPhrase(phraseNumber);
+            if (phraseFilter.test(phrase)) {
+                rating.merge(phrase, count, Math::max);
+            }
+        }
+
+        return rating;
+    }
+
+    public synchronized int getPhrasesCount() {
+        return phrases.size();
+    }
+
+    public synchronized int getWordsCount() {
+        return postingsByWord.size();
+    }
+
+    private synchronized String getPhrase(int phraseNumber) {
+        return phrases.get(phraseNumber);
+    }
+
+    private static List<String> lowerCase(Collection<String> words) {
+        List<String> result = new ArrayList<>(words.size());
+        words.forEach(word -> result.add(word.toLowerCase(Locale.ROOT)));
+        return result;
+    }
+
+    private static class Postings {
+        private int[] phraseNumbers = new int[INITIAL_POSTINGS_CAPACITY];
+        private int size;
+
+        /**
+         * Add number of phrase, keeping the numbers sorted. New phrases have the greatest numbers, so usually it is appended.
+         *
+         * @param phraseNumber number of phrase.
+         */
+        private void add(int phraseNumber) {
+            int position = size;
+            if (size > 0 && phraseNumbers[size - 1] >= phraseNumber) {
+                position = Arrays.binarySearch(phraseNumbers, 0, size, phraseNumber);
+                if (position >= 0) {
+                    return;
+                }
+                position = -position - 1;
+            }
+
+            if (size == phraseNumbers.length) {
+                phraseNumbers = Arrays.copyOf(phraseNumbers, size * 2);
+            }
+            System.arraycopy(phraseNumbers, position, phraseNumbers, position + 1, size - position);
+            phraseNumbers[position] = phraseNumber;
+            size++;
+        }
+    }
+}
@@ -1,23 +1,30 @@
 package org.telegram.bot.domain;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.telegram.bot.domain.enums.AnalyzerRequirement;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
-public interface TextAnalyzer {
-    void analyze(CommandParent<?> command, Update update);
+import java.util.EnumSet;
+import java.util.Set;
 
-    default Update copyUpdate(Update update) {
-        Update newUpdate = null;
+public interface TextAnalyzer {
+    void analyze(CommandParent<?> command, Update update, UpdateContext updateContext);
 
-        ObjectMapper mapper = new ObjectMapper();
-        try {
-            String json = mapper.writeValueAsString(update);
-            newUpdate = mapper.readValue(json, Update.class);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-        }
+    /**
+     * Get what an update must contain to be analyzed. Other updates skip the analyzer.
+     *
+     * @return requirements, all of them must be satisfied.
+     */
+    default Set<AnalyzerRequirement> getRequirements() {
+        return EnumSet.noneOf(AnalyzerRequirement.class);
+    }
 
-        return newUpdate;
+    /**
+     * Check if the analyzer dispatches commands itself. Such analyzers are run before the command of update,
+     * so their commands are queued in the same order as the update is received.
+     *
+     * @return true if the analyzer dispatches commands.
+     */
+    default boolean isDispatchingCommands() {
+        return false;
     }
 }
@@ -0,0 +1,168 @@
+package org.telegram.bot.domain;
+
+import lombok.Getter;
+import org.telegram.bot.domain.entities.Chat;
+import org.telegram.bot.domain.entities.CommandWaiting;
+import org.telegram.bot.domain.entities.LastCommand;
+import org.telegram.bot.domain.entities.User;
+import org.telegram.bot.domain.enums.AccessLevel;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Data of the received update, resolved once and shared by analyzers and commands.
+ * Entities are loaded lazily on first access, every load is counted as a query.
+ */
+@Getter
+public class UpdateContext {
+    private final Update update;
+    private final Message message;
+    private final org.telegram.telegrambots.meta.api.objects.User telegramUser;
+    private final String textOfMessage;
+    private final boolean editedMessage;
+    private final Long chatId;
+    private final Long userId;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final AtomicInteger queriesCount = new AtomicInteger();
+    @Getter(lombok.AccessLevel.NONE)
+    private final LazyValue<User> user;
+    @Getter(lombok.AccessLevel.NONE)
+    private final LazyValue<Chat> chat;
+    @Getter(lombok.AccessLevel.NONE)
+    private final LazyValue<CommandWaiting> commandWaiting;
+    @Getter(lombok.AccessLevel.NONE)
+    private final LazyValue<LastCommand> lastCommand;
+
+    public UpdateContext(Update update,
+                         Message message,
+                         org.telegram.telegrambots.meta.api.objects.User telegramUser,
+                         String textOfMessage,
+                         boolean editedMessage,
+                         Supplier<User> userLoader,
+                         Supplier<Chat> chatLoader,
+                         Supplier<CommandWaiting> commandWaitingLoader,
+                         Supplier<LastCommand> lastCommandLoader) {
+        this.update = update;
+        this.message = message;
+        this.telegramUser = telegramUser;
+        this.textOfMessage = textOfMessage;
+        this.editedMessage = editedMessage;
+        this.chatId = message.getChatId();
+        this.userId = telegramUser.getId();
+        this.user = new LazyValue<>(userLoader);
+        this.chat = new LazyValue<>(chatLoader);
+        this.commandWaiting = new LazyValue<>(commandWaitingLoader);
+        this.lastCommand = new LazyValue<>(lastCommandLoader);
+    }
+
+    /**
+     * Get the User entity of update sender.
+     *
+     * @return the persisted entity or null if user is unknown yet.
+     */
+    public User getUser() {
+        return user.get();
+    }
+
+    public void setUser(User user) {
+        this.user.set(user);
+    }
+
+    /**
+     * Get the Chat entity of update.
+     *
+     * @return the persisted entity.
+     */
+    public Chat getChat() {
+        return chat.get();
+    }
+
+    public void setChat(Chat chat) {
+        this.chat.set(chat);
+    }
+
+    /**
+     * Get the waiting command of user in chat.
+     *
+     * @return the persisted entity or null.
+     */
+    public CommandWaiting getCommandWaiting() {
+        return commandWaiting.get();
+    }
+
+    /**
+     * Get the last command of chat.
+     *
+     * @return the persisted entity or null.
+     */
+    public LastCommand getLastCommand() {
+        return lastCommand.get();
+    }
+
+    public void setLastCommand(LastCommand lastCommand) {
+        this.lastCommand.set(lastCommand);
+    }
+
+    /**
+     * Get the current access level of user based on user and chat levels.
+     *
+     * @return the highest of access levels or BANNED.
+     */
+    public AccessLevel getAccessLevel() {
+        User userEntity = getUser();
+        Integer userLevel = userEntity == null || userEntity.getAccessLevel() == null ? AccessLevel.NEWCOMER.getValue() : userEntity.getAccessLevel();
+        if (userLevel < 0) {
+            return AccessLevel.BANNED;
+        }
+
+        Chat chatEntity = getChat();
+        Integer chatLevel = chatEntity == null || chatEntity.getAccessLevel() == null ? AccessLevel.NEWCOMER.getValue() : chatEntity.getAccessLevel();
+
+        return AccessLevel.getUserLevelByValue(Math.max(userLevel, chatLevel));
+    }
+
+    /**
+     * Get the number of queries made to load data of this update.
+     *
+     * @return number of queries.
+     */
+    public int getQueriesCount() {
+        return queriesCount.get();
+    }
+
+    /**
+     * Register a query made for this update outside of context.
+     */
+    public void registerQuery() {
+        queriesCount.incrementAndGet();
+    }
+
+    private final class LazyValue<T> {
+        private final Supplier<T> loader;
+        private boolean loaded;
+        private T value;
+
+        private LazyValue(Supplier<T> loader) {
+            this.loader = loader;
+        }
+
+        private synchronized T get() {
+            if (!loaded) {
+                value = loader.get();
+                loaded = true;
+                queriesCount.incrementAndGet();
+            }
+
+            return value;
+        }
+
+        private synchronized void set(T value) {
+            this.value = value;
+            this.loaded = true;
+        }
+    }
+}
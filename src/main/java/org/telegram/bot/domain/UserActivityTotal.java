@@ -0,0 +1,14 @@
+package org.telegram.bot.domain;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sum of counter of user activity for a period.
+ */
+@RequiredArgsConstructor
+@Getter
+public class UserActivityTotal {
+    private final Long userId;
+    private final long value;
+}
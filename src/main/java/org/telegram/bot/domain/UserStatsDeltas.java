@@ -0,0 +1,171 @@
+package org.telegram.bot.domain;
+
+import lombok.Getter;
+import org.telegram.bot.domain.enums.UserStatsCounter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Not yet persisted changes of UserStats, accumulated per chat and user.
+ * Every delta is changed only inside of atomic operations of map, so a drained delta is not changed anymore.
+ */
+public class UserStatsDeltas {
+
+    private final Map<Key, Delta> deltas = new ConcurrentHashMap<>();
+
+    /**
+     * Add value to the counter of user in chat.
+     *
+     * @param chatId id of chat.
+     * @param userId id of user.
+     * @param counter counter of UserStats.
+     * @param value value to add.
+     */
+    public void add(Long chatId, Long userId, UserStatsCounter counter, int value) {
+        deltas.compute(new Key(chatId, userId), (key, delta) -> {
+            if (delta == null) {
+                delta = new Delta(key.chatId, key.userId);
+            }
+            delta.values[counter.ordinal()] += value;
+            return delta;
+        });
+    }
+
+    /**
+     * Set the last message of user in chat.
+     *
+     * @param chatId id of chat.
+     * @param userId id of user.
+     * @param messageId id of message.
+     * @param text text of message.
+     * @param date date of message.
+     */
+    public void setLastMessage(Long chatId, Long userId, Integer messageId, String text, LocalDateTime date) {
+        deltas.compute(new Key(chatId, userId), (key, delta) -> {
+            if (delta == null) {
+                delta = new Delta(key.chatId, key.userId);
+            }
+            delta.lastMessageId = messageId;
+            delta.lastMessageText = text;
+            delta.lastMessageDate = date;
+            return delta;
+        });
+    }
+
+    /**
+     * Remove all accumulated deltas.
+     *
+     * @return removed deltas.
+     */
+    public List<Delta> drain() {
+        List<Delta> drained = new ArrayList<>(deltas.size());
+        for (Key key : deltas.keySet()) {
+            Delta delta = deltas.remove(key);
+            if (delta != null) {
+                drained.add(delta);
+            }
+        }
+
+        return drained;
+    }
+
+    /**
+     * Return deltas, which were failed to persist. Deltas accumulated since draining are considered as newer.
+     *
+     * @param drained drained deltas.
+     */
+    public void restore(List<Delta> drained) {
+        drained.forEach(delta -> deltas.merge(new Key(delta.chatId, delta.userId), delta, (newer, failed) -> failed.mergeNewer(newer)));
+    }
+
+    /**
+     * Return deltas, which can not be persisted yet, to retry them with the next flush.
+     *
+     * @param drained drained deltas.
+     * @param dateTime date of postponing.
+     */
+    public void postpone(List<Delta> drained, LocalDateTime dateTime) {
+        drained.forEach(delta -> {
+            if (delta.postponedSince == null) {
+                delta.postponedSince = dateTime;
+            }
+        });
+        restore(drained);
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    public static class Delta {
+        @Getter
+        private final Long chatId;
+        @Getter
+        private final Long userId;
+        private final long[] values = new long[UserStatsCounter.values().length];
+        @Getter
+        private Integer lastMessageId;
+        @Getter
+        private String lastMessageText;
+        @Getter
+        private LocalDateTime lastMessageDate;
+        @Getter
+        private LocalDateTime postponedSince;
+
+        private Delta(Long chatId, Long userId) {
+            this.chatId = chatId;
+            this.userId = userId;
+        }
+
+        public long get(UserStatsCounter counter) {
+            return values[counter.ordinal()];
+        }
+
+        public boolean hasLastMessage() {
+            return lastMessageDate != null;
+        }
+
+        private Delta mergeNewer(Delta newer) {
+            Delta merged = new Delta(chatId, userId);
+            for (int i = 0; i < values.length; i++) {
+                merged.values[i] = values[i] + newer.values[i];
+            }
+
+            Delta lastMessageSource = newer.hasLastMessage() ? newer : this;
+            merged.lastMessageId = lastMessageSource.lastMessageId;
+            merged.lastMessageText = lastMessageSource.lastMessageText;
+            merged.lastMessageDate = lastMessageSource.lastMessageDate;
+            merged.postponedSince = postponedSince;
+
+            return merged;
+        }
+    }
+
+    private static class Key {
+        private final Long chatId;
+        private final Long userId;
+
+        private Key(Long chatId, Long userId) {
+            this.chatId = chatId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return chatId.equals(key.chatId) && userId.equals(key.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(chatId, userId);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.telegram.bot.domain;
+
+import org.telegram.bot.domain.enums.UserStatsCounter;
+import org.telegram.bot.domain.enums.UserStatsPeriod;
+import org.telegram.bot.utils.RankedScores;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Ranking of users of chats for every counter and period of UserStats.
+ * Leaderboards of chat are kept since the chat is loaded until it is invalidated.
+ * Not thread-safe, access must be guarded by the owner together with writing of UserStats.
+ */
+public class UserStatsLeaderboards {
+
+    private static final UserStatsCounter[] COUNTERS = UserStatsCounter.values();
+    private static final UserStatsPeriod[] PERIODS = UserStatsPeriod.values();
+
+    private final Map<Long, RankedScores[]> leaderboardsByChat = new HashMap<>();
+
+    public boolean isLoaded(Long chatId) {
+        return leaderboardsByChat.containsKey(chatId);
+    }
+
+    /**
+     * Mark chat as loaded, so its leaderboards will be changed by deltas.
+     *
+     * @param chatId id of chat.
+     */
+    public void load(Long chatId) {
+        leaderboardsByChat.computeIfAbsent(chatId, key -> createLeaderboards());
+    }
+
+    /**
+     * Set value of counter of user in loaded chat.
+     *
+     * @param chatId id of chat.
+     * @param userId id of user.
+     * @param counter counter of UserStats.
+     * @param period period of counter.
+     * @param value value of counter.
+     */
+    public void set(Long chatId, Long userId, UserStatsCounter counter, UserStatsPeriod period, long value) {
+        leaderboardsByChat.computeIfAbsent(chatId, key -> createLeaderboards())[getIndex(counter, period)].set(userId, value);
+    }
+
+    /**
+     * Apply persisted changes of UserStats to the loaded chats.
+     *
+     * @param deltas persisted changes.
+     */
+    public void add(List<UserStatsDeltas.Delta> deltas) {
+        for (UserStatsDeltas.Delta delta : deltas) {
+            RankedScores[] leaderboards = leaderboardsByChat.get(delta.getChatId());
+            if (leaderboards == null) {
+                continue;
+            }
+
+            for (UserStatsCounter counter : COUNTERS) {
+                long value = delta.get(counter);
+                if (value != 0) {
+                    for (UserStatsPeriod period : PERIODS) {
+                        leaderboards[getIndex(counter, period)].add(delta.getUserId(), value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reset counters of period.
+     *
+     * @param period period of counters.
+     * @param chatIdFilter filter of chats to reset.
+     */
+    public void clear(UserStatsPeriod period, Predicate<Long> chatIdFilter) {
+        leaderboardsByChat.forEach((chatId, leaderboards) -> {
+            if (chatIdFilter.test(chatId)) {
+                for (UserStatsCounter counter : COUNTERS) {
+                    leaderboards[getIndex(counter, period)] = new RankedScores();
+                }
+            }
+        });
+    }
+
+    public void invalidate(Long chatId) {
+        leaderboardsByChat.remove(chatId);
+    }
+
+    /**
+     * Get users of loaded chat with the largest non-zero values of counter.
+     *
+     * @param chatId id of chat.
+     * @param counter counter of UserStats.
+     * @param period period of counter.
+     * @param limit max number of users.
+     * @return values of counter ordered by descending.
+     */
+    public List<UserActivityTotal> getTop(Long chatId, UserStatsCounter counter, UserStatsPeriod period, int limit) {
+        RankedScores leaderboard = leaderboardsByChat.get(chatId)[getIndex(counter, period)];
+        return leaderboard.getTop(limit, score -> score != 0)
+                .stream()
+                .map(userId -> new UserActivityTotal(userId, leaderboard.getScore(userId)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get position of user in loaded chat.
+     *
+     * @param chatId id of chat.
+     * @param userId id of user.
+     * @param counter counter of UserStats.
+     * @param period period of counter.
+     * @return position starting from 1 or 0 if user is absent.
+     */
+    public int getRank(Long chatId, Long userId, UserStatsCounter counter, UserStatsPeriod period) {
+        return leaderboardsByChat.get(chatId)[getIndex(counter, period)].getRank(userId);
+    }
+
+    private static RankedScores[] createLeaderboards() {
+        RankedScores[] leaderboards = new RankedScores[COUNTERS.length * PERIODS.length];
+        for (int i = 0; i < leaderboards.length; i++) {
+            leaderboards[i] = new RankedScores();
+        }
+
+        return leaderboards;
+    }
+
+    private static int getIndex(UserStatsCounter counter, UserStatsPeriod period) {
+        return counter.ordinal() * PERIODS.length + period.ordinal();
+    }
+}
@@ -2,32 +2,36 @@ package org.telegram.bot.domain.commands;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.CommandParent;
 import org.telegram.bot.domain.TextAnalyzer;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.domain.enums.AnalyzerRequirement;
 import org.telegram.bot.domain.entities.Chat;
 import org.telegram.bot.domain.entities.CommandProperties;
 import org.telegram.bot.domain.entities.User;
 import org.telegram.bot.services.AliasService;
 import org.telegram.bot.services.CommandPropertiesService;
-import org.telegram.bot.services.UserService;
+import org.telegram.bot.services.PermissionService;
 import org.telegram.bot.services.UserStatsService;
+import org.telegram.bot.utils.UpdateRewriter;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class Alias implements CommandParent<SendMessage>, TextAnalyzer {
 
-    private final ApplicationContext context;
     private final Bot bot;
 
     private final AliasService aliasService;
-    private final UserService userService;
+    private final PermissionService permissionService;
     private final UserStatsService userStatsService;
     private final CommandPropertiesService commandPropertiesService;
 
@@ -65,7 +69,17 @@ public class Alias implements CommandParent<SendMessage>, TextAnalyzer {
     }
 
     @Override
-    public void analyze(CommandParent<?> command, Update update) {
+    public Set<AnalyzerRequirement> getRequirements() {
+        return EnumSet.of(AnalyzerRequirement.TEXT);
+    }
+
+    @Override
+    public boolean isDispatchingCommands() {
+        return true;
+    }
+
+    @Override
+    public void analyze(CommandParent<?> command, Update update, UpdateContext updateContext) {
         Message message = getMessageFromUpdate(update);
         Chat chat = new Chat().setChatId(message.getChatId());
         User user = new User().setUserId(message.getFrom().getId());
@@ -74,21 +88,14 @@ public class Alias implements CommandParent<SendMessage>, TextAnalyzer {
         org.telegram.bot.domain.entities.Alias alias = aliasService.get(chat, user, message.getText());
 
         if (alias != null) {
-            Update newUpdate = copyUpdate(update);
-            if (newUpdate == null) {
-                log.error("Failed to get a copy of update");
-                return;
-            }
-
             String aliasValue = alias.getValue();
-            Message newMessage = getMessageFromUpdate(newUpdate);
-            newMessage.setText(aliasValue);
+            Update newUpdate = UpdateRewriter.rewriteText(update, aliasValue);
             CommandProperties commandProperties = commandPropertiesService.findCommandInText(aliasValue, bot.getBotUsername());
 
             if (commandProperties != null) {
-                if (userService.isUserHaveAccessForCommand(userService.getCurrentAccessLevel(user.getUserId(), chat.getChatId()).getValue(), commandProperties.getAccessLevel())) {
+                if (permissionService.isCommandAllowed(user.getUserId(), chat.getChatId(), commandProperties)) {
                     userStatsService.incrementUserStatsCommands(chat, user);
-                    bot.parseAsync(newUpdate, (CommandParent<?>) context.getBean(commandProperties.getClassName()));
+                    bot.parseAsync(newUpdate, commandPropertiesService.getCommandInstance(commandProperties), updateContext, commandProperties.getPriority());
                 }
             }
             log.debug("The alias found is not a command");
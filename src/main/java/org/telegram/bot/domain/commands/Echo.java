@@ -4,18 +4,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
+import org.telegram.bot.Parser;
 import org.telegram.bot.domain.CommandParent;
 import org.telegram.bot.domain.TextAnalyzer;
-import org.telegram.bot.domain.entities.Chat;
-import org.telegram.bot.domain.entities.TalkerPhrase;
-import org.telegram.bot.domain.entities.TalkerWord;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.domain.enums.AnalyzerRequirement;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.services.CommandPropertiesService;
 import org.telegram.bot.services.SpeechService;
 import org.telegram.bot.services.TalkerDegreeService;
-import org.telegram.bot.services.TalkerPhraseService;
-import org.telegram.bot.services.TalkerWordService;
+import org.telegram.bot.services.TalkerIndexService;
+import org.telegram.bot.services.TalkerLearningService;
 import org.telegram.bot.utils.MathUtils;
+import org.telegram.bot.utils.UpdateRewriter;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
@@ -33,10 +34,10 @@ public class Echo implements CommandParent<SendMessage>, TextAnalyzer {
 
     private final Bot bot;
     private final SpeechService speechService;
-    private final TalkerWordService talkerWordService;
-    private final TalkerPhraseService talkerPhraseService;
     private final CommandPropertiesService commandPropertiesService;
     private final TalkerDegreeService talkerDegreeService;
+    private final TalkerIndexService talkerIndexService;
+    private final TalkerLearningService talkerLearningService;
 
     private static final Pattern WORDS_PATTERN = Pattern.compile("[а-яА-Я]{3,}", Pattern.UNICODE_CHARACTER_CLASS);
     private static final Pattern PHRASES_PATTERN = Pattern.compile("([^.!?),]+[.!?]?)", Pattern.UNICODE_CHARACTER_CLASS);
@@ -62,7 +63,12 @@ public class Echo implements CommandParent<SendMessage>, TextAnalyzer {
     }
 
     @Override
-    public void analyze(CommandParent<?> command, Update update) {
+    public Set<AnalyzerRequirement> getRequirements() {
+        return EnumSet.of(AnalyzerRequirement.TEXT);
+    }
+
+    @Override
+    public void analyze(CommandParent<?> command, Update update, UpdateContext updateContext) {
         if (update.hasCallbackQuery()) {
             return;
         }
@@ -75,6 +81,8 @@ public class Echo implements CommandParent<SendMessage>, TextAnalyzer {
         parseTalkerData(message);
 
         boolean sendMessage = false;
+        // random replies are low-value and are the first to be dropped under load
+        int priority = Parser.DEFAULT_PRIORITY;
         Message replyToMessage = message.getReplyToMessage();
         String botUsername = bot.getBotUsername();
 
@@ -89,19 +97,14 @@ public class Echo implements CommandParent<SendMessage>, TextAnalyzer {
             Integer degree = talkerDegreeService.get(message.getChatId()).getDegree();
             if (MathUtils.getRandomInRange(1, 100) <= degree) {
                 sendMessage = true;
+                priority = Parser.LOW_PRIORITY;
             }
         }
 
         if (sendMessage) {
-            bot.sendTyping(message.getChatId());
             String commandName = commandPropertiesService.getCommand(this.getClass()).getCommandName();
-            Update newUpdate = copyUpdate(update);
-
-            if (newUpdate == null) {
-                return;
-            }
-            newUpdate.getMessage().setText(commandName + " " + textMessage);
-            bot.parseAsync(newUpdate, command);
+            Update newUpdate = UpdateRewriter.rewriteText(update, commandName + " " + textMessage);
+            bot.parseAsync(newUpdate, command, updateContext, priority);
         }
     }
 
@@ -110,13 +113,7 @@ public class Echo implements CommandParent<SendMessage>, TextAnalyzer {
             return null;
         }
 
-        return getReply(talkerWordService.get(getWordsFromText(text), chatId)
-                .stream()
-                .map(TalkerWord::getPhrases)
-                .flatMap(Collection::stream)
-                .filter(talkerPhrase -> chatId.equals(talkerPhrase.getChat().getChatId()))
-                .filter(talkerPhrase -> talkerPhrase.getPhrase().contains("?"))
-                .collect(Collectors.toSet()));
+        return getReply(talkerIndexService.ratePhrases(chatId, getWordsFromText(text), phrase -> phrase.contains("?")));
     }
 
     private String getReplyForText(String text, Long chatId) {
@@ -124,25 +121,10 @@ public class Echo implements CommandParent<SendMessage>, TextAnalyzer {
             return null;
         }
 
-        return getReply(talkerWordService.get(getWordsFromText(text), chatId)
-                .stream()
-                .map(TalkerWord::getPhrases)
-                .flatMap(Collection::stream)
-                .filter(talkerPhrase -> chatId.equals(talkerPhrase.getChat().getChatId()))
-                .collect(Collectors.toSet()));
+        return getReply(talkerIndexService.ratePhrases(chatId, getWordsFromText(text), phrase -> true));
     }
 
-    private String getReply(Set<TalkerPhrase> talkerPhraseSet) {
-        Map<String, Integer> phrasesRating = new HashMap<>();
-        talkerPhraseSet.forEach(talkerPhrase -> {
-            String phrase = talkerPhrase.getPhrase();
-            if (phrasesRating.containsKey(phrase)) {
-                phrasesRating.put(phrase, phrasesRating.get(phrase) + 1);
-            } else {
-                phrasesRating.put(phrase, 1);
-            }
-        });
-
+    private String getReply(Map<String, Integer> phrasesRating) {
         String selectedPhrase = null;
         Integer maxValue = phrasesRating.values().stream().max(Integer::compareTo).orElse(null);
         if (maxValue != null) {
@@ -184,20 +166,7 @@ public class Echo implements CommandParent<SendMessage>, TextAnalyzer {
             return;
         }
 
-        Chat chat = new Chat().setChatId(message.getChatId());
-        List<TalkerPhrase> storedTalkerPhraseList = talkerPhraseService.save(
-                phrases
-                        .stream()
-                        .map(phrase -> new TalkerPhrase()
-                                .setPhrase(phrase)
-                                .setChat(chat))
-                        .collect(Collectors.toSet()),
-                chat);
-
-        talkerWordService.save(words
-                .stream()
-                .map(word -> new TalkerWord().setWord(word).setPhrases(new HashSet<>(storedTalkerPhraseList)))
-                .collect(Collectors.toSet()));
+        talkerLearningService.learn(message.getChatId(), words, phrases);
     }
 
     private List<String> getWordsFromText(String text) {
@@ -74,9 +74,17 @@ public class Errors implements CommandParent<PartialBotApiMethod<?>> {
             log.debug("Request to get list of errors");
 
             StringBuilder buf = new StringBuilder("<b>Список ошибок:</b>\n");
-            errorService.getAll().forEach(error ->
-                    buf.append(DateUtils.formatDateTime(error.getDateTime())).append(" — ").append(error.getComment())
-                            .append(" /errors_").append(error.getId()).append("\n"));
+            errorService.getAll().forEach(error -> {
+                buf.append(DateUtils.formatDateTime(error.getDateTime())).append(" — ").append(error.getComment());
+                if (error.getOccurrences() != null && error.getOccurrences() > 1) {
+                    buf.append(" (<b>").append(error.getOccurrences()).append("</b> раз");
+                    if (error.getFirstDateTime() != null) {
+                        buf.append(", впервые ").append(DateUtils.formatDateTime(error.getFirstDateTime()));
+                    }
+                    buf.append(")");
+                }
+                buf.append(" /errors_").append(error.getId()).append("\n");
+            });
             buf.append("\nОчистить — /errors" + CLEAR_ERRORS_COMMAND);
 
             responseText = buf.toString();
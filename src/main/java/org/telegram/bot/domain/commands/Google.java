@@ -13,15 +13,16 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.telegram.bot.Bot;
-import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.CommandParent;
 import org.telegram.bot.domain.entities.GoogleSearchResult;
 import org.telegram.bot.domain.entities.ImageUrl;
+import org.telegram.bot.domain.enums.ApiQuota;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.CommandWaitingService;
 import org.telegram.bot.services.GoogleSearchResultService;
 import org.telegram.bot.services.ImageUrlService;
+import org.telegram.bot.services.QuotaService;
 import org.telegram.bot.services.SpeechService;
 import org.telegram.bot.services.config.PropertiesConfig;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
@@ -49,7 +50,7 @@ public class Google implements CommandParent<PartialBotApiMethod<?>> {
     private final GoogleSearchResultService googleSearchResultService;
     private final CommandWaitingService commandWaitingService;
     private final RestTemplate botRestTemplate;
-    private final BotStats botStats;
+    private final QuotaService quotaService;
 
     @Override
     public PartialBotApiMethod<?> parse(Update update) {
@@ -104,7 +105,7 @@ public class Google implements CommandParent<PartialBotApiMethod<?>> {
         } else {
             bot.sendTyping(message.getChatId());
             log.debug("Request to get google results for: {}", textMessage);
-            GoogleSearchData googleSearchData = getResultOfSearch(textMessage, token);
+            GoogleSearchData googleSearchData = getResultOfSearch(textMessage, token, message.getFrom().getId());
 
             if (googleSearchData.getItems() == null) {
                 throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.FOUND_NOTHING));
@@ -160,20 +161,21 @@ public class Google implements CommandParent<PartialBotApiMethod<?>> {
      *
      * @param requestText search text.
      * @param googleToken service access token.
+     * @param userId id of user who requested the search.
      * @return google search data.
      */
-    private GoogleSearchData getResultOfSearch(String requestText, String googleToken) {
+    private GoogleSearchData getResultOfSearch(String requestText, String googleToken, Long userId) {
         ResponseEntity<GoogleSearchData> response;
 
+        quotaService.reserve(ApiQuota.GOOGLE, userId);
         try {
             response = botRestTemplate.getForEntity(GOOGLE_URL + "key=" + googleToken + "&q=" + requestText, GoogleSearchData.class);
         } catch (RestClientException e) {
             log.error("Error receiving result of searching: ", e);
+            quotaService.release(ApiQuota.GOOGLE, userId);
             throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.NO_RESPONSE));
         }
 
-        botStats.incrementGoogleRequests();
-
         return response.getBody();
     }
 
@@ -10,9 +10,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.telegram.bot.Bot;
-import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.CommandParent;
 import org.telegram.bot.domain.entities.ImageUrl;
+import org.telegram.bot.domain.enums.ApiQuota;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.*;
@@ -46,7 +46,7 @@ public class GooglePics implements CommandParent<PartialBotApiMethod<?>> {
     private final ImageUrlService imageUrlService;
     private final CommandWaitingService commandWaitingService;
     private final RestTemplate botRestTemplate;
-    private final BotStats botStats;
+    private final QuotaService quotaService;
     private final NetworkUtils networkUtils;
 
     @Override
@@ -105,7 +105,7 @@ public class GooglePics implements CommandParent<PartialBotApiMethod<?>> {
             log.debug("Request to search images for {}", textMessage);
             List<InputMedia> images = new ArrayList<>();
 
-            searchImagesOnGoogle(textMessage)
+            searchImagesOnGoogle(textMessage, message.getFrom().getId())
                     .forEach(imageUrl -> {
                         InputMediaPhoto inputMediaPhoto = new InputMediaPhoto();
                         inputMediaPhoto.setMedia(imageUrl.getUrl());
@@ -127,25 +127,26 @@ public class GooglePics implements CommandParent<PartialBotApiMethod<?>> {
      * Searching images in Google by text.
      *
      * @param text search text.
+     * @param userId id of user who requested the search.
      * @return list of ImageUrl entities.
      * @see ImageUrl
      */
-    public List<ImageUrl> searchImagesOnGoogle(String text) {
+    public List<ImageUrl> searchImagesOnGoogle(String text, Long userId) {
         String googleToken = propertiesConfig.getGoogleToken();
         if (googleToken == null || googleToken.equals("")) {
             throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.UNABLE_TO_FIND_TOKEN));
         }
 
         ResponseEntity<GooglePicsSearchData> response;
+        quotaService.reserve(ApiQuota.GOOGLE, userId);
         try {
             response = botRestTemplate.getForEntity(GOOGLE_URL + "key=" + googleToken + "&q=" + text, GooglePicsSearchData.class);
         } catch (RestClientException e) {
             log.error("Error receiving result of searching images: ", e);
+            quotaService.release(ApiQuota.GOOGLE, userId);
             throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.NO_RESPONSE));
         }
 
-        botStats.incrementGoogleRequests();
-
         GooglePicsSearchData googlePicsSearchData = response.getBody();
 
         if (googlePicsSearchData == null || googlePicsSearchData.getItems() == null) {
@@ -73,7 +73,7 @@ public class Image implements CommandParent<PartialBotApiMethod<?>> {
             }
         } else {
             log.debug("Request to search image by text {}", textMessage);
-            imageUrl = googlePics.searchImagesOnGoogle(textMessage).get(0);
+            imageUrl = googlePics.searchImagesOnGoogle(textMessage, message.getFrom().getId()).get(0);
         }
 
         if (imageUrl == null) {
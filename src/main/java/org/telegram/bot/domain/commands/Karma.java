@@ -6,25 +6,30 @@ import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.CommandParent;
 import org.telegram.bot.domain.TextAnalyzer;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.domain.enums.AnalyzerRequirement;
 import org.telegram.bot.domain.entities.Chat;
 import org.telegram.bot.domain.entities.CommandProperties;
 import org.telegram.bot.domain.entities.User;
 import org.telegram.bot.domain.entities.UserStats;
-import org.telegram.bot.domain.enums.AccessLevel;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.domain.enums.Emoji;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.CommandPropertiesService;
+import org.telegram.bot.services.PermissionService;
 import org.telegram.bot.services.SpeechService;
 import org.telegram.bot.services.UserService;
 import org.telegram.bot.services.UserStatsService;
+import org.telegram.bot.utils.UpdateRewriter;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import static org.telegram.bot.utils.TextUtils.startsWithElementInList;
 import static org.telegram.bot.utils.TextUtils.getLinkToUser;
@@ -38,6 +43,7 @@ public class Karma implements CommandParent<SendMessage>, TextAnalyzer {
     private final CommandPropertiesService commandPropertiesService;
     private final SpeechService speechService;
     private final UserService userService;
+    private final PermissionService permissionService;
     private final UserStatsService userStatsService;
 
     private final List<String> increaseSymbols = Arrays.asList("👍", "👍🏻", "👍🏼", "👍🏽", "👍🏾", "👍🏿", "+1", "++");
@@ -108,24 +114,8 @@ public class Karma implements CommandParent<SendMessage>, TextAnalyzer {
 
             log.debug("Request to change karma {} of user {} ", value, anotherUser);
             Chat chat = new Chat().setChatId(message.getChatId());
+            userStatsService.changeKarma(chat, new User().setUserId(message.getFrom().getId()), anotherUser, value);
             UserStats anotherUserStats = userStatsService.get(chat, anotherUser);
-            anotherUserStats.setNumberOfKarma(anotherUserStats.getNumberOfKarma() + value)
-                    .setNumberOfKarmaPerDay(anotherUserStats.getNumberOfKarmaPerDay() + value)
-                    .setNumberOfAllKarma(anotherUserStats.getNumberOfAllKarma() + value);
-
-            User user = new User().setUserId(message.getFrom().getId());
-            UserStats userStats = userStatsService.get(chat, user);
-            if (value > 0) {
-                userStats.setNumberOfGoodness(userStats.getNumberOfGoodness() + 1)
-                        .setNumberOfGoodnessPerDay(userStats.getNumberOfGoodnessPerDay() + 1)
-                        .setNumberOfAllGoodness(userStats.getNumberOfAllGoodness() + 1);
-            } else {
-                userStats.setNumberOfWickedness(userStats.getNumberOfWickedness() + 1)
-                        .setNumberOfWickednessPerDay(userStats.getNumberOfWickednessPerDay() + 1)
-                        .setNumberOfAllWickedness(userStats.getNumberOfAllWickedness() + 1);
-            }
-
-            userStatsService.save(Arrays.asList(anotherUserStats, userStats));
 
             buf = new StringBuilder("Карма пользователя <b>" + getLinkToUser(anotherUser, true) + "</b> ");
             if (value < 0) {
@@ -146,7 +136,12 @@ public class Karma implements CommandParent<SendMessage>, TextAnalyzer {
     }
 
     @Override
-    public void analyze(CommandParent<?> command, Update update) {
+    public Set<AnalyzerRequirement> getRequirements() {
+        return EnumSet.of(AnalyzerRequirement.TEXT, AnalyzerRequirement.REPLY, AnalyzerRequirement.GROUP_CHAT);
+    }
+
+    @Override
+    public void analyze(CommandParent<?> command, Update update, UpdateContext updateContext) {
         Message message = getMessageFromUpdate(update);
         String textMessage = message.getText();
         if (textMessage == null) {
@@ -176,14 +171,9 @@ public class Karma implements CommandParent<SendMessage>, TextAnalyzer {
 
         if (value != 0 && message.getReplyToMessage() != null) {
             CommandProperties commandProperties = commandPropertiesService.getCommand(this.getClass());
-            AccessLevel userAccessLevel = userService.getCurrentAccessLevel(message.getFrom().getId(), message.getChatId());
-            if (userService.isUserHaveAccessForCommand(userAccessLevel.getValue(), commandProperties.getAccessLevel())) {
-                Update newUpdate = copyUpdate(update);
-                if (newUpdate == null) {
-                    return;
-                }
-                newUpdate.getMessage().setText(commandProperties.getCommandName() + " " + message.getReplyToMessage().getFrom().getId() + " " + value);
-                bot.parseAsync(newUpdate, command);
+            if (permissionService.isCommandAllowed(message.getFrom().getId(), message.getChatId(), commandProperties)) {
+                Update newUpdate = UpdateRewriter.rewriteText(update, commandProperties.getCommandName() + " " + message.getReplyToMessage().getFrom().getId() + " " + value);
+                bot.parseAsync(newUpdate, command, updateContext);
             }
         }
     }
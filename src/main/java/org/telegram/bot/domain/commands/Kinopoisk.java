@@ -13,11 +13,12 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.telegram.bot.Bot;
-import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.CommandParent;
+import org.telegram.bot.domain.enums.ApiQuota;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.domain.enums.Emoji;
 import org.telegram.bot.exception.BotException;
+import org.telegram.bot.services.QuotaService;
 import org.telegram.bot.services.SpeechService;
 import org.telegram.bot.services.config.PropertiesConfig;
 import org.telegram.bot.utils.DateUtils;
@@ -45,7 +46,7 @@ public class Kinopoisk implements CommandParent<PartialBotApiMethod<?>> {
     private final SpeechService speechService;
     private final PropertiesConfig propertiesConfig;
     private final RestTemplate botRestTemplate;
-    private final BotStats botStats;
+    private final QuotaService quotaService;
 
     private static final String API_URL = "https://api.kinopoisk.dev/v1.3/movie";
     private static final String KINOPOISK_URL = "https://www.kinopoisk.ru";
@@ -60,12 +61,13 @@ public class Kinopoisk implements CommandParent<PartialBotApiMethod<?>> {
 
         Message message = getMessageFromUpdate(update);
         Long chatId = message.getChatId();
+        Long userId = message.getFrom().getId();
         String textMessage = getTextMessage(update);
         InputFile photo = null;
         String responseText;
         if (textMessage == null) {
             bot.sendUploadPhoto(chatId);
-            Movie movie = getRandomMovie(token);
+            Movie movie = getRandomMovie(token, userId);
             responseText = generateResponseTextToMovie(movie);
             photo = getPhotoFromMovie(movie);
         } else if (textMessage.startsWith("_")) {
@@ -78,12 +80,12 @@ public class Kinopoisk implements CommandParent<PartialBotApiMethod<?>> {
                 throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.WRONG_INPUT));
             }
 
-            Movie movie = getMovieById(token, id);
+            Movie movie = getMovieById(token, userId, id);
             responseText = generateResponseTextToMovie(movie);
             photo = getPhotoFromMovie(movie);
         } else {
             bot.sendTyping(chatId);
-            MovieSearchResult movieSearchResult = getMovieSearchResult(token, textMessage);
+            MovieSearchResult movieSearchResult = getMovieSearchResult(token, userId, textMessage);
             Integer total = movieSearchResult.getTotal();
             if (total == 0) {
                 throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.FOUND_NOTHING));
@@ -92,7 +94,7 @@ public class Kinopoisk implements CommandParent<PartialBotApiMethod<?>> {
 
                 Long id = movie.getId();
                 if (id != null) {
-                    movie = getMovieById(token, id);
+                    movie = getMovieById(token, userId, id);
                 }
 
                 responseText = generateResponseTextToMovie(movie);
@@ -225,26 +227,28 @@ public class Kinopoisk implements CommandParent<PartialBotApiMethod<?>> {
         return names.stream().map(ItemName::getName).collect(Collectors.joining(", "));
     }
 
-    private MovieSearchResult getMovieSearchResult(String token, String text) {
+    private MovieSearchResult getMovieSearchResult(String token, Long userId, String text) {
         final String searchPath = "?name=";
-        return getData(API_URL + searchPath + text, token, MovieSearchResult.class);
+        return getData(API_URL + searchPath + text, token, userId, MovieSearchResult.class);
     }
 
-    private Movie getMovieById(String token, Long id) {
+    private Movie getMovieById(String token, Long userId, Long id) {
         final String getByIdPath = "/";
-        return getData(API_URL + getByIdPath + id, token, Movie.class);
+        return getData(API_URL + getByIdPath + id, token, userId, Movie.class);
     }
 
-    private Movie getRandomMovie(String token) {
+    private Movie getRandomMovie(String token, Long userId) {
         final String randomMoviePath = "/random";
-        return getData(API_URL + randomMoviePath, token, Movie.class);
+        return getData(API_URL + randomMoviePath, token, userId, Movie.class);
     }
 
-    private <T> T getData(String url, String token, Class<T> dataType) {
+    private <T> T getData(String url, String token, Long userId, Class<T> dataType) {
         ResponseEntity<T> responseEntity;
+        quotaService.reserve(ApiQuota.KINOPOISK, userId);
         try {
             responseEntity = botRestTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(getDefaultHeaders(token)), dataType);
         } catch (HttpClientErrorException hcee) {
+            quotaService.release(ApiQuota.KINOPOISK, userId);
             String response = hcee.getResponseBodyAsString(StandardCharsets.UTF_8);
 
             response = response.substring(response.indexOf("\"message\":\"") + 11);
@@ -252,11 +256,10 @@ public class Kinopoisk implements CommandParent<PartialBotApiMethod<?>> {
 
             throw new BotException("Ошибка от сервиса: " + errorText);
         } catch (RestClientException e) {
+            quotaService.release(ApiQuota.KINOPOISK, userId);
             throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.NO_RESPONSE));
         }
 
-        botStats.incrementKinopoiskRequests();
-
         T value = responseEntity.getBody();
 
         if (value == null) {
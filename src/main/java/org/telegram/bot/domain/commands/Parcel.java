@@ -1,6 +1,7 @@
 package org.telegram.bot.domain.commands;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.BotStats;
@@ -9,11 +10,13 @@ import org.telegram.bot.domain.entities.*;
 import org.telegram.bot.domain.enums.AccessLevel;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.domain.enums.Emoji;
+import org.telegram.bot.domain.enums.OutboundPriority;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.*;
 import org.telegram.bot.services.config.PropertiesConfig;
 import org.telegram.bot.timers.TrackCodeEventsTimer;
 import org.telegram.bot.utils.DateUtils;
+import org.telegram.bot.utils.OutboundDispatcher;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
@@ -22,7 +25,6 @@ import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -36,6 +38,7 @@ import static org.telegram.bot.utils.TextUtils.BORDER;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class Parcel implements CommandParent<PartialBotApiMethod<?>> {
 
     private final ParcelService parcelService;
@@ -44,6 +47,7 @@ public class Parcel implements CommandParent<PartialBotApiMethod<?>> {
     private final CommandWaitingService commandWaitingService;
     private final SpeechService speechService;
     private final Bot bot;
+    private final OutboundDispatcher outboundDispatcher;
     private final BotStats botStats;
     private final PropertiesConfig propertiesConfig;
 
@@ -386,16 +390,18 @@ public class Parcel implements CommandParent<PartialBotApiMethod<?>> {
                 .forEach(newEvent -> parcelsOfTrackCode.forEach(parcel -> {
                     String messageText = Parcel.buildStringEventMessage(parcel, newEvent);
 
-                    try {
-                        SendMessage sendMessage = new SendMessage();
-                        sendMessage.setChatId(parcel.getUser().getUserId());
-                        sendMessage.enableHtml(true);
-                        sendMessage.setText(messageText);
-
-                        bot.execute(sendMessage);
-                    } catch (TelegramApiException e) {
-                        e.printStackTrace();
-                    }
+                    Long userId = parcel.getUser().getUserId();
+                    SendMessage sendMessage = new SendMessage();
+                    sendMessage.setChatId(userId);
+                    sendMessage.enableHtml(true);
+                    sendMessage.setText(messageText);
+
+                    outboundDispatcher.submit(userId, OutboundPriority.NOTIFICATION, () -> bot.executeAsync(sendMessage))
+                            .whenComplete((result, e) -> {
+                                if (e != null) {
+                                    log.error("Failed to send parcel event to user {}: {}", userId, e.getMessage());
+                                }
+                            });
                 }));
     }
 
@@ -16,9 +16,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
-import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.Parser;
 import org.telegram.bot.domain.CommandParent;
 import org.telegram.bot.domain.TextAnalyzer;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.domain.enums.AnalyzerRequirement;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.CommandWaitingService;
@@ -40,9 +42,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
@@ -52,7 +56,6 @@ public class Qr implements CommandParent<PartialBotApiMethod<?>>, TextAnalyzer {
     private final Bot bot;
     private final CommandWaitingService commandWaitingService;
     private final SpeechService speechService;
-    private final BotStats botStats;
     private final NetworkUtils networkUtils;
 
     @Override
@@ -112,40 +115,45 @@ public class Qr implements CommandParent<PartialBotApiMethod<?>>, TextAnalyzer {
     }
 
     @Override
-    public void analyze(CommandParent<?> command, Update update) {
+    public Set<AnalyzerRequirement> getRequirements() {
+        return EnumSet.of(AnalyzerRequirement.PHOTO);
+    }
+
+    @Override
+    public void analyze(CommandParent<?> command, Update update, UpdateContext updateContext) {
         Message message = getMessageFromUpdate(update);
 
         if (message.hasPhoto()) {
-            List<PhotoSize> photoList = message.getPhoto();
-            BufferedImage image;
-
-            try {
-                image = ImageIO.read(networkUtils.getFileFromTelegram(bot, photoList.get(photoList.size() - 1).getFileId()));
-            } catch (TelegramApiException | IOException e) {
-                log.error("Failed to get file from telegram: {}", e.getMessage());
-                return;
-            }
-
-            String textFromQr;
-            try {
-                textFromQr = getTextFromQr(image);
-            } catch (NotFoundException e) {
-                log.debug("QR is missing");
-                return;
-            }
+            // scanning is low-value work, so it is queued and dropped first under load
+            bot.executeAsync(update, Parser.LOW_PRIORITY, () -> scanQr(message));
+        }
+    }
 
-            SendMessage sendMessage = new SendMessage();
-            sendMessage.setChatId(message.getChatId().toString());
-            sendMessage.setReplyToMessageId(message.getMessageId());
-            sendMessage.setText("QR: " + textFromQr);
-
-            try {
-                bot.execute(sendMessage);
-            } catch (TelegramApiException e) {
-                log.error("Cannot send response: {}", e.getMessage());
-                botStats.incrementErrors(update, sendMessage, e, "Ошибка при отправке расшифровки qr-кода");
-            }
+    private SendMessage scanQr(Message message) {
+        List<PhotoSize> photoList = message.getPhoto();
+        BufferedImage image;
+
+        try {
+            image = ImageIO.read(networkUtils.getFileFromTelegram(bot, photoList.get(photoList.size() - 1).getFileId()));
+        } catch (TelegramApiException | IOException e) {
+            log.error("Failed to get file from telegram: {}", e.getMessage());
+            return null;
         }
+
+        String textFromQr;
+        try {
+            textFromQr = getTextFromQr(image);
+        } catch (NotFoundException e) {
+            log.debug("QR is missing");
+            return null;
+        }
+
+        SendMessage sendMessage = new SendMessage();
+        sendMessage.setChatId(message.getChatId().toString());
+        sendMessage.setReplyToMessageId(message.getMessageId());
+        sendMessage.setText("QR: " + textFromQr);
+
+        return sendMessage;
     }
 
     private String getTextFromQr(BufferedImage image) throws NotFoundException {
@@ -2,57 +2,66 @@ package org.telegram.bot.domain.commands;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.CommandParent;
 import org.telegram.bot.domain.TextAnalyzer;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.domain.enums.AnalyzerRequirement;
 import org.telegram.bot.domain.entities.Chat;
 import org.telegram.bot.domain.entities.CommandProperties;
 import org.telegram.bot.domain.entities.LastCommand;
 import org.telegram.bot.domain.entities.User;
-import org.telegram.bot.services.LastCommandService;
-import org.telegram.bot.services.UserService;
+import org.telegram.bot.services.CommandPropertiesService;
+import org.telegram.bot.services.PermissionService;
 import org.telegram.bot.services.UserStatsService;
+import org.telegram.bot.utils.UpdateRewriter;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class Repeat implements TextAnalyzer, CommandParent<PartialBotApiMethod<?>> {
 
     private final Bot bot;
-    private final ApplicationContext context;
 
-    private final UserService userService;
+    private final PermissionService permissionService;
     private final UserStatsService userStatsService;
-    private final LastCommandService lastCommandService;
+    private final CommandPropertiesService commandPropertiesService;
+
+    @Override
+    public Set<AnalyzerRequirement> getRequirements() {
+        return EnumSet.of(AnalyzerRequirement.TEXT);
+    }
 
     @Override
-    public void analyze(CommandParent<?> command, Update update) {
+    public boolean isDispatchingCommands() {
+        return true;
+    }
+
+    @Override
+    public void analyze(CommandParent<?> command, Update update, UpdateContext updateContext) {
         Message message = getMessageFromUpdate(update);
         String textMessage = message.getText();
 
         if (textMessage != null && textMessage.equals(".")) {
             Chat chat = new Chat().setChatId(message.getChatId());
             User user = new User().setUserId(message.getFrom().getId());
-            LastCommand lastCommand = lastCommandService.get(chat);
+            LastCommand lastCommand = updateContext.getLastCommand();
 
             if (lastCommand != null) {
                 CommandProperties commandProperties = lastCommand.getCommandProperties();
                 log.debug("Request to repeat Command {}", commandProperties);
 
-                if (userService.isUserHaveAccessForCommand(userService.getCurrentAccessLevel(user.getUserId(), chat.getChatId()).getValue(), commandProperties.getAccessLevel())) {
-                    Update newUpdate = copyUpdate(update);
-                    if (newUpdate == null) {
-                        return;
-                    }
-
-                    newUpdate.getMessage().setText(lastCommand.getCommandProperties().getCommandName());
+                if (permissionService.isCommandAllowed(user.getUserId(), chat.getChatId(), commandProperties)) {
+                    Update newUpdate = UpdateRewriter.rewriteText(update, commandProperties.getCommandName());
                     userStatsService.incrementUserStatsCommands(chat, user);
-                    bot.parseAsync(newUpdate, (CommandParent<?>) context.getBean(commandProperties.getClassName()));
+                    bot.parseAsync(newUpdate, commandPropertiesService.getCommandInstance(commandProperties), updateContext, commandProperties.getPriority());
                 }
 
                 log.debug("User does not have access to with command");
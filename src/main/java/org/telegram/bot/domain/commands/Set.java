@@ -12,6 +12,7 @@ import org.telegram.bot.domain.enums.AccessLevel;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.CommandWaitingService;
+import org.telegram.bot.services.PermissionService;
 import org.telegram.bot.services.SpeechService;
 import org.telegram.bot.services.UserService;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
@@ -33,6 +34,7 @@ public class Set implements CommandParent<PartialBotApiMethod<?>> {
     private final Bot bot;
     private final CommandWaitingService commandWaitingService;
     private final UserService userService;
+    private final PermissionService permissionService;
     private final SpeechService speechService;
 
     private final NewsSetter newsSetter;
@@ -85,7 +87,7 @@ public class Set implements CommandParent<PartialBotApiMethod<?>> {
                 return buildMainPage(message);
             }
         } else {
-            AccessLevel userAccessLevel = userService.getCurrentAccessLevel(userId, message.getChatId());
+            AccessLevel userAccessLevel = permissionService.getAccessLevel(userId, message.getChatId());
             if (textMessage.toLowerCase().startsWith(NEWS)) {
                 if (userService.isUserHaveAccessForCommand(userAccessLevel.getValue(), AccessLevel.MODERATOR.getValue())) {
                     return newsSetter.set(update, textMessage);
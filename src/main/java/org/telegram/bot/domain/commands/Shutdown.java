@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.CommandParent;
+import org.telegram.bot.services.QuotaService;
 import org.telegram.bot.timers.FileManagerTimer;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Update;
@@ -19,6 +20,7 @@ public class Shutdown implements CommandParent<SendMessage> {
     private final Bot bot;
     private final ConfigurableApplicationContext configurableApplicationContext;
     private final BotStats botStats;
+    private final QuotaService quotaService;
     private final FileManagerTimer fileManagerTimer;
 
     @Override
@@ -32,6 +34,7 @@ public class Shutdown implements CommandParent<SendMessage> {
 
         try {
             botStats.saveStats();
+            quotaService.save();
             fileManagerTimer.deleteAllFiles();
         } catch (Exception e) {
             log.error("Failed to shutdown normally: {}", e.getMessage());
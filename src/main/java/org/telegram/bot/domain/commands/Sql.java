@@ -8,8 +8,11 @@ import org.springframework.transaction.annotation.Transactional;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.CommandParent;
 import org.telegram.bot.domain.enums.BotSpeechTag;
+import org.telegram.bot.domain.enums.OutboundPriority;
 import org.telegram.bot.exception.BotException;
+import org.telegram.bot.services.CommandPropertiesService;
 import org.telegram.bot.services.SpeechService;
+import org.telegram.bot.utils.OutboundDispatcher;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
@@ -31,7 +34,9 @@ public class Sql implements CommandParent<SendMessage> {
     EntityManager entityManager;
 
     private final Bot bot;
+    private final OutboundDispatcher outboundDispatcher;
     private final SpeechService speechService;
+    private final CommandPropertiesService commandPropertiesService;
 
     @Override
     @Transactional
@@ -69,6 +74,10 @@ public class Sql implements CommandParent<SendMessage> {
             else if (textMessage.startsWith("update") || textMessage.startsWith("insert") || textMessage.startsWith("delete")) {
                 int updated;
                 updated = entityManager.createNativeQuery(textMessage).executeUpdate();
+                if (textMessage.toLowerCase().contains("commandproperties")) {
+                    // routing of commands is read from the index, so it has to be rebuilt with the changed rows
+                    commandPropertiesService.reload();
+                }
                 responseText = "Успешно. Обновлено строк: " + updated;
             }
             else {
@@ -96,7 +105,7 @@ public class Sql implements CommandParent<SendMessage> {
             sendMessage.enableMarkdown(true);
             sendMessage.setText("`" + responseText + "`");
 
-            bot.execute(sendMessage);
+            outboundDispatcher.execute(message.getChatId(), OutboundPriority.INTERACTIVE, () -> bot.executeAsync(sendMessage));
         } catch (TelegramApiException et) {
             et.printStackTrace();
         }
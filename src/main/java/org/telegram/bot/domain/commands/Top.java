@@ -5,12 +5,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.CommandParent;
+import org.telegram.bot.domain.UserActivityTotal;
 import org.telegram.bot.domain.entities.Chat;
 import org.telegram.bot.domain.entities.User;
 import org.telegram.bot.domain.entities.UserStats;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.domain.enums.Emoji;
+import org.telegram.bot.domain.enums.UserStatsCounter;
 import org.telegram.bot.domain.enums.UserStatsParam;
+import org.telegram.bot.domain.enums.UserStatsPeriod;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.SpeechService;
 import org.telegram.bot.services.UserService;
@@ -20,17 +23,21 @@ import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import static org.telegram.bot.utils.TextUtils.removeCapital;
+import static org.telegram.bot.utils.DateUtils.dateFormatter;
+import static org.telegram.bot.utils.DateUtils.formatDate;
 import static org.telegram.bot.utils.TextUtils.getLinkToUser;
 
 @Component
@@ -38,6 +45,9 @@ import static org.telegram.bot.utils.TextUtils.getLinkToUser;
 @Slf4j
 public class Top implements CommandParent<SendMessage> {
 
+    private static final Pattern DATE_SPAN_PATTERN = Pattern.compile("(\\d{2}\\.\\d{2}\\.\\d{4})\\s*-\\s*(\\d{2}\\.\\d{2}\\.\\d{4})$");
+    private static final List<String> WEEK_NAMES = List.of("неделя", "неделю", "неделе");
+
     private final Bot bot;
     private final UserStatsService userStatsService;
     private final UserService userService;
@@ -118,6 +128,7 @@ public class Top implements CommandParent<SendMessage> {
             karmaEmoji = Emoji.SMILING_FACE_WITH_HORNS.getEmoji();
         }
 
+        fieldsOfStats.put(Emoji.TROPHY.getEmoji() + "Место", getPosition(chat, userStats, UserStatsPeriod.MONTH, userStats.getNumberOfMessages()));
         fieldsOfStats.put(Emoji.EMAIL.getEmoji() + "Сообщений", userStats.getNumberOfMessages().toString());
         fieldsOfStats.put(karmaEmoji + "Карма", userStats.getNumberOfKarma().toString());
         fieldsOfStats.put(Emoji.RED_HEART.getEmoji() + "Доброта", userStats.getNumberOfGoodness().toString());
@@ -149,6 +160,7 @@ public class Top implements CommandParent<SendMessage> {
             karmaEmoji = Emoji.SMILING_FACE_WITH_HORNS.getEmoji();
         }
 
+        fieldsOfStats.put(Emoji.TROPHY.getEmoji() + "Место", getPosition(chat, userStats, UserStatsPeriod.ALL, userStats.getNumberOfAllMessages()));
         fieldsOfStats.put(Emoji.EMAIL.getEmoji() + "Сообщений", userStats.getNumberOfAllMessages().toString());
         fieldsOfStats.put(karmaEmoji + "Карма", userStats.getNumberOfAllKarma().toString());
         fieldsOfStats.put(Emoji.RED_HEART.getEmoji() + "Доброта", userStats.getNumberOfAllGoodness().toString());
@@ -182,54 +194,144 @@ public class Top implements CommandParent<SendMessage> {
     private String getTopListOfUsers(Chat chat, String param) {
         log.debug("Request to top by {} for chat {}", param, chat);
 
+        String lowerParam = param.toLowerCase(Locale.ROOT);
+        Matcher dateSpanMatcher = DATE_SPAN_PATTERN.matcher(lowerParam);
+        if (dateSpanMatcher.find()) {
+            LocalDate from;
+            LocalDate to;
+            try {
+                from = LocalDate.parse(dateSpanMatcher.group(1), dateFormatter);
+                to = LocalDate.parse(dateSpanMatcher.group(2), dateFormatter);
+            } catch (DateTimeParseException e) {
+                throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.WRONG_INPUT));
+            }
+            if (to.isBefore(from)) {
+                throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.WRONG_INPUT));
+            }
+
+            return getTopListOfUsersForPeriod(
+                    chat, lowerParam.substring(0, dateSpanMatcher.start()).trim(), from, to.plusDays(1),
+                    "с " + formatDate(from) + " по " + formatDate(to));
+        }
+
+        String weekName = WEEK_NAMES.stream().filter(lowerParam::endsWith).findFirst().orElse(null);
+        if (weekName != null) {
+            LocalDate today = LocalDate.now();
+            return getTopListOfUsersForPeriod(
+                    chat, lowerParam.substring(0, lowerParam.length() - weekName.length()).trim(), today.minusDays(6), today.plusDays(1),
+                    "за неделю");
+        }
+
         UserStatsParam sortParam = UserStatsParam.getParamByName(param);
 
         if (sortParam == null) {
             throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.WRONG_INPUT));
         }
 
-        String methodName = sortParam.getMethod();
+        UserStatsCounter counter = UserStatsCounter.getByFieldName(sortParam.getFieldName());
+        UserStatsPeriod period = UserStatsPeriod.getByFieldName(sortParam.getFieldName());
+        if (counter == null || period == null) {
+            throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.INTERNAL_ERROR));
+        }
+
         if (!param.equals("все") && !param.equals("всё") && (param.endsWith("всё") || param.endsWith("все"))) {
-            methodName = methodName.substring(0, 11) + "All" + methodName.substring(11);
+            period = UserStatsPeriod.ALL;
         } else if (!param.equals("день") && param.endsWith("день")) {
-            methodName = methodName + "PerDay";
+            period = UserStatsPeriod.DAY;
         }
 
-        String sortedField = removeCapital(methodName.substring(3));
-        List<UserStats> userStatsList;
+        List<Map.Entry<User, Long>> values = getUserValues(userStatsService.getTop(chat, counter, period, 30));
+
+        return formatTopList(sortParam.getParamNames().get(0), values);
+    }
 
-        if (UserStatsParam.NUMBER_OF_KARMA.getFieldName().equals(sortedField)) {
-            userStatsList = userStatsService.getSortedUserStatsListWithKarmaForChat(chat, sortedField, 30, false);
-        } else if (UserStatsParam.NUMBER_OF_ALL_KARMA.getFieldName().equals(sortedField)) {
-            userStatsList = userStatsService.getSortedUserStatsListWithKarmaForChat(chat, sortedField, 30, true);
+    /**
+     * Getting top of users for counter of user stats for period.
+     *
+     * @param chat Chat entity.
+     * @param param param of user stats, messages if empty.
+     * @param from first day of period.
+     * @param to day after the last day of period.
+     * @param periodName name of period for title.
+     * @return top of users.
+     */
+    private String getTopListOfUsersForPeriod(Chat chat, String param, LocalDate from, LocalDate to, String periodName) {
+        UserStatsParam sortParam;
+        if (param.isEmpty()) {
+            sortParam = UserStatsParam.NUMBER_OF_MESSAGES;
         } else {
-            userStatsList = userStatsService.getSortedUserStatsListForChat(chat, sortedField, 30);
+            sortParam = UserStatsParam.getParamByName(param);
         }
 
-        Method method;
-        try {
-           method = UserStats.class.getMethod(methodName);
-        } catch (NoSuchMethodException e) {
-            throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.INTERNAL_ERROR));
+        UserStatsCounter counter = sortParam == null ? null : UserStatsCounter.getByFieldName(sortParam.getFieldName());
+        if (counter == null) {
+            throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.WRONG_INPUT));
         }
-        int spacesAfterSerialNumberCount = String.valueOf(userStatsList.size()).length() + 2;
-        int spacesAfterNumberOfMessageCount = getSpacesAfterNumberOfMessageCount(method, userStatsList);
 
-        StringBuilder responseText = new StringBuilder("<b>Топ ").append(sortParam.getParamNames().get(0)).append(":</b>\n");
+        List<Map.Entry<User, Long>> values = getUserValues(
+                userStatsService.getTopForPeriod(chat, counter, from.atStartOfDay(), to.atStartOfDay(), 30));
+
+        String title = UserStatsCounter.MESSAGES.equals(counter) ? "сообщений" : sortParam.getParamNames().get(0);
+        return formatTopList(title + " " + periodName, values);
+    }
+
+    /**
+     * Getting users for values of top.
+     *
+     * @param totals ids of users with values.
+     * @return users with values, unknown users are skipped.
+     */
+    private List<Map.Entry<User, Long>> getUserValues(List<UserActivityTotal> totals) {
+        return totals
+                .stream()
+                .map(total -> {
+                    User user = userService.get(total.getUserId());
+                    return user == null ? null : Map.entry(user, total.getValue());
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Getting position of user in chat by messages.
+     *
+     * @param chat Chat entity.
+     * @param userStats stats of user.
+     * @param period period of stats.
+     * @param numberOfMessages number of messages of user for period.
+     * @return position or "0" if user has no messages.
+     */
+    private String getPosition(Chat chat, UserStats userStats, UserStatsPeriod period, Number numberOfMessages) {
+        if (numberOfMessages.longValue() == 0) {
+            return "0";
+        }
+
+        return String.valueOf(userStatsService.getPosition(chat, userStats.getUser(), UserStatsCounter.MESSAGES, period));
+    }
+
+    /**
+     * Format top of users.
+     *
+     * @param title title of top.
+     * @param values users with values of param, ordered by descending.
+     * @return formatted top.
+     */
+    private String formatTopList(String title, List<Map.Entry<User, Long>> values) {
+        int spacesAfterSerialNumberCount = String.valueOf(values.size()).length() + 2;
+        int spacesAfterNumberOfMessageCount = getSpacesAfterNumberOfMessageCount(values
+                .stream()
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList()));
+
+        StringBuilder responseText = new StringBuilder("<b>Топ ").append(title).append(":</b>\n");
         AtomicInteger counter = new AtomicInteger(1);
         AtomicLong total = new AtomicLong(0L);
 
-        userStatsList.forEach(userStats -> {
-            long value;
-            try {
-                value = Long.parseLong(method.invoke(userStats).toString());
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.INTERNAL_ERROR));
-            }
-
+        values.forEach(entry -> {
+            long value = entry.getValue();
             if (value != 0) {
                 total.set(total.get() + value);
-                User user = userStats.getUser();
+                User user = entry.getKey();
                 String username = user.getUsername();
 
                 responseText
@@ -249,26 +351,10 @@ public class Top implements CommandParent<SendMessage> {
     /**
      * Getting spaces count after value of number param of top.
      *
-     * @param method Method for getting value of UserStats param.
-     * @param userStatsList list of UserStats.
+     * @param values values of param.
      * @return count of spaces.
      */
-    private Integer getSpacesAfterNumberOfMessageCount(Method method, List<UserStats> userStatsList) {
-        List<Long> values = userStatsList
-                .stream()
-                .map(userStats -> {
-                    long value;
-
-                    try {
-                        value = Long.parseLong(method.invoke(userStats).toString());
-                    } catch (IllegalAccessException | InvocationTargetException e) {
-                        throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.INTERNAL_ERROR));
-                    }
-
-                    return value;
-                })
-                .collect(Collectors.toList());
-
+    private Integer getSpacesAfterNumberOfMessageCount(List<Long> values) {
         int maxValueLength = values.stream()
                 .max(Long::compareTo)
                 .orElse(6L)
@@ -6,14 +6,19 @@ import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.CommandParent;
 import org.telegram.bot.domain.TextAnalyzer;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.domain.enums.AnalyzerRequirement;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.CommandPropertiesService;
 import org.telegram.bot.services.SpeechService;
+import org.telegram.bot.utils.UpdateRewriter;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -90,7 +95,12 @@ public class Turn implements CommandParent<SendMessage>, TextAnalyzer {
     }
 
     @Override
-    public void analyze(CommandParent<?> command, Update update) {
+    public Set<AnalyzerRequirement> getRequirements() {
+        return EnumSet.of(AnalyzerRequirement.TEXT);
+    }
+
+    @Override
+    public void analyze(CommandParent<?> command, Update update, UpdateContext updateContext) {
         Message message = getMessageFromUpdate(update);
         String textMessage = message.getText();
         if (textMessage == null || textMessage.startsWith(this.getClass().getSimpleName().toLowerCase())) {
@@ -106,13 +116,8 @@ public class Turn implements CommandParent<SendMessage>, TextAnalyzer {
             matcher = UNTURNED_WORD_SYMPTOM.matcher(textMessage);
             if (matcher.find()) {
                 String commandName = commandPropertiesService.getCommand(this.getClass()).getCommandName();
-                Update newUpdate = copyUpdate(update);
-
-                if (newUpdate == null) {
-                    return;
-                }
-                newUpdate.getMessage().setText(commandName + " " + textMessage);
-                bot.parseAsync(newUpdate, command);
+                Update newUpdate = UpdateRewriter.rewriteText(update, commandName + " " + textMessage);
+                bot.parseAsync(newUpdate, command, updateContext);
             }
         }
     }
@@ -5,8 +5,15 @@ import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.CommandParent;
+import org.telegram.bot.domain.LatencyHistogram;
+import org.telegram.bot.domain.MetricsSnapshot;
 import org.telegram.bot.domain.entities.Chat;
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.domain.enums.LatencyMetric;
 import org.telegram.bot.repositories.TalkerPhraseRepository;
+import org.telegram.bot.utils.BoundedPriorityExecutor;
+import org.telegram.bot.utils.ChatLaneExecutor;
+import org.telegram.bot.utils.OutboundDispatcher;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
@@ -14,6 +21,10 @@ import org.telegram.telegrambots.meta.api.objects.Update;
 import java.io.File;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.telegram.bot.utils.DateUtils.*;
 import static org.telegram.bot.utils.TextUtils.formatFileSize;
@@ -23,9 +34,15 @@ import static org.telegram.bot.utils.TextUtils.formatLongValue;
 @RequiredArgsConstructor
 public class Uptime implements CommandParent<SendMessage> {
 
+    private static final int TOP_COMMANDS_LIMIT = 5;
+    private static final int SLOWEST_COMMANDS_LIMIT = 3;
+
     private final Bot bot;
     private final BotStats botStats;
     private final TalkerPhraseRepository talkerPhraseRepository;
+    private final ChatLaneExecutor chatLaneExecutor;
+    private final BoundedPriorityExecutor commandExecutor;
+    private final OutboundDispatcher outboundDispatcher;
 
     @Override
     public SendMessage parse(Update update) {
@@ -38,13 +55,14 @@ public class Uptime implements CommandParent<SendMessage> {
             return null;
         }
 
+        MetricsSnapshot metrics = botStats.getSnapshot();
         LocalDateTime dateTimeNow = LocalDateTime.now();
         LocalDateTime botDateTimeStart = botStats.getBotStartDateTime();
         File dbFile = new File("db.mv.db");
 
         buf.append("<b>Запуск:</b>\n").append(formatDateTime(botDateTimeStart)).append("\n");
         buf.append("<b>Работаю без перерыва:</b>\n").append(durationToString(botDateTimeStart, dateTimeNow)).append("\n");
-        buf.append("<b>Общее время наработки:</b>\n").append(durationToString(botStats.getTotalRunningTime())).append("\n");
+        buf.append("<b>Общее время наработки:</b>\n").append(durationToString(metrics.getTotalValue(BotMetric.RUNNING_TIME))).append("\n");
 
         long heapMaxSize = Runtime.getRuntime().maxMemory() / 1024 / 1024;
         long heapSize = Runtime.getRuntime().totalMemory() / 1024 / 1024;
@@ -52,16 +70,49 @@ public class Uptime implements CommandParent<SendMessage> {
         buf.append("<b>Heap:</b>\n").append(heapOccupiedSize).append("/").append(heapSize).append("/").append(heapMaxSize).append(" мб.\n");
 
         buf.append("<b><u>Статистика:</u></b>\n");
-        buf.append("Принято сообщений: <b>").append(botStats.getReceivedMessages()).append("</b> (").append(formatLongValue(botStats.getTotalReceivedMessages())).append(")\n");
+        buf.append("Принято сообщений: <b>").append(metrics.getSessionValue(BotMetric.RECEIVED_MESSAGES)).append("</b> (").append(formatLongValue(metrics.getTotalValue(BotMetric.RECEIVED_MESSAGES))).append(")\n");
+        buf.append("Сообщений из этого чата: <b>").append(metrics.getChatCount(message.getChatId())).append("</b>\n");
         buf.append("Фраз болтуна: <b>").append(talkerPhraseRepository.countByChat(new Chat().setChatId(message.getChatId()))).append("</b> (").append(talkerPhraseRepository.count()).append(")\n");
-        buf.append("Обработано команд: <b>").append(botStats.getCommandsProcessed()).append("</b> (").append(formatLongValue(botStats.getTotalCommandsProcessed())).append(")\n");
-        buf.append("Гуглозапросов: <b>").append(botStats.getGoogleRequests()).append("</b>\n");
-        buf.append("Почтозапросов: <b>").append(botStats.getRussianPostRequests()).append("</b>\n");
-        buf.append("Вольфрамозапросов: <b>").append(botStats.getWolframRequests()).append("</b>\n");
-        buf.append("Кинозапросов: <b>").append(botStats.getKinopoiskRequests()).append("</b>\n");
-        buf.append("Непредвиденных ошибок: <b>").append(botStats.getErrors()).append("</b>\n");
-        buf.append("Обновление ТВ: <b>").append(formatShortDateTime(Instant.ofEpochMilli(botStats.getLastTvUpdate()))).append("</b>\n");
-        buf.append("Обновление треков: <b>").append(formatShortDateTime(Instant.ofEpochMilli(botStats.getLastTracksUpdate()))).append("</b>\n");
+        buf.append("Обработано команд: <b>").append(metrics.getSessionValue(BotMetric.COMMANDS_PROCESSED)).append("</b> (").append(formatLongValue(metrics.getTotalValue(BotMetric.COMMANDS_PROCESSED))).append(")\n");
+        metrics.getTopCommands(TOP_COMMANDS_LIMIT).forEach((commandName, count) -> buf
+                .append("Команда ").append(commandName).append(": <b>").append(count).append("</b>\n"));
+        buf.append("Гуглозапросов: <b>").append(metrics.getSessionValue(BotMetric.GOOGLE_REQUESTS)).append("</b>\n");
+        buf.append("Почтозапросов: <b>").append(metrics.getSessionValue(BotMetric.RUSSIAN_POST_REQUESTS)).append("</b>\n");
+        buf.append("Вольфрамозапросов: <b>").append(metrics.getSessionValue(BotMetric.WOLFRAM_REQUESTS)).append("</b>\n");
+        buf.append("Кинозапросов: <b>").append(metrics.getSessionValue(BotMetric.KINOPOISK_REQUESTS)).append("</b>\n");
+        buf.append("Команд в очереди: <b>").append(commandExecutor.getQueuedTasksCount() + chatLaneExecutor.getQueuedTasksCount())
+                .append("</b> (макс. ").append(Math.max(commandExecutor.getMaxQueueDepth(), chatLaneExecutor.getMaxQueueDepth())).append(")\n");
+        buf.append("Ожидание в очереди: <b>").append(botStats.getAverageCommandQueueWaitTime())
+                .append("</b> мс. (макс. ").append(botStats.getMaxCommandQueueWaitTime()).append(")\n");
+        buf.append("Отклонено команд: <b>").append(botStats.getCommandsRejected())
+                .append("</b> (фоновых: ").append(botStats.getCommandsShed()).append(")\n");
+        botStats.getAnalyzersExecutionTime().forEach((analyzerName, executionTimeStats) -> buf
+                .append("Анализатор ").append(analyzerName).append(": <b>").append(executionTimeStats.getAverageTime())
+                .append("</b> мс. (макс. ").append(executionTimeStats.getMaxTime()).append(")\n"));
+        metrics.getLatencies(LatencyMetric.COMMAND_PARSE).entrySet()
+                .stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LatencyHistogram.Snapshot> entry) -> entry.getValue().getAverageMillis()).reversed())
+                .limit(SLOWEST_COMMANDS_LIMIT)
+                .forEach(entry -> buf
+                        .append("Медленная команда ").append(entry.getKey()).append(": <b>").append(entry.getValue().getAverageMillis())
+                        .append("</b> мс. (макс. ").append(entry.getValue().getMaxMillis()).append(")\n"));
+        metrics.getLatencies(LatencyMetric.EXTERNAL_API).forEach((api, latency) -> buf
+                .append("API ").append(api).append(": <b>").append(latency.getAverageMillis())
+                .append("</b> мс. (запросов: ").append(latency.getCount())
+                .append(", ошибок: ").append(latency.getErrors()).append(")\n"));
+        appendRepositoryLatency(buf, metrics.getLatencies(LatencyMetric.REPOSITORY).values());
+        appendCacheStats(buf, "пользователей", metrics.getSessionValue(BotMetric.USER_CACHE_HITS), metrics.getSessionValue(BotMetric.USER_CACHE_MISSES));
+        appendCacheStats(buf, "имён пользователей", metrics.getSessionValue(BotMetric.USERNAME_CACHE_HITS), metrics.getSessionValue(BotMetric.USERNAME_CACHE_MISSES));
+        appendCacheStats(buf, "чатов", metrics.getSessionValue(BotMetric.CHAT_CACHE_HITS), metrics.getSessionValue(BotMetric.CHAT_CACHE_MISSES));
+        buf.append("Отправлено сообщений: <b>").append(outboundDispatcher.getSentMessagesCount())
+                .append("</b> (в очереди: ").append(outboundDispatcher.getQueuedMessagesCount())
+                .append(", повторов: ").append(outboundDispatcher.getRetriedMessagesCount())
+                .append(", ошибок: ").append(outboundDispatcher.getFailedMessagesCount()).append(")\n");
+        buf.append("Ожидание отправки: <b>").append(outboundDispatcher.getAverageThrottleTime())
+                .append("</b> мс. (макс. ").append(outboundDispatcher.getMaxThrottleTime()).append(")\n");
+        buf.append("Непредвиденных ошибок: <b>").append(metrics.getSessionValue(BotMetric.ERRORS)).append("</b>\n");
+        buf.append("Обновление ТВ: <b>").append(formatShortDateTime(Instant.ofEpochMilli(metrics.getSessionValue(BotMetric.LAST_TV_UPDATE)))).append("</b>\n");
+        buf.append("Обновление треков: <b>").append(formatShortDateTime(Instant.ofEpochMilli(metrics.getSessionValue(BotMetric.LAST_TRACKS_UPDATE)))).append("</b>\n");
         buf.append("Размер БД: <b>").append(formatFileSize(dbFile.length())).append(" </b>\n");
         buf.append("Свободно на диске: <b>").append(formatFileSize(dbFile.getFreeSpace())).append(" </b>\n");
 
@@ -74,4 +125,27 @@ public class Uptime implements CommandParent<SendMessage> {
 
         return sendMessage;
     }
+
+    private void appendCacheStats(StringBuilder buf, String name, long hits, long misses) {
+        if (hits + misses == 0) {
+            return;
+        }
+
+        buf.append("Кэш ").append(name).append(": <b>").append(hits * 100 / (hits + misses))
+                .append("%</b> попаданий (промахов: ").append(misses).append(")\n");
+    }
+
+    private void appendRepositoryLatency(StringBuilder buf, Collection<LatencyHistogram.Snapshot> latencies) {
+        long count = latencies.stream().mapToLong(LatencyHistogram.Snapshot::getCount).sum();
+        if (count == 0) {
+            return;
+        }
+
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(latencies.stream().mapToLong(LatencyHistogram.Snapshot::getTotalNanos).sum());
+        long maxMillis = latencies.stream().mapToLong(LatencyHistogram.Snapshot::getMaxMillis).max().orElse(0);
+        long errors = latencies.stream().mapToLong(LatencyHistogram.Snapshot::getErrors).sum();
+
+        buf.append("Запросы к БД: <b>").append(totalMillis / count).append("</b> мс. (макс. ").append(maxMillis)
+                .append(", запросов: ").append(count).append(", ошибок: ").append(errors).append(")\n");
+    }
 }
@@ -10,11 +10,12 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.telegram.bot.Bot;
-import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.CommandParent;
+import org.telegram.bot.domain.enums.ApiQuota;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.CommandWaitingService;
+import org.telegram.bot.services.QuotaService;
 import org.telegram.bot.services.config.PropertiesConfig;
 import org.telegram.bot.services.SpeechService;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
@@ -33,7 +34,7 @@ public class WolframAlpha implements CommandParent<SendMessage> {
     private final SpeechService speechService;
     private final CommandWaitingService commandWaitingService;
     private final RestTemplate botRestTemplate;
-    private final BotStats botStats;
+    private final QuotaService quotaService;
 
     @Override
     public SendMessage parse(Update update) {
@@ -52,7 +53,7 @@ public class WolframAlpha implements CommandParent<SendMessage> {
             responseText = "теперь напиши мне что надо найти";
         } else {
             log.debug("Request to get wolfram alpha for text {}", textMessage);
-            responseText = getWolframAlphaSearchResult(textMessage);
+            responseText = getWolframAlphaSearchResult(textMessage, message.getFrom().getId());
         }
 
         SendMessage sendMessage = new SendMessage();
@@ -67,9 +68,10 @@ public class WolframAlpha implements CommandParent<SendMessage> {
      * Getting Wolfram alpha result.
      *
      * @param requestText text of request
+     * @param userId id of user who requested the search.
      * @return result of wolfram alpha.
      */
-    private String getWolframAlphaSearchResult(String requestText) {
+    private String getWolframAlphaSearchResult(String requestText, Long userId) {
         String token = propertiesConfig.getWolframAlphaToken();
         if (StringUtils.isEmpty(token)) {
             throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.UNABLE_TO_FIND_TOKEN));
@@ -78,16 +80,16 @@ public class WolframAlpha implements CommandParent<SendMessage> {
         final String WOLFRAM_ALPHA_API_URL = "http://api.wolframalpha.com/v2/query?output=json&includepodid=Result&";
 
         ResponseEntity<WolframAlphaData> response;
+        quotaService.reserve(ApiQuota.WOLFRAM, userId);
         try {
             response = botRestTemplate.getForEntity(
                     WOLFRAM_ALPHA_API_URL + "appid=" + token + "&input=" + requestText, WolframAlphaData.class);
         } catch (RestClientException e) {
             log.error("Error from api:", e);
+            quotaService.release(ApiQuota.WOLFRAM, userId);
             throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.NO_RESPONSE));
         }
 
-        botStats.incrementWorlframRequests();
-
         if (response.getBody() == null || response.getBody().getQueryresult() == null || response.getBody().getQueryresult().getPods() == null) {
             return speechService.getRandomMessageByTag(BotSpeechTag.FOUND_NOTHING);
         }
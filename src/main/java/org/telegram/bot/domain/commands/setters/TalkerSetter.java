@@ -12,6 +12,7 @@ import org.telegram.bot.domain.enums.Emoji;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.CommandWaitingService;
 import org.telegram.bot.services.SpeechService;
+import org.telegram.bot.services.TalkerCorpusService;
 import org.telegram.bot.services.TalkerDegreeService;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
@@ -33,12 +34,15 @@ public class TalkerSetter implements SetterParent<PartialBotApiMethod<?>> {
     private final TalkerDegreeService talkerDegreeService;
     private final CommandWaitingService commandWaitingService;
     private final SpeechService speechService;
+    private final TalkerCorpusService talkerCorpusService;
 
     private final String CALLBACK_COMMAND = "установить ";
     private final String EMPTY_TALKER_COMMAND = "болтун";
     private final String CALLBACK_SET_TALKER_COMMAND = CALLBACK_COMMAND + EMPTY_TALKER_COMMAND;
     private final String SET_IDLE_MINUTES_COMMAND = EMPTY_TALKER_COMMAND + "m";
     private final String CALLBACK_SET_IDLE_MINUTES_COMMAND = CALLBACK_COMMAND + SET_IDLE_MINUTES_COMMAND;
+    private final String SET_PHRASES_LIMIT_COMMAND = EMPTY_TALKER_COMMAND + "l";
+    private final String CALLBACK_SET_PHRASES_LIMIT_COMMAND = CALLBACK_COMMAND + SET_PHRASES_LIMIT_COMMAND;
 
     @Override
     public PartialBotApiMethod<?> set(Update update, String commandText) {
@@ -53,6 +57,8 @@ public class TalkerSetter implements SetterParent<PartialBotApiMethod<?>> {
                 return getTalkerSetterWithKeyboard(message, chat, false);
             } else if (lowerCaseCommandText.startsWith(SET_IDLE_MINUTES_COMMAND)) {
                 return setIdleMinutes(message, chat, user, commandText);
+            } else if (lowerCaseCommandText.startsWith(SET_PHRASES_LIMIT_COMMAND)) {
+                return setPhrasesLimit(message, chat, user, commandText);
             } else if (lowerCaseCommandText.startsWith(EMPTY_TALKER_COMMAND)) {
                 return selectTalkerDegreeByCallback(message, chat, commandText);
             }
@@ -63,6 +69,8 @@ public class TalkerSetter implements SetterParent<PartialBotApiMethod<?>> {
             return getTalkerSetterWithKeyboard(message, chat, true);
         } else if (lowerCaseCommandText.startsWith(SET_IDLE_MINUTES_COMMAND)) {
             return setIdleMinutes(message, chat, user, commandText);
+        } else if (lowerCaseCommandText.startsWith(SET_PHRASES_LIMIT_COMMAND)) {
+            return setPhrasesLimit(message, chat, user, commandText);
         } else if (lowerCaseCommandText.startsWith(EMPTY_TALKER_COMMAND)) {
             return selectTalkerDegree(message, chat, commandText);
         } else {
@@ -101,6 +109,41 @@ public class TalkerSetter implements SetterParent<PartialBotApiMethod<?>> {
         return sendMessage;
     }
 
+    private PartialBotApiMethod<?> setPhrasesLimit(Message message, Chat chat, User user, String command) {
+        commandWaitingService.remove(chat, user);
+
+        String responseText;
+
+        if (SET_PHRASES_LIMIT_COMMAND.equals(command)) {
+            commandWaitingService.add(chat, user, Set.class, CALLBACK_SET_PHRASES_LIMIT_COMMAND);
+            responseText = "напиши мне максимальное количество фраз болтуна в чате (0 - без ограничения)";
+        } else {
+            int phrasesLimit;
+            try {
+                phrasesLimit = Integer.parseInt(command.substring(SET_PHRASES_LIMIT_COMMAND.length() + 1));
+            } catch (NumberFormatException e) {
+                throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.WRONG_INPUT));
+            }
+
+            if (phrasesLimit < 0) {
+                throw new BotException(speechService.getRandomMessageByTag(BotSpeechTag.WRONG_INPUT));
+            }
+
+            TalkerDegree talkerDegree = talkerDegreeService.get(chat.getChatId());
+            talkerDegree.setPhrasesLimit(phrasesLimit);
+            talkerDegreeService.save(talkerDegree);
+
+            responseText = speechService.getRandomMessageByTag(BotSpeechTag.SAVED);
+        }
+
+        SendMessage sendMessage = new SendMessage();
+        sendMessage.setChatId(message.getChatId().toString());
+        sendMessage.enableHtml(true);
+        sendMessage.setText(responseText);
+
+        return sendMessage;
+    }
+
     private PartialBotApiMethod<?> getTalkerSetterWithKeyboard(Message message, Chat chat, Boolean newMessage) {
         log.debug("Request to get talker setter for chat {}", chat.getChatId());
 
@@ -108,7 +151,9 @@ public class TalkerSetter implements SetterParent<PartialBotApiMethod<?>> {
 
         Integer currentDegreeValue = talkerDegree.getDegree();
         String responseText = "Вероятность: <b>" + currentDegreeValue + "%</b>\n" +
-                "Простой: <b>" + talkerDegree.getChatIdleMinutes() + " м.</b>";
+                "Простой: <b>" + talkerDegree.getChatIdleMinutes() + " м.</b>\n" +
+                "Фраз: <b>" + talkerCorpusService.getPhrasesCount(chat.getChatId()) + "</b> " +
+                "(лимит: <b>" + getPhrasesLimitText(talkerDegree.getPhrasesLimit()) + "</b>)";
 
         if (newMessage) {
             SendMessage sendMessage = new SendMessage();
@@ -186,6 +231,14 @@ public class TalkerSetter implements SetterParent<PartialBotApiMethod<?>> {
         return sendMessage;
     }
 
+    private String getPhrasesLimitText(Integer phrasesLimit) {
+        if (phrasesLimit == null || phrasesLimit == 0) {
+            return "нет";
+        }
+
+        return phrasesLimit.toString();
+    }
+
     private InlineKeyboardMarkup prepareKeyboardWithDegreeButtons() {
         List<List<InlineKeyboardButton>> rows = new ArrayList<>();
         List<InlineKeyboardButton> degreeRow1 = new ArrayList<>();
@@ -219,6 +272,12 @@ public class TalkerSetter implements SetterParent<PartialBotApiMethod<?>> {
         setIdleButton.setCallbackData(CALLBACK_SET_IDLE_MINUTES_COMMAND);
         setIdleRow.add(setIdleButton);
 
+        List<InlineKeyboardButton> setPhrasesLimitRow = new ArrayList<>();
+        InlineKeyboardButton setPhrasesLimitButton = new InlineKeyboardButton();
+        setPhrasesLimitButton.setText(Emoji.MEMO.getEmoji() + "Лимит фраз");
+        setPhrasesLimitButton.setCallbackData(CALLBACK_SET_PHRASES_LIMIT_COMMAND);
+        setPhrasesLimitRow.add(setPhrasesLimitButton);
+
         List<InlineKeyboardButton> backButtonRow = new ArrayList<>();
         InlineKeyboardButton backButton = new InlineKeyboardButton();
         backButton.setText(Emoji.BACK.getEmoji() + "Установки");
@@ -229,6 +288,7 @@ public class TalkerSetter implements SetterParent<PartialBotApiMethod<?>> {
         rows.add(degreeRow2);
         rows.add(degreeRow3);
         rows.add(setIdleRow);
+        rows.add(setPhrasesLimitRow);
         rows.add(backButtonRow);
 
         InlineKeyboardMarkup inlineKeyboardMarkup = new InlineKeyboardMarkup();
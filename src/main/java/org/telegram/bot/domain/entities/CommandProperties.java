@@ -42,4 +42,7 @@ public class CommandProperties {
 
     @Column(name = "defaultdisabledforgroups")
     private Boolean defaultDisabledForGroups;
+
+    @Column(name = "priority")
+    private Integer priority;
 }
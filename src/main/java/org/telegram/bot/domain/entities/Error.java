@@ -20,9 +20,21 @@ public class Error {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Time of the last occurrence.
+     */
     @Column(name = "date_time")
     private LocalDateTime dateTime;
 
+    @Column(name = "first_date_time")
+    private LocalDateTime firstDateTime;
+
+    @Column(name = "fingerprint")
+    private String fingerprint;
+
+    @Column(name = "occurrences")
+    private Long occurrences;
+
     @Column(name = "request")
     private String request;
 
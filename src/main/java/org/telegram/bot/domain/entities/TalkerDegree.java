@@ -38,4 +38,7 @@ public class TalkerDegree {
 
     @Column(name = "chat_idle_minutes")
     private Integer chatIdleMinutes;
+
+    @Column(name = "phrases_limit")
+    private Integer phrasesLimit;
 }
@@ -26,6 +26,9 @@ public class TalkerPhrase {
     @Column(name = "phrase")
     private String phrase;
 
+    @Column(name = "hash")
+    private String hash;
+
     @ManyToOne
     @JoinColumn(name = "chatid", nullable = false)
     private Chat chat;
@@ -0,0 +1,24 @@
+package org.telegram.bot.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Size of bucket of user activity history.
+ */
+@RequiredArgsConstructor
+@Getter
+public enum ActivityGranularity {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS),
+    ;
+
+    private final ChronoUnit unit;
+
+    public LocalDateTime getBucket(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,42 @@
+package org.telegram.bot.domain.enums;
+
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.telegrambots.meta.api.objects.Message;
+
+import java.util.function.Predicate;
+
+/**
+ * What an update must contain to be passed to the {@link org.telegram.bot.domain.TextAnalyzer}.
+ */
+public enum AnalyzerRequirement {
+    /**
+     * Text of message. Data of callback query is not a text.
+     */
+    TEXT(updateContext -> !updateContext.getUpdate().hasCallbackQuery() && updateContext.getMessage().hasText()),
+    /**
+     * Photo in message.
+     */
+    PHOTO(updateContext -> !updateContext.getUpdate().hasCallbackQuery() && updateContext.getMessage().hasPhoto()),
+    /**
+     * Message is a reply to another message.
+     */
+    REPLY(updateContext -> updateContext.getMessage().getReplyToMessage() != null),
+    /**
+     * Message is from a group chat.
+     */
+    GROUP_CHAT(updateContext -> {
+        Message message = updateContext.getMessage();
+        return message.getChatId() != null && message.getChatId() < 0;
+    }),
+    ;
+
+    private final Predicate<UpdateContext> condition;
+
+    AnalyzerRequirement(Predicate<UpdateContext> condition) {
+        this.condition = condition;
+    }
+
+    public boolean isSatisfiedBy(UpdateContext updateContext) {
+        return condition.test(updateContext);
+    }
+}
@@ -0,0 +1,29 @@
+package org.telegram.bot.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Enum of budgets of paid or limited external APIs. Zero limit means no limit.
+ */
+@RequiredArgsConstructor
+@Getter
+public enum ApiQuota {
+    GOOGLE("googleQuota", BotMetric.GOOGLE_REQUESTS, 100, 10, 30),
+    KINOPOISK("kinopoiskQuota", BotMetric.KINOPOISK_REQUESTS, 200, 20, 50),
+    WOLFRAM("wolframQuota", BotMetric.WOLFRAM_REQUESTS, 1000, 20, 100),
+    /**
+     * Daily limit is taken from property russianPostRequestsLimit. Requests are made by timer, not by users.
+     */
+    RUSSIAN_POST("russianPostQuota", BotMetric.RUSSIAN_POST_REQUESTS, 100, 0, 0),
+    ;
+
+    private final String workParamName;
+    /**
+     * Gauge of remaining daily requests.
+     */
+    private final BotMetric metric;
+    private final int dailyLimit;
+    private final int perMinuteLimit;
+    private final int perUserDailyLimit;
+}
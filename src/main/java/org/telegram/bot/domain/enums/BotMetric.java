@@ -0,0 +1,50 @@
+package org.telegram.bot.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Enum of metrics of bot work and names of WorkParams which they are persisted with.
+ */
+@RequiredArgsConstructor
+@Getter
+public enum BotMetric {
+    RECEIVED_MESSAGES(Type.COUNTER, "totalReceivedMessages", 0),
+    COMMANDS_PROCESSED(Type.COUNTER, "totalCommandsProcessed", 0),
+    RUNNING_TIME(Type.COUNTER, "totalRunningTime", 0),
+    ERRORS(Type.COUNTER, null, 0),
+    SCREENSHOTS(Type.COUNTER, null, 0),
+    QUOTA_REJECTIONS(Type.COUNTER, null, 0),
+    USER_CACHE_HITS(Type.COUNTER, null, 0),
+    USER_CACHE_MISSES(Type.COUNTER, null, 0),
+    USERNAME_CACHE_HITS(Type.COUNTER, null, 0),
+    USERNAME_CACHE_MISSES(Type.COUNTER, null, 0),
+    CHAT_CACHE_HITS(Type.COUNTER, null, 0),
+    CHAT_CACHE_MISSES(Type.COUNTER, null, 0),
+    GOOGLE_REQUESTS(Type.GAUGE, null, 100),
+    KINOPOISK_REQUESTS(Type.GAUGE, null, 200),
+    WOLFRAM_REQUESTS(Type.GAUGE, null, 1000),
+    RUSSIAN_POST_REQUESTS(Type.GAUGE, null, 100),
+    LAST_TV_UPDATE(Type.GAUGE, "lastTvUpdate", 0),
+    LAST_TRACKS_UPDATE(Type.GAUGE, "lastTracksUpdate", 0),
+    ;
+
+    private final Type type;
+    private final String workParamName;
+    private final long defaultValue;
+
+    public boolean isPersisted() {
+        return workParamName != null;
+    }
+
+    public enum Type {
+        /**
+         * Grows during the work. Its total is the persisted value plus the increments since start.
+         */
+        COUNTER,
+        /**
+         * Current value (remaining requests, time of update...), which is set directly.
+         */
+        GAUGE
+    }
+}
@@ -21,6 +21,9 @@ public enum BotSpeechTag {
     SETTING_REQUIRED("settingRequired"),
     DUPLICATE_ENTRY("duplicateEntry"),
     TOO_BIG_FILE("tooBigFile"),
+    BUSY("busy"),
+    QUOTA_EXCEEDED("quotaExceeded"),
+    USER_QUOTA_EXCEEDED("userQuotaExceeded"),
     ;
 
     private final String value;
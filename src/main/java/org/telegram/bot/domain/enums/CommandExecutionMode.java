@@ -0,0 +1,16 @@
+package org.telegram.bot.domain.enums;
+
+/**
+ * Modes of asynchronous commands processing.
+ */
+public enum CommandExecutionMode {
+    /**
+     * All commands are processed by the shared pool without any ordering.
+     */
+    SHARED,
+    /**
+     * Commands of the same chat are processed one by one, different chats are processed in parallel.
+     */
+    CHAT_LANES,
+    ;
+}
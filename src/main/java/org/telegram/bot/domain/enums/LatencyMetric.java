@@ -0,0 +1,22 @@
+package org.telegram.bot.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Enum of latency histograms and names of them in exported metrics.
+ */
+@RequiredArgsConstructor
+@Getter
+public enum LatencyMetric {
+    COMMAND_QUEUE_WAIT("bot_command_queue_wait", "command", "Time of command in queue before processing"),
+    COMMAND_PARSE("bot_command_parse", "command", "Time of producing response to command"),
+    COMMAND_SEND("bot_command_send", "command", "Time of sending response to command"),
+    EXTERNAL_API("bot_external_api_request", "api", "Time of request to external API"),
+    REPOSITORY("bot_repository_call", "method", "Time of call of database repository method"),
+    ;
+
+    private final String name;
+    private final String label;
+    private final String help;
+}
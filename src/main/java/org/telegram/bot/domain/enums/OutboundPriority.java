@@ -0,0 +1,19 @@
+package org.telegram.bot.domain.enums;
+
+/**
+ * Priority of message sent to telegram. Messages are sent in order of declaration.
+ */
+public enum OutboundPriority {
+    /**
+     * Responses to commands of users.
+     */
+    INTERACTIVE,
+    /**
+     * Personal notifications (reminders, parcels, trainings...).
+     */
+    NOTIFICATION,
+    /**
+     * Messages sent to many chats at once (news, holidays...).
+     */
+    BROADCAST
+}
@@ -0,0 +1,16 @@
+package org.telegram.bot.domain.enums;
+
+/**
+ * Modes of receiving updates from Telegram.
+ */
+public enum UpdatesMode {
+    /**
+     * Bot requests updates itself in one polling loop.
+     */
+    LONG_POLLING,
+    /**
+     * Telegram posts updates to the webhook of bot.
+     */
+    WEBHOOK,
+    ;
+}
@@ -0,0 +1,59 @@
+package org.telegram.bot.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Enum of counters of UserStats. Every counter is stored in three columns: per month, per day and for all time.
+ */
+@RequiredArgsConstructor
+@Getter
+public enum UserStatsCounter {
+    MESSAGES("messages"),
+    STICKERS("stickers"),
+    PHOTOS("photos"),
+    ANIMATIONS("animations"),
+    AUDIO("audio"),
+    DOCUMENTS("documents"),
+    VIDEOS("videos"),
+    VIDEO_NOTES("videonotes"),
+    VOICES("voices"),
+    COMMANDS("commands"),
+    KARMA("karma"),
+    GOODNESS("goodness"),
+    WICKEDNESS("wickedness"),
+    ;
+
+    private final String suffix;
+
+    public String getColumn() {
+        return "numberof" + suffix;
+    }
+
+    public String getPerDayColumn() {
+        return "numberof" + suffix + "perday";
+    }
+
+    public String getAllColumn() {
+        return "numberofall" + suffix;
+    }
+
+    /**
+     * Get counter by name of field of UserStats.
+     *
+     * @param fieldName name of field, stored per month, per day or for all time.
+     * @return counter or null if field is not a counter.
+     */
+    public static UserStatsCounter getByFieldName(String fieldName) {
+        String column = fieldName.toLowerCase(Locale.ROOT);
+        return Arrays.stream(UserStatsCounter.values())
+                .filter(counter -> column.equals(counter.getColumn())
+                        || column.equals(counter.getPerDayColumn())
+                        || column.equals(counter.getAllColumn()))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,38 @@
+package org.telegram.bot.domain.enums;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Enum of periods, for which counters of UserStats are stored.
+ */
+@RequiredArgsConstructor
+public enum UserStatsPeriod {
+    MONTH(UserStatsCounter::getColumn),
+    DAY(UserStatsCounter::getPerDayColumn),
+    ALL(UserStatsCounter::getAllColumn),
+    ;
+
+    private final Function<UserStatsCounter, String> column;
+
+    public String getColumn(UserStatsCounter counter) {
+        return column.apply(counter);
+    }
+
+    /**
+     * Get period by name of field of UserStats.
+     *
+     * @param fieldName name of field of counter.
+     * @return period or null if field is not a counter.
+     */
+    public static UserStatsPeriod getByFieldName(String fieldName) {
+        String fieldColumn = fieldName.toLowerCase(Locale.ROOT);
+        return Arrays.stream(UserStatsPeriod.values())
+                .filter(period -> Arrays.stream(UserStatsCounter.values()).anyMatch(counter -> fieldColumn.equals(period.getColumn(counter))))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,37 @@
+package org.telegram.bot.domain.events;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Event of changing of access level of user or chat, or of the list of disabled commands of chat.
+ */
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class PermissionsChangedEvent {
+
+    private final Type type;
+    private final Long id;
+
+    public static PermissionsChangedEvent ofUser(Long userId) {
+        return new PermissionsChangedEvent(Type.USER_LEVEL, userId);
+    }
+
+    public static PermissionsChangedEvent ofChat(Long chatId) {
+        return new PermissionsChangedEvent(Type.CHAT_LEVEL, chatId);
+    }
+
+    public static PermissionsChangedEvent ofDisabledCommands(Long chatId) {
+        return new PermissionsChangedEvent(Type.DISABLED_COMMANDS, chatId);
+    }
+
+    public enum Type {
+        USER_LEVEL,
+        CHAT_LEVEL,
+        DISABLED_COMMANDS,
+    }
+}
@@ -3,5 +3,10 @@ package org.telegram.bot.repositories;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.telegram.bot.domain.entities.Error;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface ErrorRepository extends JpaRepository<Error, Long> {
+    List<Error> findByFingerprintIn(Collection<String> fingerprints);
+    List<Error> findAllByOrderByDateTimeDesc();
 }
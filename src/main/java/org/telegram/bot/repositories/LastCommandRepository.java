@@ -2,7 +2,6 @@ package org.telegram.bot.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
-import org.telegram.bot.domain.entities.Chat;
 import org.telegram.bot.domain.entities.LastCommand;
 
 /**
@@ -10,5 +9,4 @@ import org.telegram.bot.domain.entities.LastCommand;
  */
 @Repository
 public interface LastCommandRepository extends JpaRepository<LastCommand, Long> {
-    LastCommand findByChat(Chat chat);
 }
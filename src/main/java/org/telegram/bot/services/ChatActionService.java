@@ -0,0 +1,38 @@
+package org.telegram.bot.services;
+
+import org.telegram.telegrambots.meta.api.methods.ActionType;
+
+import java.util.Set;
+
+/**
+ * Service Interface for showing chat actions (typing, uploading photo...) while commands are working.
+ */
+public interface ChatActionService {
+
+    /**
+     * Send the action to the chat without waiting for the response.
+     * Repeats of the same action while the previous one is still shown are dropped.
+     * The action is refreshed until it is stopped, so long-running commands keep their indicator.
+     * @param chatId - id of Chat.
+     * @param action - action to show.
+     */
+    void sendAction(Long chatId, ActionType action);
+
+    /**
+     * Start collecting of actions sent by the current thread for the command.
+     */
+    void startCommand();
+
+    /**
+     * Finish collecting of actions sent by the current thread.
+     * @return actions sent by the command.
+     */
+    Set<ActionType> finishCommand();
+
+    /**
+     * Stop refreshing of the actions sent by the command. Actions of other commands of the chat are kept.
+     * @param chatId - id of Chat.
+     * @param actions - actions sent by the command.
+     */
+    void stopActions(Long chatId, Set<ActionType> actions);
+}
@@ -1,6 +1,7 @@
 package org.telegram.bot.services;
 
 import org.springframework.data.domain.Page;
+import org.telegram.bot.domain.CommandParent;
 import org.telegram.bot.domain.entities.CommandProperties;
 
 import java.util.List;
@@ -51,6 +52,14 @@ public interface CommandPropertiesService {
      */
     CommandProperties getCommand(Class<?> commandClass);
 
+    /**
+     * Get the instance of command for processing.
+     *
+     * @param commandProperties properties of command.
+     * @return command bean or null if it is missing.
+     */
+    CommandParent<?> getCommandInstance(CommandProperties commandProperties);
+
     /**
      * Get all CommandProperties.
      *
@@ -65,4 +74,17 @@ public interface CommandPropertiesService {
      * @return the persisted entities.
      */
     List<CommandProperties> getAllDisabledByDefaultForGroups();
+
+    /**
+     * Save a CommandProperties and rebuild the routing index.
+     *
+     * @param commandProperties the entity to save.
+     * @return the persisted entity.
+     */
+    CommandProperties save(CommandProperties commandProperties);
+
+    /**
+     * Rebuild the routing index of commands from the persisted entities.
+     */
+    void reload();
 }
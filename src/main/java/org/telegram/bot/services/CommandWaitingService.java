@@ -65,4 +65,9 @@ public interface CommandWaitingService {
      * @param user entity of User.
      */
     void remove(Chat chat, User user);
+
+    /**
+     * Replace the stored snapshot with CommandWaitings kept in memory.
+     */
+    void snapshot();
 }
@@ -7,14 +7,6 @@ import org.telegram.bot.domain.entities.LastCommand;
  * Service Interface for managing {@link org.telegram.bot.domain.entities.LastCommand}.
  */
 public interface LastCommandService {
-    /**
-     * Get a LastCommand.
-     *
-     * @param id of LastCommand to get.
-     * @return the persisted entity.
-     */
-    LastCommand get(Long id);
-
     /**
      * Get a LastCommand.
      *
@@ -30,4 +22,9 @@ public interface LastCommandService {
      * @return the persisted entity.
      */
     LastCommand save(LastCommand lastCommand);
+
+    /**
+     * Replace the stored snapshot with LastCommands kept in memory.
+     */
+    void snapshot();
 }
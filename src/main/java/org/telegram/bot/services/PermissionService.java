@@ -0,0 +1,40 @@
+package org.telegram.bot.services;
+
+import org.telegram.bot.domain.entities.CommandProperties;
+import org.telegram.bot.domain.enums.AccessLevel;
+
+/**
+ * Service Interface for checking access of users to commands.
+ * Levels and disabled commands are cached and invalidated by {@link org.telegram.bot.domain.events.PermissionsChangedEvent}.
+ */
+public interface PermissionService {
+
+    /**
+     * Get effective access level of user in chat: the greater of levels of user and chat,
+     * or {@link AccessLevel#BANNED} for banned user.
+     *
+     * @param userId id of User.
+     * @param chatId id of Chat.
+     * @return access level.
+     */
+    AccessLevel getAccessLevel(Long userId, Long chatId);
+
+    /**
+     * Check if command is disabled in chat.
+     *
+     * @param chatId id of Chat.
+     * @param commandProperties CommandProperties of command.
+     * @return true if command is disabled.
+     */
+    boolean isCommandDisabled(Long chatId, CommandProperties commandProperties);
+
+    /**
+     * Check if command is enabled in chat and user has enough access level for it.
+     *
+     * @param userId id of User.
+     * @param chatId id of Chat.
+     * @param commandProperties CommandProperties of command.
+     * @return true if user can use command.
+     */
+    boolean isCommandAllowed(Long userId, Long chatId, CommandProperties commandProperties);
+}
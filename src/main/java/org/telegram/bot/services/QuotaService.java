@@ -0,0 +1,36 @@
+package org.telegram.bot.services;
+
+import org.telegram.bot.domain.enums.ApiQuota;
+
+/**
+ * Service Interface for managing budgets of external APIs.
+ */
+public interface QuotaService {
+
+    /**
+     * Reserve one request to API before calling it.
+     * @param apiQuota - budget of API.
+     * @param userId - id of User who caused the request, null if unknown.
+     * @throws org.telegram.bot.exception.BotException with message for user if budget is exhausted.
+     */
+    void reserve(ApiQuota apiQuota, Long userId);
+
+    /**
+     * Give back the reserved request, when the call has not reached API.
+     * @param apiQuota - budget of API.
+     * @param userId - id of User who caused the request, null if unknown.
+     */
+    void release(ApiQuota apiQuota, Long userId);
+
+    /**
+     * Get number of remaining requests for today.
+     * @param apiQuota - budget of API.
+     * @return number of remaining requests.
+     */
+    int getRemaining(ApiQuota apiQuota);
+
+    /**
+     * Save daily usage of all APIs to WorkParams.
+     */
+    void save();
+}
@@ -0,0 +1,25 @@
+package org.telegram.bot.services;
+
+import org.telegram.bot.domain.TalkerCompactionReport;
+
+/**
+ * Service Interface for maintenance of talker phrases and words.
+ */
+public interface TalkerCorpusService {
+
+    /**
+     * Get count of phrases of chat.
+     *
+     * @param chatId id of Chat.
+     * @return count of phrases.
+     */
+    long getPhrasesCount(Long chatId);
+
+    /**
+     * Compact talker corpus: merge phrases with equal normalized text, prune phrases of chats over their limits,
+     * delete duplicated and orphaned pairs and words without phrases.
+     *
+     * @return report of compaction.
+     */
+    TalkerCompactionReport compact();
+}
@@ -0,0 +1,39 @@
+package org.telegram.bot.services;
+
+import org.telegram.bot.domain.entities.TalkerPhrase;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Service Interface for searching of talker phrases by words of chat.
+ */
+public interface TalkerIndexService {
+
+    /**
+     * Rate phrases of chat by the number of words of text they were said in reply to.
+     *
+     * @param chatId id of Chat.
+     * @param words words of text.
+     * @param phraseFilter filter of phrases.
+     * @return rating of phrases by their texts.
+     */
+    Map<String, Integer> ratePhrases(Long chatId, Collection<String> words, Predicate<String> phraseFilter);
+
+    /**
+     * Add learned pairs of words and phrases to the index of chat, if it is loaded.
+     *
+     * @param chatId id of Chat.
+     * @param words words of replied message.
+     * @param phrases stored phrases of reply.
+     */
+    void add(Long chatId, Collection<String> words, Collection<TalkerPhrase> phrases);
+
+    /**
+     * Drop the index of chat, so it will be loaded again on demand.
+     *
+     * @param chatId id of Chat.
+     */
+    void invalidate(Long chatId);
+}
@@ -0,0 +1,19 @@
+package org.telegram.bot.services;
+
+import java.util.List;
+
+/**
+ * Service Interface for learning of talker by replies of chat.
+ */
+public interface TalkerLearningService {
+
+    /**
+     * Queue pairs of words of replied message and phrases of reply for learning.
+     * If the queue is full, the lesson is dropped.
+     *
+     * @param chatId id of Chat.
+     * @param words words of replied message.
+     * @param phrases phrases of reply.
+     */
+    void learn(Long chatId, List<String> words, List<String> phrases);
+}
@@ -0,0 +1,24 @@
+package org.telegram.bot.services;
+
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+
+/**
+ * Service Interface for building {@link org.telegram.bot.domain.UpdateContext}.
+ */
+public interface UpdateContextService {
+
+    /**
+     * Create a context of received update.
+     *
+     * @param update received update.
+     * @param message message of update.
+     * @param user sender of update.
+     * @param textOfMessage text of message or data of callback.
+     * @param editedMessage true if message was edited.
+     * @return context with lazily loaded entities.
+     */
+    UpdateContext create(Update update, Message message, User user, String textOfMessage, boolean editedMessage);
+}
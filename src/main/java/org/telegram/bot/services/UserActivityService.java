@@ -0,0 +1,39 @@
+package org.telegram.bot.services;
+
+import org.telegram.bot.domain.UserActivityTotal;
+import org.telegram.bot.domain.UserStatsDeltas;
+import org.telegram.bot.domain.enums.UserStatsCounter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service Interface for managing time-bucketed history of user activity.
+ */
+public interface UserActivityService {
+
+    /**
+     * Add changes of user stats to the hourly bucket.
+     * @param deltas - changes of user stats.
+     * @param dateTime - time of changes.
+     */
+    void add(List<UserStatsDeltas.Delta> deltas, LocalDateTime dateTime);
+
+    /**
+     * Get users with the largest sum of counter for period.
+     * @param chatId - id of Chat.
+     * @param counter - counter of user stats.
+     * @param from - start of period, inclusive.
+     * @param to - end of period, exclusive.
+     * @param limit - max number of users.
+     * @return sums of counter ordered by descending.
+     */
+    List<UserActivityTotal> getTop(Long chatId, UserStatsCounter counter, LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * Merge hourly buckets into daily ones.
+     * @param before - hourly buckets before this time will be merged.
+     * @return number of merged hourly buckets.
+     */
+    int rollUp(LocalDateTime before);
+}
@@ -1,13 +1,17 @@
 package org.telegram.bot.services;
 
 import org.telegram.bot.Bot;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.domain.UserActivityTotal;
 import org.telegram.bot.domain.entities.Chat;
 import org.telegram.bot.domain.entities.CommandProperties;
 import org.telegram.bot.domain.entities.User;
 import org.telegram.bot.domain.entities.UserStats;
+import org.telegram.bot.domain.enums.UserStatsCounter;
+import org.telegram.bot.domain.enums.UserStatsPeriod;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
-import org.telegram.telegrambots.meta.api.objects.Message;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -45,11 +49,20 @@ public interface UserStatsService {
     List<UserStats> save(List<UserStats> userStatsList);
 
     /**
-     * Check and save updates for User, Chat and UserStats etc entites.
+     * Check and save updates for User and Chat entities of batch of updates.
+     * Every user and chat is saved only once, the stored entities are set to the contexts.
      *
-     * @param message - received Message.
+     * @param updateContexts - contexts of received updates.
      */
-    void updateEntitiesInfo(Message message, boolean editedMessage);
+    void updateEntitiesInfo(List<UpdateContext> updateContexts);
+
+    /**
+     * Count messages of batch of updates in UserStats. The counters are written to the database by {@link #flush()}.
+     * Edited messages are not counted.
+     *
+     * @param updateContexts - contexts of received updates.
+     */
+    void updateUserStats(List<UpdateContext> updateContexts);
 
     /**
      * Get list of users of chat.
@@ -60,25 +73,26 @@ public interface UserStatsService {
     List<UserStats> getActiveUserStatsListForChat(Chat chat);
 
     /**
-     * Get list of users of chat.
+     * Get users of chat with the largest non-zero values of counter.
      *
      * @param chat - Chat entity.
-     * @param sortBy - parameter to sort records.
-     * @param limit - limit of returing records.
-     * @return list of users of chat
+     * @param counter - counter of user stats.
+     * @param period - period of counter.
+     * @param limit - max number of users.
+     * @return values of counter ordered by descending.
      */
-    List<UserStats> getSortedUserStatsListForChat(Chat chat, String sortBy, int limit);
+    List<UserActivityTotal> getTop(Chat chat, UserStatsCounter counter, UserStatsPeriod period, int limit);
 
     /**
-     * Get list of users of chat with not null Karma.
+     * Get position of user in chat by counter.
      *
      * @param chat - Chat entity.
-     * @param sortBy - parameter to sort records.
-     * @param limit - limit of returing records.
-     * @param allKarma - flag for allKarma.
-     * @return list of users of chat
+     * @param user - User entity.
+     * @param counter - counter of user stats.
+     * @param period - period of counter.
+     * @return position starting from 1 or 0 if user has no stats in chat.
      */
-    List<UserStats> getSortedUserStatsListWithKarmaForChat(Chat chat, String sortBy, int limit, boolean allKarma);
+    int getPosition(Chat chat, User user, UserStatsCounter counter, UserStatsPeriod period);
 
     /**
      * Clear user stats by last Month.
@@ -106,4 +120,36 @@ public interface UserStatsService {
      * @param commandProperties for save last command
      */
     void incrementUserStatsCommands(Chat chat, User user, CommandProperties commandProperties);
+
+    /**
+     * Increment the user statistics of using commands.
+     * @param updateContext context of update with Chat and User
+     * @param commandProperties for save last command
+     */
+    void incrementUserStatsCommands(UpdateContext updateContext, CommandProperties commandProperties);
+
+    /**
+     * Change karma of user and goodness or wickedness of user who changes it.
+     * @param chat Chat where are Users
+     * @param user User who changes karma
+     * @param anotherUser User whose karma will be changed
+     * @param value 1 or -1
+     */
+    void changeKarma(Chat chat, User user, User anotherUser, int value);
+
+    /**
+     * Get users with the largest sum of counter for period.
+     * @param chat - Chat entity.
+     * @param counter - counter of user stats.
+     * @param from - start of period, inclusive.
+     * @param to - end of period, exclusive.
+     * @param limit - max number of users.
+     * @return sums of counter ordered by descending.
+     */
+    List<UserActivityTotal> getTopForPeriod(Chat chat, UserStatsCounter counter, LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * Write accumulated changes of UserStats to the database.
+     */
+    void flush();
 }
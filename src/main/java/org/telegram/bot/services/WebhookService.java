@@ -0,0 +1,37 @@
+package org.telegram.bot.services;
+
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+/**
+ * Service Interface for receiving updates through webhook.
+ */
+public interface WebhookService {
+
+    /**
+     * Check if bot receives updates through webhook.
+     *
+     * @return true if webhook mode is on.
+     */
+    boolean isEnabled();
+
+    /**
+     * Check the secret token from header of request.
+     *
+     * @param secretToken token received with update.
+     * @return true if the token matches the one that was set for webhook.
+     */
+    boolean isSecretTokenValid(String secretToken);
+
+    /**
+     * Hand off the update to processing without waiting for it.
+     *
+     * @param update received update.
+     * @return false if the update cannot be accepted now.
+     */
+    boolean receive(Update update);
+
+    /**
+     * Set the webhook of bot.
+     */
+    void register();
+}
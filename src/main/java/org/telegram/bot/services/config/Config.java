@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -12,6 +13,14 @@ import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
+import org.telegram.bot.domain.MetricsRegistry;
+import org.telegram.bot.domain.enums.UpdatesMode;
+import org.telegram.bot.utils.BoundedPriorityExecutor;
+import org.telegram.bot.utils.ChatLaneExecutor;
+import org.telegram.bot.utils.OutboundDispatcher;
+import org.telegram.telegrambots.meta.TelegramBotsApi;
+import org.telegram.telegrambots.meta.generics.LongPollingBot;
+import org.telegram.telegrambots.starter.TelegramBotInitializer;
 
 import java.time.Clock;
 import java.util.ArrayList;
@@ -22,8 +31,14 @@ import java.util.List;
 public class Config {
 
     @Bean
-    public RestTemplate botRestTemplate() {
+    public MetricsRegistry metricsRegistry() {
+        return new MetricsRegistry();
+    }
+
+    @Bean
+    public RestTemplate botRestTemplate(MetricsRegistry metricsRegistry) {
         RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new ExternalApiMetricsInterceptor(metricsRegistry));
 
         List<HttpMessageConverter<?>> messageConverters = new ArrayList<>();
         MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
@@ -35,8 +50,55 @@ public class Config {
     }
 
     @Bean
-    public RestTemplate defaultRestTemplate() {
-        return new RestTemplate();
+    public RestTemplate defaultRestTemplate(MetricsRegistry metricsRegistry) {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new ExternalApiMetricsInterceptor(metricsRegistry));
+
+        return restTemplate;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    public ChatLaneExecutor chatLaneExecutor(PropertiesConfig propertiesConfig) {
+        return new ChatLaneExecutor(propertiesConfig.getCommandThreads(), propertiesConfig.getChatLaneMailboxSize(), "chat-lane-");
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPriorityExecutor commandExecutor(PropertiesConfig propertiesConfig) {
+        return new BoundedPriorityExecutor(propertiesConfig.getCommandThreads(), propertiesConfig.getCommandQueueCapacity(), "command-");
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ChatLaneExecutor updateLaneExecutor(PropertiesConfig propertiesConfig) {
+        return new ChatLaneExecutor(propertiesConfig.getCommandThreads(), propertiesConfig.getChatLaneMailboxSize(), "update-lane-");
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ChatLaneExecutor analyzerLaneExecutor(PropertiesConfig propertiesConfig) {
+        return new ChatLaneExecutor(propertiesConfig.getAnalyzerThreads(), propertiesConfig.getChatLaneMailboxSize(), "analyzer-lane-");
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public OutboundDispatcher outboundDispatcher(PropertiesConfig propertiesConfig) {
+        return new OutboundDispatcher(
+                propertiesConfig.getOutboundMessagesPerSecond(),
+                propertiesConfig.getOutboundGroupMessagesPerMinute(),
+                propertiesConfig.getOutboundPrivateMessagesPerSecond(),
+                propertiesConfig.getOutboundMaxRetries(),
+                "outbound-");
+    }
+
+    @Bean
+    public TelegramBotInitializer telegramBotInitializer(TelegramBotsApi telegramBotsApi,
+                                                         ObjectProvider<List<LongPollingBot>> longPollingBots,
+                                                         PropertiesConfig propertiesConfig) {
+        List<LongPollingBot> botsToRegister = Collections.emptyList();
+        // in webhook mode updates are posted to WebhookController, so bots must not be polling
+        if (UpdatesMode.LONG_POLLING.equals(propertiesConfig.getUpdatesMode())) {
+            botsToRegister = longPollingBots.getIfAvailable(Collections::emptyList);
+        }
+
+        return new TelegramBotInitializer(telegramBotsApi, botsToRegister, Collections.emptyList());
     }
 
     @Bean
@@ -0,0 +1,33 @@
+package org.telegram.bot.services.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.telegram.bot.domain.MetricsRegistry;
+import org.telegram.bot.domain.enums.LatencyMetric;
+
+import java.io.IOException;
+
+/**
+ * Registers latency and errors of requests to external APIs, labeled by host of API.
+ */
+@RequiredArgsConstructor
+public class ExternalApiMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final MetricsRegistry metricsRegistry;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        long start = System.nanoTime();
+        boolean error = true;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            error = response.getRawStatusCode() >= 400;
+            return response;
+        } finally {
+            metricsRegistry.registerLatency(LatencyMetric.EXTERNAL_API, request.getURI().getHost(), System.nanoTime() - start, error);
+        }
+    }
+}
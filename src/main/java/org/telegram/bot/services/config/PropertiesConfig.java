@@ -7,6 +7,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.telegram.bot.domain.enums.CommandExecutionMode;
+import org.telegram.bot.domain.enums.UpdatesMode;
 
 @Configuration
 @ConfigurationProperties
@@ -30,6 +32,20 @@ public class PropertiesConfig {
     @Getter(AccessLevel.NONE)
     private Integer russianPostRequestsLimit;
     private Integer chatGPTContextSize = 16;
+    private CommandExecutionMode commandExecutionMode = CommandExecutionMode.SHARED;
+    private Integer commandThreads = Runtime.getRuntime().availableProcessors();
+    private Integer chatLaneMailboxSize = 100;
+    private Integer commandQueueCapacity = 1000;
+    private Integer analyzerThreads = 2;
+    private UpdatesMode updatesMode = UpdatesMode.LONG_POLLING;
+    private String webhookUrl;
+    private String webhookSecretToken;
+    private String metricsToken;
+    private Integer outboundThreads = 4;
+    private Integer outboundMessagesPerSecond = 30;
+    private Integer outboundGroupMessagesPerMinute = 20;
+    private Integer outboundPrivateMessagesPerSecond = 1;
+    private Integer outboundMaxRetries = 3;
 
     public Integer getRussianPostRequestsLimit() {
         if (this.russianPostRequestsLimit == null) {
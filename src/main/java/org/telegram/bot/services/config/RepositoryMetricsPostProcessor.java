@@ -0,0 +1,49 @@
+package org.telegram.bot.services.config;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.telegram.bot.domain.MetricsRegistry;
+import org.telegram.bot.domain.enums.LatencyMetric;
+
+/**
+ * Adds registration of latency of every method to proxies of repositories.
+ * Registry is taken lazily, so the post processor does not force early creation of other beans.
+ */
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MetricsRegistry> metricsRegistryProvider;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Repository && bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(0, getMetricsInterceptor(beanName));
+        }
+
+        return bean;
+    }
+
+    private MethodInterceptor getMetricsInterceptor(String repositoryName) {
+        return invocation -> {
+            long start = System.nanoTime();
+            boolean error = true;
+            try {
+                Object result = invocation.proceed();
+                error = false;
+                return result;
+            } finally {
+                metricsRegistryProvider.getObject().registerLatency(
+                        LatencyMetric.REPOSITORY,
+                        repositoryName + "." + invocation.getMethod().getName(),
+                        System.nanoTime() - start,
+                        error);
+            }
+        };
+    }
+}
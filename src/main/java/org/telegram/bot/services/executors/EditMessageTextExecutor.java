@@ -5,11 +5,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.domain.enums.OutboundPriority;
+import org.telegram.bot.utils.OutboundDispatcher;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
+import java.util.concurrent.CompletionStage;
+
 @RequiredArgsConstructor
 @Service
 @Slf4j
@@ -17,6 +21,7 @@ public class EditMessageTextExecutor implements MethodExecutor {
 
     private final Bot bot;
     private final BotStats botStats;
+    private final OutboundDispatcher outboundDispatcher;
 
     @Override
     public String getMethod() {
@@ -24,18 +29,20 @@ public class EditMessageTextExecutor implements MethodExecutor {
     }
 
     @Override
-    public void executeMethod(PartialBotApiMethod<?> method, Message message) {
+    public CompletionStage<?> executeMethod(PartialBotApiMethod<?> method, Message message) {
         EditMessageText editMessageText = (EditMessageText) method;
         log.info("To " + message.getChatId() + ": edited message " + editMessageText.getText());
 
-        try {
-            bot.execute(editMessageText);
-        } catch (TelegramApiException e) {
-            botStats.incrementErrors(message, method, e, "error sending response");
-            log.error("Error: cannot send response: {}", e.getMessage());
-        } catch (Exception e) {
-            botStats.incrementErrors(message, method, e, "unexpected error");
-            log.error("Unexpected error: ", e);
-        }
+        return outboundDispatcher.submit(message.getChatId(), OutboundPriority.INTERACTIVE, () -> bot.executeAsync(editMessageText))
+                .exceptionally(e -> {
+                    if (e instanceof TelegramApiException) {
+                        botStats.incrementErrors(message, method, e, "error sending response");
+                        log.error("Error: cannot send response: {}", e.getMessage());
+                    } else {
+                        botStats.incrementErrors(message, method, e, "unexpected error");
+                        log.error("Unexpected error: ", e);
+                    }
+                    return null;
+                });
     }
 }
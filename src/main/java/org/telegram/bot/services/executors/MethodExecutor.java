@@ -3,6 +3,8 @@ package org.telegram.bot.services.executors;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.objects.Message;
 
+import java.util.concurrent.CompletionStage;
+
 /**
  * Telegram method handler.
  */
@@ -16,10 +18,12 @@ public interface MethodExecutor {
     String getMethod();
 
     /**
-     * Execute telegram method.
+     * Execute telegram method without waiting for the response.
+     * Errors are handled by the executor, so the returned stage is not completed exceptionally.
      *
      * @param method handling method.
      * @param message handling message.
+     * @return stage completed when the method is executed or finally failed.
      */
-    void executeMethod(PartialBotApiMethod<?> method, Message message);
+    CompletionStage<?> executeMethod(PartialBotApiMethod<?> method, Message message);
 }
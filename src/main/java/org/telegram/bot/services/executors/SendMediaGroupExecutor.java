@@ -5,6 +5,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.domain.enums.OutboundPriority;
+import org.telegram.bot.utils.OutboundDispatcher;
+import org.telegram.bot.utils.TelegramUtils;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.SendMediaGroup;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
@@ -14,6 +17,12 @@ import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.media.InputMedia;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
 @RequiredArgsConstructor
 @Service
 @Slf4j
@@ -21,6 +30,7 @@ public class SendMediaGroupExecutor implements MethodExecutor {
 
     private final Bot bot;
     private final BotStats botStats;
+    private final OutboundDispatcher outboundDispatcher;
 
     @Override
     public String getMethod() {
@@ -28,20 +38,30 @@ public class SendMediaGroupExecutor implements MethodExecutor {
     }
 
     @Override
-    public void executeMethod(PartialBotApiMethod<?> method, Message message) {
+    public CompletionStage<?> executeMethod(PartialBotApiMethod<?> method, Message message) {
         SendMediaGroup sendMediaGroup = (SendMediaGroup) method;
-        log.info("To " + message.getChatId() + ": sending photos " + sendMediaGroup);
-        try {
-            bot.execute(sendMediaGroup);
-        } catch (TelegramApiException e) {
-            tryToSendOnePhoto(sendMediaGroup);
-        } catch (Exception e) {
-            botStats.incrementErrors(message, method, e, "unexpected error");
-            log.error("Unexpected error: ", e);
-        }
+        Long chatId = message.getChatId();
+        log.info("To " + chatId + ": sending photos " + sendMediaGroup);
+
+        return outboundDispatcher.submit(chatId, OutboundPriority.INTERACTIVE, () -> bot.executeAsync(sendMediaGroup),
+                        !TelegramUtils.isUploadedFromStream(sendMediaGroup.getMedias()))
+                .handle((sentMessages, e) -> {
+                    if (e == null) {
+                        return CompletableFuture.completedFuture(sentMessages);
+                    }
+
+                    if (e instanceof TelegramApiException) {
+                        return tryToSendOnePhoto(chatId, sendMediaGroup).thenApply(Collections::singletonList);
+                    }
+
+                    botStats.incrementErrors(message, method, e, "unexpected error");
+                    log.error("Unexpected error: ", e);
+                    return CompletableFuture.<List<Message>>completedFuture(null);
+                })
+                .thenCompose(Function.identity());
     }
 
-    private void tryToSendOnePhoto(SendMediaGroup sendMediaGroup) {
+    private CompletableFuture<Message> tryToSendOnePhoto(Long chatId, SendMediaGroup sendMediaGroup) {
         StringBuilder buf = new StringBuilder("Остальные картинки: \n");
         sendMediaGroup.getMedias().stream().skip(1).forEach(inputMedia -> buf.append(inputMedia.getCaption()).append("\n"));
 
@@ -55,19 +75,23 @@ public class SendMediaGroupExecutor implements MethodExecutor {
         sendPhoto.setChatId(sendMediaGroup.getChatId());
         sendPhoto.setCaption(buf.toString());
 
-        try {
-            bot.execute(sendPhoto);
-        } catch (TelegramApiException telegramApiException) {
-            SendMessage sendMessage = new SendMessage();
-            sendMessage.setChatId(sendMediaGroup.getChatId());
-            sendMessage.setReplyToMessageId(sendMediaGroup.getReplyToMessageId());
-            sendMessage.setText("Не удалось загрузить картинку по адресу: " + inputMedia.getMedia() + "\n" + buf);
+        return outboundDispatcher.submit(chatId, OutboundPriority.INTERACTIVE, () -> bot.executeAsync(sendPhoto))
+                .handle((sentMessage, e) -> {
+                    if (e == null) {
+                        return CompletableFuture.completedFuture(sentMessage);
+                    }
+
+                    SendMessage sendMessage = new SendMessage();
+                    sendMessage.setChatId(sendMediaGroup.getChatId());
+                    sendMessage.setReplyToMessageId(sendMediaGroup.getReplyToMessageId());
+                    sendMessage.setText("Не удалось загрузить картинку по адресу: " + inputMedia.getMedia() + "\n" + buf);
 
-            try {
-                bot.execute(sendMessage);
-            } catch (TelegramApiException e) {
-                log.error("Still failed to send response: {}", e.getMessage());
-            }
-        }
+                    return outboundDispatcher.submit(chatId, OutboundPriority.INTERACTIVE, () -> bot.executeAsync(sendMessage))
+                            .exceptionally(exception -> {
+                                log.error("Still failed to send response: {}", exception.getMessage());
+                                return null;
+                            });
+                })
+                .thenCompose(Function.identity());
     }
 }
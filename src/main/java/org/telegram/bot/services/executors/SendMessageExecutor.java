@@ -5,11 +5,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.domain.enums.OutboundPriority;
+import org.telegram.bot.utils.OutboundDispatcher;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
 @RequiredArgsConstructor
 @Service
 @Slf4j
@@ -17,6 +23,7 @@ public class SendMessageExecutor implements MethodExecutor {
 
     private final Bot bot;
     private final BotStats botStats;
+    private final OutboundDispatcher outboundDispatcher;
 
     @Override
     public String getMethod() {
@@ -24,31 +31,39 @@ public class SendMessageExecutor implements MethodExecutor {
     }
 
     @Override
-    public void executeMethod(PartialBotApiMethod<?> method, Message message) {
+    public CompletionStage<?> executeMethod(PartialBotApiMethod<?> method, Message message) {
         SendMessage sendMessage = (SendMessage) method;
-        log.info("To " + message.getChatId() + ": " + sendMessage.getText());
-
-        try {
-            bot.execute(sendMessage);
-        } catch (TelegramApiException e) {
-            botStats.incrementErrors(message, method, e, "error sending response");
-            log.error("Error: cannot send response: {}", e.getMessage());
-            tryToSendWithoutMarkdowns(sendMessage);
-        } catch (Exception e) {
-            botStats.incrementErrors(message, method, e, "unexpected error");
-            log.error("Unexpected error: ", e);
-        }
+        Long chatId = message.getChatId();
+        log.info("To " + chatId + ": " + sendMessage.getText());
+
+        return outboundDispatcher.submit(chatId, OutboundPriority.INTERACTIVE, () -> bot.executeAsync(sendMessage))
+                .handle((sentMessage, e) -> {
+                    if (e == null) {
+                        return CompletableFuture.completedFuture(sentMessage);
+                    }
+
+                    if (e instanceof TelegramApiException) {
+                        botStats.incrementErrors(message, method, e, "error sending response");
+                        log.error("Error: cannot send response: {}", e.getMessage());
+                        return tryToSendWithoutMarkdowns(chatId, sendMessage);
+                    }
+
+                    botStats.incrementErrors(message, method, e, "unexpected error");
+                    log.error("Unexpected error: ", e);
+                    return CompletableFuture.<Message>completedFuture(null);
+                })
+                .thenCompose(Function.identity());
     }
 
-    private void tryToSendWithoutMarkdowns(SendMessage sendMessage) {
+    private CompletableFuture<Message> tryToSendWithoutMarkdowns(Long chatId, SendMessage sendMessage) {
         sendMessage.enableMarkdown(false);
         sendMessage.enableHtml(false);
         sendMessage.enableMarkdownV2(false);
 
-        try {
-            bot.execute(sendMessage);
-        } catch (TelegramApiException e) {
-            log.error("Still failed to send response: {}", e.getMessage());
-        }
+        return outboundDispatcher.submit(chatId, OutboundPriority.INTERACTIVE, () -> bot.executeAsync(sendMessage))
+                .exceptionally(e -> {
+                    log.error("Still failed to send response: {}", e.getMessage());
+                    return null;
+                });
     }
 }
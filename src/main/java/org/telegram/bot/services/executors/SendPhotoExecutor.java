@@ -5,12 +5,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.domain.enums.OutboundPriority;
+import org.telegram.bot.utils.OutboundDispatcher;
+import org.telegram.bot.utils.TelegramUtils;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.methods.send.SendPhoto;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
 @RequiredArgsConstructor
 @Service
 @Slf4j
@@ -18,6 +25,7 @@ public class SendPhotoExecutor implements MethodExecutor {
 
     private final Bot bot;
     private final BotStats botStats;
+    private final OutboundDispatcher outboundDispatcher;
 
     @Override
     public String getMethod() {
@@ -25,23 +33,32 @@ public class SendPhotoExecutor implements MethodExecutor {
     }
 
     @Override
-    public void executeMethod(PartialBotApiMethod<?> method, Message message) {
+    public CompletionStage<?> executeMethod(PartialBotApiMethod<?> method, Message message) {
         SendPhoto sendPhoto = (SendPhoto) method;
-        log.info("To " + message.getChatId() + ": sending photo " + sendPhoto.getCaption());
-
-        try {
-            bot.execute(sendPhoto);
-        } catch (TelegramApiException e) {
-            botStats.incrementErrors(message, method, e, "error sending response");
-            log.error("Error: cannot send response: {}", e.getMessage());
-            tryToDeliverTheMessage(sendPhoto);
-        } catch (Exception e) {
-            botStats.incrementErrors(message, method, e, "unexpected error");
-            log.error("Unexpected error: ", e);
-        }
+        Long chatId = message.getChatId();
+        log.info("To " + chatId + ": sending photo " + sendPhoto.getCaption());
+
+        return outboundDispatcher.submit(chatId, OutboundPriority.INTERACTIVE, () -> bot.executeAsync(sendPhoto),
+                        !TelegramUtils.isUploadedFromStream(sendPhoto.getPhoto()))
+                .handle((sentMessage, e) -> {
+                    if (e == null) {
+                        return CompletableFuture.completedFuture(sentMessage);
+                    }
+
+                    if (e instanceof TelegramApiException) {
+                        botStats.incrementErrors(message, method, e, "error sending response");
+                        log.error("Error: cannot send response: {}", e.getMessage());
+                        return tryToDeliverTheMessage(chatId, sendPhoto);
+                    }
+
+                    botStats.incrementErrors(message, method, e, "unexpected error");
+                    log.error("Unexpected error: ", e);
+                    return CompletableFuture.<Message>completedFuture(null);
+                })
+                .thenCompose(Function.identity());
     }
 
-    private void tryToDeliverTheMessage(SendPhoto sendPhoto) {
+    private CompletableFuture<Message> tryToDeliverTheMessage(Long chatId, SendPhoto sendPhoto) {
         String imageUrl = sendPhoto.getPhoto().getAttachName();
         SendMessage sendMessage = new SendMessage();
         sendMessage.setReplyToMessageId(sendPhoto.getReplyToMessageId());
@@ -50,10 +67,10 @@ public class SendPhotoExecutor implements MethodExecutor {
         sendMessage.enableHtml(true);
         sendMessage.disableWebPagePreview();
 
-        try {
-            bot.execute(sendMessage);
-        } catch (TelegramApiException e) {
-            log.error("Still failed to send response: {}", e.getMessage());
-        }
+        return outboundDispatcher.submit(chatId, OutboundPriority.INTERACTIVE, () -> bot.executeAsync(sendMessage))
+                .exceptionally(e -> {
+                    log.error("Still failed to send response: {}", e.getMessage());
+                    return null;
+                });
     }
 }
@@ -5,11 +5,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.domain.enums.OutboundPriority;
+import org.telegram.bot.utils.OutboundDispatcher;
+import org.telegram.bot.utils.TelegramUtils;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.SendVideo;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
+import java.util.concurrent.CompletionStage;
+
 @RequiredArgsConstructor
 @Service
 @Slf4j
@@ -17,6 +22,7 @@ public class SendVideoExecutor implements MethodExecutor {
 
     private final Bot bot;
     private final BotStats botStats;
+    private final OutboundDispatcher outboundDispatcher;
 
     @Override
     public String getMethod() {
@@ -24,18 +30,21 @@ public class SendVideoExecutor implements MethodExecutor {
     }
 
     @Override
-    public void executeMethod(PartialBotApiMethod<?> method, Message message) {
+    public CompletionStage<?> executeMethod(PartialBotApiMethod<?> method, Message message) {
         SendVideo sendVideo = (SendVideo) method;
         log.info("To " + message.getChatId() + ": " + sendVideo.getCaption());
 
-        try {
-            bot.execute(sendVideo);
-        } catch (TelegramApiException e) {
-            botStats.incrementErrors(message, method, e, "error sending response");
-            log.error("Error: cannot send response: {}", e.getMessage());
-        } catch (Exception e) {
-            botStats.incrementErrors(message, method, e, "unexpected error");
-            log.error("Unexpected error: ", e);
-        }
+        return outboundDispatcher.submit(message.getChatId(), OutboundPriority.INTERACTIVE, () -> bot.executeAsync(sendVideo),
+                        !TelegramUtils.isUploadedFromStream(sendVideo.getVideo()))
+                .exceptionally(e -> {
+                    if (e instanceof TelegramApiException) {
+                        botStats.incrementErrors(message, method, e, "error sending response");
+                        log.error("Error: cannot send response: {}", e.getMessage());
+                    } else {
+                        botStats.incrementErrors(message, method, e, "unexpected error");
+                        log.error("Unexpected error: ", e);
+                    }
+                    return null;
+                });
     }
 }
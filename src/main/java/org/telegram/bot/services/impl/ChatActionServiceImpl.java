@@ -0,0 +1,161 @@
+package org.telegram.bot.services.impl;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.telegram.bot.Bot;
+import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.services.ChatActionService;
+import org.telegram.bot.utils.NamedThreadFactory;
+import org.telegram.telegrambots.meta.api.methods.ActionType;
+import org.telegram.telegrambots.meta.api.methods.send.SendChatAction;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import javax.annotation.PreDestroy;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class ChatActionServiceImpl implements ChatActionService {
+
+    // telegram shows the action for 5 seconds, so it is refreshed a bit earlier to avoid blinking
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(4);
+    private static final long MAX_REFRESH_NANOS = TimeUnit.MINUTES.toNanos(3);
+    private static final long CHECK_INTERVAL_MILLIS = 500;
+
+    private final Bot bot;
+    private final BotStats botStats;
+    private final Map<Key, ChatAction> chatActions = new ConcurrentHashMap<>();
+    private final ThreadLocal<Set<ActionType>> commandActions = new ThreadLocal<>();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("chat-action-"));
+
+    public ChatActionServiceImpl(@Lazy Bot bot, BotStats botStats) {
+        this.bot = bot;
+        this.botStats = botStats;
+        refresher.scheduleWithFixedDelay(this::refreshActions, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void sendAction(Long chatId, ActionType action) {
+        long now = System.nanoTime();
+        AtomicBoolean sendRequired = new AtomicBoolean();
+        Set<ActionType> actionsOfCommand = commandActions.get();
+        int newOwners = actionsOfCommand != null && actionsOfCommand.add(action) ? 1 : 0;
+
+        chatActions.compute(new Key(chatId, action), (key, current) -> {
+            if (current != null && now - current.sentAt < REFRESH_INTERVAL_NANOS) {
+                return current.withOwners(current.owners + newOwners);
+            }
+            sendRequired.set(true);
+            if (current == null) {
+                return new ChatAction(action, now, now, newOwners);
+            }
+            return new ChatAction(action, current.startedAt, now, current.owners + newOwners);
+        });
+
+        if (sendRequired.get()) {
+            send(chatId, action);
+        } else {
+            log.trace("Action {} for chat {} is still shown", action, chatId);
+        }
+    }
+
+    @Override
+    public void startCommand() {
+        commandActions.set(EnumSet.noneOf(ActionType.class));
+    }
+
+    @Override
+    public Set<ActionType> finishCommand() {
+        Set<ActionType> actions = commandActions.get();
+        commandActions.remove();
+        return actions == null ? EnumSet.noneOf(ActionType.class) : actions;
+    }
+
+    @Override
+    public void stopActions(Long chatId, Set<ActionType> actions) {
+        actions.forEach(action -> chatActions.computeIfPresent(
+                new Key(chatId, action),
+                (key, current) -> current.owners > 1 ? current.withOwners(current.owners - 1) : null));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void refreshActions() {
+        long now = System.nanoTime();
+
+        chatActions.forEach((key, chatAction) -> {
+            if (chatAction.owners <= 0) {
+                // sent outside of command, so nobody stops it: it is kept only to coalesce repeated sends
+                if (now - chatAction.sentAt >= REFRESH_INTERVAL_NANOS) {
+                    chatActions.remove(key, chatAction);
+                }
+            } else if (now - chatAction.startedAt > MAX_REFRESH_NANOS) {
+                chatActions.remove(key, chatAction);
+            } else if (now - chatAction.sentAt >= REFRESH_INTERVAL_NANOS
+                    && chatActions.replace(key, chatAction, new ChatAction(chatAction.action, chatAction.startedAt, now, chatAction.owners))) {
+                send(key.chatId, chatAction.action);
+            }
+        });
+    }
+
+    private void send(Long chatId, ActionType action) {
+        SendChatAction sendChatAction = new SendChatAction();
+        sendChatAction.setChatId(chatId);
+        sendChatAction.setAction(action);
+
+        try {
+            bot.executeAsync(sendChatAction).exceptionally(e -> {
+                handleError(sendChatAction, e);
+                return null;
+            });
+        } catch (TelegramApiException e) {
+            handleError(sendChatAction, e);
+        }
+    }
+
+    private void handleError(SendChatAction sendChatAction, Throwable e) {
+        botStats.incrementErrors(sendChatAction, e, "ошибка при отправке Action");
+        log.error("Error: cannot send chat action: {}", e.getMessage());
+    }
+
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final Long chatId;
+        private final ActionType action;
+    }
+
+    /**
+     * Shown action with the number of running commands, which sent it.
+     */
+    private static final class ChatAction {
+        private final ActionType action;
+        private final long startedAt;
+        private final long sentAt;
+        private final int owners;
+
+        private ChatAction(ActionType action, long startedAt, long sentAt, int owners) {
+            this.action = action;
+            this.startedAt = startedAt;
+            this.sentAt = sentAt;
+            this.owners = owners;
+        }
+
+        private ChatAction withOwners(int owners) {
+            return new ChatAction(action, startedAt, sentAt, owners);
+        }
+    }
+}
@@ -1,33 +1,54 @@
 package org.telegram.bot.services.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.telegram.bot.domain.MetricsRegistry;
 import org.telegram.bot.domain.entities.Chat;
 import org.telegram.bot.domain.entities.DisableCommand;
 import org.telegram.bot.domain.enums.AccessLevel;
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.domain.events.PermissionsChangedEvent;
 import org.telegram.bot.repositories.ChatRepository;
 import org.telegram.bot.services.ChatService;
 import org.telegram.bot.services.CommandPropertiesService;
 import org.telegram.bot.services.DisableCommandService;
+import org.telegram.bot.utils.EntityCache;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ChatServiceImpl implements ChatService {
 
+    private static final int CACHE_SIZE = 1000;
+    private static final Duration CACHE_TTL = Duration.ofMinutes(30);
+
     private final ChatRepository chatRepository;
     private final CommandPropertiesService commandPropertiesService;
     private final DisableCommandService disableCommandService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityCache<Long, Chat> chatsById;
+
+    public ChatServiceImpl(ChatRepository chatRepository, CommandPropertiesService commandPropertiesService,
+                           DisableCommandService disableCommandService, ApplicationEventPublisher eventPublisher,
+                           MetricsRegistry metricsRegistry, Clock clock) {
+        this.chatRepository = chatRepository;
+        this.commandPropertiesService = commandPropertiesService;
+        this.disableCommandService = disableCommandService;
+        this.eventPublisher = eventPublisher;
+        this.chatsById = new EntityCache<>(CACHE_SIZE, CACHE_TTL, clock, metricsRegistry, BotMetric.CHAT_CACHE_HITS, BotMetric.CHAT_CACHE_MISSES,
+                ChatServiceImpl::copy);
+    }
 
     @Override
     public Chat get(Long chatId) {
         log.debug("Request to get Chat by chatId: {} ", chatId);
 
-        Chat chat = chatRepository.findByChatId(chatId);
+        Chat chat = chatsById.get(chatId, chatRepository::findByChatId);
         if (chat == null) {
             chat = createNewChat(chatId);
         }
@@ -62,7 +83,12 @@ public class ChatServiceImpl implements ChatService {
     @Override
     public Chat save(Chat chat) {
         log.debug("Request to save Chat: {} ", chat);
-        return chatRepository.save(chat);
+
+        Chat savedChat = chatRepository.save(chat);
+        chatsById.put(savedChat.getChatId(), savedChat);
+        eventPublisher.publishEvent(PermissionsChangedEvent.ofChat(savedChat.getChatId()));
+
+        return savedChat;
     }
 
     @Override
@@ -81,4 +107,11 @@ public class ChatServiceImpl implements ChatService {
         log.debug("Request to get Chats with holidays");
         return chatRepository.findDistinctChatWithHolidays();
     }
+
+    private static Chat copy(Chat chat) {
+        return new Chat()
+                .setChatId(chat.getChatId())
+                .setName(chat.getName())
+                .setAccessLevel(chat.getAccessLevel());
+    }
 }
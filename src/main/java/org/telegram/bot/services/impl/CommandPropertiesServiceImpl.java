@@ -2,15 +2,22 @@ package org.telegram.bot.services.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.telegram.bot.domain.CommandParent;
 import org.telegram.bot.domain.entities.CommandProperties;
 import org.telegram.bot.repositories.CommandPropertiesRepository;
 import org.telegram.bot.services.CommandPropertiesService;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import static org.telegram.bot.utils.TextUtils.getPotentialCommandInText;
 import static org.telegram.bot.utils.TextUtils.removeCapital;
@@ -21,6 +28,9 @@ import static org.telegram.bot.utils.TextUtils.removeCapital;
 public class CommandPropertiesServiceImpl implements CommandPropertiesService {
 
     private final CommandPropertiesRepository commandPropertiesRepository;
+    private final ApplicationContext context;
+
+    private volatile RoutingIndex routingIndex;
 
     @Override
     public CommandProperties findCommandInText(String textOfMessage, String botUsername) {
@@ -52,20 +62,38 @@ public class CommandPropertiesServiceImpl implements CommandPropertiesService {
     @Override
     public CommandProperties getCommand(String name) {
         log.debug("Request to get command property by name {}", name);
-        return commandPropertiesRepository.findByCommandNameOrRussifiedNameOrEnRuName(name.toLowerCase(Locale.ROOT));
+        return getRoutingIndex().byName.get(name.toLowerCase(Locale.ROOT));
     }
 
     @Override
     public CommandProperties getCommand(Long id) {
         log.debug("Request to get command property by id {}", id);
-        return commandPropertiesRepository.findById(id).orElse(null);
+        return getRoutingIndex().byId.get(id);
     }
 
     @Override
     public CommandProperties getCommand(Class<?> commandClass) {
         String className = removeCapital(commandClass.getSimpleName());
         log.debug("Request to get command propertiest by class name {}", className);
-        return commandPropertiesRepository.findByClassName(className);
+        return getRoutingIndex().byClassName.get(className);
+    }
+
+    @Override
+    public CommandParent<?> getCommandInstance(CommandProperties commandProperties) {
+        String className = commandProperties.getClassName();
+        log.debug("Request to get command instance by class name {}", className);
+
+        CommandParent<?> command = getRoutingIndex().commandByClassName.get(className);
+        if (command != null) {
+            return command;
+        }
+
+        try {
+            return (CommandParent<?>) context.getBean(className);
+        } catch (Exception e) {
+            log.error("Unable to get command instance {}: {}", className, e.getMessage());
+            return null;
+        }
     }
 
     public Page<CommandProperties> getAll(int page) {
@@ -78,4 +106,101 @@ public class CommandPropertiesServiceImpl implements CommandPropertiesService {
         log.debug("Request to get all disabled by default CommandProperties entities");
         return commandPropertiesRepository.findAllByDefaultDisabledForGroups(true);
     }
+
+    @Override
+    public CommandProperties save(CommandProperties commandProperties) {
+        log.debug("Request to save CommandProperties {}", commandProperties);
+        CommandProperties savedCommandProperties = commandPropertiesRepository.save(commandProperties);
+        reload();
+
+        return savedCommandProperties;
+    }
+
+    @Override
+    public void reload() {
+        log.debug("Request to reload command routing index");
+        this.routingIndex = buildRoutingIndex(true);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        reload();
+    }
+
+    private RoutingIndex getRoutingIndex() {
+        RoutingIndex index = this.routingIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = this.routingIndex;
+                if (index == null) {
+                    // updates may arrive before the context is refreshed, so command instances are resolved later
+                    index = buildRoutingIndex(false);
+                    this.routingIndex = index;
+                }
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Building immutable index of commands by all their names.
+     *
+     * @param withCommandInstances true if command beans must be resolved too.
+     * @return new routing index.
+     */
+    private RoutingIndex buildRoutingIndex(boolean withCommandInstances) {
+        Map<String, CommandProperties> byName = new HashMap<>();
+        Map<String, CommandProperties> byClassName = new HashMap<>();
+        Map<Long, CommandProperties> byId = new HashMap<>();
+
+        commandPropertiesRepository.findAll().forEach(commandProperties -> {
+            byId.put(commandProperties.getId(), commandProperties);
+            putName(byName, commandProperties.getCommandName(), commandProperties);
+            putName(byName, commandProperties.getRussifiedName(), commandProperties);
+            putName(byName, commandProperties.getEnRuName(), commandProperties);
+            putName(byClassName, commandProperties.getClassName(), commandProperties);
+        });
+
+        Map<String, CommandParent<?>> commandByClassName = new HashMap<>();
+        if (withCommandInstances) {
+            context.getBeansOfType(CommandParent.class).forEach((beanName, command) -> {
+                if (byClassName.containsKey(beanName)) {
+                    commandByClassName.put(beanName, command);
+                }
+            });
+        }
+
+        log.info("Command routing index built: {} commands, {} names", byId.size(), byName.size());
+
+        return new RoutingIndex(byName, byClassName, byId, commandByClassName);
+    }
+
+    private void putName(Map<String, CommandProperties> index, String name, CommandProperties commandProperties) {
+        if (name == null) {
+            return;
+        }
+
+        CommandProperties existing = index.putIfAbsent(name, commandProperties);
+        if (existing != null && !existing.getId().equals(commandProperties.getId())) {
+            log.warn("Name {} of command {} is already used by command {}", name, commandProperties.getId(), existing.getId());
+        }
+    }
+
+    private static final class RoutingIndex {
+        private final Map<String, CommandProperties> byName;
+        private final Map<String, CommandProperties> byClassName;
+        private final Map<Long, CommandProperties> byId;
+        private final Map<String, CommandParent<?>> commandByClassName;
+
+        private RoutingIndex(Map<String, CommandProperties> byName,
+                             Map<String, CommandProperties> byClassName,
+                             Map<Long, CommandProperties> byId,
+                             Map<String, CommandParent<?>> commandByClassName) {
+            this.byName = Collections.unmodifiableMap(byName);
+            this.byClassName = Collections.unmodifiableMap(byClassName);
+            this.byId = Collections.unmodifiableMap(byId);
+            this.commandByClassName = Collections.unmodifiableMap(commandByClassName);
+        }
+    }
 }
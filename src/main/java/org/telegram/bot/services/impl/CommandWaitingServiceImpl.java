@@ -1,5 +1,6 @@
 package org.telegram.bot.services.impl;
 
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -10,20 +11,65 @@ import org.telegram.bot.domain.entities.User;
 import org.telegram.bot.repositories.CommandWaitingRepository;
 import org.telegram.bot.services.CommandPropertiesService;
 import org.telegram.bot.services.CommandWaitingService;
+import org.telegram.bot.utils.SessionStore;
 import org.telegram.telegrambots.meta.api.objects.Message;
 
+import javax.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Waitings of commands are kept in memory. The table is used only for snapshot, which is replaced periodically
+ * and on shutdown, and read on startup.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CommandWaitingServiceImpl implements CommandWaitingService {
 
+    private static final Duration SESSION_TTL = Duration.ofDays(1);
+
     private final CommandWaitingRepository commandWaitingRepository;
     private final CommandPropertiesService commandPropertiesService;
+    private final SessionStore<Key, CommandWaiting> sessions;
+
+    public CommandWaitingServiceImpl(CommandWaitingRepository commandWaitingRepository,
+                                     CommandPropertiesService commandPropertiesService,
+                                     Clock clock) {
+        this.commandWaitingRepository = commandWaitingRepository;
+        this.commandPropertiesService = commandPropertiesService;
+        this.sessions = new SessionStore<>(SESSION_TTL, clock);
+    }
+
+    @PostConstruct
+    public void restore() {
+        List<CommandWaiting> snapshot = commandWaitingRepository.findAll();
+        snapshot.forEach(commandWaiting -> sessions.put(Key.of(commandWaiting), commandWaiting.setId(null)));
+        log.info("Restored {} command waitings", snapshot.size());
+    }
+
+    @Override
+    @Transactional
+    public void snapshot() {
+        List<CommandWaiting> snapshot = sessions.snapshot().values()
+                .stream()
+                .map(commandWaiting -> new CommandWaiting()
+                        .setChat(commandWaiting.getChat())
+                        .setUser(commandWaiting.getUser())
+                        .setCommandName(commandWaiting.getCommandName())
+                        .setTextMessage(commandWaiting.getTextMessage())
+                        .setIsFinished(commandWaiting.getIsFinished()))
+                .collect(Collectors.toList());
+        commandWaitingRepository.deleteAllInBatch();
+        commandWaitingRepository.saveAll(snapshot);
+        log.info("Saved snapshot of {} command waitings", snapshot.size());
+    }
 
     @Override
     public CommandWaiting get(Chat chat, User user) {
         log.debug("Request to get CommandWaiting by chat: {} and user: {}", chat, user);
-        return commandWaitingRepository.findByChatAndUser(chat, user);
+        return sessions.get(new Key(chat.getChatId(), user.getUserId()));
     }
 
     @Override
@@ -69,7 +115,8 @@ public class CommandWaitingServiceImpl implements CommandWaitingService {
     @Override
     public CommandWaiting save(CommandWaiting commandWaiting) {
         log.debug("Request to save CommandWaitingId {} ", commandWaiting);
-        return commandWaitingRepository.save(commandWaiting);
+        sessions.put(Key.of(commandWaiting), commandWaiting);
+        return commandWaiting;
     }
 
     @Override
@@ -78,13 +125,23 @@ public class CommandWaitingServiceImpl implements CommandWaitingService {
             return;
         }
         log.debug("Request to remove CommandWaiting {} ", commandWaiting);
-        commandWaitingRepository.delete(commandWaiting);
+        sessions.remove(Key.of(commandWaiting));
     }
 
     @Override
-    @Transactional
     public void remove(Chat chat, User user) {
         log.debug("Request to remove CommandWaiting for Chat {} and User {}", chat, user);
-        commandWaitingRepository.deleteByChatAndUser(chat, user);
+        sessions.remove(new Key(chat.getChatId(), user.getUserId()));
+    }
+
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    private static class Key {
+        private final Long chatId;
+        private final Long userId;
+
+        private static Key of(CommandWaiting commandWaiting) {
+            return new Key(commandWaiting.getChat().getChatId(), commandWaiting.getUser().getUserId());
+        }
     }
 }
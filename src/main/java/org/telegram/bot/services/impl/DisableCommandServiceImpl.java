@@ -2,10 +2,12 @@ package org.telegram.bot.services.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.telegram.bot.domain.entities.Chat;
 import org.telegram.bot.domain.entities.CommandProperties;
 import org.telegram.bot.domain.entities.DisableCommand;
+import org.telegram.bot.domain.events.PermissionsChangedEvent;
 import org.telegram.bot.repositories.DisableCommandRepository;
 import org.telegram.bot.services.DisableCommandService;
 
@@ -17,6 +19,7 @@ import java.util.List;
 public class DisableCommandServiceImpl implements DisableCommandService {
 
     private final DisableCommandRepository disableCommandRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<DisableCommand> getByChat(Chat chat) {
@@ -39,12 +42,16 @@ public class DisableCommandServiceImpl implements DisableCommandService {
     @Override
     public DisableCommand save(DisableCommand disableCommand) {
         log.debug("Request to save DisableCommandList: {}", disableCommand);
-        return disableCommandRepository.save(disableCommand);
+        DisableCommand savedDisableCommand = disableCommandRepository.save(disableCommand);
+        eventPublisher.publishEvent(PermissionsChangedEvent.ofDisabledCommands(savedDisableCommand.getChat().getChatId()));
+
+        return savedDisableCommand;
     }
 
     @Override
     public void remove(DisableCommand disableCommand) {
         log.debug("Request to delete DisableCommandList: {}", disableCommand);
         disableCommandRepository.delete(disableCommand);
+        eventPublisher.publishEvent(PermissionsChangedEvent.ofDisabledCommands(disableCommand.getChat().getChatId()));
     }
 }
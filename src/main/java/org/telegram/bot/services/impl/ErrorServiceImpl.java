@@ -2,27 +2,53 @@ package org.telegram.bot.services.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.telegram.bot.domain.entities.Error;
 import org.telegram.bot.repositories.ErrorRepository;
 import org.telegram.bot.services.ErrorService;
+import org.telegram.bot.utils.NamedThreadFactory;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+/**
+ * Journal of errors. Errors are grouped by the failing thread and written in batches by the background writer.
+ * Equal errors (same type of exception and top frames of stacktrace) are stored as one row with a count of occurrences,
+ * so only the first occurrence of error in the pending batch is serialized, the next ones are only counted.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ErrorServiceImpl implements ErrorService {
 
+    private static final int PENDING_CAPACITY = 1000;
+    private static final int FINGERPRINT_FRAMES = 5;
+    private static final long FLUSH_INTERVAL_SECONDS = 5;
+
     private final ErrorRepository errorRepository;
     private final ObjectMapper objectMapper;
+    private final Map<String, PendingError> pendingErrors = new LinkedHashMap<>();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("error-journal-"));
+
+    public ErrorServiceImpl(ErrorRepository errorRepository, ObjectMapper objectMapper) {
+        this.errorRepository = errorRepository;
+        this.objectMapper = objectMapper;
+        writer.scheduleWithFixedDelay(this::flushSafely, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
 
     @Override
     public void save(PartialBotApiMethod<?> response, Throwable throwable, String comment) {
@@ -39,6 +65,37 @@ public class ErrorServiceImpl implements ErrorService {
         save(request, null, throwable, comment);
     }
 
+    @Override
+    public void save(Object request, PartialBotApiMethod<?> response, Throwable throwable, String comment) {
+        LocalDateTime dateTime = LocalDateTime.now();
+        String fingerprint = getFingerprint(request, throwable, comment);
+
+        synchronized (pendingErrors) {
+            if (countPending(fingerprint, dateTime, comment)) {
+                return;
+            }
+        }
+
+        PendingError pendingError = new PendingError(
+                dateTime,
+                getStringOrEmpty(request, () -> getObjectJson(request)),
+                getStringOrEmpty(response, () -> getObjectJson(response)),
+                getStringOrEmpty(throwable, () -> ExceptionUtils.getStackTrace(throwable)),
+                comment);
+
+        synchronized (pendingErrors) {
+            // an equal error could be added while this one was serialized
+            if (countPending(fingerprint, dateTime, comment)) {
+                return;
+            }
+            if (pendingErrors.size() >= PENDING_CAPACITY) {
+                log.warn("Error journal is full, error is not saved: {}", comment, throwable);
+                return;
+            }
+            pendingErrors.put(fingerprint, pendingError);
+        }
+    }
+
     @Override
     public Error get(long id) {
         return errorRepository.findById(id).orElse(null);
@@ -46,28 +103,88 @@ public class ErrorServiceImpl implements ErrorService {
 
     @Override
     public List<Error> getAll() {
-        return errorRepository.findAll();
+        flush();
+        return errorRepository.findAllByOrderByDateTimeDesc();
     }
 
-    @Transactional
     @Override
-    public void clear() {
-        errorRepository.deleteAll();
+    public synchronized void clear() {
+        synchronized (pendingErrors) {
+            pendingErrors.clear();
+        }
+        errorRepository.deleteAllInBatch();
     }
 
-    @Override
-    public void save(Object request, PartialBotApiMethod<?> response, Throwable throwable, String comment) {
-        String requestJson = getStringOrEmpty(request, () -> getObjectJson(request));
-        String responseJson = getStringOrEmpty(response, () -> getObjectJson(response));
-        String stacktrace = getStringOrEmpty(throwable, () -> ExceptionUtils.getStackTrace(throwable));
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+        flushSafely();
+    }
+
+    /**
+     * Write pending errors to the database.
+     */
+    public synchronized void flush() {
+        Map<String, PendingError> batch;
+        synchronized (pendingErrors) {
+            if (pendingErrors.isEmpty()) {
+                return;
+            }
+            batch = new LinkedHashMap<>(pendingErrors);
+            pendingErrors.clear();
+        }
+
+        Map<String, Error> existingErrors = errorRepository.findByFingerprintIn(batch.keySet())
+                .stream()
+                .collect(Collectors.toMap(Error::getFingerprint, Function.identity(), (first, second) -> first));
 
-        errorRepository.save(
-                new Error()
-                        .setDateTime(LocalDateTime.now())
-                        .setRequest(requestJson)
-                        .setResponse(responseJson)
-                        .setComment(comment)
-                        .setStacktrace(stacktrace));
+        List<Error> errors = new ArrayList<>(batch.size());
+        batch.forEach((fingerprint, pendingError) -> {
+            Error error = existingErrors.get(fingerprint);
+            if (error == null) {
+                error = new Error()
+                        .setFirstDateTime(pendingError.firstDateTime)
+                        .setFingerprint(fingerprint)
+                        .setOccurrences(0L)
+                        .setRequest(pendingError.request)
+                        .setResponse(pendingError.response)
+                        .setStacktrace(pendingError.stacktrace);
+            }
+
+            errors.add(error
+                    .setDateTime(pendingError.lastDateTime)
+                    .setComment(pendingError.lastComment)
+                    .setOccurrences(error.getOccurrences() + pendingError.occurrences));
+        });
+
+        errorRepository.saveAll(errors);
+        log.debug("Saved {} errors", errors.size());
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to save errors", e);
+        }
+    }
+
+    /**
+     * Count one more occurrence of pending error. Has to be called under the lock of pending errors.
+     *
+     * @return true if the error is pending, false if it has to be added.
+     */
+    private boolean countPending(String fingerprint, LocalDateTime dateTime, String comment) {
+        PendingError pendingError = pendingErrors.get(fingerprint);
+        if (pendingError == null) {
+            return false;
+        }
+
+        pendingError.lastDateTime = dateTime;
+        pendingError.lastComment = comment;
+        pendingError.occurrences++;
+
+        return true;
     }
 
     private String getStringOrEmpty(Object value, Supplier<String> supplier) {
@@ -83,8 +200,56 @@ public class ErrorServiceImpl implements ErrorService {
             return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(value);
         } catch (JsonProcessingException e) {
             log.error("Не удалось сериализовать", e);
-            e.printStackTrace();
             return "";
         }
     }
+
+    /**
+     * Get fingerprint of error: the type of exception with the top frames of its stacktrace,
+     * or the comment with the type of request for errors without exception.
+     *
+     * @param request the failed request.
+     * @param throwable the thrown exception.
+     * @param comment comment of error.
+     * @return hex of md5 of the key.
+     */
+    private static String getFingerprint(Object request, Throwable throwable, String comment) {
+        StringBuilder key = new StringBuilder();
+        if (throwable == null) {
+            key.append(comment);
+            if (request != null) {
+                key.append('|').append(request.getClass().getName());
+            }
+        } else {
+            key.append(throwable.getClass().getName());
+            StackTraceElement[] stackTrace = throwable.getStackTrace();
+            for (int i = 0; i < Math.min(FINGERPRINT_FRAMES, stackTrace.length); i++) {
+                key.append('|').append(stackTrace[i]);
+            }
+        }
+
+        return DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Pending error: the first occurrence, already serialized, with the count of occurrences.
+     */
+    private static class PendingError {
+        private final LocalDateTime firstDateTime;
+        private final String request;
+        private final String response;
+        private final String stacktrace;
+        private LocalDateTime lastDateTime;
+        private String lastComment;
+        private long occurrences = 1;
+
+        private PendingError(LocalDateTime dateTime, String request, String response, String stacktrace, String comment) {
+            this.firstDateTime = dateTime;
+            this.request = request;
+            this.response = response;
+            this.stacktrace = stacktrace;
+            this.lastDateTime = dateTime;
+            this.lastComment = comment;
+        }
+    }
 }
@@ -1,35 +1,69 @@
 package org.telegram.bot.services.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.telegram.bot.domain.entities.Chat;
 import org.telegram.bot.domain.entities.LastCommand;
 import org.telegram.bot.repositories.LastCommandRepository;
 import org.telegram.bot.services.LastCommandService;
+import org.telegram.bot.utils.SessionStore;
 
+import javax.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Last commands of chats are kept in memory. The table is used only for snapshot, which is replaced periodically
+ * and on shutdown, and read on startup.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class LastCommandServiceImpl implements LastCommandService {
 
+    private static final Duration SESSION_TTL = Duration.ofDays(7);
+
     private final LastCommandRepository lastCommandRepository;
+    private final SessionStore<Long, LastCommand> lastCommands;
+
+    public LastCommandServiceImpl(LastCommandRepository lastCommandRepository, Clock clock) {
+        this.lastCommandRepository = lastCommandRepository;
+        this.lastCommands = new SessionStore<>(SESSION_TTL, clock);
+    }
+
+    @PostConstruct
+    public void restore() {
+        List<LastCommand> snapshot = lastCommandRepository.findAll();
+        snapshot.forEach(lastCommand -> lastCommands.put(lastCommand.getChat().getChatId(), lastCommand.setId(null)));
+        log.info("Restored {} last commands", snapshot.size());
+    }
 
     @Override
-    public LastCommand get(Long id) {
-        log.debug("Request to get LastCommand by id: {} ", id);
-        return lastCommandRepository.findById(id).orElse(null);
+    @Transactional
+    public void snapshot() {
+        List<LastCommand> snapshot = lastCommands.snapshot().values()
+                .stream()
+                .map(lastCommand -> new LastCommand()
+                        .setChat(lastCommand.getChat())
+                        .setCommandProperties(lastCommand.getCommandProperties()))
+                .collect(Collectors.toList());
+        lastCommandRepository.deleteAllInBatch();
+        lastCommandRepository.saveAll(snapshot);
+        log.info("Saved snapshot of {} last commands", snapshot.size());
     }
 
     @Override
     public LastCommand get(Chat chat) {
         log.debug("Request to get LastCommand for chat: {} ", chat);
-        return lastCommandRepository.findByChat(chat);
+        return lastCommands.get(chat.getChatId());
     }
 
     @Override
     public LastCommand save(LastCommand lastCommand) {
         log.debug("Request to save LastCommand: {} ", lastCommand);
-        return lastCommandRepository.save(lastCommand);
+        lastCommands.put(lastCommand.getChat().getChatId(), lastCommand);
+        return lastCommand;
     }
 }
@@ -0,0 +1,101 @@
+package org.telegram.bot.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.telegram.bot.domain.entities.Chat;
+import org.telegram.bot.domain.entities.CommandProperties;
+import org.telegram.bot.domain.enums.AccessLevel;
+import org.telegram.bot.domain.events.PermissionsChangedEvent;
+import org.telegram.bot.services.ChatService;
+import org.telegram.bot.services.DisableCommandService;
+import org.telegram.bot.services.PermissionService;
+import org.telegram.bot.services.UserService;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Levels of users and chats and bitsets of ids of disabled commands are loaded once and kept until
+ * {@link PermissionsChangedEvent}. Bitsets are not changed after loading, so they are read without locks.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PermissionServiceImpl implements PermissionService {
+
+    private static final int MAX_CACHED_LEVELS = 10000;
+
+    private final UserService userService;
+    private final ChatService chatService;
+    private final DisableCommandService disableCommandService;
+
+    private final Map<Long, Integer> userLevels = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> chatLevels = new ConcurrentHashMap<>();
+    private final Map<Long, BitSet> disabledCommands = new ConcurrentHashMap<>();
+
+    @Override
+    public AccessLevel getAccessLevel(Long userId, Long chatId) {
+        int userLevel = getLevel(userLevels, userId, userService::getUserAccessLevel);
+        if (userLevel < 0) {
+            return AccessLevel.BANNED;
+        }
+
+        int chatLevel = getLevel(chatLevels, chatId, chatService::getChatAccessLevel);
+
+        return AccessLevel.getUserLevelByValue(Math.max(userLevel, chatLevel));
+    }
+
+    @Override
+    public boolean isCommandDisabled(Long chatId, CommandProperties commandProperties) {
+        return disabledCommands.computeIfAbsent(chatId, this::loadDisabledCommands).get(commandProperties.getId().intValue());
+    }
+
+    @Override
+    public boolean isCommandAllowed(Long userId, Long chatId, CommandProperties commandProperties) {
+        return !isCommandDisabled(chatId, commandProperties)
+                && getAccessLevel(userId, chatId).getValue() >= commandProperties.getAccessLevel();
+    }
+
+    @EventListener
+    public void onPermissionsChanged(PermissionsChangedEvent event) {
+        log.debug("Permissions changed: {}", event);
+        switch (event.getType()) {
+            case USER_LEVEL:
+                userLevels.remove(event.getId());
+                break;
+            case CHAT_LEVEL:
+                chatLevels.remove(event.getId());
+                break;
+            case DISABLED_COMMANDS:
+                disabledCommands.remove(event.getId());
+                break;
+        }
+    }
+
+    private int getLevel(Map<Long, Integer> levels, Long id, Function<Long, Integer> loader) {
+        Integer level = levels.get(id);
+        if (level == null) {
+            if (levels.size() >= MAX_CACHED_LEVELS) {
+                levels.clear();
+            }
+            level = levels.computeIfAbsent(id, key -> {
+                Integer loadedLevel = loader.apply(key);
+                return loadedLevel == null ? AccessLevel.NEWCOMER.getValue() : loadedLevel;
+            });
+        }
+
+        return level;
+    }
+
+    private BitSet loadDisabledCommands(Long chatId) {
+        BitSet commandIds = new BitSet();
+        disableCommandService.getByChat(new Chat().setChatId(chatId))
+                .forEach(disableCommand -> commandIds.set(disableCommand.getCommandProperties().getId().intValue()));
+
+        return commandIds;
+    }
+}
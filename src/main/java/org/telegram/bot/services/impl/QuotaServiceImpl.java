@@ -0,0 +1,229 @@
+package org.telegram.bot.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.telegram.bot.domain.MetricsRegistry;
+import org.telegram.bot.domain.entities.WorkParam;
+import org.telegram.bot.domain.enums.ApiQuota;
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.domain.enums.BotSpeechTag;
+import org.telegram.bot.exception.BotException;
+import org.telegram.bot.services.QuotaService;
+import org.telegram.bot.services.SpeechService;
+import org.telegram.bot.services.WorkParamService;
+import org.telegram.bot.services.config.PropertiesConfig;
+import org.telegram.bot.utils.TokenBucket;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class QuotaServiceImpl implements QuotaService {
+
+    private static final String VALUE_DELIMITER = ";";
+    private static final List<String> WORK_PARAM_NAMES = Arrays.stream(ApiQuota.values())
+            .map(ApiQuota::getWorkParamName)
+            .collect(Collectors.toList());
+
+    private final WorkParamService workParamService;
+    private final PropertiesConfig propertiesConfig;
+    private final SpeechService speechService;
+    private final MetricsRegistry metricsRegistry;
+    private final Clock clock;
+    private final Map<ApiQuota, QuotaState> states = new EnumMap<>(ApiQuota.class);
+
+    public QuotaServiceImpl(WorkParamService workParamService,
+                            PropertiesConfig propertiesConfig,
+                            SpeechService speechService,
+                            MetricsRegistry metricsRegistry,
+                            Clock clock) {
+        this.workParamService = workParamService;
+        this.propertiesConfig = propertiesConfig;
+        this.speechService = speechService;
+        this.metricsRegistry = metricsRegistry;
+        this.clock = clock;
+
+        LocalDate today = LocalDate.now(clock);
+        List<WorkParam> workParamList = workParamService.get(propertiesConfig.getTelegramBotApiToken(), WORK_PARAM_NAMES);
+        for (ApiQuota apiQuota : ApiQuota.values()) {
+            QuotaState state = new QuotaState(apiQuota, getDailyLimit(apiQuota), today);
+            workParamList.stream()
+                    .filter(workParam -> workParam.getName().equals(apiQuota.getWorkParamName()))
+                    .findFirst()
+                    .ifPresent(workParam -> state.restore(workParam.getValue()));
+            states.put(apiQuota, state);
+            metricsRegistry.set(apiQuota.getMetric(), state.getRemaining(today));
+        }
+    }
+
+    @Override
+    public void reserve(ApiQuota apiQuota, Long userId) {
+        LocalDate today = LocalDate.now(clock);
+        QuotaState state = states.get(apiQuota);
+
+        BotSpeechTag rejection;
+        int remaining;
+        synchronized (state) {
+            rejection = state.tryReserve(today, userId, System.nanoTime());
+            remaining = state.getRemaining(today);
+        }
+        metricsRegistry.set(apiQuota.getMetric(), remaining);
+
+        if (rejection != null) {
+            log.warn("Request to {} of user {} is rejected: quota is exhausted ({})", apiQuota, userId, rejection);
+            metricsRegistry.increment(BotMetric.QUOTA_REJECTIONS);
+            throw new BotException(speechService.getRandomMessageByTag(rejection));
+        }
+    }
+
+    @Override
+    public void release(ApiQuota apiQuota, Long userId) {
+        LocalDate today = LocalDate.now(clock);
+        QuotaState state = states.get(apiQuota);
+
+        int remaining;
+        synchronized (state) {
+            state.release(today, userId);
+            remaining = state.getRemaining(today);
+        }
+        metricsRegistry.set(apiQuota.getMetric(), remaining);
+    }
+
+    @Override
+    public int getRemaining(ApiQuota apiQuota) {
+        QuotaState state = states.get(apiQuota);
+        synchronized (state) {
+            return state.getRemaining(LocalDate.now(clock));
+        }
+    }
+
+    @Override
+    public void save() {
+        String botToken = propertiesConfig.getTelegramBotApiToken();
+        List<WorkParam> workParamList = workParamService.get(botToken, WORK_PARAM_NAMES);
+
+        List<WorkParam> updatedWorkParamList = Arrays.stream(ApiQuota.values())
+                .map(apiQuota -> {
+                    String value;
+                    QuotaState state = states.get(apiQuota);
+                    synchronized (state) {
+                        value = state.day + VALUE_DELIMITER + state.used;
+                    }
+
+                    WorkParam workParam = workParamList
+                            .stream()
+                            .filter(workParam1 -> workParam1.getName().equals(apiQuota.getWorkParamName()))
+                            .findFirst()
+                            .orElse(new WorkParam(botToken, apiQuota.getWorkParamName()));
+                    workParam.setValue(value);
+
+                    return workParam;
+                })
+                .collect(Collectors.toList());
+
+        workParamService.save(updatedWorkParamList);
+    }
+
+    private int getDailyLimit(ApiQuota apiQuota) {
+        if (ApiQuota.RUSSIAN_POST.equals(apiQuota)) {
+            return propertiesConfig.getRussianPostRequestsLimit();
+        }
+
+        return apiQuota.getDailyLimit();
+    }
+
+    /**
+     * Usage of API. Daily counters are reset by the first access on a new day.
+     * Not thread-safe, access is guarded by the service.
+     */
+    private static class QuotaState {
+        private final ApiQuota apiQuota;
+        private final int dailyLimit;
+        private final TokenBucket minuteBucket;
+        private final Map<Long, Integer> usedByUsers = new HashMap<>();
+        private LocalDate day;
+        private int used;
+
+        private QuotaState(ApiQuota apiQuota, int dailyLimit, LocalDate today) {
+            this.apiQuota = apiQuota;
+            this.dailyLimit = dailyLimit;
+            this.day = today;
+
+            int perMinuteLimit = apiQuota.getPerMinuteLimit();
+            if (perMinuteLimit > 0) {
+                this.minuteBucket = new TokenBucket(perMinuteLimit, perMinuteLimit, TimeUnit.MINUTES.toNanos(1), System.nanoTime());
+            } else {
+                this.minuteBucket = null;
+            }
+        }
+
+        private void restore(String value) {
+            String[] parts = value.split(VALUE_DELIMITER);
+            try {
+                LocalDate savedDay = LocalDate.parse(parts[0]);
+                if (savedDay.equals(day)) {
+                    used = Integer.parseInt(parts[1]);
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to restore quota of {} from value {}", apiQuota, value);
+            }
+        }
+
+        private BotSpeechTag tryReserve(LocalDate today, Long userId, long now) {
+            resetIfNewDay(today);
+
+            if (dailyLimit > 0 && used >= dailyLimit) {
+                return BotSpeechTag.QUOTA_EXCEEDED;
+            }
+            int perUserDailyLimit = apiQuota.getPerUserDailyLimit();
+            if (perUserDailyLimit > 0 && userId != null && usedByUsers.getOrDefault(userId, 0) >= perUserDailyLimit) {
+                return BotSpeechTag.USER_QUOTA_EXCEEDED;
+            }
+            if (minuteBucket != null && minuteBucket.getWaitTime(now) > 0) {
+                return BotSpeechTag.BUSY;
+            }
+
+            used = used + 1;
+            if (userId != null) {
+                usedByUsers.merge(userId, 1, Integer::sum);
+            }
+            if (minuteBucket != null) {
+                minuteBucket.consume(now);
+            }
+
+            return null;
+        }
+
+        private void release(LocalDate today, Long userId) {
+            if (!today.equals(day)) {
+                return;
+            }
+
+            used = Math.max(0, used - 1);
+            if (userId != null) {
+                usedByUsers.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+
+        private int getRemaining(LocalDate today) {
+            resetIfNewDay(today);
+            return Math.max(0, dailyLimit - used);
+        }
+
+        private void resetIfNewDay(LocalDate today) {
+            if (!today.equals(day)) {
+                day = today;
+                used = 0;
+                usedByUsers.clear();
+            }
+        }
+    }
+}
@@ -11,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.soap.*;
 import java.io.*;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
@@ -24,9 +25,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.entities.TrackCodeEvent;
+import org.telegram.bot.domain.enums.ApiQuota;
 import org.telegram.bot.domain.enums.BotSpeechTag;
+import org.telegram.bot.domain.enums.LatencyMetric;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.PostTrackingService;
+import org.telegram.bot.services.QuotaService;
 import org.telegram.bot.services.SpeechService;
 import org.telegram.bot.services.config.PropertiesConfig;
 
@@ -40,6 +44,7 @@ public class RussianPostTrackingServiceImpl implements PostTrackingService {
 
     private final PropertiesConfig propertiesConfig;
     private final BotStats botStats;
+    private final QuotaService quotaService;
     private final SpeechService speechService;
 
     @Override
@@ -129,9 +134,7 @@ public class RussianPostTrackingServiceImpl implements PostTrackingService {
 
     private String callApi(SOAPConnection connection, SOAPMessage message, String url) {
         try {
-            SOAPMessage soapResponse = connection.call(message, url);
-
-            botStats.incrementRussianPostRequests();
+            SOAPMessage soapResponse = callSoap(connection, message, url);
 
             Source sourceContent = soapResponse.getSOAPPart().getContent();
 
@@ -151,6 +154,22 @@ public class RussianPostTrackingServiceImpl implements PostTrackingService {
         }
     }
 
+    private SOAPMessage callSoap(SOAPConnection connection, SOAPMessage message, String url) throws SOAPException {
+        quotaService.reserve(ApiQuota.RUSSIAN_POST, null);
+        long start = System.nanoTime();
+        boolean error = true;
+        try {
+            SOAPMessage soapResponse = connection.call(message, url);
+            error = false;
+            return soapResponse;
+        } catch (SOAPException e) {
+            quotaService.release(ApiQuota.RUSSIAN_POST, null);
+            throw e;
+        } finally {
+            botStats.registerLatency(LatencyMetric.EXTERNAL_API, URI.create(url).getHost(), System.nanoTime() - start, error);
+        }
+    }
+
     private TrackingData parseTrackingData(String xml) {
         XmlMapper xmlMapper = new XmlMapper();
         xmlMapper.setAnnotationIntrospector(new JaxbAnnotationIntrospector(TypeFactory.defaultInstance()));
@@ -0,0 +1,134 @@
+package org.telegram.bot.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.telegram.bot.domain.TalkerCompactionReport;
+import org.telegram.bot.services.TalkerCorpusService;
+import org.telegram.bot.services.TalkerIndexService;
+import org.telegram.bot.utils.TextUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Phrases are compared by hash of their normalized text: duplicates of chat are merged into the oldest phrase
+ * with their pairs. Chats over the limit of phrases lose the phrases with the fewest words, which are the least
+ * likely to be matched, the oldest first.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TalkerCorpusServiceImpl implements TalkerCorpusService {
+
+    private static final String COUNT_PHRASES_SQL = "SELECT COUNT(*) FROM bot.talkerphrase WHERE chatid = ?";
+    private static final String SELECT_NOT_HASHED_PHRASES_SQL = "SELECT phrase_id, phrase FROM bot.talkerphrase WHERE hash IS NULL";
+    private static final String UPDATE_PHRASE_HASH_SQL = "UPDATE bot.talkerphrase SET hash = ? WHERE phrase_id = ?";
+    private static final String SELECT_DUPLICATED_PHRASES_SQL = "SELECT tp.phrase_id, tp.chatid, OCTET_LENGTH(tp.phrase) AS size, d.keep_id "
+            + "FROM bot.talkerphrase tp "
+            + "JOIN (SELECT chatid, hash, MIN(phrase_id) AS keep_id FROM bot.talkerphrase "
+            + "WHERE hash IS NOT NULL GROUP BY chatid, hash HAVING COUNT(*) > 1) d "
+            + "ON d.chatid = tp.chatid AND d.hash = tp.hash "
+            + "WHERE tp.phrase_id <> d.keep_id";
+    private static final String MOVE_PAIRS_SQL = "UPDATE talkerwordphrase SET phrase_id = ? WHERE phrase_id = ?";
+    private static final String SELECT_CHATS_OVER_LIMIT_SQL = "SELECT td.chatid, COUNT(*) - td.phrases_limit AS excess "
+            + "FROM bot.talkerdegree td JOIN bot.talkerphrase tp ON tp.chatid = td.chatid "
+            + "WHERE td.phrases_limit > 0 "
+            + "GROUP BY td.chatid, td.phrases_limit HAVING COUNT(*) > td.phrases_limit";
+    private static final String SELECT_LOW_VALUE_PHRASES_SQL = "SELECT tp.phrase_id, OCTET_LENGTH(tp.phrase) AS size "
+            + "FROM bot.talkerphrase tp LEFT JOIN talkerwordphrase twp ON twp.phrase_id = tp.phrase_id "
+            + "WHERE tp.chatid = ? "
+            + "GROUP BY tp.phrase_id, tp.phrase "
+            + "ORDER BY COUNT(twp.id), tp.phrase_id LIMIT ?";
+    private static final String DELETE_PAIRS_OF_PHRASE_SQL = "DELETE FROM talkerwordphrase WHERE phrase_id = ?";
+    private static final String DELETE_PHRASE_SQL = "DELETE FROM bot.talkerphrase WHERE phrase_id = ?";
+    private static final String DELETE_DUPLICATED_PAIRS_SQL = "DELETE FROM talkerwordphrase WHERE id NOT IN "
+            + "(SELECT MIN(id) FROM talkerwordphrase GROUP BY word_id, phrase_id)";
+    private static final String DELETE_ORPHANED_PAIRS_SQL = "DELETE FROM talkerwordphrase "
+            + "WHERE word_id IS NULL OR phrase_id IS NULL "
+            + "OR phrase_id NOT IN (SELECT phrase_id FROM bot.talkerphrase) "
+            + "OR word_id NOT IN (SELECT word_id FROM bot.talkerword)";
+    private static final String WORDS_WITHOUT_PAIRS_CONDITION = " WHERE word_id NOT IN (SELECT word_id FROM talkerwordphrase WHERE word_id IS NOT NULL)";
+    private static final String SIZE_OF_WORDS_WITHOUT_PAIRS_SQL = "SELECT COALESCE(SUM(OCTET_LENGTH(word)), 0) FROM bot.talkerword"
+            + WORDS_WITHOUT_PAIRS_CONDITION;
+    private static final String DELETE_WORDS_WITHOUT_PAIRS_SQL = "DELETE FROM bot.talkerword" + WORDS_WITHOUT_PAIRS_CONDITION;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TalkerIndexService talkerIndexService;
+
+    @Override
+    public long getPhrasesCount(Long chatId) {
+        log.debug("Request to get count of talker phrases of chat {}", chatId);
+        Long count = jdbcTemplate.queryForObject(COUNT_PHRASES_SQL, Long.class, chatId);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public TalkerCompactionReport compact() {
+        log.debug("Request to compact talker corpus");
+
+        TalkerCompactionReport report = new TalkerCompactionReport();
+        transactionTemplate.executeWithoutResult(status -> {
+            hashPhrases(report);
+            mergeDuplicatedPhrases(report);
+            prunePhrasesOverLimit(report);
+            report.addDeletedPairs(jdbcTemplate.update(DELETE_DUPLICATED_PAIRS_SQL) + jdbcTemplate.update(DELETE_ORPHANED_PAIRS_SQL));
+
+            Long wordsSize = jdbcTemplate.queryForObject(SIZE_OF_WORDS_WITHOUT_PAIRS_SQL, Long.class);
+            report.addDeletedWords(jdbcTemplate.update(DELETE_WORDS_WITHOUT_PAIRS_SQL), wordsSize == null ? 0 : wordsSize);
+        });
+
+        report.getAffectedChatIds().forEach(talkerIndexService::invalidate);
+
+        return report;
+    }
+
+    private void hashPhrases(TalkerCompactionReport report) {
+        List<Object[]> hashes = jdbcTemplate.query(
+                SELECT_NOT_HASHED_PHRASES_SQL,
+                (rs, rowNum) -> new Object[] {TextUtils.getPhraseHash(rs.getString("phrase")), rs.getLong("phrase_id")});
+        if (!hashes.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_PHRASE_HASH_SQL, hashes);
+            report.addHashedPhrases(hashes.size());
+        }
+    }
+
+    private void mergeDuplicatedPhrases(TalkerCompactionReport report) {
+        List<Object[]> movedPairs = new ArrayList<>();
+        List<Object[]> deletedPhrases = new ArrayList<>();
+        jdbcTemplate.query(SELECT_DUPLICATED_PHRASES_SQL, rs -> {
+            long phraseId = rs.getLong("phrase_id");
+            movedPairs.add(new Object[] {rs.getLong("keep_id"), phraseId});
+            deletedPhrases.add(new Object[] {phraseId});
+            report.addMergedPhrase(rs.getLong("chatid"), rs.getLong("size"));
+        });
+
+        if (!deletedPhrases.isEmpty()) {
+            jdbcTemplate.batchUpdate(MOVE_PAIRS_SQL, movedPairs);
+            jdbcTemplate.batchUpdate(DELETE_PHRASE_SQL, deletedPhrases);
+        }
+    }
+
+    private void prunePhrasesOverLimit(TalkerCompactionReport report) {
+        List<Object[]> chatsOverLimit = jdbcTemplate.query(
+                SELECT_CHATS_OVER_LIMIT_SQL,
+                (rs, rowNum) -> new Object[] {rs.getLong("chatid"), rs.getLong("excess")});
+
+        for (Object[] chatOverLimit : chatsOverLimit) {
+            Long chatId = (Long) chatOverLimit[0];
+            List<Object[]> prunedPhrases = new ArrayList<>();
+            jdbcTemplate.query(SELECT_LOW_VALUE_PHRASES_SQL, rs -> {
+                prunedPhrases.add(new Object[] {rs.getLong("phrase_id")});
+                report.addPrunedPhrase(chatId, rs.getLong("size"));
+            }, chatId, chatOverLimit[1]);
+
+            if (!prunedPhrases.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_PAIRS_OF_PHRASE_SQL, prunedPhrases);
+                jdbcTemplate.batchUpdate(DELETE_PHRASE_SQL, prunedPhrases);
+            }
+        }
+    }
+}
@@ -26,6 +26,7 @@ public class TalkerDegreeServiceImpl implements TalkerDegreeService {
             talkerDegree = talkerDegreeRepository.save(new TalkerDegree()
                     .setDegree(0)
                     .setChatIdleMinutes(0)
+                    .setPhrasesLimit(0)
                     .setChat(new Chat().setChatId(chatId)));
         }
 
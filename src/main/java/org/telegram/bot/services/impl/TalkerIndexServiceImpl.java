@@ -0,0 +1,109 @@
+package org.telegram.bot.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.telegram.bot.domain.TalkerIndex;
+import org.telegram.bot.domain.entities.TalkerPhrase;
+import org.telegram.bot.services.TalkerIndexService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Indexes of chats are loaded on the first request by one query of pairs of words and phrases
+ * and then kept up to date by learning.
+ * Indexes of chats, which were not requested for a long time, are evicted when another index is loaded,
+ * and the number of kept indexes is bounded by evicting the least recently requested ones.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TalkerIndexServiceImpl implements TalkerIndexService {
+
+    private static final String SELECT_PAIRS_SQL = "SELECT tw.word, tp.phrase_id, tp.phrase FROM bot.talkerphrase tp "
+            + "JOIN talkerwordphrase twp ON twp.phrase_id = tp.phrase_id "
+            + "JOIN bot.talkerword tw ON tw.word_id = twp.word_id "
+            + "WHERE tp.chatid = ?";
+    private static final int MAX_INDEXES = 100;
+    private static final long MAX_IDLE_MILLIS = Duration.ofHours(6).toMillis();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final Map<Long, IndexEntry> indexes = new ConcurrentHashMap<>();
+
+    @Override
+    public Map<String, Integer> ratePhrases(Long chatId, Collection<String> words, Predicate<String> phraseFilter) {
+        log.debug("Request to rate phrases of chat {} by words {}", chatId, words);
+        IndexEntry entry = indexes.get(chatId);
+        if (entry == null) {
+            entry = indexes.computeIfAbsent(chatId, key -> new IndexEntry(load(key)));
+            evict(chatId);
+        }
+        entry.lastRequestAt = clock.millis();
+
+        return entry.index.rate(words, phraseFilter);
+    }
+
+    @Override
+    public void add(Long chatId, Collection<String> words, Collection<TalkerPhrase> phrases) {
+        indexes.computeIfPresent(chatId, (key, entry) -> {
+            words.forEach(word -> phrases.forEach(phrase -> entry.index.add(word, phrase.getId(), phrase.getPhrase())));
+            return entry;
+        });
+    }
+
+    @Override
+    public void invalidate(Long chatId) {
+        indexes.remove(chatId);
+    }
+
+    /**
+     * Evict idle indexes and then the least recently requested ones over the limit.
+     *
+     * @param loadedChatId id of chat, which index was just loaded and is kept.
+     */
+    private void evict(Long loadedChatId) {
+        long idleSince = clock.millis() - MAX_IDLE_MILLIS;
+        indexes.entrySet().removeIf(entry -> !entry.getKey().equals(loadedChatId) && entry.getValue().lastRequestAt < idleSince);
+
+        while (indexes.size() > MAX_INDEXES) {
+            indexes.entrySet().stream()
+                    .filter(entry -> !entry.getKey().equals(loadedChatId))
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastRequestAt))
+                    .ifPresent(entry -> {
+                        indexes.remove(entry.getKey(), entry.getValue());
+                        log.debug("Evicted talker index of chat {}", entry.getKey());
+                    });
+        }
+    }
+
+    private TalkerIndex load(Long chatId) {
+        TalkerIndex index = new TalkerIndex();
+        jdbcTemplate.query(SELECT_PAIRS_SQL, rs -> {
+            String word = rs.getString("word");
+            String phrase = rs.getString("phrase");
+            if (word != null && phrase != null) {
+                index.add(word, rs.getLong("phrase_id"), phrase);
+            }
+        }, chatId);
+        log.info("Loaded talker index of chat {}: {} words, {} phrases", chatId, index.getWordsCount(), index.getPhrasesCount());
+
+        return index;
+    }
+
+    private class IndexEntry {
+        private final TalkerIndex index;
+        private volatile long lastRequestAt = clock.millis();
+
+        private IndexEntry(TalkerIndex index) {
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.telegram.bot.services.impl;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.telegram.bot.domain.entities.TalkerPhrase;
+import org.telegram.bot.services.TalkerIndexService;
+import org.telegram.bot.services.TalkerLearningService;
+import org.telegram.bot.utils.NamedThreadFactory;
+import org.telegram.bot.utils.TextUtils;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lessons of talker are queued by the update thread and stored in batches by the background writer.
+ * Words and phrases of the batch are deduplicated before storing, so every word, phrase and pair is looked up
+ * and inserted once per batch. Phrases are looked up by hash of their normalized text.
+ * When the writer is behind, new lessons are dropped instead of slowing updates.
+ */
+@Service
+@Slf4j
+public class TalkerLearningServiceImpl implements TalkerLearningService {
+
+    private static final int QUEUE_CAPACITY = 10000;
+    private static final int MAX_IN_PARAMETERS = 500;
+    private static final long FLUSH_INTERVAL_SECONDS = 3;
+
+    private static final String SELECT_WORDS_SQL = "SELECT word_id, word FROM bot.talkerword WHERE UPPER(word) IN (%s) ORDER BY word_id";
+    private static final String INSERT_WORD_SQL = "INSERT INTO bot.talkerword (word) VALUES (?)";
+    private static final String SELECT_PHRASES_SQL = "SELECT phrase_id, hash FROM bot.talkerphrase WHERE chatid = ? AND hash IN (%s) ORDER BY phrase_id";
+    private static final String INSERT_PHRASE_SQL = "INSERT INTO bot.talkerphrase (phrase, chatid, hash) VALUES (?, ?, ?)";
+    private static final String SELECT_PAIRS_SQL = "SELECT word_id, phrase_id FROM talkerwordphrase WHERE phrase_id IN (%s)";
+    private static final String INSERT_PAIR_SQL = "INSERT INTO talkerwordphrase (word_id, phrase_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TalkerIndexService talkerIndexService;
+    private final BlockingQueue<Lesson> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("talker-learning-"));
+
+    public TalkerLearningServiceImpl(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, TalkerIndexService talkerIndexService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.talkerIndexService = talkerIndexService;
+        writer.scheduleWithFixedDelay(this::flushSafely, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void learn(Long chatId, List<String> words, List<String> phrases) {
+        if (!queue.offer(new Lesson(chatId, words, phrases))) {
+            log.debug("Talker learning is behind, lesson of chat {} is dropped", chatId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+        flushSafely();
+    }
+
+    /**
+     * Store queued lessons to the database and add them to the loaded indexes after commit.
+     */
+    public synchronized void flush() {
+        List<Lesson> lessons = new ArrayList<>();
+        queue.drainTo(lessons);
+        if (lessons.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Map<String, TalkerPhrase>> storedPhrases = transactionTemplate.execute(status -> store(lessons));
+        if (storedPhrases == null) {
+            return;
+        }
+
+        lessons.forEach(lesson -> {
+            Map<String, TalkerPhrase> chatPhrases = storedPhrases.get(lesson.chatId);
+            talkerIndexService.add(
+                    lesson.chatId,
+                    lesson.words,
+                    lesson.phrases.stream().map(phrase -> chatPhrases.get(TextUtils.getPhraseHash(phrase))).distinct().collect(Collectors.toList()));
+        });
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to store talker lessons", e);
+        }
+    }
+
+    private Map<Long, Map<String, TalkerPhrase>> store(List<Lesson> lessons) {
+        Map<String, Long> wordIds = storeWords(lessons.stream().flatMap(lesson -> lesson.words.stream()).collect(Collectors.toList()));
+
+        Map<Long, List<String>> phrasesByChat = new LinkedHashMap<>();
+        lessons.forEach(lesson -> phrasesByChat.computeIfAbsent(lesson.chatId, key -> new ArrayList<>()).addAll(lesson.phrases));
+        Map<Long, Map<String, TalkerPhrase>> storedPhrases = new HashMap<>();
+        phrasesByChat.forEach((chatId, phrases) -> storedPhrases.put(chatId, storePhrases(chatId, phrases)));
+
+        Set<Pair> pairs = new LinkedHashSet<>();
+        for (Lesson lesson : lessons) {
+            Map<String, TalkerPhrase> chatPhrases = storedPhrases.get(lesson.chatId);
+            for (String word : lesson.words) {
+                Long wordId = wordIds.get(getKey(word));
+                lesson.phrases.forEach(phrase -> pairs.add(new Pair(wordId, chatPhrases.get(TextUtils.getPhraseHash(phrase)).getId())));
+            }
+        }
+        storePairs(pairs);
+
+        log.debug("Stored {} talker lessons: {} words, {} pairs", lessons.size(), wordIds.size(), pairs.size());
+
+        return storedPhrases;
+    }
+
+    private Map<String, Long> storeWords(List<String> words) {
+        Map<String, String> wordsByKey = getDistinctByKey(words, TalkerLearningServiceImpl::getKey);
+        Map<String, Long> wordIds = selectIds(SELECT_WORDS_SQL, Collections.emptyList(), wordsByKey.keySet(), TalkerLearningServiceImpl::getKey);
+
+        List<String> absentKeys = getAbsentKeys(wordsByKey, wordIds);
+        if (!absentKeys.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    INSERT_WORD_SQL,
+                    absentKeys.stream().map(key -> new Object[] {wordsByKey.get(key)}).collect(Collectors.toList()));
+            wordIds.putAll(selectIds(SELECT_WORDS_SQL, Collections.emptyList(), absentKeys, TalkerLearningServiceImpl::getKey));
+        }
+
+        return wordIds;
+    }
+
+    private Map<String, TalkerPhrase> storePhrases(Long chatId, List<String> phrases) {
+        Map<String, String> phrasesByHash = getDistinctByKey(phrases, TextUtils::getPhraseHash);
+        List<Object> chatIdParameter = List.of(chatId);
+        Map<String, Long> phraseIds = selectIds(SELECT_PHRASES_SQL, chatIdParameter, phrasesByHash.keySet(), Function.identity());
+
+        List<String> absentHashes = getAbsentKeys(phrasesByHash, phraseIds);
+        if (!absentHashes.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    INSERT_PHRASE_SQL,
+                    absentHashes.stream().map(hash -> new Object[] {phrasesByHash.get(hash), chatId, hash}).collect(Collectors.toList()));
+            phraseIds.putAll(selectIds(SELECT_PHRASES_SQL, chatIdParameter, absentHashes, Function.identity()));
+        }
+
+        Map<String, TalkerPhrase> storedPhrases = new HashMap<>();
+        phraseIds.forEach((hash, id) -> storedPhrases.put(hash, new TalkerPhrase().setId(id).setPhrase(phrasesByHash.get(hash))));
+
+        return storedPhrases;
+    }
+
+    private void storePairs(Set<Pair> pairs) {
+        List<Long> phraseIds = pairs.stream().map(pair -> pair.phraseId).distinct().collect(Collectors.toList());
+        for (List<Long> chunk : getChunks(phraseIds)) {
+            jdbcTemplate.query(
+                    String.format(SELECT_PAIRS_SQL, getPlaceholders(chunk.size())),
+                    chunk.toArray(),
+                    (rs, rowNum) -> new Pair(rs.getLong("word_id"), rs.getLong("phrase_id")))
+                    .forEach(pairs::remove);
+        }
+
+        if (!pairs.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    INSERT_PAIR_SQL,
+                    pairs.stream().map(pair -> new Object[] {pair.wordId, pair.phraseId}).collect(Collectors.toList()));
+        }
+    }
+
+    private Map<String, Long> selectIds(String sql, List<Object> parameters, Iterable<String> keys, Function<String, String> keyFunction) {
+        List<String> keyList = new ArrayList<>();
+        keys.forEach(keyList::add);
+
+        Map<String, Long> ids = new HashMap<>();
+        for (List<String> chunk : getChunks(keyList)) {
+            List<Object> arguments = new ArrayList<>(parameters);
+            arguments.addAll(chunk);
+            jdbcTemplate.query(
+                    String.format(sql, getPlaceholders(chunk.size())),
+                    arguments.toArray(),
+                    (rs, rowNum) -> Map.entry(keyFunction.apply(rs.getString(2)), rs.getLong(1)))
+                    .forEach(entry -> ids.putIfAbsent(entry.getKey(), entry.getValue()));
+        }
+
+        return ids;
+    }
+
+    private static Map<String, String> getDistinctByKey(List<String> values, Function<String, String> keyFunction) {
+        Map<String, String> valuesByKey = new LinkedHashMap<>();
+        values.forEach(value -> valuesByKey.putIfAbsent(keyFunction.apply(value), value));
+        return valuesByKey;
+    }
+
+    private static List<String> getAbsentKeys(Map<String, String> valuesByKey, Map<String, Long> ids) {
+        return valuesByKey.keySet().stream().filter(key -> !ids.containsKey(key)).collect(Collectors.toList());
+    }
+
+    private static <T> List<List<T>> getChunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < values.size(); i = i + MAX_IN_PARAMETERS) {
+            chunks.add(values.subList(i, Math.min(i + MAX_IN_PARAMETERS, values.size())));
+        }
+        return chunks;
+    }
+
+    private static String getPlaceholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static String getKey(String value) {
+        return value.toUpperCase(Locale.ROOT);
+    }
+
+    @RequiredArgsConstructor
+    private static class Lesson {
+        private final Long chatId;
+        private final List<String> words;
+        private final List<String> phrases;
+    }
+
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    private static class Pair {
+        private final Long wordId;
+        private final Long phraseId;
+    }
+}
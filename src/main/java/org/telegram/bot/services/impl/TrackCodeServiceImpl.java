@@ -6,10 +6,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.telegram.bot.domain.entities.TrackCode;
 import org.telegram.bot.domain.entities.TrackCodeEvent;
+import org.telegram.bot.domain.enums.ApiQuota;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.repositories.TrackCodeEventRepository;
 import org.telegram.bot.repositories.TrackCodeRepository;
 import org.telegram.bot.services.PostTrackingService;
+import org.telegram.bot.services.QuotaService;
 import org.telegram.bot.services.TrackCodeService;
 
 import java.util.HashSet;
@@ -25,6 +27,7 @@ import static org.telegram.bot.domain.commands.Parcel.DELIVERED_OPERATION_TYPE;
 public class TrackCodeServiceImpl implements TrackCodeService {
 
     private final PostTrackingService postTrackingService;
+    private final QuotaService quotaService;
     private final TrackCodeRepository trackCodeRepository;
     private final TrackCodeEventRepository trackCodeEventRepository;
 
@@ -80,6 +83,12 @@ public class TrackCodeServiceImpl implements TrackCodeService {
 
         Set<TrackCodeEvent> trackCodeEventSet = new HashSet<>();
         trackCodeList.forEach(trackCode -> {
+            if (quotaService.getRemaining(ApiQuota.RUSSIAN_POST) == 0) {
+                // the rest of tracks will be updated when quota is renewed
+                log.warn("Track {} is not updated: quota of Russian Post is exhausted", trackCode.getBarcode());
+                return;
+            }
+
             List<TrackCodeEvent> trackCodeEventList;
             try {
                 trackCodeEventList = postTrackingService.getData(trackCode.getBarcode());
@@ -0,0 +1,45 @@
+package org.telegram.bot.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.domain.entities.Chat;
+import org.telegram.bot.services.ChatService;
+import org.telegram.bot.services.CommandWaitingService;
+import org.telegram.bot.services.LastCommandService;
+import org.telegram.bot.services.UpdateContextService;
+import org.telegram.bot.services.UserService;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UpdateContextServiceImpl implements UpdateContextService {
+
+    private final UserService userService;
+    private final ChatService chatService;
+    private final CommandWaitingService commandWaitingService;
+    private final LastCommandService lastCommandService;
+
+    @Override
+    public UpdateContext create(Update update, Message message, User user, String textOfMessage, boolean editedMessage) {
+        log.debug("Request to create context of update {}", update.getUpdateId());
+
+        Long chatId = message.getChatId();
+        Long userId = user.getId();
+
+        return new UpdateContext(
+                update,
+                message,
+                user,
+                textOfMessage,
+                editedMessage,
+                () -> userService.get(userId),
+                () -> chatService.get(chatId),
+                () -> commandWaitingService.get(new Chat().setChatId(chatId), new org.telegram.bot.domain.entities.User().setUserId(userId)),
+                () -> lastCommandService.get(new Chat().setChatId(chatId)));
+    }
+}
@@ -0,0 +1,146 @@
+package org.telegram.bot.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.telegram.bot.domain.UserActivityTotal;
+import org.telegram.bot.domain.UserStatsDeltas;
+import org.telegram.bot.domain.enums.ActivityGranularity;
+import org.telegram.bot.domain.enums.UserStatsCounter;
+import org.telegram.bot.services.UserActivityService;
+
+import javax.transaction.Transactional;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counters are written to the hourly buckets by the flush of user stats and merged into the daily buckets by schedule,
+ * so the sum for any period is read from a few rows per user.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserActivityServiceImpl implements UserActivityService {
+
+    private static final String UPDATE_BUCKET_SQL = "UPDATE bot.useractivity SET value = value + ? "
+            + "WHERE chatid = ? AND counter = ? AND bucket = ? AND userid = ? AND granularity = ?";
+    private static final String INSERT_BUCKET_SQL = "INSERT INTO bot.useractivity (value, chatid, counter, bucket, userid, granularity) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_TOP_SQL = "SELECT userid, SUM(value) AS total FROM bot.useractivity "
+            + "WHERE chatid = ? AND counter = ? AND bucket >= ? AND bucket < ? "
+            + "GROUP BY userid HAVING SUM(value) <> 0 ORDER BY total DESC LIMIT ?";
+    private static final String SELECT_HOURS_BY_DAY_SQL = "SELECT chatid, userid, counter, CAST(bucket AS DATE) AS day, SUM(value) AS total "
+            + "FROM bot.useractivity WHERE granularity = 'HOUR' AND bucket < ? "
+            + "GROUP BY chatid, userid, counter, CAST(bucket AS DATE)";
+    private static final String DELETE_HOURS_SQL = "DELETE FROM bot.useractivity WHERE granularity = 'HOUR' AND bucket < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void add(List<UserStatsDeltas.Delta> deltas, LocalDateTime dateTime) {
+        LocalDateTime bucket = ActivityGranularity.HOUR.getBucket(dateTime);
+
+        List<Bucket> buckets = new ArrayList<>();
+        for (UserStatsDeltas.Delta delta : deltas) {
+            for (UserStatsCounter counter : UserStatsCounter.values()) {
+                long value = delta.get(counter);
+                if (value != 0) {
+                    buckets.add(new Bucket(delta.getChatId(), delta.getUserId(), counter.name(), bucket, value));
+                }
+            }
+        }
+
+        addToBuckets(buckets, ActivityGranularity.HOUR);
+    }
+
+    @Override
+    public List<UserActivityTotal> getTop(Long chatId, UserStatsCounter counter, LocalDateTime from, LocalDateTime to, int limit) {
+        log.debug("Request to get top of {} for chat {} from {} to {}", counter, chatId, from, to);
+        return jdbcTemplate.query(
+                SELECT_TOP_SQL,
+                (rs, rowNum) -> new UserActivityTotal(rs.getLong("userid"), rs.getLong("total")),
+                chatId, counter.name(), Timestamp.valueOf(from), Timestamp.valueOf(to), limit);
+    }
+
+    @Override
+    @Transactional
+    public int rollUp(LocalDateTime before) {
+        log.debug("Request to roll up hourly activity before {}", before);
+        Timestamp beforeTimestamp = Timestamp.valueOf(before);
+
+        List<Bucket> days = jdbcTemplate.query(
+                SELECT_HOURS_BY_DAY_SQL,
+                (rs, rowNum) -> new Bucket(
+                        rs.getLong("chatid"),
+                        rs.getLong("userid"),
+                        rs.getString("counter"),
+                        rs.getDate("day").toLocalDate().atStartOfDay(),
+                        rs.getLong("total")),
+                beforeTimestamp);
+        if (days.isEmpty()) {
+            return 0;
+        }
+
+        addToBuckets(days, ActivityGranularity.DAY);
+        int rolledUp = jdbcTemplate.update(DELETE_HOURS_SQL, beforeTimestamp);
+        log.debug("Rolled up {} hourly buckets into {} daily buckets", rolledUp, days.size());
+
+        return rolledUp;
+    }
+
+    private void addToBuckets(List<Bucket> buckets, ActivityGranularity granularity) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+
+        int[] updatedRows = jdbcTemplate.batchUpdate(UPDATE_BUCKET_SQL, new BucketSetter(buckets, granularity));
+
+        List<Bucket> absent = new ArrayList<>();
+        for (int i = 0; i < buckets.size(); i++) {
+            if (updatedRows[i] == 0) {
+                absent.add(buckets.get(i));
+            }
+        }
+
+        if (!absent.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BUCKET_SQL, new BucketSetter(absent, granularity));
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class BucketSetter implements BatchPreparedStatementSetter {
+        private final List<Bucket> buckets;
+        private final ActivityGranularity granularity;
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            Bucket bucket = buckets.get(i);
+            ps.setLong(1, bucket.value);
+            ps.setLong(2, bucket.chatId);
+            ps.setString(3, bucket.counter);
+            ps.setTimestamp(4, Timestamp.valueOf(bucket.dateTime));
+            ps.setLong(5, bucket.userId);
+            ps.setString(6, granularity.name());
+        }
+
+        @Override
+        public int getBatchSize() {
+            return buckets.size();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Bucket {
+        private final Long chatId;
+        private final Long userId;
+        private final String counter;
+        private final LocalDateTime dateTime;
+        private final long value;
+    }
+}
@@ -1,38 +1,96 @@
 package org.telegram.bot.services.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.telegram.bot.domain.MetricsRegistry;
 import org.telegram.bot.domain.entities.User;
 import org.telegram.bot.domain.enums.AccessLevel;
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.domain.events.PermissionsChangedEvent;
 import org.telegram.bot.repositories.UserRepository;
 import org.telegram.bot.services.ChatService;
 import org.telegram.bot.services.UserService;
+import org.telegram.bot.utils.EntityCache;
 
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Users are cached by id and by username. The cache is updated on saving, so it is stale only for
+ * changes made bypassing this service.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    private static final int CACHE_SIZE = 2000;
+    private static final Duration CACHE_TTL = Duration.ofMinutes(30);
+
     private final UserRepository userRepository;
     private final ChatService chatService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityCache<Long, User> usersById;
+    private final EntityCache<String, Long> userIdsByUsername;
+
+    public UserServiceImpl(UserRepository userRepository, ChatService chatService, ApplicationEventPublisher eventPublisher,
+                           MetricsRegistry metricsRegistry, Clock clock) {
+        this.userRepository = userRepository;
+        this.chatService = chatService;
+        this.eventPublisher = eventPublisher;
+        this.usersById = new EntityCache<>(CACHE_SIZE, CACHE_TTL, clock, metricsRegistry, BotMetric.USER_CACHE_HITS, BotMetric.USER_CACHE_MISSES,
+                UserServiceImpl::copy);
+        this.userIdsByUsername = new EntityCache<>(CACHE_SIZE, CACHE_TTL, clock, metricsRegistry, BotMetric.USERNAME_CACHE_HITS, BotMetric.USERNAME_CACHE_MISSES);
+    }
 
     @Override
     public User get(Long userId) {
         log.debug("Request to get User by userId: {} ", userId);
-        return userRepository.findByUserId(userId);
+        return usersById.get(userId, userRepository::findByUserId);
     }
 
     @Override
     public User get(String username) {
         log.debug("Request to get User by username: {} ", username);
-        return userRepository.findByUsername(username.replace("@", ""));
+        String name = username.replace("@", "");
+
+        Long userId = userIdsByUsername.get(name, key -> {
+            User user = userRepository.findByUsername(key);
+            if (user == null) {
+                return null;
+            }
+            usersById.putIfAbsent(user.getUserId(), user);
+            return user.getUserId();
+        });
+        if (userId == null) {
+            return null;
+        }
+
+        User user = get(userId);
+        if (user == null || !name.equals(user.getUsername())) {
+            // the user was renamed since caching
+            userIdsByUsername.invalidate(name);
+            return userRepository.findByUsername(name);
+        }
+
+        return user;
     }
 
     @Override
     public User save(User user) {
         log.debug("Request to save User: {} ", user);
-        return userRepository.save(user);
+
+        User cachedUser = usersById.getIfPresent(user.getUserId());
+        if (cachedUser != null && cachedUser.getUsername() != null) {
+            userIdsByUsername.invalidate(cachedUser.getUsername());
+        }
+
+        User savedUser = userRepository.save(user);
+        usersById.put(savedUser.getUserId(), savedUser);
+        userIdsByUsername.put(savedUser.getUsername(), savedUser.getUserId());
+        eventPublisher.publishEvent(PermissionsChangedEvent.ofUser(savedUser.getUserId()));
+
+        return savedUser;
     }
 
     @Override
@@ -71,4 +129,11 @@ public class UserServiceImpl implements UserService {
         return userAccessLevel >= commandAccessLevel;
     }
 
+    private static User copy(User user) {
+        return new User()
+                .setUserId(user.getUserId())
+                .setUsername(user.getUsername())
+                .setAccessLevel(user.getAccessLevel());
+    }
+
 }
@@ -2,103 +2,242 @@ package org.telegram.bot.services.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.telegram.bot.Bot;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.domain.UserActivityTotal;
+import org.telegram.bot.domain.UserStatsDeltas;
+import org.telegram.bot.domain.UserStatsLeaderboards;
 import org.telegram.bot.domain.commands.Top;
 import org.telegram.bot.domain.entities.*;
 import org.telegram.bot.domain.enums.AccessLevel;
+import org.telegram.bot.domain.enums.UserStatsCounter;
+import org.telegram.bot.domain.enums.UserStatsPeriod;
 import org.telegram.bot.repositories.UserStatsRepository;
 import org.telegram.bot.services.ChatService;
 import org.telegram.bot.services.LastCommandService;
 import org.telegram.bot.services.LastMessageService;
 import org.telegram.bot.services.SpeechService;
+import org.telegram.bot.services.UserActivityService;
 import org.telegram.bot.services.UserService;
 import org.telegram.bot.services.UserStatsService;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Message;
 
+import javax.annotation.PreDestroy;
 import javax.transaction.Transactional;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-
+import java.util.stream.Stream;
+
+/**
+ * Counters of messages, commands and karma are accumulated in memory and written by {@link #flush()} in one batch,
+ * so in case of crash only the changes since the last flush are lost.
+ * Changes of users or chats, which are not stored yet, are kept for the following flushes.
+ * Flushed changes are also applied to the in-memory leaderboards of chats, which serve tops and positions of users.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserStatsServiceImpl implements UserStatsService {
 
+    private static final UserStatsCounter[] COUNTERS = UserStatsCounter.values();
+    private static final String UPDATE_COUNTERS_SQL = "UPDATE bot.userstats SET "
+            + Stream.of(COUNTERS)
+                    .flatMap(counter -> Stream.of(counter.getColumn(), counter.getPerDayColumn(), counter.getAllColumn()))
+                    .map(column -> column + " = " + column + " + ?")
+                    .collect(Collectors.joining(", "))
+            + " WHERE chatid = ? AND userid = ?";
+    private static final String UPDATE_LAST_MESSAGE_SQL = "UPDATE bot.lastmessage SET messageid = ?, text = ?, date = ? "
+            + "WHERE id = (SELECT lastmessage FROM bot.userstats WHERE chatid = ? AND userid = ?)";
+    private static final String SELECT_LEADERBOARDS_SQL = "SELECT chatid, userid, "
+            + Stream.of(COUNTERS)
+                    .flatMap(counter -> Stream.of(UserStatsPeriod.values()).map(period -> period.getColumn(counter)))
+                    .collect(Collectors.joining(", "))
+            + " FROM bot.userstats";
+    private static final String SELECT_GROUP_LEADERBOARDS_SQL = SELECT_LEADERBOARDS_SQL + " WHERE chatid < -1";
+    private static final String SELECT_CHAT_LEADERBOARDS_SQL = SELECT_LEADERBOARDS_SQL + " WHERE chatid = ?";
+    private static final String CLEAR_MONTHLY_STATS_SQL = getClearGroupStatsSql(UserStatsCounter::getColumn);
+    private static final String CLEAR_DAILY_STATS_SQL = getClearGroupStatsSql(UserStatsCounter::getPerDayColumn);
+    private static final Duration MAX_POSTPONING = Duration.ofHours(1);
+
     private final UserStatsRepository userStatsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserStatsDeltas userStatsDeltas = new UserStatsDeltas();
+    private final UserStatsLeaderboards userStatsLeaderboards = new UserStatsLeaderboards();
 
     private final UserService userService;
     private final ChatService chatService;
     private final LastMessageService lastMessageService;
     private final SpeechService speechService;
     private final LastCommandService lastCommandService;
+    private final UserActivityService userActivityService;
 
     @Override
     public UserStats get(Chat chat, User user) {
         log.debug("Request to get entity by Chat {} and {} User", chat, user);
+        flush();
         return userStatsRepository.findByChatAndUser(chat, user);
     }
 
     @Override
     public List<UserStats> getAllGroupStats() {
         log.debug("Request to get all group-stats entities");
+        flush();
         return userStatsRepository.findByChatChatIdLessThan(-1L);
     }
 
     @Override
-    public UserStats save(UserStats userStats) {
+    public synchronized UserStats save(UserStats userStats) {
         log.debug("Request to save UserStats {}", userStats);
+        userStatsLeaderboards.invalidate(userStats.getChat().getChatId());
         return userStatsRepository.save(userStats);
     }
 
     @Override
-    public List<UserStats> save(List<UserStats> userStatsList) {
+    public synchronized List<UserStats> save(List<UserStats> userStatsList) {
         log.debug("Request to save UserStats list {}", userStatsList);
+        userStatsList.forEach(userStats -> userStatsLeaderboards.invalidate(userStats.getChat().getChatId()));
         return userStatsRepository.saveAll(userStatsList);
     }
 
     @Override
     @Transactional
-    public void updateEntitiesInfo(Message message, boolean editedMessage) {
-        log.debug("Request to updates entities info");
+    public void updateEntitiesInfo(List<UpdateContext> updateContexts) {
+        log.debug("Request to updates entities info of {} updates", updateContexts.size());
+
+        // the latest data of every user and chat in batch
+        Map<Long, org.telegram.telegrambots.meta.api.objects.User> usersFrom = new LinkedHashMap<>();
+        Map<Long, org.telegram.telegrambots.meta.api.objects.Chat> chatsFrom = new LinkedHashMap<>();
+        updateContexts.forEach(updateContext -> {
+            Message message = updateContext.getMessage();
+            usersFrom.put(message.getFrom().getId(), message.getFrom());
+            chatsFrom.put(updateContext.getChatId(), message.getChat());
+        });
+
+        Map<Long, User> users = new HashMap<>();
+        usersFrom.forEach((userId, userFrom) -> users.put(userId, updateUserInfo(userFrom, getStoredUser(updateContexts, userId))));
+
+        Map<Long, Chat> chats = new HashMap<>();
+        chatsFrom.forEach((chatId, chatFrom) -> chats.put(chatId, updateChatInfo(chatFrom, getStoredChat(updateContexts, chatId))));
+
+        updateContexts.forEach(updateContext -> {
+            User user = users.get(updateContext.getUserId());
+            if (user != null) {
+                updateContext.setUser(user);
+            }
+            updateContext.setChat(chats.get(updateContext.getChatId()));
+        });
+    }
 
-        User user = updateUserInfo(message.getFrom());
-        Chat chat = updateChatInfo(message.getChat());
-        if (!editedMessage) {
-            updateUserStats(chat, user, message);
-        }
+    @Override
+    public void updateUserStats(List<UpdateContext> updateContexts) {
+        log.debug("Request to update user stats of {} updates", updateContexts.size());
+
+        updateContexts
+                .stream()
+                .filter(updateContext -> !updateContext.isEditedMessage())
+                .forEach(updateContext -> countMessage(updateContext.getChatId(), updateContext.getMessage()));
+    }
+
+    private User getStoredUser(List<UpdateContext> updateContexts, Long userId) {
+        return updateContexts
+                .stream()
+                .filter(updateContext -> userId.equals(updateContext.getUserId()))
+                .findFirst()
+                .map(UpdateContext::getUser)
+                // message of callback query is sent by the bot, not by the sender of update
+                .orElseGet(() -> userService.get(userId));
+    }
+
+    private Chat getStoredChat(List<UpdateContext> updateContexts, Long chatId) {
+        return updateContexts
+                .stream()
+                .filter(updateContext -> chatId.equals(updateContext.getChatId()))
+                .findFirst()
+                .map(UpdateContext::getChat)
+                .orElseGet(() -> chatService.get(chatId));
     }
 
     @Override
     public List<UserStats> getActiveUserStatsListForChat(Chat chat) {
         log.debug("Request to get user stats of chat {}", chat);
+        flush();
         return userStatsRepository.findByChatAndLastMessageDateGreaterThan(chat, LocalDate.now().atStartOfDay());
     }
 
     @Override
-    public List<UserStats> getSortedUserStatsListForChat(Chat chat, String sortBy, int limit) {
-        log.debug("Request to get users of chat with id {} and limit {} sort by {}", chat, limit, sortBy);
-        return userStatsRepository.findByChat(chat, PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, sortBy)));
+    public synchronized List<UserActivityTotal> getTop(Chat chat, UserStatsCounter counter, UserStatsPeriod period, int limit) {
+        log.debug("Request to get top of chat {} by {} for {} with limit {}", chat, counter, period, limit);
+        flush();
+        loadLeaderboards(chat.getChatId());
+        return userStatsLeaderboards.getTop(chat.getChatId(), counter, period, limit);
     }
 
     @Override
-    public List<UserStats> getSortedUserStatsListWithKarmaForChat(Chat chat, String sortBy, int limit, boolean allKarma) {
-        if (allKarma) {
-            log.debug("Request to get users with allKarma of chat with id {} and limit {} sort by {}", chat, limit, sortBy);
-            return userStatsRepository.findByChatAndNumberOfAllKarmaNot(chat, PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, sortBy)), 0L);
+    public synchronized int getPosition(Chat chat, User user, UserStatsCounter counter, UserStatsPeriod period) {
+        log.debug("Request to get position of user {} in chat {} by {} for {}", user, chat, counter, period);
+        flush();
+        loadLeaderboards(chat.getChatId());
+        return userStatsLeaderboards.getRank(chat.getChatId(), user.getUserId(), counter, period);
+    }
+
+    /**
+     * Rebuild leaderboards of group chats from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadGroupLeaderboards() {
+        flush();
+        jdbcTemplate.query(SELECT_GROUP_LEADERBOARDS_SQL, this::addToLeaderboards);
+        log.info("Leaderboards of group chats are loaded");
+    }
+
+    private void loadLeaderboards(Long chatId) {
+        if (userStatsLeaderboards.isLoaded(chatId)) {
+            return;
         }
 
-        log.debug("Request to get users with karma of chat with id {} and limit {} sort by {}", chat, limit, sortBy);
-        return userStatsRepository.findByChatAndNumberOfKarmaNot(chat, PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, sortBy)), 0);
+        userStatsLeaderboards.load(chatId);
+        jdbcTemplate.query(SELECT_CHAT_LEADERBOARDS_SQL, this::addToLeaderboards, chatId);
+    }
+
+    private void addToLeaderboards(ResultSet rs) throws SQLException {
+        long chatId = rs.getLong("chatid");
+        long userId = rs.getLong("userid");
+        for (UserStatsCounter counter : COUNTERS) {
+            for (UserStatsPeriod period : UserStatsPeriod.values()) {
+                userStatsLeaderboards.set(chatId, userId, counter, period, rs.getLong(period.getColumn(counter)));
+            }
+        }
     }
 
     @Override
-    public List<SendMessage> clearMonthlyStats(Bot bot) {
+    public synchronized List<SendMessage> clearMonthlyStats(Bot bot) {
         log.debug("Request to clear monthly stats of users");
+        flush();
 
         Top top = new Top(bot, this, userService, speechService);
         List<SendMessage> response = chatService.getAllGroups()
@@ -106,95 +245,287 @@ public class UserStatsServiceImpl implements UserStatsService {
                 .map(top::getTopByChat)
                 .collect(Collectors.toList());
 
-        userStatsRepository.saveAll(getAllGroupStats()
-                .stream()
-                .peek(this::clearUserStatsFields)
-                .collect(Collectors.toList()));
+        int clearedRows = jdbcTemplate.update(CLEAR_MONTHLY_STATS_SQL);
+        userStatsLeaderboards.clear(UserStatsPeriod.MONTH, chatId -> chatId < -1);
+        log.debug("Cleared monthly stats of {} users", clearedRows);
 
         return response;
     }
 
-    private void clearUserStatsFields(UserStats userStats) {
-        userStats.setNumberOfMessages(0)
-                .setNumberOfPhotos(0)
-                .setNumberOfAnimations(0)
-                .setNumberOfAudio(0)
-                .setNumberOfDocuments(0)
-                .setNumberOfVideos(0)
-                .setNumberOfVideoNotes(0)
-                .setNumberOfVoices(0)
-                .setNumberOfCommands(0)
-                .setNumberOfStickers(0)
-                .setNumberOfKarma(0)
-                .setNumberOfGoodness(0)
-                .setNumberOfWickedness(0);
-    }
-
     @Override
-    public void clearDailyStats() {
+    public synchronized void clearDailyStats() {
         log.debug("Request to clear daily stats of users");
-        userStatsRepository.saveAll(getAllGroupStats()
-                .stream()
-                .peek(this::clearUserStatsPerDayFields)
-                .collect(Collectors.toList()));
-    }
-
-    private void clearUserStatsPerDayFields(UserStats userStats) {
-        userStats.setNumberOfMessagesPerDay(0)
-                .setNumberOfPhotosPerDay(0)
-                .setNumberOfAnimationsPerDay(0)
-                .setNumberOfAudioPerDay(0)
-                .setNumberOfDocumentsPerDay(0)
-                .setNumberOfVideosPerDay(0)
-                .setNumberOfVideoNotesPerDay(0)
-                .setNumberOfVoicesPerDay(0)
-                .setNumberOfCommandsPerDay(0)
-                .setNumberOfStickersPerDay(0)
-                .setNumberOfKarmaPerDay(0)
-                .setNumberOfGoodnessPerDay(0)
-                .setNumberOfWickednessPerDay(0);
+        flush();
+
+        int clearedRows = jdbcTemplate.update(CLEAR_DAILY_STATS_SQL);
+        userStatsLeaderboards.clear(UserStatsPeriod.DAY, chatId -> chatId < -1);
+        log.debug("Cleared daily stats of {} users", clearedRows);
+    }
+
+    /**
+     * Get query to reset the counters of all users of group chats by one statement.
+     *
+     * @param column column of counter of the period.
+     * @return sql query.
+     */
+    private static String getClearGroupStatsSql(Function<UserStatsCounter, String> column) {
+        return "UPDATE bot.userstats SET "
+                + Stream.of(COUNTERS).map(counter -> column.apply(counter) + " = 0").collect(Collectors.joining(", "))
+                + " WHERE chatid < -1";
     }
 
     @Override
     public void incrementUserStatsCommands(Chat chat, User user) {
         log.debug("Request to increment users stats commands using");
+        userStatsDeltas.add(chat.getChatId(), user.getUserId(), UserStatsCounter.COMMANDS, 1);
+    }
+
+    @Override
+    public void changeKarma(Chat chat, User user, User anotherUser, int value) {
+        log.debug("Request to change karma {} of user {} by user {}", value, anotherUser, user);
+        userStatsDeltas.add(chat.getChatId(), anotherUser.getUserId(), UserStatsCounter.KARMA, value);
+        userStatsDeltas.add(chat.getChatId(), user.getUserId(), value > 0 ? UserStatsCounter.GOODNESS : UserStatsCounter.WICKEDNESS, 1);
+    }
+
+    @Override
+    public List<UserActivityTotal> getTopForPeriod(Chat chat, UserStatsCounter counter, LocalDateTime from, LocalDateTime to, int limit) {
+        flush();
+        return userActivityService.getTop(chat.getChatId(), counter, from, to, limit);
+    }
+
+    @Override
+    @PreDestroy
+    public synchronized void flush() {
+        if (userStatsDeltas.isEmpty()) {
+            return;
+        }
+
+        List<UserStatsDeltas.Delta> deltas = userStatsDeltas.drain();
+        List<UserStatsDeltas.Delta> postponed;
+        try {
+            postponed = transactionTemplate.execute(status -> writeDeltas(deltas));
+        } catch (RuntimeException e) {
+            userStatsDeltas.restore(deltas);
+            throw e;
+        }
+
+        List<UserStatsDeltas.Delta> written = deltas;
+        if (postponed != null && !postponed.isEmpty()) {
+            written = withoutPostponed(deltas, postponed);
+            postpone(postponed);
+        }
+        userStatsLeaderboards.add(written);
+
+        log.debug("Flushed user stats of {} users", written.size());
+    }
+
+    /**
+     * Keep deltas of users or chats, which are not stored yet, for the next flush.
+     * Deltas, which are postponed for too long, are dropped.
+     *
+     * @param postponed deltas, which were not written.
+     */
+    private void postpone(List<UserStatsDeltas.Delta> postponed) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expired = now.minus(MAX_POSTPONING);
+
+        Map<Boolean, List<UserStatsDeltas.Delta>> byExpiration = postponed.stream()
+                .collect(Collectors.partitioningBy(delta -> delta.getPostponedSince() != null && delta.getPostponedSince().isBefore(expired)));
+        byExpiration.get(true).forEach(delta ->
+                log.warn("Dropping UserStats changes of unknown user {} in chat {}", delta.getUserId(), delta.getChatId()));
+        byExpiration.get(false).stream().filter(delta -> delta.getPostponedSince() == null).forEach(delta ->
+                log.warn("Postponing UserStats changes of unknown user {} in chat {}", delta.getUserId(), delta.getChatId()));
+        userStatsDeltas.postpone(byExpiration.get(false), now);
+    }
+
+    /**
+     * Write deltas to the database.
+     *
+     * @param deltas deltas to write.
+     * @return deltas, which can not be written because the user or chat is not stored.
+     */
+    private List<UserStatsDeltas.Delta> writeDeltas(List<UserStatsDeltas.Delta> deltas) {
+        int[] updatedRows = jdbcTemplate.batchUpdate(UPDATE_COUNTERS_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                UserStatsDeltas.Delta delta = deltas.get(i);
+                int index = 1;
+                for (UserStatsCounter counter : COUNTERS) {
+                    long value = delta.get(counter);
+                    ps.setLong(index++, value);
+                    ps.setLong(index++, value);
+                    ps.setLong(index++, value);
+                }
+                ps.setLong(index++, delta.getChatId());
+                ps.setLong(index, delta.getUserId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+
+        List<UserStatsDeltas.Delta> existing = new ArrayList<>();
+        List<UserStatsDeltas.Delta> absent = new ArrayList<>();
+        for (int i = 0; i < deltas.size(); i++) {
+            // some drivers do not report the number of updated rows
+            if (updatedRows[i] > 0 || updatedRows[i] == Statement.SUCCESS_NO_INFO) {
+                existing.add(deltas.get(i));
+            } else {
+                absent.add(deltas.get(i));
+            }
+        }
 
-        UserStats userStats = get(chat, user);
-        userStats
-                .setNumberOfCommands(userStats.getNumberOfCommands() + 1)
-                .setNumberOfCommandsPerDay(userStats.getNumberOfCommandsPerDay() + 1)
-                .setNumberOfAllCommands(userStats.getNumberOfAllCommands() + 1);
+        List<UserStatsDeltas.Delta> lastMessages = existing.stream().filter(UserStatsDeltas.Delta::hasLastMessage).collect(Collectors.toList());
+        if (!lastMessages.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_MESSAGE_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    UserStatsDeltas.Delta delta = lastMessages.get(i);
+                    ps.setObject(1, delta.getLastMessageId());
+                    ps.setString(2, delta.getLastMessageText());
+                    ps.setTimestamp(3, Timestamp.valueOf(delta.getLastMessageDate()));
+                    ps.setLong(4, delta.getChatId());
+                    ps.setLong(5, delta.getUserId());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return lastMessages.size();
+                }
+            });
+        }
 
-        save(userStats);
+        List<UserStatsDeltas.Delta> postponed = new ArrayList<>();
+        List<UserStats> created = new ArrayList<>();
+        for (UserStatsDeltas.Delta delta : absent) {
+            UserStats userStats = createUserStats(delta);
+            if (userStats == null) {
+                postponed.add(delta);
+            } else {
+                created.add(userStats);
+            }
+        }
+        if (!created.isEmpty()) {
+            userStatsRepository.saveAll(created);
+        }
+
+        if (postponed.isEmpty()) {
+            userActivityService.add(deltas, LocalDateTime.now());
+        } else {
+            userActivityService.add(withoutPostponed(deltas, postponed), LocalDateTime.now());
+        }
+
+        return postponed;
+    }
+
+    private static List<UserStatsDeltas.Delta> withoutPostponed(List<UserStatsDeltas.Delta> deltas, List<UserStatsDeltas.Delta> postponed) {
+        Set<UserStatsDeltas.Delta> postponedSet = new HashSet<>(postponed);
+        return deltas.stream().filter(delta -> !postponedSet.contains(delta)).collect(Collectors.toList());
+    }
+
+    /**
+     * Create UserStats for the first activity of user in chat.
+     *
+     * @param delta changes of UserStats.
+     * @return new UserStats entity or null if user or chat is not stored yet.
+     */
+    private UserStats createUserStats(UserStatsDeltas.Delta delta) {
+        Chat chat = chatService.get(delta.getChatId());
+        User user = userService.get(delta.getUserId());
+        if (chat == null || user == null) {
+            return null;
+        }
+
+        LastMessage lastMessage = new LastMessage()
+                .setMessageId(delta.getLastMessageId())
+                .setText(delta.getLastMessageText())
+                .setDate(delta.getLastMessageDate());
+
+        return new UserStats()
+                .setChat(chat)
+                .setUser(user)
+                .setLastMessage(lastMessageService.save(lastMessage))
+                .setNumberOfMessages((int) delta.get(UserStatsCounter.MESSAGES))
+                .setNumberOfMessagesPerDay((int) delta.get(UserStatsCounter.MESSAGES))
+                .setNumberOfAllMessages(delta.get(UserStatsCounter.MESSAGES))
+                .setNumberOfStickers((int) delta.get(UserStatsCounter.STICKERS))
+                .setNumberOfStickersPerDay((int) delta.get(UserStatsCounter.STICKERS))
+                .setNumberOfAllStickers(delta.get(UserStatsCounter.STICKERS))
+                .setNumberOfPhotos((int) delta.get(UserStatsCounter.PHOTOS))
+                .setNumberOfPhotosPerDay((int) delta.get(UserStatsCounter.PHOTOS))
+                .setNumberOfAllPhotos(delta.get(UserStatsCounter.PHOTOS))
+                .setNumberOfAnimations((int) delta.get(UserStatsCounter.ANIMATIONS))
+                .setNumberOfAnimationsPerDay((int) delta.get(UserStatsCounter.ANIMATIONS))
+                .setNumberOfAllAnimations(delta.get(UserStatsCounter.ANIMATIONS))
+                .setNumberOfAudio((int) delta.get(UserStatsCounter.AUDIO))
+                .setNumberOfAudioPerDay((int) delta.get(UserStatsCounter.AUDIO))
+                .setNumberOfAllAudio(delta.get(UserStatsCounter.AUDIO))
+                .setNumberOfDocuments((int) delta.get(UserStatsCounter.DOCUMENTS))
+                .setNumberOfDocumentsPerDay((int) delta.get(UserStatsCounter.DOCUMENTS))
+                .setNumberOfAllDocuments(delta.get(UserStatsCounter.DOCUMENTS))
+                .setNumberOfVideos((int) delta.get(UserStatsCounter.VIDEOS))
+                .setNumberOfVideosPerDay((int) delta.get(UserStatsCounter.VIDEOS))
+                .setNumberOfAllVideos(delta.get(UserStatsCounter.VIDEOS))
+                .setNumberOfVideoNotes((int) delta.get(UserStatsCounter.VIDEO_NOTES))
+                .setNumberOfVideoNotesPerDay((int) delta.get(UserStatsCounter.VIDEO_NOTES))
+                .setNumberOfAllVideoNotes(delta.get(UserStatsCounter.VIDEO_NOTES))
+                .setNumberOfVoices((int) delta.get(UserStatsCounter.VOICES))
+                .setNumberOfVoicesPerDay((int) delta.get(UserStatsCounter.VOICES))
+                .setNumberOfAllVoices(delta.get(UserStatsCounter.VOICES))
+                .setNumberOfCommands((int) delta.get(UserStatsCounter.COMMANDS))
+                .setNumberOfCommandsPerDay((int) delta.get(UserStatsCounter.COMMANDS))
+                .setNumberOfAllCommands(delta.get(UserStatsCounter.COMMANDS))
+                .setNumberOfKarma((int) delta.get(UserStatsCounter.KARMA))
+                .setNumberOfKarmaPerDay((int) delta.get(UserStatsCounter.KARMA))
+                .setNumberOfAllKarma(delta.get(UserStatsCounter.KARMA))
+                .setNumberOfGoodness((int) delta.get(UserStatsCounter.GOODNESS))
+                .setNumberOfGoodnessPerDay((int) delta.get(UserStatsCounter.GOODNESS))
+                .setNumberOfAllGoodness(delta.get(UserStatsCounter.GOODNESS))
+                .setNumberOfWickedness((int) delta.get(UserStatsCounter.WICKEDNESS))
+                .setNumberOfWickednessPerDay((int) delta.get(UserStatsCounter.WICKEDNESS))
+                .setNumberOfAllWickedness(delta.get(UserStatsCounter.WICKEDNESS));
     }
 
     @Override
     public void incrementUserStatsCommands(Chat chat, User user, CommandProperties commandProperties) {
-        LastCommand lastCommand = lastCommandService.get(chat);
+        saveLastCommand(lastCommandService.get(chat), chat, commandProperties);
+        incrementUserStatsCommands(chat, user);
+    }
+
+    @Override
+    public void incrementUserStatsCommands(UpdateContext updateContext, CommandProperties commandProperties) {
+        Chat chat = new Chat().setChatId(updateContext.getChatId());
+        User user = new User().setUserId(updateContext.getUserId());
+
+        updateContext.setLastCommand(saveLastCommand(updateContext.getLastCommand(), chat, commandProperties));
+        incrementUserStatsCommands(chat, user);
+    }
+
+    private LastCommand saveLastCommand(LastCommand lastCommand, Chat chat, CommandProperties commandProperties) {
         if (lastCommand == null) {
             lastCommand = new LastCommand().setChat(chat);
         }
 
         lastCommand.setCommandProperties(commandProperties);
-        lastCommandService.save(lastCommand);
-
-        incrementUserStatsCommands(chat, user);
+        return lastCommandService.save(lastCommand);
     }
 
     /**
      * Updating user info (username, access level)
      *
      * @param userFrom telegram User.
+     * @param user stored User entity or null.
      * @return User entity.
      */
-    private User updateUserInfo(org.telegram.telegrambots.meta.api.objects.User userFrom) {
+    private User updateUserInfo(org.telegram.telegrambots.meta.api.objects.User userFrom, User user) {
         String username = userFrom.getUserName();
         if (username == null) {
             username = userFrom.getFirstName();
         }
 
         Long userId = userFrom.getId();
-        User user = userService.get(userId);
 
         if (user == null) {
             user = new User()
@@ -216,9 +547,10 @@ public class UserStatsServiceImpl implements UserStatsService {
      * Updating chat info (name, access level)
      *
      * @param chatFrom telegram Chat.
+     * @param chat stored Chat entity.
      * @return Chat entity.
      */
-    private Chat updateChatInfo(org.telegram.telegrambots.meta.api.objects.Chat chatFrom) {
+    private Chat updateChatInfo(org.telegram.telegrambots.meta.api.objects.Chat chatFrom, Chat chat) {
         Long chatId = chatFrom.getId();
 
         String chatName;
@@ -234,7 +566,6 @@ public class UserStatsServiceImpl implements UserStatsService {
             }
         }
 
-        Chat chat = chatService.get(chatId);
         if (!chatName.equals(chat.getName())) {
             chat.setName(chatName);
             chat = chatService.save(chat);
@@ -244,110 +575,43 @@ public class UserStatsServiceImpl implements UserStatsService {
     }
 
     /**
-     * Updating user stats by his message.
+     * Count message of user in deltas of UserStats.
      *
-     * @param chat Chat entity.
-     * @param user User entity.
+     * @param chatId id of chat.
      * @param message telegram Message.
      */
-    private void updateUserStats(Chat chat, User user, Message message) {
-        UserStats userStats = get(chat, user);
-        if (userStats == null) {
-            LastMessage lastMessage = new LastMessage();
-
-            userStats = new UserStats()
-                    .setChat(chat)
-                    .setUser(user)
-                    .setNumberOfMessages(0)
-                    .setNumberOfMessagesPerDay(0)
-                    .setNumberOfAllMessages(0L)
-                    .setNumberOfStickers(0)
-                    .setNumberOfStickersPerDay(0)
-                    .setNumberOfAllStickers(0L)
-                    .setNumberOfPhotos(0)
-                    .setNumberOfPhotosPerDay(0)
-                    .setNumberOfAllPhotos(0L)
-                    .setNumberOfAnimations(0)
-                    .setNumberOfAnimationsPerDay(0)
-                    .setNumberOfAllAnimations(0L)
-                    .setNumberOfAudio(0)
-                    .setNumberOfAudioPerDay(0)
-                    .setNumberOfAllAudio(0L)
-                    .setNumberOfDocuments(0)
-                    .setNumberOfDocumentsPerDay(0)
-                    .setNumberOfAllDocuments(0L)
-                    .setNumberOfVideos(0)
-                    .setNumberOfVideosPerDay(0)
-                    .setNumberOfAllVideos(0L)
-                    .setNumberOfVideoNotes(0)
-                    .setNumberOfVideoNotesPerDay(0)
-                    .setNumberOfAllVideoNotes(0L)
-                    .setNumberOfVoices(0)
-                    .setNumberOfVoicesPerDay(0)
-                    .setNumberOfAllVoices(0L)
-                    .setNumberOfCommands(0)
-                    .setNumberOfCommandsPerDay(0)
-                    .setNumberOfAllCommands(0L)
-                    .setLastMessage(lastMessageService.update(lastMessage, message))
-                    .setNumberOfKarma(0)
-                    .setNumberOfKarmaPerDay(0)
-                    .setNumberOfAllKarma(0L)
-                    .setNumberOfGoodness(0)
-                    .setNumberOfGoodnessPerDay(0)
-                    .setNumberOfAllGoodness(0L)
-                    .setNumberOfWickedness(0)
-                    .setNumberOfWickednessPerDay(0)
-                    .setNumberOfAllWickedness(0L);
+    private void countMessage(Long chatId, Message message) {
+        Long userId = message.getFrom().getId();
+        UserStatsCounter counter = getCounterOfMessage(message);
+        if (counter != null) {
+            userStatsDeltas.add(chatId, userId, counter, 1);
         }
 
+        userStatsDeltas.setLastMessage(chatId, userId, message.getMessageId(), message.getText(),
+                Instant.ofEpochSecond(message.getDate()).atZone(ZoneId.systemDefault()).toLocalDateTime());
+    }
+
+    private UserStatsCounter getCounterOfMessage(Message message) {
         if (message.hasText()) {
-            userStats.setNumberOfMessages(userStats.getNumberOfMessages() + 1)
-                    .setNumberOfMessagesPerDay(userStats.getNumberOfMessagesPerDay() + 1)
-                    .setNumberOfAllMessages(userStats.getNumberOfAllMessages() + 1);
-        }
-        else if (message.hasSticker()) {
-            userStats.setNumberOfStickers(userStats.getNumberOfStickers() + 1)
-                    .setNumberOfStickersPerDay(userStats.getNumberOfStickersPerDay() + 1)
-                    .setNumberOfAllStickers(userStats.getNumberOfAllStickers() + 1);
-        }
-        else if (message.hasPhoto()) {
-            userStats.setNumberOfPhotos(userStats.getNumberOfPhotos() + 1)
-                    .setNumberOfPhotosPerDay(userStats.getNumberOfPhotosPerDay() + 1)
-                    .setNumberOfAllPhotos(userStats.getNumberOfAllPhotos() + 1);
-        }
-        else if (message.hasAnimation()) {
-            userStats.setNumberOfAnimations(userStats.getNumberOfAnimations() + 1)
-                    .setNumberOfAnimationsPerDay(userStats.getNumberOfAnimationsPerDay() + 1)
-                    .setNumberOfAllAnimations(userStats.getNumberOfAllAnimations() + 1);
+            return UserStatsCounter.MESSAGES;
+        } else if (message.hasSticker()) {
+            return UserStatsCounter.STICKERS;
+        } else if (message.hasPhoto()) {
+            return UserStatsCounter.PHOTOS;
+        } else if (message.hasAnimation()) {
+            return UserStatsCounter.ANIMATIONS;
+        } else if (message.hasAudio()) {
+            return UserStatsCounter.AUDIO;
+        } else if (message.hasDocument()) {
+            return UserStatsCounter.DOCUMENTS;
+        } else if (message.hasVideo()) {
+            return UserStatsCounter.VIDEOS;
+        } else if (message.hasVideoNote()) {
+            return UserStatsCounter.VIDEO_NOTES;
+        } else if (message.hasVoice()) {
+            return UserStatsCounter.VOICES;
         }
-        else if (message.hasAudio()) {
-            userStats.setNumberOfAudio(userStats.getNumberOfAudio() + 1)
-                    .setNumberOfAudioPerDay(userStats.getNumberOfAudioPerDay() + 1)
-                    .setNumberOfAllAudio(userStats.getNumberOfAllAudio() + 1);
-        }
-        else if (message.hasDocument()) {
-            userStats.setNumberOfDocuments(userStats.getNumberOfDocuments() + 1)
-                    .setNumberOfDocumentsPerDay(userStats.getNumberOfDocumentsPerDay() + 1)
-                    .setNumberOfAllDocuments(userStats.getNumberOfAllDocuments() + 1);
-        }
-        else if (message.hasVideo()) {
-            userStats.setNumberOfVideos(userStats.getNumberOfVideos() + 1)
-                    .setNumberOfVideosPerDay(userStats.getNumberOfVideosPerDay() + 1)
-                    .setNumberOfAllVideos(userStats.getNumberOfAllVideos() + 1);
-        }
-        else if (message.hasVideoNote()) {
-            userStats.setNumberOfVideoNotes(userStats.getNumberOfVideoNotes() + 1)
-                    .setNumberOfVideoNotesPerDay(userStats.getNumberOfVideoNotesPerDay() + 1)
-                    .setNumberOfAllVideoNotes(userStats.getNumberOfAllVideoNotes() + 1);
-        }
-        else if (message.hasVoice()) {
-            userStats.setNumberOfVoices(userStats.getNumberOfVoices() + 1)
-                    .setNumberOfVoicesPerDay(userStats.getNumberOfVoicesPerDay() + 1)
-                    .setNumberOfAllVoices(userStats.getNumberOfAllVoices() + 1);
-        }
-
-        userStats.setLastMessage(lastMessageService.update(userStats.getLastMessage(), message));
 
-        save(userStats);
+        return null;
     }
 }
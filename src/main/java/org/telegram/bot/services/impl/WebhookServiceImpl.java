@@ -0,0 +1,111 @@
+package org.telegram.bot.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.telegram.bot.Bot;
+import org.telegram.bot.domain.enums.UpdatesMode;
+import org.telegram.bot.services.WebhookService;
+import org.telegram.bot.services.config.PropertiesConfig;
+import org.telegram.bot.utils.ChatLaneExecutor;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+
+@Service
+@Slf4j
+public class WebhookServiceImpl implements WebhookService {
+
+    private static final Long NO_CHAT_ID = 0L;
+
+    private final Bot bot;
+    private final PropertiesConfig propertiesConfig;
+    private final ChatLaneExecutor updateLaneExecutor;
+
+    public WebhookServiceImpl(Bot bot,
+                              PropertiesConfig propertiesConfig,
+                              @Qualifier("updateLaneExecutor") ChatLaneExecutor updateLaneExecutor) {
+        this.bot = bot;
+        this.propertiesConfig = propertiesConfig;
+        this.updateLaneExecutor = updateLaneExecutor;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return UpdatesMode.WEBHOOK.equals(propertiesConfig.getUpdatesMode());
+    }
+
+    @Override
+    public boolean isSecretTokenValid(String secretToken) {
+        String expectedSecretToken = propertiesConfig.getWebhookSecretToken();
+        if (secretToken == null || StringUtils.isBlank(expectedSecretToken)) {
+            return false;
+        }
+
+        return MessageDigest.isEqual(expectedSecretToken.getBytes(StandardCharsets.UTF_8), secretToken.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean receive(Update update) {
+        log.debug("Received update {} through webhook", update.getUpdateId());
+        // updates of the same chat are processed in order of receiving, as in the polling loop
+        return updateLaneExecutor.execute(getChatId(update), () -> bot.onUpdateReceived(update));
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void register() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        if (StringUtils.isBlank(propertiesConfig.getWebhookSecretToken())) {
+            propertiesConfig.setWebhookSecretToken(UUID.randomUUID().toString());
+            log.error("The parameter webhookSecretToken is not set. Random token generated, only one instance of bot can receive updates");
+        }
+
+        String webhookUrl = propertiesConfig.getWebhookUrl();
+        if (StringUtils.isBlank(webhookUrl)) {
+            log.error("The parameter webhookUrl is not set. Unable to set webhook");
+            return;
+        }
+
+        SetWebhook setWebhook = new SetWebhook();
+        setWebhook.setUrl(webhookUrl);
+        setWebhook.setSecretToken(propertiesConfig.getWebhookSecretToken());
+
+        try {
+            bot.execute(setWebhook);
+            log.info("Webhook is set to {}", webhookUrl);
+        } catch (TelegramApiException e) {
+            log.error("Failed to set webhook: {}", e.getMessage());
+        }
+    }
+
+    private Long getChatId(Update update) {
+        Message message;
+        if (update.hasMessage()) {
+            message = update.getMessage();
+        } else if (update.hasEditedMessage()) {
+            message = update.getEditedMessage();
+        } else if (update.hasCallbackQuery()) {
+            message = update.getCallbackQuery().getMessage();
+        } else {
+            return NO_CHAT_ID;
+        }
+
+        if (message == null) {
+            return NO_CHAT_ID;
+        }
+
+        return message.getChatId();
+    }
+}
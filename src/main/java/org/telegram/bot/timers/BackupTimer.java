@@ -6,8 +6,10 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.commands.Backup;
+import org.telegram.bot.domain.enums.OutboundPriority;
 import org.telegram.bot.services.config.PropertiesConfig;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.bot.utils.OutboundDispatcher;
+import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
 
 @Component
 @RequiredArgsConstructor
@@ -15,16 +17,20 @@ import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 public class BackupTimer extends TimerParent {
 
     private final Bot bot;
+    private final OutboundDispatcher outboundDispatcher;
     private final PropertiesConfig propertiesConfig;
     private final Backup backup;
 
     @Override
     @Scheduled(cron = "0 0 2 * * ?")
     public void execute() {
-        try {
-            bot.execute(backup.getDbBackup(propertiesConfig.getAdminId().toString()));
-        } catch (TelegramApiException e) {
-            e.printStackTrace();
-        }
+        Long adminId = propertiesConfig.getAdminId();
+        SendDocument sendDocument = backup.getDbBackup(adminId.toString());
+        outboundDispatcher.submit(adminId, OutboundPriority.NOTIFICATION, () -> bot.executeAsync(sendDocument))
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Failed to send backup: {}", e.getMessage());
+                    }
+                });
     }
 }
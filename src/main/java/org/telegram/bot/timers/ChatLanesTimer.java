@@ -0,0 +1,26 @@
+package org.telegram.bot.timers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.telegram.bot.utils.ChatLaneExecutor;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatLanesTimer extends TimerParent {
+
+    private final ChatLaneExecutor chatLaneExecutor;
+
+    @Override
+    @Scheduled(fixedRate = 60000)
+    public void execute() {
+        chatLaneExecutor.removeIdleLanes();
+        log.debug("Chat lanes: {}, queued commands: {}, max queue depth: {}, rejected: {}",
+                chatLaneExecutor.getLanesCount(),
+                chatLaneExecutor.getQueuedTasksCount(),
+                chatLaneExecutor.getMaxQueueDepth(),
+                chatLaneExecutor.getRejectedTasksCount());
+    }
+}
@@ -6,9 +6,10 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.commands.Holidays;
+import org.telegram.bot.domain.enums.OutboundPriority;
 import org.telegram.bot.services.ChatService;
+import org.telegram.bot.utils.OutboundDispatcher;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.time.LocalDate;
 
@@ -18,6 +19,7 @@ import java.time.LocalDate;
 public class HolidaysTimer extends TimerParent {
 
     private final Bot bot;
+    private final OutboundDispatcher outboundDispatcher;
     private final ChatService chatService;
     private final Holidays holidays;
 
@@ -44,11 +46,13 @@ public class HolidaysTimer extends TimerParent {
         })
                 .forEach(sendMessage -> {
                     if (sendMessage != null) {
-                        try {
-                            bot.execute(sendMessage);
-                        } catch (TelegramApiException e) {
-                            e.printStackTrace();
-                        }
+                        Long chatId = Long.valueOf(sendMessage.getChatId());
+                        outboundDispatcher.submit(chatId, OutboundPriority.BROADCAST, () -> bot.executeAsync(sendMessage))
+                                .whenComplete((result, e) -> {
+                                    if (e != null) {
+                                        log.error("Failed to send holidays to chat {}: {}", chatId, e.getMessage());
+                                    }
+                                });
                     }
         });
     }
@@ -10,12 +10,13 @@ import org.telegram.bot.Bot;
 import org.telegram.bot.domain.entities.News;
 import org.telegram.bot.domain.entities.NewsMessage;
 import org.telegram.bot.domain.entities.NewsSource;
+import org.telegram.bot.domain.enums.OutboundPriority;
 import org.telegram.bot.services.NewsMessageService;
 import org.telegram.bot.services.NewsService;
 import org.telegram.bot.services.NewsSourceService;
 import org.telegram.bot.utils.NetworkUtils;
+import org.telegram.bot.utils.OutboundDispatcher;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
@@ -28,6 +29,7 @@ import java.util.stream.Collectors;
 public class NewsTimer extends TimerParent {
 
     private final Bot bot;
+    private final OutboundDispatcher outboundDispatcher;
     private final NewsService newsService;
     private final NewsMessageService newsMessageService;
     private final NewsSourceService newsSourceService;
@@ -67,17 +69,19 @@ public class NewsTimer extends TimerParent {
                     NewsMessage finalNewsMessage = newsMessage;
                     newsService.getAll(newsSource)
                             .forEach(news -> {
-                                try {
-                                    SendMessage sendMessage = new SendMessage();
-                                    sendMessage.setChatId(news.getChat().getChatId().toString());
-                                    sendMessage.enableHtml(true);
-                                    sendMessage.disableWebPagePreview();
-                                    sendMessage.setText(newsMessageService.buildShortNewsMessageText(finalNewsMessage, news.getName()));
+                                Long chatId = news.getChat().getChatId();
+                                SendMessage sendMessage = new SendMessage();
+                                sendMessage.setChatId(chatId.toString());
+                                sendMessage.enableHtml(true);
+                                sendMessage.disableWebPagePreview();
+                                sendMessage.setText(newsMessageService.buildShortNewsMessageText(finalNewsMessage, news.getName()));
 
-                                    bot.execute(sendMessage);
-                                } catch (TelegramApiException e) {
-                                    e.printStackTrace();
-                                }
+                                outboundDispatcher.submit(chatId, OutboundPriority.BROADCAST, () -> bot.executeAsync(sendMessage))
+                                        .whenComplete((result, e) -> {
+                                            if (e != null) {
+                                                log.error("Failed to send news to chat {}: {}", chatId, e.getMessage());
+                                            }
+                                        });
                             });
                 }
             });
@@ -8,14 +8,17 @@ import org.springframework.util.StringUtils;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.commands.Remind;
 import org.telegram.bot.domain.entities.*;
+import org.telegram.bot.domain.enums.OutboundPriority;
 import org.telegram.bot.services.ReminderService;
 import org.telegram.bot.services.UserCityService;
+import org.telegram.bot.utils.OutboundDispatcher;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.time.*;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @RequiredArgsConstructor
@@ -25,6 +28,9 @@ public class ReminderTimer extends TimerParent {
     private final ReminderService reminderService;
     private final UserCityService userCityService;
     private final Bot bot;
+    private final OutboundDispatcher outboundDispatcher;
+
+    private final Set<Long> remindersInDelivery = ConcurrentHashMap.newKeySet();
 
     @Override
     @Scheduled(fixedRate = 30000)
@@ -40,7 +46,7 @@ public class ReminderTimer extends TimerParent {
             ZoneId zoneId = getDateTimeOfUser(userDateTimeMap, chat, user);
             ZonedDateTime zonedDateTime = reminderDateTime.atZone(zoneId);
 
-            if (dateTimeNow.isAfter(zonedDateTime.toLocalDateTime())) {
+            if (dateTimeNow.isAfter(zonedDateTime.toLocalDateTime()) && remindersInDelivery.add(reminder.getId())) {
                 SendMessage sendMessage = new SendMessage();
                 sendMessage.setChatId(chat.getChatId());
                 sendMessage.enableHtml(true);
@@ -48,25 +54,35 @@ public class ReminderTimer extends TimerParent {
                 sendMessage.setText(Remind.prepareTextOfReminder(reminder));
                 sendMessage.setReplyMarkup(Remind.preparePostponeKeyboard(reminder));
 
-                try {
-                    bot.execute(sendMessage);
-                } catch (TelegramApiException e) {
-                    continue;
-                }
-
-                String repeatability = reminder.getRepeatability();
-                if (StringUtils.isEmpty(repeatability)) {
-                    reminder.setNotified(true);
-                } else {
-                    LocalDateTime newReminderDateTime = reminderService.getNextAlarmDateTime(reminder);
+                // until the reminder is sent, it is not notified and must not be sent again by the next run
+                outboundDispatcher.submit(chat.getChatId(), OutboundPriority.NOTIFICATION, () -> bot.executeAsync(sendMessage))
+                        .whenComplete((result, e) -> {
+                            try {
+                                if (e == null) {
+                                    markAsNotified(reminder);
+                                } else {
+                                    log.error("Failed to send reminder {}: {}", reminder.getId(), e.getMessage());
+                                }
+                            } finally {
+                                remindersInDelivery.remove(reminder.getId());
+                            }
+                        });
+            }
+        }
+    }
 
-                    reminder.setDate(newReminderDateTime.toLocalDate());
-                    reminder.setTime(newReminderDateTime.toLocalTime());
-                }
+    private void markAsNotified(Reminder reminder) {
+        String repeatability = reminder.getRepeatability();
+        if (StringUtils.isEmpty(repeatability)) {
+            reminder.setNotified(true);
+        } else {
+            LocalDateTime newReminderDateTime = reminderService.getNextAlarmDateTime(reminder);
 
-                reminderService.save(reminder);
-            }
+            reminder.setDate(newReminderDateTime.toLocalDate());
+            reminder.setTime(newReminderDateTime.toLocalTime());
         }
+
+        reminderService.save(reminder);
     }
 
     private ZoneId getDateTimeOfUser(Map<User, ZoneId> userDateTimeMap, Chat chat, User user) {
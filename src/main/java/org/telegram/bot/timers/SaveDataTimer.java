@@ -2,19 +2,38 @@ package org.telegram.bot.timers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.services.CommandWaitingService;
+import org.telegram.bot.services.LastCommandService;
+import org.telegram.bot.services.QuotaService;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class SaveDataTimer extends TimerParent {
+public class SaveDataTimer extends TimerParent implements DisposableBean {
     private final BotStats botStats;
+    private final QuotaService quotaService;
+    private final CommandWaitingService commandWaitingService;
+    private final LastCommandService lastCommandService;
 
     @Override
     @Scheduled(fixedRate = 300000)
     public void execute() {
         botStats.saveStats();
+        quotaService.save();
+        commandWaitingService.snapshot();
+        lastCommandService.snapshot();
+    }
+
+    /**
+     * Saves the in-memory sessions on shutdown. Called through the service proxies, so the snapshots are transactional.
+     */
+    @Override
+    public void destroy() {
+        commandWaitingService.snapshot();
+        lastCommandService.snapshot();
     }
 }
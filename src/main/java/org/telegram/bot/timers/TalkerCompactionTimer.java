@@ -0,0 +1,25 @@
+package org.telegram.bot.timers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.telegram.bot.services.TalkerCorpusService;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TalkerCompactionTimer extends TimerParent {
+
+    private final TalkerCorpusService talkerCorpusService;
+
+    @Override
+    @Scheduled(cron = "0 30 0 * * ?")
+    public void execute() {
+        try {
+            log.info("Talker corpus is compacted: {}", talkerCorpusService.compact());
+        } catch (Exception e) {
+            log.error("Failed to compact talker corpus: {}", e.getMessage());
+        }
+    }
+}
@@ -10,10 +10,11 @@ import org.telegram.bot.domain.commands.Echo;
 import org.telegram.bot.domain.entities.Chat;
 import org.telegram.bot.domain.entities.LastMessage;
 import org.telegram.bot.domain.entities.UserStats;
+import org.telegram.bot.domain.enums.OutboundPriority;
 import org.telegram.bot.services.*;
 import org.telegram.bot.utils.MathUtils;
+import org.telegram.bot.utils.OutboundDispatcher;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -30,6 +31,7 @@ public class TalkerQuestionsTimer extends TimerParent {
     private final UserStatsService userStatsService;
     private final Echo echo;
     private final Bot bot;
+    private final OutboundDispatcher outboundDispatcher;
     private final BotStats botStats;
 
     private final Map<Long, LocalDateTime> lastAlertBotMessageMap = new ConcurrentHashMap<>();
@@ -75,13 +77,14 @@ public class TalkerQuestionsTimer extends TimerParent {
                 sendMessage.setReplyToMessageId(lastMessage.getMessageId());
                 sendMessage.setText(question);
 
-                try {
-                    bot.execute(sendMessage);
-                    lastAlertBotMessageMap.put(chatId, dateTimeNow);
-                } catch (TelegramApiException e) {
-                    e.printStackTrace();
-                    botStats.incrementErrors(sendMessage, e, "ошибка отправки сообщения с вопросом от бота");
-                }
+                outboundDispatcher.submit(chatId, OutboundPriority.BROADCAST, () -> bot.executeAsync(sendMessage))
+                        .whenComplete((result, e) -> {
+                            if (e == null) {
+                                lastAlertBotMessageMap.put(chatId, dateTimeNow);
+                            } else {
+                                botStats.incrementErrors(sendMessage, e, "ошибка отправки сообщения с вопросом от бота");
+                            }
+                        });
             }
         });
     }
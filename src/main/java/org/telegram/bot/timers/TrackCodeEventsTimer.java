@@ -9,10 +9,11 @@ import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.entities.Parcel;
 import org.telegram.bot.domain.entities.TrackCode;
 import org.telegram.bot.domain.entities.TrackCodeEvent;
+import org.telegram.bot.domain.enums.OutboundPriority;
 import org.telegram.bot.services.ParcelService;
 import org.telegram.bot.services.TrackCodeService;
+import org.telegram.bot.utils.OutboundDispatcher;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -25,6 +26,7 @@ import java.util.stream.Collectors;
 public class TrackCodeEventsTimer extends TimerParent {
     private final Bot bot;
     private final BotStats botStats;
+    private final OutboundDispatcher outboundDispatcher;
     private final ParcelService parcelService;
     private final TrackCodeService trackCodeService;
 
@@ -57,16 +59,7 @@ public class TrackCodeEventsTimer extends TimerParent {
                                     "<code>" + parcel.getTrackCode().getBarcode() + "</code>\n" +
                                     "Нет ответа от сервиса удали /parcel_d" + parcel.getId() + " и добавь снова подходящий";
 
-                            try {
-                                SendMessage sendMessage = new SendMessage();
-                                sendMessage.setChatId(parcel.getUser().getUserId());
-                                sendMessage.enableHtml(true);
-                                sendMessage.setText(messageText);
-
-                                bot.execute(sendMessage);
-                            } catch (TelegramApiException e) {
-                                e.printStackTrace();
-                            }
+                            sendParcelMessage(parcel.getUser().getUserId(), messageText);
                         });
             } else {
                 LocalDateTime lastEventDateTime = lastEventUpdateDateTimeMap.get(trackCodeAfter.getId());
@@ -79,16 +72,7 @@ public class TrackCodeEventsTimer extends TimerParent {
                                 .forEach(parcel -> {
                                     String messageText = org.telegram.bot.domain.commands.Parcel.buildStringEventMessage(parcel, newEvent);
 
-                                    try {
-                                        SendMessage sendMessage = new SendMessage();
-                                        sendMessage.setChatId(parcel.getUser().getUserId());
-                                        sendMessage.enableHtml(true);
-                                        sendMessage.setText(messageText);
-
-                                        bot.execute(sendMessage);
-                                    } catch (TelegramApiException e) {
-                                        e.printStackTrace();
-                                    }
+                                    sendParcelMessage(parcel.getUser().getUserId(), messageText);
                                 }));
             }
         });
@@ -96,6 +80,20 @@ public class TrackCodeEventsTimer extends TimerParent {
         botStats.setLastTracksUpdate(Instant.now());
     }
 
+    private void sendParcelMessage(Long userId, String messageText) {
+        SendMessage sendMessage = new SendMessage();
+        sendMessage.setChatId(userId);
+        sendMessage.enableHtml(true);
+        sendMessage.setText(messageText);
+
+        outboundDispatcher.submit(userId, OutboundPriority.NOTIFICATION, () -> bot.executeAsync(sendMessage))
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Failed to send parcel event to user {}: {}", userId, e.getMessage());
+                    }
+                });
+    }
+
     private List<Parcel> getParcelListByTrackCode(List<Parcel> parcelList, TrackCode trackCode) {
         return parcelList
                 .stream()
@@ -7,12 +7,13 @@ import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.entities.*;
 import org.telegram.bot.domain.enums.Emoji;
+import org.telegram.bot.domain.enums.OutboundPriority;
 import org.telegram.bot.services.*;
 import org.telegram.bot.utils.DateUtils;
+import org.telegram.bot.utils.OutboundDispatcher;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.time.*;
 import java.util.ArrayList;
@@ -27,6 +28,7 @@ import java.util.stream.Collectors;
 public class TrainingTimer extends TimerParent {
 
     private final Bot bot;
+    private final OutboundDispatcher outboundDispatcher;
     private final TrainingEventService trainingEventService;
     private final TrainingScheduledService trainingScheduledService;
     private final TrainSubscriptionService trainSubscriptionService;
@@ -80,13 +82,13 @@ public class TrainingTimer extends TimerParent {
                     sendMessage.setReplyMarkup(getCancelTrainingKeyboard(trainingEvent.getId()));
                     sendMessage.setText(responseText);
 
-                    try {
-                        bot.execute(sendMessage);
-                    } catch (TelegramApiException e) {
-                        e.printStackTrace();
-                    } finally {
-                        reduceSubscriptionCountLeft(subscription);
-                    }
+                    outboundDispatcher.submit(user.getUserId(), OutboundPriority.NOTIFICATION, () -> bot.executeAsync(sendMessage))
+                            .whenComplete((result, e) -> {
+                                if (e != null) {
+                                    log.error("Failed to send training to user {}: {}", user.getUserId(), e.getMessage());
+                                }
+                            });
+                    reduceSubscriptionCountLeft(subscription);
                 });
     }
 
@@ -0,0 +1,29 @@
+package org.telegram.bot.timers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.telegram.bot.services.UserActivityService;
+
+import java.time.LocalDate;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserActivityRollupTimer extends TimerParent {
+
+    private static final int HOURLY_RETENTION_DAYS = 7;
+
+    private final UserActivityService userActivityService;
+
+    @Override
+    @Scheduled(cron = "0 15 0 * * ?")
+    public void execute() {
+        try {
+            userActivityService.rollUp(LocalDate.now().minusDays(HOURLY_RETENTION_DAYS).atStartOfDay());
+        } catch (Exception e) {
+            log.error("Failed to roll up user activity: {}", e.getMessage());
+        }
+    }
+}
@@ -6,9 +6,10 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.entities.Timer;
+import org.telegram.bot.domain.enums.OutboundPriority;
 import org.telegram.bot.services.TimerService;
 import org.telegram.bot.services.UserStatsService;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.bot.utils.OutboundDispatcher;
 
 import java.time.LocalDateTime;
 
@@ -20,6 +21,7 @@ import static org.telegram.bot.utils.DateUtils.atStartOfDay;
 public class UserStatsCleanerTimer extends TimerParent {
 
     private final Bot bot;
+    private final OutboundDispatcher outboundDispatcher;
     private final TimerService timerService;
     private final UserStatsService userStatsService;
 
@@ -66,11 +68,13 @@ public class UserStatsCleanerTimer extends TimerParent {
         if (dateTimeNow.isAfter(nextAlarm)) {
             log.info("Timer for cleaning top by month");
             userStatsService.clearMonthlyStats(bot).forEach(sendMessage -> {
-                try {
-                    bot.execute((sendMessage));
-                } catch (TelegramApiException e) {
-                    e.printStackTrace();
-                }
+                Long chatId = Long.valueOf(sendMessage.getChatId());
+                outboundDispatcher.submit(chatId, OutboundPriority.BROADCAST, () -> bot.executeAsync(sendMessage))
+                        .whenComplete((result, e) -> {
+                            if (e != null) {
+                                log.error("Failed to send monthly stats to chat {}: {}", chatId, e.getMessage());
+                            }
+                        });
             });
 
             timer.setLastAlarmDt(nextAlarm.withDayOfMonth(1));
@@ -0,0 +1,25 @@
+package org.telegram.bot.timers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.telegram.bot.services.UserStatsService;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatsFlushTimer extends TimerParent {
+
+    private final UserStatsService userStatsService;
+
+    @Override
+    @Scheduled(fixedDelay = 5000)
+    public void execute() {
+        try {
+            userStatsService.flush();
+        } catch (Exception e) {
+            log.error("Failed to flush user stats: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.telegram.bot.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor with bounded queue, where waiting tasks are taken in order of priority (higher first, FIFO within priority).
+ * Tasks with negative priority are low-value: they are admitted only while the queue is less than half-full.
+ * When the queue is full, a new task displaces the queued task with the lowest priority
+ * if its own priority is higher, otherwise the new task is rejected.
+ */
+@Slf4j
+public class BoundedPriorityExecutor {
+
+    private final ThreadPoolExecutor workers;
+    private final PriorityBlockingQueue<Runnable> queue;
+    private final int capacity;
+    private final Object admissionLock = new Object();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final AtomicLong displacedTasks = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    public BoundedPriorityExecutor(int threads, int capacity, String threadNamePrefix) {
+        this.capacity = capacity;
+        this.queue = new PriorityBlockingQueue<>();
+        this.workers = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                queue,
+                new NamedThreadFactory(threadNamePrefix));
+        // all tasks have to pass through the queue to be ordered by priority
+        this.workers.prestartAllCoreThreads();
+    }
+
+    /**
+     * Submit a task.
+     *
+     * @param priority priority of task, negative for low-value tasks.
+     * @param task task to execute.
+     * @param onDisplaced callback to run if the task will be displaced from the queue by a task with higher priority.
+     * @return false if the task was rejected.
+     */
+    public boolean execute(int priority, Runnable task, Runnable onDisplaced) {
+        PrioritizedTask displaced = null;
+
+        synchronized (admissionLock) {
+            if (workers.isShutdown()) {
+                rejectedTasks.incrementAndGet();
+                return false;
+            }
+
+            int queued = queue.size();
+            if (priority < 0 && queued >= capacity / 2) {
+                rejectedTasks.incrementAndGet();
+                return false;
+            }
+
+            if (queued >= capacity) {
+                PrioritizedTask lowest = findLowestPriorityTask();
+                if (lowest == null || lowest.priority >= priority) {
+                    rejectedTasks.incrementAndGet();
+                    return false;
+                }
+
+                // if a worker has already taken the task, there is a free place anyway
+                if (queue.remove(lowest)) {
+                    displaced = lowest;
+                    displacedTasks.incrementAndGet();
+                }
+            }
+
+            workers.execute(new PrioritizedTask(priority, sequence.incrementAndGet(), task, onDisplaced));
+            maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        }
+
+        if (displaced != null && displaced.onDisplaced != null) {
+            try {
+                displaced.onDisplaced.run();
+            } catch (Exception e) {
+                log.error("Failed to notify about displaced task: ", e);
+            }
+        }
+
+        return true;
+    }
+
+    public int getQueuedTasksCount() {
+        return queue.size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getRejectedTasksCount() {
+        return rejectedTasks.get();
+    }
+
+    public long getDisplacedTasksCount() {
+        return displacedTasks.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private PrioritizedTask findLowestPriorityTask() {
+        PrioritizedTask lowest = null;
+        for (Runnable runnable : queue) {
+            PrioritizedTask task = (PrioritizedTask) runnable;
+            if (lowest == null || task.compareTo(lowest) > 0) {
+                lowest = task;
+            }
+        }
+
+        return lowest;
+    }
+
+    private static final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+        private final int priority;
+        private final long sequence;
+        private final Runnable task;
+        private final Runnable onDisplaced;
+
+        private PrioritizedTask(int priority, long sequence, Runnable task, Runnable onDisplaced) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.task = task;
+            this.onDisplaced = onDisplaced;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Unexpected error in task with priority {}: ", priority, e);
+            }
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int result = Integer.compare(other.priority, this.priority);
+            if (result == 0) {
+                result = Long.compare(this.sequence, other.sequence);
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.telegram.bot.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor that runs tasks of the same chat one by one in order of submission,
+ * while tasks of different chats are running in parallel on a shared pool of threads.
+ * Every chat has its own lane with bounded mailbox.
+ */
+@Slf4j
+public class ChatLaneExecutor {
+
+    private static final int TASKS_PER_TURN = 16;
+
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+    private final int mailboxCapacity;
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    public ChatLaneExecutor(int threads, int mailboxCapacity, String threadNamePrefix) {
+        this.mailboxCapacity = mailboxCapacity;
+        this.workers = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamedThreadFactory(threadNamePrefix));
+    }
+
+    /**
+     * Submit a task to the lane of chat.
+     *
+     * @param chatId id of chat.
+     * @param task task to execute.
+     * @return false if the mailbox of chat is full and the task was rejected.
+     */
+    public boolean execute(Long chatId, Runnable task) {
+        AtomicBoolean accepted = new AtomicBoolean();
+        Lane lane = lanes.compute(chatId, (id, existingLane) -> {
+            Lane currentLane = existingLane == null ? new Lane(id) : existingLane;
+            accepted.set(currentLane.mailbox.offer(task));
+            return currentLane;
+        });
+
+        if (!accepted.get()) {
+            rejectedTasks.incrementAndGet();
+            log.warn("Mailbox of chat {} is full ({} tasks). Task rejected", chatId, mailboxCapacity);
+            return false;
+        }
+
+        maxQueueDepth.accumulateAndGet(lane.mailbox.size(), Math::max);
+        lane.schedule();
+
+        return true;
+    }
+
+    /**
+     * Remove lanes of chats without queued or running tasks.
+     */
+    public void removeIdleLanes() {
+        lanes.keySet().forEach(chatId -> lanes.computeIfPresent(chatId, (id, lane) -> lane.isIdle() ? null : lane));
+    }
+
+    /**
+     * Get the number of tasks waiting in the lane of chat.
+     *
+     * @param chatId id of chat.
+     * @return queue depth of chat.
+     */
+    public int getQueueDepth(Long chatId) {
+        Lane lane = lanes.get(chatId);
+        if (lane == null) {
+            return 0;
+        }
+
+        return lane.mailbox.size();
+    }
+
+    public int getQueuedTasksCount() {
+        return lanes.values().stream().mapToInt(lane -> lane.mailbox.size()).sum();
+    }
+
+    public int getLanesCount() {
+        return lanes.size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getRejectedTasksCount() {
+        return rejectedTasks.get();
+    }
+
+    public int getMailboxCapacity() {
+        return mailboxCapacity;
+    }
+
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private final class Lane implements Runnable {
+        private final Long chatId;
+        private final BlockingQueue<Runnable> mailbox = new ArrayBlockingQueue<>(mailboxCapacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Lane(Long chatId) {
+            this.chatId = chatId;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                workers.execute(this);
+            }
+        }
+
+        private boolean isIdle() {
+            return !scheduled.get() && mailbox.isEmpty();
+        }
+
+        @Override
+        public void run() {
+            try {
+                Runnable task;
+                int executed = 0;
+                // limiting of tasks per turn lets other lanes use the thread
+                while (executed < TASKS_PER_TURN && (task = mailbox.poll()) != null) {
+                    executed++;
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        log.error("Unexpected error in lane of chat {}: ", chatId, e);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!mailbox.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.telegram.bot.utils;
+
+import org.telegram.bot.domain.MetricsRegistry;
+import org.telegram.bot.domain.enums.BotMetric;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Size-bounded cache, which entries expire after the time to live since they were put.
+ * On overflow the least recently used entry is evicted. Null values are not cached.
+ * Mutable values are copied when put and when taken, so callers never share the cached instance.
+ *
+ * @param <K> type of key.
+ * @param <V> type of value.
+ */
+public class EntityCache<K, V> {
+
+    private final long ttlMillis;
+    private final Clock clock;
+    private final MetricsRegistry metricsRegistry;
+    private final BotMetric hitMetric;
+    private final BotMetric missMetric;
+    private final UnaryOperator<V> copier;
+    private final Map<K, Entry<V>> entries;
+    private long invalidations;
+
+    /**
+     * Create cache of immutable values.
+     *
+     * @param maxSize max number of entries.
+     * @param ttl time to live of entry.
+     * @param clock clock for expiration.
+     * @param metricsRegistry registry to report hits and misses.
+     * @param hitMetric metric of hits.
+     * @param missMetric metric of misses.
+     */
+    public EntityCache(int maxSize, Duration ttl, Clock clock, MetricsRegistry metricsRegistry, BotMetric hitMetric, BotMetric missMetric) {
+        this(maxSize, ttl, clock, metricsRegistry, hitMetric, missMetric, UnaryOperator.identity());
+    }
+
+    /**
+     * Create cache of mutable values.
+     *
+     * @param maxSize max number of entries.
+     * @param ttl time to live of entry.
+     * @param clock clock for expiration.
+     * @param metricsRegistry registry to report hits and misses.
+     * @param hitMetric metric of hits.
+     * @param missMetric metric of misses.
+     * @param copier function to copy value.
+     */
+    public EntityCache(int maxSize, Duration ttl, Clock clock, MetricsRegistry metricsRegistry, BotMetric hitMetric, BotMetric missMetric,
+                       UnaryOperator<V> copier) {
+        this.ttlMillis = ttl.toMillis();
+        this.copier = copier;
+        this.clock = clock;
+        this.metricsRegistry = metricsRegistry;
+        this.hitMetric = hitMetric;
+        this.missMetric = missMetric;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get value from the cache or load it. Loading is performed without lock, so the same value may be loaded twice.
+     * The loaded value is cached only if the key was not put or invalidated while loading, so it never replaces
+     * a newer value.
+     *
+     * @param key key.
+     * @param loader function to load absent value.
+     * @return value or null if it is absent in cache and loader returned null.
+     */
+    public V get(K key, Function<K, V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            metricsRegistry.increment(hitMetric);
+            return value;
+        }
+
+        metricsRegistry.increment(missMetric);
+        long invalidationsBeforeLoading;
+        synchronized (this) {
+            invalidationsBeforeLoading = invalidations;
+        }
+
+        return putLoaded(key, loader.apply(key), invalidationsBeforeLoading);
+    }
+
+    /**
+     * Get value from the cache.
+     *
+     * @param key key.
+     * @return cached value or null.
+     */
+    public synchronized V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (clock.millis() >= entry.expiresAt) {
+            entries.remove(key);
+            return null;
+        }
+
+        return copier.apply(entry.value);
+    }
+
+    /**
+     * Put value to the cache. Null key or value is ignored.
+     *
+     * @param key key.
+     * @param value value.
+     */
+    public synchronized void put(K key, V value) {
+        if (key == null || value == null) {
+            return;
+        }
+
+        entries.put(key, new Entry<>(copier.apply(value), clock.millis() + ttlMillis));
+    }
+
+    /**
+     * Put value to the cache if there is no value for the key. Null key or value is ignored.
+     *
+     * @param key key.
+     * @param value value.
+     */
+    public synchronized void putIfAbsent(K key, V value) {
+        if (getIfPresent(key) == null) {
+            put(key, value);
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        invalidations++;
+    }
+
+    private synchronized V putLoaded(K key, V value, long invalidationsBeforeLoading) {
+        if (value == null) {
+            return null;
+        }
+
+        V current = getIfPresent(key);
+        if (current != null) {
+            // the key was put while loading, the loaded value may be stale
+            return current;
+        }
+
+        if (invalidations == invalidationsBeforeLoading) {
+            put(key, value);
+        }
+
+        return value;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
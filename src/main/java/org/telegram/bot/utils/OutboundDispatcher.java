@@ -0,0 +1,417 @@
+package org.telegram.bot.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.telegram.bot.domain.enums.OutboundPriority;
+import org.telegram.telegrambots.meta.api.objects.ResponseParameters;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dispatcher of all messages sent to telegram, which keeps the rate limits of Telegram Bot API:
+ * a global limit of messages per second, a limit per group chat per minute and a limit per private chat per second.
+ * Waiting messages are sent in order of priority, messages of one chat are sent one by one.
+ * Sending is asynchronous: the dispatcher only starts the request and is not blocked until the response.
+ * When telegram answers with 429 (Too Many Requests) the chat is paused for retry_after seconds and the message is resent,
+ * so the call is made again: calls which cannot be repeated (uploads from InputStream) are submitted as not repeatable.
+ */
+@Slf4j
+public class OutboundDispatcher {
+
+    private static final int TOO_MANY_REQUESTS_ERROR_CODE = 429;
+    private static final long DEFAULT_RETRY_AFTER_SECONDS = 1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<Long, ChatQueue> chatQueues = new HashMap<>();
+    private final TokenBucket globalBucket;
+    private final int groupMessagesPerMinute;
+    private final int privateMessagesPerSecond;
+    private final int maxRetries;
+    private final Thread dispatcherThread;
+    private volatile boolean running = true;
+    private long sequence;
+
+    private final AtomicInteger queuedMessages = new AtomicInteger();
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong retriedMessages = new AtomicLong();
+    private final AtomicLong failedMessages = new AtomicLong();
+    private final AtomicLong throttledMessages = new AtomicLong();
+    private final AtomicLong throttleTime = new AtomicLong();
+    private final AtomicLong maxThrottleTime = new AtomicLong();
+
+    public OutboundDispatcher(int messagesPerSecond,
+                              int groupMessagesPerMinute,
+                              int privateMessagesPerSecond,
+                              int maxRetries,
+                              String threadNamePrefix) {
+        this.globalBucket = new TokenBucket(messagesPerSecond, messagesPerSecond, TimeUnit.SECONDS.toNanos(1), System.nanoTime());
+        this.groupMessagesPerMinute = groupMessagesPerMinute;
+        this.privateMessagesPerSecond = privateMessagesPerSecond;
+        this.maxRetries = maxRetries;
+        this.dispatcherThread = new NamedThreadFactory(threadNamePrefix).newThread(this::dispatch);
+        this.dispatcherThread.start();
+    }
+
+    /**
+     * Asynchronous call of Telegram Bot API, like bot.executeAsync(method).
+     * It is started on the dispatcher thread, so it must not wait for the response.
+     *
+     * @param <T> type of result.
+     */
+    @FunctionalInterface
+    public interface TelegramCall<T> {
+        CompletableFuture<T> execute() throws TelegramApiException;
+    }
+
+    /**
+     * Put a message in the queue of sending.
+     *
+     * @param chatId id of chat the message is sent to.
+     * @param priority priority of message.
+     * @param call sending of message.
+     * @param <T> type of result of sending.
+     * @return result of sending, completed when the message will be sent or finally failed.
+     */
+    public <T> CompletableFuture<T> submit(Long chatId, OutboundPriority priority, TelegramCall<T> call) {
+        return submit(chatId, priority, call, true);
+    }
+
+    /**
+     * Put a message in the queue of sending.
+     *
+     * @param chatId id of chat the message is sent to.
+     * @param priority priority of message.
+     * @param call sending of message.
+     * @param repeatable false if the call must not be made again after 429, e.g. it uploads a consumed InputStream.
+     * @param <T> type of result of sending.
+     * @return result of sending, completed when the message will be sent or finally failed.
+     */
+    public <T> CompletableFuture<T> submit(Long chatId, OutboundPriority priority, TelegramCall<T> call, boolean repeatable) {
+        OutboundMessage<T> message;
+
+        lock.lock();
+        try {
+            if (!running) {
+                CompletableFuture<T> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(new TelegramApiException("Outbound dispatcher is shut down"));
+                return rejected;
+            }
+
+            long now = System.nanoTime();
+            Long key = chatId == null ? 0L : chatId;
+            message = new OutboundMessage<>(priority, ++sequence, now, call, repeatable);
+            chatQueues.computeIfAbsent(key, id -> new ChatQueue(createChatBucket(id, now), now)).messages.add(message);
+            queuedMessages.incrementAndGet();
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        return message.result;
+    }
+
+    /**
+     * Send a message through the queue and wait for result.
+     *
+     * @param chatId id of chat the message is sent to.
+     * @param priority priority of message.
+     * @param call sending of message.
+     * @param <T> type of result of sending.
+     * @return result of sending.
+     * @throws TelegramApiException if sending failed.
+     */
+    public <T> T execute(Long chatId, OutboundPriority priority, TelegramCall<T> call) throws TelegramApiException {
+        try {
+            return submit(chatId, priority, call).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TelegramApiException("Interrupted while waiting for sending", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TelegramApiException) {
+                throw (TelegramApiException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new TelegramApiException(cause);
+        }
+    }
+
+    public int getQueuedMessagesCount() {
+        return queuedMessages.get();
+    }
+
+    public long getSentMessagesCount() {
+        return sentMessages.get();
+    }
+
+    public long getRetriedMessagesCount() {
+        return retriedMessages.get();
+    }
+
+    public long getFailedMessagesCount() {
+        return failedMessages.get();
+    }
+
+    /**
+     * Get the average time of waiting for sending.
+     *
+     * @return time in milliseconds.
+     */
+    public long getAverageThrottleTime() {
+        long count = throttledMessages.get();
+        if (count == 0) {
+            return 0;
+        }
+
+        return TimeUnit.NANOSECONDS.toMillis(throttleTime.get() / count);
+    }
+
+    /**
+     * Get the max time of waiting for sending.
+     *
+     * @return time in milliseconds.
+     */
+    public long getMaxThrottleTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxThrottleTime.get());
+    }
+
+    public void shutdown() {
+        lock.lock();
+        try {
+            running = false;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TokenBucket createChatBucket(Long chatId, long now) {
+        // ids of groups and channels are negative
+        if (chatId < 0) {
+            return new TokenBucket(groupMessagesPerMinute, groupMessagesPerMinute, TimeUnit.MINUTES.toNanos(1), now);
+        }
+
+        return new TokenBucket(privateMessagesPerSecond, privateMessagesPerSecond, TimeUnit.SECONDS.toNanos(1), now);
+    }
+
+    private void dispatch() {
+        while (running) {
+            ChatQueue chatQueue;
+
+            lock.lock();
+            try {
+                chatQueue = takeNext();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            if (chatQueue != null) {
+                send(chatQueue, chatQueue.inFlight);
+            }
+        }
+    }
+
+    /**
+     * Wait for the next message allowed to be sent. Has to be called under the lock.
+     *
+     * @return queue of chat with the message taken for sending or null if the dispatcher is shut down.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private ChatQueue takeNext() throws InterruptedException {
+        while (running) {
+            long now = System.nanoTime();
+            ChatQueue best = null;
+            long waitTime = Long.MAX_VALUE;
+
+            Iterator<ChatQueue> iterator = chatQueues.values().iterator();
+            while (iterator.hasNext()) {
+                ChatQueue chatQueue = iterator.next();
+                if (chatQueue.inFlight != null) {
+                    continue;
+                }
+                if (chatQueue.messages.isEmpty()) {
+                    if (chatQueue.bucket.isFull(now)) {
+                        iterator.remove();
+                    }
+                    continue;
+                }
+
+                long chatWaitTime = Math.max(chatQueue.pausedUntil - now, chatQueue.bucket.getWaitTime(now));
+                if (chatWaitTime > 0) {
+                    waitTime = Math.min(waitTime, chatWaitTime);
+                    continue;
+                }
+
+                if (best == null || chatQueue.messages.peek().compareTo(best.messages.peek()) < 0) {
+                    best = chatQueue;
+                }
+            }
+
+            if (best != null) {
+                long globalWaitTime = globalBucket.getWaitTime(now);
+                if (globalWaitTime == 0) {
+                    globalBucket.consume(now);
+                    best.bucket.consume(now);
+                    best.inFlight = best.messages.poll();
+                    queuedMessages.decrementAndGet();
+                    return best;
+                }
+                waitTime = Math.min(waitTime, globalWaitTime);
+            }
+
+            if (waitTime == Long.MAX_VALUE) {
+                changed.await();
+            } else {
+                changed.awaitNanos(waitTime);
+            }
+        }
+
+        return null;
+    }
+
+    private <T> void send(ChatQueue chatQueue, OutboundMessage<T> message) {
+        if (message.attempts == 0) {
+            long throttled = System.nanoTime() - message.submitTime;
+            throttledMessages.incrementAndGet();
+            throttleTime.addAndGet(throttled);
+            maxThrottleTime.accumulateAndGet(throttled, Math::max);
+        }
+        message.attempts++;
+
+        message.start().whenComplete((result, throwable) -> {
+            boolean resend = false;
+
+            try {
+                if (throwable == null) {
+                    sentMessages.incrementAndGet();
+                    message.result.complete(result);
+                } else {
+                    Throwable error = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                    if (message.repeatable && isTooManyRequests(error) && message.attempts <= maxRetries) {
+                        pause(chatQueue, ((TelegramApiRequestException) error).getParameters());
+                        retriedMessages.incrementAndGet();
+                        resend = true;
+                    } else {
+                        failedMessages.incrementAndGet();
+                        message.result.completeExceptionally(error);
+                    }
+                }
+            } catch (Throwable e) {
+                // the message is not resent, but the queue of chat has to be released anyway
+                resend = false;
+                failedMessages.incrementAndGet();
+                message.result.completeExceptionally(e);
+            } finally {
+                release(chatQueue, message, resend);
+            }
+        });
+    }
+
+    private void release(ChatQueue chatQueue, OutboundMessage<?> message, boolean resend) {
+        lock.lock();
+        try {
+            if (resend) {
+                // keeps the sequence, so the message will be the first one of its priority
+                chatQueue.messages.add(message);
+                queuedMessages.incrementAndGet();
+            }
+            chatQueue.inFlight = null;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isTooManyRequests(Throwable throwable) {
+        if (!(throwable instanceof TelegramApiRequestException)) {
+            return false;
+        }
+
+        Integer errorCode = ((TelegramApiRequestException) throwable).getErrorCode();
+        return errorCode != null && errorCode == TOO_MANY_REQUESTS_ERROR_CODE;
+    }
+
+    private void pause(ChatQueue chatQueue, ResponseParameters parameters) {
+        long retryAfter = DEFAULT_RETRY_AFTER_SECONDS;
+        if (parameters != null && parameters.getRetryAfter() != null) {
+            retryAfter = parameters.getRetryAfter();
+        }
+        log.warn("Too many requests. Sending is paused for {} seconds", retryAfter);
+
+        lock.lock();
+        try {
+            chatQueue.pausedUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(retryAfter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class ChatQueue {
+        private final PriorityQueue<OutboundMessage<?>> messages = new PriorityQueue<>();
+        private final TokenBucket bucket;
+        private OutboundMessage<?> inFlight;
+        private long pausedUntil;
+
+        private ChatQueue(TokenBucket bucket, long now) {
+            this.bucket = bucket;
+            this.pausedUntil = now;
+        }
+    }
+
+    private static final class OutboundMessage<T> implements Comparable<OutboundMessage<?>> {
+        private final OutboundPriority priority;
+        private final long sequence;
+        private final long submitTime;
+        private final TelegramCall<T> call;
+        private final boolean repeatable;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private int attempts;
+
+        private OutboundMessage(OutboundPriority priority, long sequence, long submitTime, TelegramCall<T> call, boolean repeatable) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.submitTime = submitTime;
+            this.call = call;
+            this.repeatable = repeatable;
+        }
+
+        private CompletableFuture<T> start() {
+            try {
+                CompletableFuture<T> future = call.execute();
+                if (future == null) {
+                    return CompletableFuture.failedFuture(new TelegramApiException("Sending is not started"));
+                }
+                return future;
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        @Override
+        public int compareTo(OutboundMessage<?> other) {
+            int result = priority.compareTo(other.priority);
+            if (result == 0) {
+                result = Long.compare(sequence, other.sequence);
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.telegram.bot.utils;
+
+import lombok.experimental.UtilityClass;
+import org.telegram.bot.domain.LatencyHistogram;
+import org.telegram.bot.domain.MetricsSnapshot;
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.domain.enums.LatencyMetric;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting of metrics in Prometheus text exposition format.
+ */
+@UtilityClass
+public class PrometheusFormatter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String METRIC_PREFIX = "bot_";
+
+    public static String format(MetricsSnapshot snapshot) {
+        StringBuilder buf = new StringBuilder();
+
+        for (BotMetric metric : BotMetric.values()) {
+            String name = METRIC_PREFIX + metric.name().toLowerCase(Locale.ROOT);
+            if (BotMetric.Type.COUNTER.equals(metric.getType())) {
+                appendHeader(buf, name + "_total", "counter", "Total value of " + metric.name().toLowerCase(Locale.ROOT));
+                buf.append(name).append("_total ").append(snapshot.getTotalValue(metric)).append("\n");
+            } else {
+                appendHeader(buf, name, "gauge", "Current value of " + metric.name().toLowerCase(Locale.ROOT));
+                buf.append(name).append(" ").append(snapshot.getTotalValue(metric)).append("\n");
+            }
+        }
+
+        String commandsName = METRIC_PREFIX + "commands_processed_by_command_total";
+        appendHeader(buf, commandsName, "counter", "Processed commands since start");
+        snapshot.getCommandCounts().forEach((commandName, count) -> buf
+                .append(commandsName).append("{command=\"").append(escape(commandName)).append("\"} ").append(count).append("\n"));
+
+        for (LatencyMetric metric : LatencyMetric.values()) {
+            appendLatencies(buf, metric, snapshot.getLatencies(metric));
+        }
+
+        return buf.toString();
+    }
+
+    private static void appendLatencies(StringBuilder buf, LatencyMetric metric, Map<String, LatencyHistogram.Snapshot> histograms) {
+        String name = metric.getName() + "_seconds";
+        appendHeader(buf, name, "histogram", metric.getHelp());
+        histograms.forEach((labelValue, histogram) -> {
+            String label = metric.getLabel() + "=\"" + escape(labelValue) + "\"";
+
+            long cumulativeCount = 0;
+            long[] bucketCounts = histogram.getBucketCounts();
+            for (int i = 0; i < LatencyHistogram.BUCKET_BOUNDS_MILLIS.length; i++) {
+                cumulativeCount = cumulativeCount + bucketCounts[i];
+                buf.append(name).append("_bucket{").append(label).append(",le=\"")
+                        .append(formatSeconds(TimeUnit.MILLISECONDS.toNanos(LatencyHistogram.BUCKET_BOUNDS_MILLIS[i])))
+                        .append("\"} ").append(cumulativeCount).append("\n");
+            }
+            buf.append(name).append("_bucket{").append(label).append(",le=\"+Inf\"} ").append(histogram.getCount()).append("\n");
+            buf.append(name).append("_sum{").append(label).append("} ").append(formatSeconds(histogram.getTotalNanos())).append("\n");
+            buf.append(name).append("_count{").append(label).append("} ").append(histogram.getCount()).append("\n");
+        });
+
+        String errorsName = metric.getName() + "_errors_total";
+        appendHeader(buf, errorsName, "counter", "Failures of: " + metric.getHelp().toLowerCase(Locale.ROOT));
+        histograms.forEach((labelValue, histogram) -> buf
+                .append(errorsName).append("{").append(metric.getLabel()).append("=\"").append(escape(labelValue)).append("\"} ")
+                .append(histogram.getErrors()).append("\n"));
+    }
+
+    private static void appendHeader(StringBuilder buf, String name, String type, String help) {
+        buf.append("# HELP ").append(name).append(" ").append(help).append("\n");
+        buf.append("# TYPE ").append(name).append(" ").append(type).append("\n");
+    }
+
+    private static String formatSeconds(long nanos) {
+        return String.valueOf(nanos / 1e9);
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
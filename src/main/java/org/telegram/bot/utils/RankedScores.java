@@ -0,0 +1,211 @@
+package org.telegram.bot.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongPredicate;
+
+/**
+ * Scores of members, ordered by descending of score and then by ascending of id.
+ * Members are kept in a treap with sizes of subtrees, so update and rank take O(log n) and top of k takes O(log n + k).
+ * Not thread-safe.
+ */
+public class RankedScores {
+
+    private final Map<Long, Long> scores = new HashMap<>();
+    private Node root;
+
+    /**
+     * Add value to the score of member. Absent member has zero score.
+     *
+     * @param id id of member.
+     * @param value value to add.
+     */
+    public void add(Long id, long value) {
+        set(id, scores.getOrDefault(id, 0L) + value);
+    }
+
+    /**
+     * Set the score of member.
+     *
+     * @param id id of member.
+     * @param score new score.
+     */
+    public void set(Long id, long score) {
+        Long oldScore = scores.put(id, score);
+        if (oldScore != null) {
+            root = remove(root, oldScore, id);
+        }
+
+        Node node = new Node(score, id);
+        Node[] parts = split(root, score, id);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    public Long getScore(Long id) {
+        return scores.get(id);
+    }
+
+    /**
+     * Get position of member.
+     *
+     * @param id id of member.
+     * @return position starting from 1 or 0 if member is absent.
+     */
+    public int getRank(Long id) {
+        Long score = scores.get(id);
+        if (score == null) {
+            return 0;
+        }
+
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(score, id, node.score, node.id);
+            if (cmp == 0) {
+                return before + size(node.left) + 1;
+            } else if (cmp < 0) {
+                node = node.left;
+            } else {
+                before = before + size(node.left) + 1;
+                node = node.right;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Get members with the largest scores.
+     *
+     * @param limit max number of members.
+     * @return ids of members ordered by position.
+     */
+    public List<Long> getTop(int limit) {
+        return getTop(limit, score -> true);
+    }
+
+    /**
+     * Get members with the largest scores, which are accepted by filter.
+     * Rejected members are skipped and do not take places of the limit.
+     *
+     * @param limit max number of members.
+     * @param scoreFilter filter of scores.
+     * @return ids of members ordered by position.
+     */
+    public List<Long> getTop(int limit, LongPredicate scoreFilter) {
+        List<Long> top = new ArrayList<>(Math.min(limit, scores.size()));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while ((node != null || !stack.isEmpty()) && top.size() < limit) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            if (scoreFilter.test(node.score)) {
+                top.add(node.id);
+            }
+            node = node.right;
+        }
+
+        return top;
+    }
+
+    public int size() {
+        return scores.size();
+    }
+
+    private static int compare(long score, long id, long otherScore, long otherId) {
+        int cmp = Long.compare(otherScore, score);
+        if (cmp != 0) {
+            return cmp;
+        }
+
+        return Long.compare(id, otherId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Split tree into nodes placed before the key and the rest.
+     */
+    private static Node[] split(Node node, long score, long id) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+
+        if (compare(node.score, node.id, score, id) < 0) {
+            Node[] parts = split(node.right, score, id);
+            node.right = parts[0];
+            node.update();
+            return new Node[] {node, parts[1]};
+        } else {
+            Node[] parts = split(node.left, score, id);
+            node.left = parts[1];
+            node.update();
+            return new Node[] {parts[0], node};
+        }
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            right.update();
+            return right;
+        }
+    }
+
+    private static Node remove(Node node, long score, long id) {
+        if (node == null) {
+            return null;
+        }
+
+        int cmp = compare(score, id, node.score, node.id);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        } else if (cmp < 0) {
+            node.left = remove(node.left, score, id);
+        } else {
+            node.right = remove(node.right, score, id);
+        }
+        node.update();
+
+        return node;
+    }
+
+    private static class Node {
+        private final long score;
+        private final long id;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long score, long id) {
+            this.score = score;
+            this.id = id;
+        }
+
+        private void update() {
+            size = size(left) + size(right) + 1;
+        }
+    }
+}
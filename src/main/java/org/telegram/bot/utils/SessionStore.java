@@ -0,0 +1,104 @@
+package org.telegram.bot.utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent in-memory store of short-lived state, which entries expire after the time to live since they were put.
+ * Expired entries are removed on access and swept at most once per time to live on put.
+ *
+ * @param <K> type of key.
+ * @param <V> type of value.
+ */
+public class SessionStore<K, V> {
+
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private volatile long nextSweepAt;
+
+    public SessionStore(Duration ttl, Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.nextSweepAt = clock.millis() + ttlMillis;
+    }
+
+    /**
+     * Get value.
+     *
+     * @param key key.
+     * @return value or null if it is absent or expired.
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (clock.millis() >= entry.expiresAt) {
+            entries.remove(key, entry);
+            return null;
+        }
+
+        return entry.value;
+    }
+
+    /**
+     * Put value. Null value removes the key.
+     *
+     * @param key key.
+     * @param value value.
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+
+        long now = clock.millis();
+        entries.put(key, new Entry<>(value, now + ttlMillis));
+
+        if (now >= nextSweepAt) {
+            nextSweepAt = now + ttlMillis;
+            entries.values().removeIf(entry -> now >= entry.expiresAt);
+        }
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Get all not expired entries.
+     *
+     * @return copy of entries.
+     */
+    public Map<K, V> snapshot() {
+        long now = clock.millis();
+        Map<K, V> snapshot = new HashMap<>();
+        entries.forEach((key, entry) -> {
+            if (now < entry.expiresAt) {
+                snapshot.put(key, entry.value);
+            }
+        });
+
+        return snapshot;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
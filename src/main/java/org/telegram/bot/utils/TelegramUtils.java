@@ -1,8 +1,16 @@
 package org.telegram.bot.utils;
 
 import lombok.experimental.UtilityClass;
+import org.telegram.telegrambots.meta.api.objects.InputFile;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.media.InputMedia;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @UtilityClass
 public class TelegramUtils {
@@ -29,4 +37,49 @@ public class TelegramUtils {
 
         return false;
     }
+
+    /**
+     * Leave only the latest edit of every edited message of batch.
+     *
+     * @param updates batch of updates.
+     * @return updates in order of receiving without the outdated edits.
+     */
+    public static List<Update> coalesceEditedMessages(List<Update> updates) {
+        Set<String> editedMessages = new HashSet<>();
+        List<Update> result = new ArrayList<>(updates.size());
+
+        for (int i = updates.size() - 1; i >= 0; i--) {
+            Update update = updates.get(i);
+            if (update.hasEditedMessage()) {
+                Message message = update.getEditedMessage();
+                if (!editedMessages.add(message.getChatId() + ":" + message.getMessageId())) {
+                    continue;
+                }
+            }
+            result.add(update);
+        }
+        Collections.reverse(result);
+
+        return result;
+    }
+
+    /**
+     * Check if the file is uploaded from InputStream, which can be read only once.
+     *
+     * @param inputFile file to send.
+     * @return true if the sending of file cannot be repeated.
+     */
+    public static boolean isUploadedFromStream(InputFile inputFile) {
+        return inputFile != null && inputFile.isNew() && inputFile.getNewMediaStream() != null;
+    }
+
+    /**
+     * Check if any of medias is uploaded from InputStream, which can be read only once.
+     *
+     * @param medias medias to send.
+     * @return true if the sending of medias cannot be repeated.
+     */
+    public static boolean isUploadedFromStream(List<InputMedia> medias) {
+        return medias != null && medias.stream().anyMatch(media -> media.isNewMedia() && media.getNewMediaStream() != null);
+    }
 }
@@ -1,11 +1,14 @@
 package org.telegram.bot.utils;
 
+import org.springframework.util.DigestUtils;
 import org.telegram.bot.domain.entities.User;
 
 import javax.annotation.Nullable;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -15,6 +18,7 @@ public class TextUtils {
 
     private static final Pattern COMMAND_PATTERN = Pattern.compile("^[a-zA-Zа-яА-Я0-9Ёё]+", Pattern.UNICODE_CHARACTER_CLASS);
     private static final Pattern WORD_PATTERN = Pattern.compile("\\W$", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final Pattern SPACES_PATTERN = Pattern.compile("\\s+");
     private static final Pattern FILE_NAME_PATTERN = Pattern.compile("/[\\w,\\s-]+\\.[A-Za-z]+$");
 
     /**
@@ -222,4 +226,15 @@ public class TextUtils {
 
         return true;
     }
+
+    /**
+     * Gets hash of phrase, which is equal for phrases differing only by case and spaces.
+     *
+     * @param phrase phrase to be processed.
+     * @return hex of md5 of normalized phrase.
+     */
+    public static String getPhraseHash(String phrase) {
+        String normalizedPhrase = SPACES_PATTERN.matcher(phrase.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return DigestUtils.md5DigestAsHex(normalizedPhrase.getBytes(StandardCharsets.UTF_8));
+    }
 }
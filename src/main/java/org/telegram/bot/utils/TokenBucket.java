@@ -0,0 +1,70 @@
+package org.telegram.bot.utils;
+
+/**
+ * Token bucket for rate limiting. Not thread-safe, access has to be guarded by the owner.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillTime;
+
+    /**
+     * Create a full bucket.
+     *
+     * @param capacity max number of tokens, i.e. allowed burst.
+     * @param tokens number of tokens added during the period.
+     * @param periodNanos the period in nanoseconds.
+     * @param now current time in nanoseconds.
+     */
+    public TokenBucket(int capacity, int tokens, long periodNanos, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) tokens / periodNanos;
+        this.tokens = capacity;
+        this.lastRefillTime = now;
+    }
+
+    /**
+     * Get the time until a token is available.
+     *
+     * @param now current time in nanoseconds.
+     * @return nanoseconds to wait, 0 if a token is available right now.
+     */
+    public long getWaitTime(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            return 0;
+        }
+
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Take a token. The caller has to make sure it is available with {@link #getWaitTime(long)}.
+     *
+     * @param now current time in nanoseconds.
+     */
+    public void consume(long now) {
+        refill(now);
+        tokens = tokens - 1;
+    }
+
+    /**
+     * Check if the bucket is full and may be thrown away.
+     *
+     * @param now current time in nanoseconds.
+     * @return true if the bucket is full.
+     */
+    public boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefillTime) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillTime) * tokensPerNano);
+            lastRefillTime = now;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.telegram.bot.utils;
+
+import lombok.experimental.UtilityClass;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Rewriting of the text of update to pass it to another command.
+ * Only the update and its message are copied field by field, nested objects (sender, chat, reply, entities...)
+ * are shared with the original update, which stays untouched.
+ */
+@UtilityClass
+public class UpdateRewriter {
+
+    private static final ShallowCopier<Update> UPDATE_COPIER = new ShallowCopier<>(Update.class, Update::new);
+    private static final ShallowCopier<Message> MESSAGE_COPIER = new ShallowCopier<>(Message.class, Message::new);
+    private static final ShallowCopier<CallbackQuery> CALLBACK_QUERY_COPIER = new ShallowCopier<>(CallbackQuery.class, CallbackQuery::new);
+
+    /**
+     * Get a view of update with substituted text.
+     * For callback query the data of query is substituted, because commands take text from it.
+     *
+     * @param update original update.
+     * @param text new text of message.
+     * @return rewritten update.
+     */
+    public static Update rewriteText(Update update, String text) {
+        Update rewritten = UPDATE_COPIER.copy(update);
+
+        if (update.hasMessage()) {
+            rewritten.setMessage(rewriteText(update.getMessage(), text));
+        } else if (update.hasEditedMessage()) {
+            rewritten.setEditedMessage(rewriteText(update.getEditedMessage(), text));
+        } else if (update.hasCallbackQuery()) {
+            CallbackQuery callbackQuery = CALLBACK_QUERY_COPIER.copy(update.getCallbackQuery());
+            callbackQuery.setData(text);
+            rewritten.setCallbackQuery(callbackQuery);
+        } else {
+            throw new IllegalArgumentException("Update " + update.getUpdateId() + " has no text to rewrite");
+        }
+
+        return rewritten;
+    }
+
+    private static Message rewriteText(Message message, String text) {
+        Message rewritten = MESSAGE_COPIER.copy(message);
+        rewritten.setText(text);
+        return rewritten;
+    }
+
+    private static final class ShallowCopier<T> {
+        private final Supplier<T> constructor;
+        private final List<Field> fields = new ArrayList<>();
+
+        private ShallowCopier(Class<T> type, Supplier<T> constructor) {
+            this.constructor = constructor;
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+        }
+
+        private T copy(T source) {
+            T target = constructor.get();
+            try {
+                for (Field field : fields) {
+                    field.set(target, field.get(source));
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Failed to copy " + source.getClass().getSimpleName(), e);
+            }
+
+            return target;
+        }
+    }
+}
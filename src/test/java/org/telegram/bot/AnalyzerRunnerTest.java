@@ -0,0 +1,112 @@
+package org.telegram.bot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.domain.commands.Alias;
+import org.telegram.bot.domain.commands.Echo;
+import org.telegram.bot.domain.commands.Qr;
+import org.telegram.bot.domain.enums.AnalyzerRequirement;
+import org.telegram.bot.utils.ChatLaneExecutor;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.telegram.bot.TestUtils.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyzerRunnerTest {
+    @Mock
+    private Echo echo;
+    @Mock
+    private Qr qr;
+    @Mock
+    private Alias alias;
+    @Mock
+    private ChatLaneExecutor analyzerLaneExecutor;
+    @Mock
+    private BotStats botStats;
+
+    private AnalyzerRunner analyzerRunner;
+
+    @BeforeEach
+    void init() {
+        analyzerRunner = new AnalyzerRunner(List.of(echo, qr), analyzerLaneExecutor, botStats);
+        when(echo.getRequirements()).thenReturn(EnumSet.of(AnalyzerRequirement.TEXT));
+        when(qr.getRequirements()).thenReturn(EnumSet.of(AnalyzerRequirement.PHOTO));
+    }
+
+    @Test
+    void onlyMatchingAnalyzersAreExecutedTest() {
+        Update update = getUpdateFromGroup("text");
+        UpdateContext updateContext = getUpdateContext(update);
+        when(analyzerLaneExecutor.execute(anyLong(), any(Runnable.class))).thenReturn(true);
+
+        analyzerRunner.analyze(updateContext);
+
+        ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(analyzerLaneExecutor).execute(eq(DEFAULT_CHAT_ID), taskCaptor.capture());
+        taskCaptor.getValue().run();
+
+        verify(echo).analyze(echo, update, updateContext);
+        verify(qr, never()).analyze(any(), any(), any());
+        verify(botStats).registerAnalyzerExecutionTime(anyString(), anyLong());
+    }
+
+    @Test
+    void dispatchingAnalyzersAreRunBeforeQueuedOnesTest() {
+        Update update = getUpdateFromGroup("text");
+        UpdateContext updateContext = getUpdateContext(update);
+        analyzerRunner = new AnalyzerRunner(List.of(echo, qr, alias), analyzerLaneExecutor, botStats);
+        when(alias.getRequirements()).thenReturn(EnumSet.of(AnalyzerRequirement.TEXT));
+        when(alias.isDispatchingCommands()).thenReturn(true);
+        when(analyzerLaneExecutor.execute(anyLong(), any(Runnable.class))).thenReturn(true);
+
+        analyzerRunner.analyze(updateContext);
+
+        verify(alias).analyze(alias, update, updateContext);
+        verify(echo, never()).analyze(any(), any(), any());
+
+        ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(analyzerLaneExecutor).execute(eq(DEFAULT_CHAT_ID), taskCaptor.capture());
+        taskCaptor.getValue().run();
+
+        verify(echo).analyze(echo, update, updateContext);
+        verify(alias).analyze(any(), any(), any());
+    }
+
+    @Test
+    void updateWithoutMatchingAnalyzersIsNotQueuedTest() {
+        UpdateContext updateContext = getUpdateContext(getUpdateFromGroup(null));
+
+        analyzerRunner.analyze(updateContext);
+
+        verify(analyzerLaneExecutor, never()).execute(anyLong(), any(Runnable.class));
+    }
+
+    @Test
+    void failedAnalyzerDoesNotStopOthersTest() {
+        Update update = getUpdateFromGroup("text");
+        UpdateContext updateContext = getUpdateContext(update);
+        when(qr.getRequirements()).thenReturn(EnumSet.noneOf(AnalyzerRequirement.class));
+        when(analyzerLaneExecutor.execute(anyLong(), any(Runnable.class))).thenReturn(true);
+        doThrow(new RuntimeException("error")).when(echo).analyze(echo, update, updateContext);
+
+        analyzerRunner.analyze(updateContext);
+
+        ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(analyzerLaneExecutor).execute(eq(DEFAULT_CHAT_ID), taskCaptor.capture());
+        taskCaptor.getValue().run();
+
+        verify(qr).analyze(qr, update, updateContext);
+        verify(botStats).incrementErrors(eq(update), any(Throwable.class), anyString());
+    }
+}
@@ -1,5 +1,6 @@
 package org.telegram.bot;
 
+import org.telegram.bot.domain.UpdateContext;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
 import org.telegram.telegrambots.meta.api.methods.send.SendMediaGroup;
@@ -121,6 +122,29 @@ public class TestUtils {
         return message;
     }
 
+    public static UpdateContext getUpdateContext(Update update) {
+        Message message;
+        User user;
+        if (update.hasCallbackQuery()) {
+            message = update.getCallbackQuery().getMessage();
+            user = update.getCallbackQuery().getFrom();
+        } else {
+            message = update.hasMessage() ? update.getMessage() : update.getEditedMessage();
+            user = message.getFrom();
+        }
+
+        return new UpdateContext(
+                update,
+                message,
+                user,
+                message.getText(),
+                update.hasEditedMessage(),
+                () -> getUser(user.getId()),
+                () -> getChat(message.getChatId()),
+                () -> null,
+                () -> null);
+    }
+
     public static org.telegram.bot.domain.entities.Chat getChat() {
         return getChat(DEFAULT_CHAT_ID);
     }
@@ -0,0 +1,69 @@
+package org.telegram.bot.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.domain.MetricsRegistry;
+import org.telegram.bot.services.config.PropertiesConfig;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsControllerTest {
+
+    private static final String METRICS_TOKEN = "token";
+
+    @Mock
+    private BotStats botStats;
+    @Mock
+    private PropertiesConfig propertiesConfig;
+
+    @InjectMocks
+    private MetricsController metricsController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void init() {
+        mockMvc = MockMvcBuilders.standaloneSetup(metricsController).build();
+    }
+
+    @Test
+    void metricsAreHiddenWithoutTokenTest() throws Exception {
+        when(propertiesConfig.getMetricsToken()).thenReturn(null);
+
+        mockMvc.perform(get("/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer " + METRICS_TOKEN))
+                .andExpect(status().isNotFound());
+
+        verifyNoInteractions(botStats);
+    }
+
+    @Test
+    void metricsWithWrongTokenAreNotServedTest() throws Exception {
+        when(propertiesConfig.getMetricsToken()).thenReturn(METRICS_TOKEN);
+
+        mockMvc.perform(get("/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer wrong"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(botStats);
+    }
+
+    @Test
+    void metricsWithValidTokenAreServedTest() throws Exception {
+        when(propertiesConfig.getMetricsToken()).thenReturn(METRICS_TOKEN);
+        when(botStats.getSnapshot()).thenReturn(new MetricsRegistry().snapshot());
+
+        mockMvc.perform(get("/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer " + METRICS_TOKEN))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,96 @@
+package org.telegram.bot.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.telegram.bot.services.WebhookService;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookControllerTest {
+
+    private static final String SECRET_TOKEN = "secret";
+
+    @Mock
+    private WebhookService webhookService;
+
+    @InjectMocks
+    private WebhookController webhookController;
+
+    private MockMvc mockMvc;
+    private String updateJson;
+
+    @BeforeEach
+    void init() throws IOException {
+        mockMvc = MockMvcBuilders.standaloneSetup(webhookController).build();
+        updateJson = Files.readString(Path.of("src/test/java/org/telegram/bot/domain/commands/update.json"));
+    }
+
+    @Test
+    void updateIsIgnoredInPollingModeTest() throws Exception {
+        when(webhookService.isEnabled()).thenReturn(false);
+
+        postUpdate(SECRET_TOKEN).andExpect(status().isNotFound());
+
+        verify(webhookService, never()).receive(any(Update.class));
+    }
+
+    @Test
+    void updateWithValidTokenIsReceivedTest() throws Exception {
+        when(webhookService.isEnabled()).thenReturn(true);
+        when(webhookService.isSecretTokenValid(SECRET_TOKEN)).thenReturn(true);
+        when(webhookService.receive(any(Update.class))).thenReturn(true);
+
+        postUpdate(SECRET_TOKEN).andExpect(status().isOk());
+
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(webhookService).receive(updateCaptor.capture());
+        Update update = updateCaptor.getValue();
+        assertEquals(123456789, update.getUpdateId());
+        assertEquals("test message", update.getMessage().getText());
+    }
+
+    @Test
+    void updateWithWrongTokenIsIgnoredTest() throws Exception {
+        when(webhookService.isEnabled()).thenReturn(true);
+        when(webhookService.isSecretTokenValid("wrong")).thenReturn(false);
+
+        postUpdate("wrong").andExpect(status().isUnauthorized());
+
+        verify(webhookService, never()).receive(any(Update.class));
+    }
+
+    @Test
+    void rejectedUpdateIsAnsweredWithUnavailableTest() throws Exception {
+        when(webhookService.isEnabled()).thenReturn(true);
+        when(webhookService.isSecretTokenValid(SECRET_TOKEN)).thenReturn(true);
+        when(webhookService.receive(any(Update.class))).thenReturn(false);
+
+        postUpdate(SECRET_TOKEN).andExpect(status().isServiceUnavailable());
+    }
+
+    private ResultActions postUpdate(String secretToken) throws Exception {
+        return mockMvc.perform(post("/webhook")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(WebhookController.SECRET_TOKEN_HEADER, secretToken)
+                .content(updateJson));
+    }
+}
@@ -0,0 +1,68 @@
+package org.telegram.bot.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.bot.domain.entities.WorkParam;
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.services.ErrorService;
+import org.telegram.bot.services.WorkParamService;
+import org.telegram.bot.services.config.PropertiesConfig;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BotStatsTest {
+
+    private static final String TOKEN = "token";
+
+    @Mock
+    private WorkParamService workParamService;
+    @Mock
+    private ErrorService errorService;
+    @Mock
+    private PropertiesConfig propertiesConfig;
+
+    @Test
+    void saveStatsTest() {
+        WorkParam receivedMessages = new WorkParam(TOKEN, "totalReceivedMessages").setValue("10");
+        WorkParam lastTvUpdate = new WorkParam(TOKEN, "lastTvUpdate").setValue("50");
+        when(propertiesConfig.getTelegramBotApiToken()).thenReturn(TOKEN);
+        when(workParamService.get(eq(TOKEN), anyList())).thenReturn(List.of(receivedMessages, lastTvUpdate));
+
+        BotStats botStats = new BotStats(workParamService, errorService, propertiesConfig, new MetricsRegistry());
+        botStats.incrementReceivedMessages(1L);
+        botStats.incrementReceivedMessages(2L);
+        botStats.incrementCommandsProcessed("Uptime");
+        botStats.incrementErrors(new Object(), "error");
+        botStats.saveStats();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WorkParam>> captor = ArgumentCaptor.forClass(List.class);
+        verify(workParamService).save(captor.capture());
+        Map<String, String> savedValues = captor.getValue()
+                .stream()
+                .collect(Collectors.toMap(WorkParam::getName, WorkParam::getValue));
+
+        assertEquals(5, savedValues.size());
+        assertSame(receivedMessages, captor.getValue().get(0));
+        assertEquals("12", savedValues.get("totalReceivedMessages"));
+        assertEquals("1", savedValues.get("totalCommandsProcessed"));
+        assertEquals("50", savedValues.get("lastTvUpdate"));
+        assertEquals("0", savedValues.get("lastTracksUpdate"));
+        verify(errorService).save(any(Object.class), eq("error"));
+
+        MetricsSnapshot snapshot = botStats.getSnapshot();
+        assertEquals(1, snapshot.getSessionValue(BotMetric.ERRORS));
+        assertEquals(1, snapshot.getChatCount(2L));
+    }
+}
@@ -0,0 +1,76 @@
+package org.telegram.bot.domain;
+
+import org.junit.jupiter.api.Test;
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.domain.enums.LatencyMetric;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+
+    @Test
+    void concurrentIncrementsAreNotLostTest() throws Exception {
+        int threads = 8;
+        int increments = 10000;
+        metricsRegistry.set(BotMetric.RECEIVED_MESSAGES, 100);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executorService.execute(() -> {
+                for (int j = 0; j < increments; j++) {
+                    metricsRegistry.increment(BotMetric.RECEIVED_MESSAGES);
+                    metricsRegistry.incrementChat(1L);
+                    metricsRegistry.add(BotMetric.GOOGLE_REQUESTS, -1);
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        MetricsSnapshot snapshot = metricsRegistry.snapshot();
+        assertEquals(threads * increments, snapshot.getSessionValue(BotMetric.RECEIVED_MESSAGES));
+        assertEquals(100 + threads * increments, snapshot.getTotalValue(BotMetric.RECEIVED_MESSAGES));
+        assertEquals(threads * increments, snapshot.getChatCount(1L));
+        assertEquals(BotMetric.GOOGLE_REQUESTS.getDefaultValue() - threads * increments, snapshot.getTotalValue(BotMetric.GOOGLE_REQUESTS));
+    }
+
+    @Test
+    void snapshotIsNotChangedByLaterIncrementsTest() {
+        metricsRegistry.incrementCommand("Uptime");
+        metricsRegistry.incrementCommand("Echo");
+        metricsRegistry.incrementCommand("Echo");
+        metricsRegistry.set(BotMetric.LAST_TV_UPDATE, 42);
+
+        MetricsSnapshot snapshot = metricsRegistry.snapshot();
+        metricsRegistry.incrementCommand("Uptime");
+        metricsRegistry.increment(BotMetric.ERRORS);
+
+        assertEquals(List.of("Echo", "Uptime"), List.copyOf(snapshot.getTopCommands(5).keySet()));
+        assertEquals(1, snapshot.getCommandCounts().get("Uptime"));
+        assertEquals(0, snapshot.getSessionValue(BotMetric.ERRORS));
+        assertEquals(42, snapshot.getSessionValue(BotMetric.LAST_TV_UPDATE));
+        assertEquals(0, snapshot.getChatCount(1L));
+    }
+
+    @Test
+    void latencyHistogramTest() {
+        metricsRegistry.registerLatency(LatencyMetric.REPOSITORY, "userRepository.findAll", TimeUnit.MILLISECONDS.toNanos(3), false);
+        metricsRegistry.registerLatency(LatencyMetric.REPOSITORY, "userRepository.findAll", TimeUnit.MILLISECONDS.toNanos(300), true);
+
+        LatencyHistogram.Snapshot latency = metricsRegistry.snapshot().getLatencies(LatencyMetric.REPOSITORY).get("userRepository.findAll");
+
+        assertEquals(2, latency.getCount());
+        assertEquals(1, latency.getErrors());
+        assertEquals(151, latency.getAverageMillis());
+        assertEquals(300, latency.getMaxMillis());
+        assertEquals(1, latency.getBucketCounts()[0]);
+        assertEquals(1, latency.getBucketCounts()[6]);
+    }
+}
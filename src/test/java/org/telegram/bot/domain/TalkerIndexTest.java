@@ -0,0 +1,62 @@
+package org.telegram.bot.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TalkerIndexTest {
+
+    @Test
+    void phrasesAreRatedByMatchedWordsTest() {
+        TalkerIndex index = new TalkerIndex();
+        index.add("Как", 1L, "нормально");
+        index.add("дела", 1L, "нормально");
+        index.add("дела", 2L, "пока не родила");
+        index.add("погода", 3L, "дождь?");
+        // repeated pair is ignored
+        index.add("как", 1L, "нормально");
+
+        Map<String, Integer> rating = index.rate(List.of("как", "ДЕЛА", "дела"), phrase -> true);
+
+        assertEquals(Map.of("нормально", 2, "пока не родила", 1), rating);
+        assertEquals(3, index.getPhrasesCount());
+        assertEquals(3, index.getWordsCount());
+    }
+
+    @Test
+    void phraseFilterTest() {
+        TalkerIndex index = new TalkerIndex();
+        index.add("погода", 1L, "дождь?");
+        index.add("погода", 2L, "солнце");
+
+        assertEquals(Map.of("дождь?", 1), index.rate(List.of("погода"), phrase -> phrase.contains("?")));
+        assertTrue(index.rate(List.of("дела"), phrase -> true).isEmpty());
+    }
+
+    @Test
+    void samePhraseTextsAreMergedTest() {
+        TalkerIndex index = new TalkerIndex();
+        index.add("как", 1L, "нормально");
+        index.add("дела", 1L, "нормально");
+        index.add("как", 2L, "нормально");
+
+        assertEquals(Map.of("нормально", 2), index.rate(List.of("как", "дела"), phrase -> true));
+    }
+
+    @Test
+    void pairsAreIndexedInAnyOrderTest() {
+        TalkerIndex index = new TalkerIndex();
+        index.add("погода", 1L, "дождь");
+        index.add("как", 2L, "нормально");
+        index.add("как", 3L, "хорошо");
+        // older phrases are inserted before the newer ones
+        index.add("как", 1L, "дождь");
+        index.add("как", 1L, "дождь");
+        index.add("как", 2L, "нормально");
+
+        assertEquals(Map.of("дождь", 2, "нормально", 1, "хорошо", 1), index.rate(List.of("как", "погода"), phrase -> true));
+    }
+}
@@ -0,0 +1,72 @@
+package org.telegram.bot.domain;
+
+import org.junit.jupiter.api.Test;
+import org.telegram.bot.domain.entities.Chat;
+import org.telegram.bot.domain.entities.User;
+import org.telegram.bot.domain.enums.AccessLevel;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.telegram.bot.TestUtils.*;
+
+class UpdateContextTest {
+
+    @Test
+    void entitiesAreLoadedOnceTest() {
+        Update update = getUpdateFromGroup();
+        AtomicInteger userLoads = new AtomicInteger();
+        UpdateContext updateContext = new UpdateContext(
+                update,
+                update.getMessage(),
+                update.getMessage().getFrom(),
+                DEFAULT_MESSAGE_TEXT,
+                false,
+                () -> {
+                    userLoads.incrementAndGet();
+                    return getUser().setAccessLevel(AccessLevel.TRUSTED.getValue());
+                },
+                () -> getChat().setAccessLevel(AccessLevel.FAMILIAR.getValue()),
+                () -> null,
+                () -> null);
+
+        assertEquals(AccessLevel.TRUSTED, updateContext.getAccessLevel());
+        assertEquals(AccessLevel.TRUSTED, updateContext.getAccessLevel());
+        assertNull(updateContext.getCommandWaiting());
+        assertNull(updateContext.getCommandWaiting());
+
+        assertEquals(1, userLoads.get());
+        assertEquals(3, updateContext.getQueriesCount());
+    }
+
+    @Test
+    void bannedUserTest() {
+        Update update = getUpdateFromGroup();
+        UpdateContext updateContext = new UpdateContext(
+                update,
+                update.getMessage(),
+                update.getMessage().getFrom(),
+                DEFAULT_MESSAGE_TEXT,
+                false,
+                () -> new User().setUserId(DEFAULT_USER_ID).setAccessLevel(AccessLevel.BANNED.getValue()),
+                () -> new Chat().setChatId(DEFAULT_CHAT_ID).setAccessLevel(AccessLevel.ADMIN.getValue()),
+                () -> null,
+                () -> null);
+
+        assertEquals(AccessLevel.BANNED, updateContext.getAccessLevel());
+        assertEquals(1, updateContext.getQueriesCount());
+    }
+
+    @Test
+    void setEntityWithoutQueryTest() {
+        Update update = getUpdateFromGroup();
+        UpdateContext updateContext = getUpdateContext(update);
+
+        updateContext.setUser(getUser().setAccessLevel(AccessLevel.MODERATOR.getValue()));
+        updateContext.setChat(getChat().setAccessLevel(AccessLevel.NEWCOMER.getValue()));
+
+        assertEquals(AccessLevel.MODERATOR, updateContext.getAccessLevel());
+        assertEquals(0, updateContext.getQueriesCount());
+    }
+}
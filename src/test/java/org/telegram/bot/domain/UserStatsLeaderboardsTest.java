@@ -0,0 +1,47 @@
+package org.telegram.bot.domain;
+
+import org.junit.jupiter.api.Test;
+import org.telegram.bot.domain.enums.UserStatsCounter;
+import org.telegram.bot.domain.enums.UserStatsPeriod;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserStatsLeaderboardsTest {
+
+    private static final Long CHAT_ID = -1L;
+
+    @Test
+    void getTopSkipsZeroScoresBeforeLimitTest() {
+        UserStatsLeaderboards leaderboards = new UserStatsLeaderboards();
+        leaderboards.load(CHAT_ID);
+        leaderboards.set(CHAT_ID, 1L, UserStatsCounter.KARMA, UserStatsPeriod.ALL, 5);
+        for (long userId = 2; userId <= 5; userId++) {
+            leaderboards.set(CHAT_ID, userId, UserStatsCounter.KARMA, UserStatsPeriod.ALL, 0);
+        }
+        leaderboards.set(CHAT_ID, 6L, UserStatsCounter.KARMA, UserStatsPeriod.ALL, -2);
+        leaderboards.set(CHAT_ID, 7L, UserStatsCounter.KARMA, UserStatsPeriod.ALL, -7);
+
+        List<UserActivityTotal> top = leaderboards.getTop(CHAT_ID, UserStatsCounter.KARMA, UserStatsPeriod.ALL, 3);
+
+        assertEquals(List.of(1L, 6L, 7L), top.stream().map(UserActivityTotal::getUserId).collect(Collectors.toList()));
+        assertEquals(List.of(5L, -2L, -7L), top.stream().map(UserActivityTotal::getValue).collect(Collectors.toList()));
+    }
+
+    @Test
+    void getTopAppliesLimitToNonZeroScoresTest() {
+        UserStatsLeaderboards leaderboards = new UserStatsLeaderboards();
+        leaderboards.load(CHAT_ID);
+        leaderboards.set(CHAT_ID, 1L, UserStatsCounter.KARMA, UserStatsPeriod.ALL, 0);
+        leaderboards.set(CHAT_ID, 2L, UserStatsCounter.KARMA, UserStatsPeriod.ALL, -1);
+        leaderboards.set(CHAT_ID, 3L, UserStatsCounter.KARMA, UserStatsPeriod.ALL, -3);
+
+        List<UserActivityTotal> top = leaderboards.getTop(CHAT_ID, UserStatsCounter.KARMA, UserStatsPeriod.ALL, 1);
+
+        assertEquals(1, top.size());
+        assertEquals(2L, top.get(0).getUserId());
+        assertEquals(3, leaderboards.getRank(CHAT_ID, 3L, UserStatsCounter.KARMA, UserStatsPeriod.ALL));
+    }
+}
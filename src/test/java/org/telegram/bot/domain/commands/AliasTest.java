@@ -5,37 +5,36 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.context.ApplicationContext;
 import org.telegram.bot.Bot;
 import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.entities.Chat;
 import org.telegram.bot.domain.entities.CommandProperties;
 import org.telegram.bot.domain.entities.User;
-import org.telegram.bot.domain.enums.AccessLevel;
 import org.telegram.bot.services.*;
 import org.telegram.telegrambots.meta.api.methods.ParseMode;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Update;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.telegram.bot.TestUtils.checkDefaultSendMessageParams;
+import static org.telegram.bot.TestUtils.getUpdateContext;
 import static org.telegram.bot.TestUtils.getUpdateFromGroup;
 
 @ExtendWith(MockitoExtension.class)
 class AliasTest {
 
-    @Mock
-    private ApplicationContext context;
     @Mock
     private BotStats botStats;
     @Mock
     private AliasService aliasService;
     @Mock
-    private UserService userService;
+    private PermissionService permissionService;
     @Mock
     private UserStatsService userStatsService;
     @Mock
@@ -86,14 +85,14 @@ class AliasTest {
                 .thenReturn(aliasEntity);
         when(commandPropertiesService.findCommandInText(anyString(), anyString()))
                 .thenReturn(commandProperties);
-        when(userService.isUserHaveAccessForCommand(anyInt(), anyInt())).thenReturn(true);
-        when(context.getBean(anyString())).thenReturn(echo);
+        when(permissionService.isCommandAllowed(anyLong(), anyLong(), eq(commandProperties))).thenReturn(true);
+        doReturn(echo).when(commandPropertiesService).getCommandInstance(commandProperties);
         when(bot.getBotUsername()).thenReturn("jtelebot");
-        when(userService.getCurrentAccessLevel(anyLong(), anyLong())).thenReturn(AccessLevel.NEWCOMER);
+        Update update = getUpdateFromGroup();
 
-        assertDoesNotThrow(() -> alias.analyze(echo, getUpdateFromGroup()));
+        assertDoesNotThrow(() -> alias.analyze(echo, update, getUpdateContext(update)));
 
-        verify(context).getBean(anyString());
+        verify(commandPropertiesService).getCommandInstance(commandProperties);
     }
 
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package org.telegram.bot.domain.commands;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -15,8 +17,9 @@ import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,9 +32,7 @@ class EchoTest {
     @Mock
     private SpeechService speechService;
     @Mock
-    private TalkerWordService talkerWordService;
-    @Mock
-    private TalkerPhraseService talkerPhraseService;
+    private TalkerLearningService talkerLearningService;
     @Mock
     private CommandPropertiesService commandPropertiesService;
     @Mock
@@ -39,8 +40,13 @@ class EchoTest {
     @Mock
     private TalkerDegreeService talkerDegreeService;
     @Mock
+    private TalkerIndexService talkerIndexService;
+    @Mock
     private Bot bot;
 
+    @Captor
+    private ArgumentCaptor<Predicate<String>> filterCaptor;
+
     @InjectMocks
     private Echo echo;
 
@@ -61,38 +67,10 @@ class EchoTest {
     void parseWithText() {
         final String expectedResponseText1 = "пока не родила";
         final String expectedResponseText2 = "нормально";
-        Chat chat = new Chat().setChatId(DEFAULT_CHAT_ID);
         Update update = getUpdateFromGroup("как дела?");
 
-        TalkerPhrase firstPhrase = new TalkerPhrase()
-                .setId(1L)
-                .setChat(chat)
-                .setPhrase(expectedResponseText1);
-        TalkerPhrase secondPhrase = new TalkerPhrase()
-                .setId(2L)
-                .setChat(chat)
-                .setPhrase(expectedResponseText2);
-        TalkerPhrase thirdPhrase = new TalkerPhrase()
-                .setId(2L)
-                .setChat(chat)
-                .setPhrase(expectedResponseText2);
-        java.util.Set<TalkerWord> talkerWords = new HashSet<>(
-                List.of(
-                        new TalkerWord()
-                                .setId(1L)
-                                .setWord("как")
-                                .setPhrases(new HashSet<>(List.of(firstPhrase))),
-                        new TalkerWord()
-                                .setId(2L)
-                                .setWord("дела")
-                                .setPhrases(new HashSet<>(List.of(firstPhrase, secondPhrase))),
-                        new TalkerWord()
-                                .setId(2L)
-                                .setWord("дела")
-                                .setPhrases(new HashSet<>(List.of(thirdPhrase)))
-                        ));
-
-        when(talkerWordService.get(anyList(), anyLong())).thenReturn(talkerWords);
+        when(talkerIndexService.ratePhrases(anyLong(), anyList(), any()))
+                .thenReturn(Map.of(expectedResponseText1, 1, expectedResponseText2, 2));
 
         SendMessage sendMessage = echo.parse(update);
         checkDefaultSendMessageParams(sendMessage);
@@ -104,21 +82,9 @@ class EchoTest {
     @Test
     void parseWithTextAndOnePhrase() {
         final String expectedResponseText = "пока не родила";
-        Chat chat = new Chat().setChatId(DEFAULT_CHAT_ID);
         Update update = getUpdateFromGroup("как дела?");
 
-        TalkerPhrase firstPhrase = new TalkerPhrase()
-                .setId(1L)
-                .setChat(chat)
-                .setPhrase(expectedResponseText);
-        java.util.Set<TalkerWord> talkerWords = new HashSet<>(
-                List.of(
-                        new TalkerWord()
-                                .setId(1L)
-                                .setWord("как")
-                                .setPhrases(new HashSet<>(List.of(firstPhrase)))));
-
-        when(talkerWordService.get(anyList(), anyLong())).thenReturn(talkerWords);
+        when(talkerIndexService.ratePhrases(anyLong(), anyList(), any())).thenReturn(Map.of(expectedResponseText, 1));
 
         SendMessage sendMessage = echo.parse(update);
         checkDefaultSendMessageParams(sendMessage);
@@ -127,6 +93,33 @@ class EchoTest {
         assertEquals(expectedResponseText, actualResponseText);
     }
 
+    @Test
+    void getQuestionForTextFiltersQuestionsTest() {
+        when(talkerIndexService.ratePhrases(eq(DEFAULT_CHAT_ID), anyList(), filterCaptor.capture())).thenReturn(Map.of("как дела?", 1));
+
+        assertEquals("как дела?", echo.getQuestionForText("погода", DEFAULT_CHAT_ID));
+
+        Predicate<String> filter = filterCaptor.getValue();
+        assertTrue(filter.test("как дела?"));
+        assertFalse(filter.test("нормально"));
+    }
+
+    @Test
+    void analyzeWithReplyQueuesLessonTest() {
+        Message replyToMessage = new Message();
+        replyToMessage.setFrom(new org.telegram.telegrambots.meta.api.objects.User());
+        replyToMessage.getFrom().setUserName("user");
+        replyToMessage.setText("как дела");
+        Update update = getUpdateWithRepliedMessage(replyToMessage);
+        update.getMessage().setText("нормально");
+
+        when(bot.getBotUsername()).thenReturn(BOT_USERNAME);
+
+        echo.analyze(echo, update, getUpdateContext(update));
+
+        verify(talkerLearningService).learn(DEFAULT_CHAT_ID, List.of("как", "дела"), List.of("нормально"));
+    }
+
     @Test
     void analyzeCallbackQueryTest() {
         CallbackQuery callbackQuery = new CallbackQuery();
@@ -134,14 +127,14 @@ class EchoTest {
         Update update = new Update();
         update.setCallbackQuery(callbackQuery);
 
-        assertDoesNotThrow(() -> echo.analyze(echo, update));
+        assertDoesNotThrow(() -> echo.analyze(echo, update, null));
     }
 
     @Test
     void analyzeWithoutTextMessageTest() {
         Update update = getUpdateFromGroup(null);
 
-        assertDoesNotThrow(() -> echo.analyze(echo, update));
+        assertDoesNotThrow(() -> echo.analyze(echo, update, getUpdateContext(update)));
     }
 
     @Test
@@ -151,7 +144,7 @@ class EchoTest {
         when(bot.getBotUsername()).thenReturn(BOT_USERNAME);
         when(talkerDegreeService.get(anyLong())).thenReturn(new TalkerDegree().setDegree(1));
 
-        assertDoesNotThrow(() -> echo.analyze(echo, update));
+        assertDoesNotThrow(() -> echo.analyze(echo, update, getUpdateContext(update)));
     }
 
     @Test
@@ -162,7 +155,7 @@ class EchoTest {
         when(bot.getBotUsername()).thenReturn(BOT_USERNAME);
         when(commandPropertiesService.getCommand(any(Class.class))).thenReturn(commandProperties);
 
-        assertDoesNotThrow(() -> echo.analyze(echo, update));
+        assertDoesNotThrow(() -> echo.analyze(echo, update, getUpdateContext(update)));
     }
 
     @Test
@@ -181,7 +174,7 @@ class EchoTest {
         when(bot.getBotUsername()).thenReturn(BOT_USERNAME);
         when(commandPropertiesService.getCommand(any(Class.class))).thenReturn(commandProperties);
 
-        assertDoesNotThrow(() -> echo.analyze(echo, update));
+        assertDoesNotThrow(() -> echo.analyze(echo, update, getUpdateContext(update)));
     }
 
     @Test
@@ -194,6 +187,6 @@ class EchoTest {
         when(commandPropertiesService.getCommand(any(Class.class))).thenReturn(commandProperties);
         when(talkerDegreeService.get(anyLong())).thenReturn(talkerDegree);
 
-        assertDoesNotThrow(() -> echo.analyze(echo, update));
+        assertDoesNotThrow(() -> echo.analyze(echo, update, getUpdateContext(update)));
     }
 }
\ No newline at end of file
@@ -41,12 +41,16 @@ class ErrorsTest {
     @Test
     void getErrorListTest() {
         Update update = getUpdateFromGroup("errors");
-        List<Error> errorList = List.of(new Error().setId(1L).setDateTime(LocalDateTime.now()).setComment("comment"));
+        List<Error> errorList = List.of(
+                new Error().setId(1L).setDateTime(LocalDateTime.now()).setComment("comment"),
+                new Error().setId(2L).setDateTime(LocalDateTime.now()).setFirstDateTime(LocalDateTime.now()).setOccurrences(3L).setComment("repeated"));
 
         when(errorService.getAll()).thenReturn(errorList);
 
         PartialBotApiMethod<?> method = errors.parse(update);
-        checkDefaultSendMessageParams(method);
+        SendMessage sendMessage = checkDefaultSendMessageParams(method);
+        assertTrue(sendMessage.getText().contains("/errors_1"));
+        assertTrue(sendMessage.getText().contains("repeated (<b>3</b> раз"));
     }
 
     @Test
@@ -9,12 +9,13 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.telegram.bot.Bot;
 import org.telegram.bot.TestUtils;
-import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.entities.ImageUrl;
+import org.telegram.bot.domain.enums.ApiQuota;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.CommandWaitingService;
 import org.telegram.bot.services.ImageUrlService;
+import org.telegram.bot.services.QuotaService;
 import org.telegram.bot.services.SpeechService;
 import org.telegram.bot.services.config.PropertiesConfig;
 import org.telegram.bot.utils.NetworkUtils;
@@ -48,7 +49,7 @@ class GooglePicsTest {
     @Mock
     private RestTemplate botRestTemplate;
     @Mock
-    private BotStats botStats;
+    private QuotaService quotaService;
     @Mock
     private NetworkUtils networkUtils;
     @Mock
@@ -130,6 +131,7 @@ class GooglePicsTest {
 
         assertThrows(BotException.class, () -> googlePics.parse(update));
         verify(speechService).getRandomMessageByTag(BotSpeechTag.NO_RESPONSE);
+        verify(quotaService).release(ApiQuota.GOOGLE, TestUtils.DEFAULT_USER_ID);
     }
 
     @Test
@@ -143,7 +145,7 @@ class GooglePicsTest {
                 .thenReturn(response);
 
         assertThrows(BotException.class, () -> googlePics.parse(update));
-        verify(botStats).incrementGoogleRequests();
+        verify(quotaService).reserve(ApiQuota.GOOGLE, TestUtils.DEFAULT_USER_ID);
         verify(speechService).getRandomMessageByTag(BotSpeechTag.FOUND_NOTHING);
     }
 
@@ -172,7 +174,7 @@ class GooglePicsTest {
         assertEquals(googlePicsSearchItem.getLink(), inputMedia.getMedia());
         assertNotNull(inputMedia.getCaption());
 
-        verify(botStats).incrementGoogleRequests();
+        verify(quotaService).reserve(ApiQuota.GOOGLE, TestUtils.DEFAULT_USER_ID);
 
         verify(imageUrlService).save(imageUrlListCaptor.capture());
 
@@ -9,14 +9,15 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.telegram.bot.Bot;
 import org.telegram.bot.TestUtils;
-import org.telegram.bot.domain.BotStats;
 import org.telegram.bot.domain.entities.GoogleSearchResult;
 import org.telegram.bot.domain.entities.ImageUrl;
+import org.telegram.bot.domain.enums.ApiQuota;
 import org.telegram.bot.domain.enums.BotSpeechTag;
 import org.telegram.bot.exception.BotException;
 import org.telegram.bot.services.CommandWaitingService;
 import org.telegram.bot.services.GoogleSearchResultService;
 import org.telegram.bot.services.ImageUrlService;
+import org.telegram.bot.services.QuotaService;
 import org.telegram.bot.services.SpeechService;
 import org.telegram.bot.services.config.PropertiesConfig;
 import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
@@ -51,7 +52,7 @@ class GoogleTest {
     @Mock
     private RestTemplate botRestTemplate;
     @Mock
-    private BotStats botStats;
+    private QuotaService quotaService;
     @Mock
     private ResponseEntity<Google.GoogleSearchData> response;
     @Captor
@@ -171,6 +172,7 @@ class GoogleTest {
 
         assertThrows(BotException.class, () -> google.parse(update));
         verify(speechService).getRandomMessageByTag(BotSpeechTag.NO_RESPONSE);
+        verify(quotaService).release(ApiQuota.GOOGLE, TestUtils.DEFAULT_USER_ID);
     }
 
     @Test
@@ -185,7 +187,7 @@ class GoogleTest {
 
         assertThrows(BotException.class, () -> google.parse(update));
         verify(speechService).getRandomMessageByTag(BotSpeechTag.FOUND_NOTHING);
-        verify(botStats).incrementGoogleRequests();
+        verify(quotaService).reserve(ApiQuota.GOOGLE, TestUtils.DEFAULT_USER_ID);
     }
 
     @Test
@@ -226,7 +228,7 @@ class GoogleTest {
         assertTrue(responseText.contains(googleSearchItem.getDisplayLink()));
         assertTrue(responseText.contains(googleSearchItem.getTitle()));
 
-        verify(botStats).incrementGoogleRequests();
+        verify(quotaService).reserve(ApiQuota.GOOGLE, TestUtils.DEFAULT_USER_ID);
 
         ArgumentCaptor<ImageUrl> imageUrlCaptor = ArgumentCaptor.forClass(ImageUrl.class);
         verify(imageUrlService).save(imageUrlCaptor.capture());
@@ -0,0 +1,141 @@
+package org.telegram.bot.domain.commands.setters;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.bot.domain.commands.Set;
+import org.telegram.bot.domain.entities.Chat;
+import org.telegram.bot.domain.entities.TalkerDegree;
+import org.telegram.bot.domain.entities.User;
+import org.telegram.bot.domain.enums.BotSpeechTag;
+import org.telegram.bot.exception.BotException;
+import org.telegram.bot.services.CommandWaitingService;
+import org.telegram.bot.services.SpeechService;
+import org.telegram.bot.services.TalkerCorpusService;
+import org.telegram.bot.services.TalkerDegreeService;
+import org.telegram.telegrambots.meta.api.methods.PartialBotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.telegram.bot.TestUtils.*;
+
+@ExtendWith(MockitoExtension.class)
+class TalkerSetterTest {
+
+    @Mock
+    private TalkerDegreeService talkerDegreeService;
+    @Mock
+    private CommandWaitingService commandWaitingService;
+    @Mock
+    private SpeechService speechService;
+    @Mock
+    private TalkerCorpusService talkerCorpusService;
+
+    @InjectMocks
+    private TalkerSetter talkerSetter;
+
+    @Test
+    void setPhrasesLimitWithoutValueTest() {
+        Update update = getUpdateFromGroup("установить болтунl");
+
+        PartialBotApiMethod<?> method = talkerSetter.set(update, "болтунl");
+
+        assertTrue(method instanceof SendMessage);
+        SendMessage sendMessage = (SendMessage) method;
+        assertTrue(sendMessage.getText().contains("фраз"));
+        verify(commandWaitingService).add(any(Chat.class), any(User.class), eq(Set.class), eq("установить болтунl"));
+        verify(talkerDegreeService, never()).save(any());
+    }
+
+    @Test
+    void setPhrasesLimitTest() {
+        final String expectedResponseText = "сохранил";
+        Update update = getUpdateFromGroup("установить болтунl 500");
+        TalkerDegree talkerDegree = getTalkerDegree();
+
+        when(talkerDegreeService.get(DEFAULT_CHAT_ID)).thenReturn(talkerDegree);
+        when(speechService.getRandomMessageByTag(BotSpeechTag.SAVED)).thenReturn(expectedResponseText);
+
+        PartialBotApiMethod<?> method = talkerSetter.set(update, "болтунl 500");
+
+        assertTrue(method instanceof SendMessage);
+        SendMessage sendMessage = (SendMessage) method;
+        assertEquals(expectedResponseText, sendMessage.getText());
+        assertEquals(500, talkerDegree.getPhrasesLimit());
+        verify(talkerDegreeService).save(talkerDegree);
+    }
+
+    @Test
+    void setNegativePhrasesLimitTest() {
+        Update update = getUpdateFromGroup("установить болтунl -5");
+
+        when(speechService.getRandomMessageByTag(BotSpeechTag.WRONG_INPUT)).thenReturn("error");
+
+        assertThrows(BotException.class, () -> talkerSetter.set(update, "болтунl -5"));
+        verify(talkerDegreeService, never()).save(any());
+    }
+
+    @Test
+    void setWrongPhrasesLimitTest() {
+        Update update = getUpdateFromGroup("установить болтунl много");
+
+        when(speechService.getRandomMessageByTag(BotSpeechTag.WRONG_INPUT)).thenReturn("error");
+
+        assertThrows(BotException.class, () -> talkerSetter.set(update, "болтунl много"));
+        verify(talkerDegreeService, never()).save(any());
+    }
+
+    @Test
+    void talkerSetterShowsPhrasesLimitTest() {
+        Update update = getUpdateFromGroup("установить болтун");
+
+        when(talkerDegreeService.get(DEFAULT_CHAT_ID)).thenReturn(getTalkerDegree().setPhrasesLimit(500));
+        when(talkerCorpusService.getPhrasesCount(DEFAULT_CHAT_ID)).thenReturn(42L);
+
+        PartialBotApiMethod<?> method = talkerSetter.set(update, "болтун");
+
+        assertTrue(method instanceof SendMessage);
+        SendMessage sendMessage = (SendMessage) method;
+        assertEquals("html", sendMessage.getParseMode());
+        assertTrue(sendMessage.getText().contains("Фраз: <b>42</b> (лимит: <b>500</b>)"));
+        assertTrue(sendMessage.getReplyMarkup() instanceof InlineKeyboardMarkup);
+        assertTrue(((InlineKeyboardMarkup) sendMessage.getReplyMarkup())
+                .getKeyboard()
+                .stream()
+                .flatMap(Collection::stream)
+                .map(InlineKeyboardButton::getCallbackData)
+                .anyMatch("установить болтунl"::equals));
+    }
+
+    @Test
+    void talkerSetterShowsAbsentPhrasesLimitTest() {
+        Update update = getUpdateFromGroup("установить болтун");
+
+        when(talkerDegreeService.get(DEFAULT_CHAT_ID)).thenReturn(getTalkerDegree());
+        when(talkerCorpusService.getPhrasesCount(DEFAULT_CHAT_ID)).thenReturn(0L);
+
+        PartialBotApiMethod<?> method = talkerSetter.set(update, "болтун");
+
+        assertTrue(method instanceof SendMessage);
+        SendMessage sendMessage = (SendMessage) method;
+        assertEquals("html", sendMessage.getParseMode());
+        assertTrue(sendMessage.getText().contains("(лимит: <b>нет</b>)"));
+    }
+
+    private TalkerDegree getTalkerDegree() {
+        return new TalkerDegree()
+                .setChat(getChat())
+                .setDegree(0)
+                .setChatIdleMinutes(0)
+                .setPhrasesLimit(0);
+    }
+}
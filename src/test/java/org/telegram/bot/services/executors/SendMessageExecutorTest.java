@@ -0,0 +1,72 @@
+package org.telegram.bot.services.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.bot.Bot;
+import org.telegram.bot.domain.BotStats;
+import org.telegram.bot.domain.enums.OutboundPriority;
+import org.telegram.bot.utils.OutboundDispatcher;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.telegram.bot.TestUtils.*;
+
+@ExtendWith(MockitoExtension.class)
+class SendMessageExecutorTest {
+
+    @Mock
+    private Bot bot;
+    @Mock
+    private BotStats botStats;
+    @Mock
+    private OutboundDispatcher outboundDispatcher;
+
+    @InjectMocks
+    private SendMessageExecutor sendMessageExecutor;
+
+    @Test
+    void executeMethodTest() throws Exception {
+        Message message = getMessage();
+        Message sentMessage = new Message();
+        SendMessage sendMessage = new SendMessage(DEFAULT_CHAT_ID.toString(), "test");
+
+        when(outboundDispatcher.submit(eq(message.getChatId()), eq(OutboundPriority.INTERACTIVE), any()))
+                .thenReturn(CompletableFuture.completedFuture(sentMessage));
+
+        Object result = sendMessageExecutor.executeMethod(sendMessage, message).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        assertSame(sentMessage, result);
+        verify(outboundDispatcher).submit(eq(message.getChatId()), eq(OutboundPriority.INTERACTIVE), any());
+        verify(botStats, never()).incrementErrors(any(), any(), any(), anyString());
+    }
+
+    @Test
+    void executeMethodWithMarkdownErrorTest() throws Exception {
+        Message message = getMessage();
+        Message sentMessage = new Message();
+        SendMessage sendMessage = new SendMessage(DEFAULT_CHAT_ID.toString(), "*test");
+        sendMessage.enableMarkdown(true);
+
+        when(outboundDispatcher.submit(eq(message.getChatId()), eq(OutboundPriority.INTERACTIVE), any()))
+                .thenReturn(CompletableFuture.failedFuture(new TelegramApiException("can't parse entities")))
+                .thenReturn(CompletableFuture.completedFuture(sentMessage));
+
+        Object result = sendMessageExecutor.executeMethod(sendMessage, message).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        assertSame(sentMessage, result);
+        assertNull(sendMessage.getParseMode());
+        verify(outboundDispatcher, times(2)).submit(eq(message.getChatId()), eq(OutboundPriority.INTERACTIVE), any());
+        verify(botStats).incrementErrors(eq(message), eq(sendMessage), any(TelegramApiException.class), anyString());
+    }
+}
@@ -0,0 +1,113 @@
+package org.telegram.bot.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.bot.Bot;
+import org.telegram.bot.domain.BotStats;
+import org.telegram.telegrambots.meta.api.methods.ActionType;
+import org.telegram.telegrambots.meta.api.methods.send.SendChatAction;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.telegram.bot.TestUtils.DEFAULT_CHAT_ID;
+
+@ExtendWith(MockitoExtension.class)
+class ChatActionServiceImplTest {
+
+    @Mock
+    private Bot bot;
+    @Mock
+    private BotStats botStats;
+
+    private ChatActionServiceImpl chatActionService;
+
+    @BeforeEach
+    void init() {
+        chatActionService = new ChatActionServiceImpl(bot, botStats);
+    }
+
+    @AfterEach
+    void shutdown() {
+        chatActionService.shutdown();
+    }
+
+    @Test
+    void repeatedActionIsCoalescedTest() throws Exception {
+        when(bot.executeAsync(any(SendChatAction.class))).thenReturn(CompletableFuture.completedFuture(true));
+
+        chatActionService.sendAction(DEFAULT_CHAT_ID, ActionType.TYPING);
+        chatActionService.sendAction(DEFAULT_CHAT_ID, ActionType.TYPING);
+        chatActionService.sendAction(DEFAULT_CHAT_ID, ActionType.UPLOADPHOTO);
+        chatActionService.sendAction(DEFAULT_CHAT_ID, ActionType.UPLOADPHOTO);
+
+        ArgumentCaptor<SendChatAction> captor = ArgumentCaptor.forClass(SendChatAction.class);
+        verify(bot, times(2)).executeAsync(captor.capture());
+        assertEquals(ActionType.TYPING.toString(), captor.getAllValues().get(0).getAction());
+        assertEquals(ActionType.UPLOADPHOTO.toString(), captor.getAllValues().get(1).getAction());
+    }
+
+    @Test
+    void actionIsRefreshedUntilStoppedTest() throws Exception {
+        when(bot.executeAsync(any(SendChatAction.class))).thenReturn(CompletableFuture.completedFuture(true));
+
+        chatActionService.startCommand();
+        chatActionService.sendAction(DEFAULT_CHAT_ID, ActionType.TYPING);
+        Set<ActionType> actions = chatActionService.finishCommand();
+        verify(bot, timeout(6000).times(2)).executeAsync(any(SendChatAction.class));
+
+        chatActionService.stopActions(DEFAULT_CHAT_ID, actions);
+        chatActionService.sendAction(DEFAULT_CHAT_ID, ActionType.TYPING);
+        verify(bot, times(3)).executeAsync(any(SendChatAction.class));
+    }
+
+    @Test
+    void actionOutsideOfCommandIsNotRefreshedTest() throws Exception {
+        when(bot.executeAsync(any(SendChatAction.class))).thenReturn(CompletableFuture.completedFuture(true));
+
+        chatActionService.sendAction(DEFAULT_CHAT_ID, ActionType.TYPING);
+        verify(bot, after(6000).times(1)).executeAsync(any(SendChatAction.class));
+
+        chatActionService.sendAction(DEFAULT_CHAT_ID, ActionType.TYPING);
+        verify(bot, times(2)).executeAsync(any(SendChatAction.class));
+    }
+
+    @Test
+    void finishedCommandDoesNotStopActionsOfOtherCommandsTest() throws Exception {
+        when(bot.executeAsync(any(SendChatAction.class))).thenReturn(CompletableFuture.completedFuture(true));
+
+        chatActionService.startCommand();
+        chatActionService.sendAction(DEFAULT_CHAT_ID, ActionType.UPLOADPHOTO);
+        chatActionService.finishCommand();
+
+        chatActionService.startCommand();
+        chatActionService.sendAction(DEFAULT_CHAT_ID, ActionType.TYPING);
+        Set<ActionType> actions = chatActionService.finishCommand();
+        assertEquals(Set.of(ActionType.TYPING), actions);
+
+        chatActionService.stopActions(DEFAULT_CHAT_ID, actions);
+
+        ArgumentCaptor<SendChatAction> captor = ArgumentCaptor.forClass(SendChatAction.class);
+        verify(bot, timeout(6000).times(3)).executeAsync(captor.capture());
+        assertEquals(ActionType.UPLOADPHOTO.toString(), captor.getAllValues().get(2).getAction());
+    }
+
+    @Test
+    void sendActionWithErrorTest() throws Exception {
+        when(bot.executeAsync(any(SendChatAction.class))).thenReturn(CompletableFuture.failedFuture(new TelegramApiException()));
+
+        chatActionService.sendAction(DEFAULT_CHAT_ID, ActionType.TYPING);
+
+        verify(botStats).incrementErrors(any(SendChatAction.class), any(TelegramApiException.class), anyString());
+    }
+}
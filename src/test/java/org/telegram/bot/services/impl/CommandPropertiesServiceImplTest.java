@@ -0,0 +1,83 @@
+package org.telegram.bot.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationContext;
+import org.telegram.bot.domain.CommandParent;
+import org.telegram.bot.domain.commands.Echo;
+import org.telegram.bot.domain.entities.CommandProperties;
+import org.telegram.bot.repositories.CommandPropertiesRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.telegram.bot.TestUtils.BOT_USERNAME;
+
+@ExtendWith(MockitoExtension.class)
+class CommandPropertiesServiceImplTest {
+    @Mock
+    private CommandPropertiesRepository commandPropertiesRepository;
+    @Mock
+    private ApplicationContext context;
+    @Mock
+    private Echo echo;
+
+    @InjectMocks
+    private CommandPropertiesServiceImpl commandPropertiesService;
+
+    private final CommandProperties echoProperties = new CommandProperties()
+            .setId(1L)
+            .setCommandName("bot")
+            .setRussifiedName("бот")
+            .setEnRuName("ищег")
+            .setClassName("echo");
+
+    @Test
+    void findCommandInTextWithoutQueriesPerMessageTest() {
+        when(commandPropertiesRepository.findAll()).thenReturn(List.of(echoProperties));
+
+        assertEquals(echoProperties, commandPropertiesService.findCommandInText("bot как дела?", BOT_USERNAME));
+        assertEquals(echoProperties, commandPropertiesService.findCommandInText("/bot@" + BOT_USERNAME, BOT_USERNAME));
+        assertEquals(echoProperties, commandPropertiesService.findCommandInText("Бот, привет", BOT_USERNAME));
+        assertEquals(echoProperties, commandPropertiesService.getCommand(Echo.class));
+        assertEquals(echoProperties, commandPropertiesService.getCommand(1L));
+        assertNull(commandPropertiesService.findCommandInText("просто текст", BOT_USERNAME));
+        assertNull(commandPropertiesService.findCommandInText("/bot@" + BOT_USERNAME + "_test", BOT_USERNAME));
+
+        verify(commandPropertiesRepository, times(1)).findAll();
+    }
+
+    @Test
+    void getCommandInstanceTest() {
+        when(commandPropertiesRepository.findAll()).thenReturn(List.of(echoProperties));
+        when(context.getBeansOfType(CommandParent.class)).thenReturn(Map.of("echo", echo));
+
+        commandPropertiesService.reload();
+
+        assertEquals(echo, commandPropertiesService.getCommandInstance(echoProperties));
+        verify(context, never()).getBean(anyString());
+    }
+
+    @Test
+    void saveRebuildsIndexTest() {
+        CommandProperties renamedProperties = new CommandProperties()
+                .setId(1L)
+                .setCommandName("echo")
+                .setClassName("echo");
+
+        when(commandPropertiesRepository.findAll()).thenReturn(List.of(echoProperties)).thenReturn(List.of(renamedProperties));
+        when(commandPropertiesRepository.save(renamedProperties)).thenReturn(renamedProperties);
+
+        assertEquals(echoProperties, commandPropertiesService.getCommand("bot"));
+
+        commandPropertiesService.save(renamedProperties);
+
+        assertNull(commandPropertiesService.getCommand("bot"));
+        assertEquals(renamedProperties, commandPropertiesService.getCommand("echo"));
+    }
+}
@@ -0,0 +1,114 @@
+package org.telegram.bot.services.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.bot.domain.commands.Set;
+import org.telegram.bot.domain.entities.Chat;
+import org.telegram.bot.domain.entities.CommandProperties;
+import org.telegram.bot.domain.entities.CommandWaiting;
+import org.telegram.bot.domain.entities.User;
+import org.telegram.bot.repositories.CommandWaitingRepository;
+import org.telegram.bot.services.CommandPropertiesService;
+import org.telegram.telegrambots.meta.api.objects.Message;
+
+import java.time.Clock;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.telegram.bot.TestUtils.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommandWaitingServiceImplTest {
+
+    @Mock
+    private CommandWaitingRepository commandWaitingRepository;
+    @Mock
+    private CommandPropertiesService commandPropertiesService;
+
+    private CommandWaitingServiceImpl commandWaitingService;
+
+    @BeforeEach
+    void init() {
+        commandWaitingService = new CommandWaitingServiceImpl(commandWaitingRepository, commandPropertiesService, Clock.systemDefaultZone());
+    }
+
+    @Test
+    void commandWaitingIsKeptInMemoryTest() {
+        Message message = getMessage();
+        Chat chat = new Chat().setChatId(message.getChatId());
+        User user = new User().setUserId(message.getFrom().getId());
+
+        when(commandPropertiesService.getCommand(Set.class)).thenReturn(new CommandProperties().setCommandName("set"));
+
+        commandWaitingService.add(chat, user, Set.class, "set news");
+
+        CommandWaiting commandWaiting = commandWaitingService.get(new Chat().setChatId(chat.getChatId()), new User().setUserId(user.getUserId()));
+        assertNotNull(commandWaiting);
+        assertEquals("set", commandWaiting.getCommandName());
+        assertEquals("/set news ", commandWaiting.getTextMessage());
+
+        assertEquals(message.getText(), commandWaitingService.getText(message));
+        assertNull(commandWaitingService.get(chat, user));
+
+        verifyNoInteractions(commandWaitingRepository);
+    }
+
+    @Test
+    void snapshotIsRestoredTest() {
+        Chat chat = new Chat().setChatId(DEFAULT_CHAT_ID);
+        User user = new User().setUserId(DEFAULT_USER_ID);
+        CommandWaiting stored = new CommandWaiting().setId(1L).setChat(chat).setUser(user).setCommandName("set");
+
+        when(commandWaitingRepository.findAll()).thenReturn(List.of(stored));
+
+        commandWaitingService.restore();
+
+        assertSame(stored, commandWaitingService.get(chat, user));
+        verify(commandWaitingRepository, never()).deleteAllInBatch();
+
+        commandWaitingService.snapshot();
+
+        verify(commandWaitingRepository).deleteAllInBatch();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CommandWaiting>> captor = ArgumentCaptor.forClass(List.class);
+        verify(commandWaitingRepository).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertNull(captor.getValue().get(0).getId());
+    }
+
+    @Test
+    void snapshotDoesNotModifyKeptCommandWaitingTest() {
+        Chat chat = new Chat().setChatId(DEFAULT_CHAT_ID);
+        User user = new User().setUserId(DEFAULT_USER_ID);
+        CommandWaiting commandWaiting = new CommandWaiting()
+                .setId(1L)
+                .setChat(chat)
+                .setUser(user)
+                .setCommandName("set")
+                .setTextMessage("/set ")
+                .setIsFinished(false);
+
+        commandWaitingService.save(commandWaiting);
+        commandWaitingService.snapshot();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CommandWaiting>> captor = ArgumentCaptor.forClass(List.class);
+        verify(commandWaitingRepository).saveAll(captor.capture());
+        CommandWaiting saved = captor.getValue().get(0);
+        assertNotSame(commandWaiting, saved);
+        assertNull(saved.getId());
+        assertSame(chat, saved.getChat());
+        assertSame(user, saved.getUser());
+        assertEquals("set", saved.getCommandName());
+        assertEquals("/set ", saved.getTextMessage());
+        assertFalse(saved.getIsFinished());
+
+        assertEquals(1L, commandWaiting.getId());
+        assertSame(commandWaiting, commandWaitingService.get(chat, user));
+    }
+}
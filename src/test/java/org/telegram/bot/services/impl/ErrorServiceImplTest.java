@@ -0,0 +1,173 @@
+package org.telegram.bot.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.bot.domain.entities.Error;
+import org.telegram.bot.repositories.ErrorRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ErrorServiceImplTest {
+
+    @Mock
+    private ErrorRepository errorRepository;
+
+    private ErrorServiceImpl errorService;
+
+    @BeforeEach
+    void init() {
+        errorService = new ErrorServiceImpl(errorRepository, new ObjectMapper());
+    }
+
+    @AfterEach
+    void shutdown() {
+        errorService.shutdown();
+    }
+
+    @Test
+    void saveDoesNotWriteToDatabaseTest() {
+        errorService.save("request", new RuntimeException("test"), "comment");
+        verifyNoInteractions(errorRepository);
+    }
+
+    @Test
+    void requestIsSerializedWhenSavedTest() {
+        List<String> request = new ArrayList<>(List.of("before"));
+        errorService.save(request, "comment");
+        request.set(0, "after");
+
+        when(errorRepository.findByFingerprintIn(anyCollection())).thenReturn(List.of());
+
+        errorService.flush();
+
+        Error error = captureSavedErrors().get(0);
+        assertTrue(error.getRequest().contains("before"));
+        assertFalse(error.getRequest().contains("after"));
+    }
+
+    @Test
+    void equalErrorsAreSerializedOnceTest() {
+        CountingRequest request = new CountingRequest();
+        for (int i = 0; i < 3; i++) {
+            errorService.save(request, "without exception");
+        }
+
+        when(errorRepository.findByFingerprintIn(anyCollection())).thenReturn(List.of());
+
+        errorService.flush();
+
+        Error error = captureSavedErrors().get(0);
+        assertEquals(3, error.getOccurrences());
+        assertEquals(1, request.serializations.get());
+    }
+
+    @Test
+    void clearDropsPendingErrorsTest() {
+        errorService.save("request", "comment");
+
+        errorService.clear();
+        errorService.flush();
+
+        verify(errorRepository).deleteAllInBatch();
+        verify(errorRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void equalErrorsAreGroupedTest() {
+        List<RuntimeException> exceptions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            exceptions.add(new RuntimeException("test " + i));
+        }
+        exceptions.forEach(exception -> errorService.save("request", exception, "comment"));
+        errorService.save("request", new IllegalStateException("other"), "other");
+        errorService.save("request", "without exception");
+
+        when(errorRepository.findByFingerprintIn(anyCollection())).thenReturn(List.of());
+
+        errorService.flush();
+
+        List<Error> errors = captureSavedErrors();
+        assertEquals(3, errors.size());
+
+        Error grouped = errors.get(0);
+        assertEquals("comment", grouped.getComment());
+        assertEquals(3, grouped.getOccurrences());
+        assertNotNull(grouped.getFingerprint());
+        assertNotNull(grouped.getFirstDateTime());
+        assertFalse(grouped.getDateTime().isBefore(grouped.getFirstDateTime()));
+        assertTrue(grouped.getStacktrace().contains("test 0"));
+        assertEquals("\"request\"", grouped.getRequest());
+        assertEquals("", grouped.getResponse());
+
+        assertEquals(1, errors.get(1).getOccurrences());
+        assertNotEquals(grouped.getFingerprint(), errors.get(1).getFingerprint());
+        assertEquals("", errors.get(2).getStacktrace());
+    }
+
+    @Test
+    void existingErrorIsUpdatedTest() {
+        final LocalDateTime firstDateTime = LocalDateTime.of(2023, 8, 1, 10, 0);
+        List<RuntimeException> exceptions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            exceptions.add(new RuntimeException("test " + i));
+        }
+
+        errorService.save("request", exceptions.get(0), "comment");
+        when(errorRepository.findByFingerprintIn(anyCollection())).thenReturn(List.of());
+        errorService.flush();
+        Error saved = captureSavedErrors().get(0);
+
+        Error existing = new Error()
+                .setId(1L)
+                .setFingerprint(saved.getFingerprint())
+                .setFirstDateTime(firstDateTime)
+                .setOccurrences(5L)
+                .setStacktrace("stacktrace");
+        reset(errorRepository);
+        when(errorRepository.findByFingerprintIn(Set.of(saved.getFingerprint()))).thenReturn(List.of(existing));
+
+        errorService.save("request", exceptions.get(1), "comment");
+        errorService.save("request", exceptions.get(2), "comment");
+        errorService.flush();
+
+        List<Error> errors = captureSavedErrors();
+        assertEquals(1, errors.size());
+        Error updated = errors.get(0);
+        assertSame(existing, updated);
+        assertEquals(7, updated.getOccurrences());
+        assertEquals(firstDateTime, updated.getFirstDateTime());
+        assertEquals("stacktrace", updated.getStacktrace());
+    }
+
+    public static class CountingRequest {
+        private final AtomicInteger serializations = new AtomicInteger();
+
+        public String getValue() {
+            serializations.incrementAndGet();
+            return "value";
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Error> captureSavedErrors() {
+        ArgumentCaptor<List<Error>> captor = ArgumentCaptor.forClass(List.class);
+        verify(errorRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+}
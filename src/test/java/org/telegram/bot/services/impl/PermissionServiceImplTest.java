@@ -0,0 +1,96 @@
+package org.telegram.bot.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.bot.domain.entities.Chat;
+import org.telegram.bot.domain.entities.CommandProperties;
+import org.telegram.bot.domain.entities.DisableCommand;
+import org.telegram.bot.domain.enums.AccessLevel;
+import org.telegram.bot.domain.events.PermissionsChangedEvent;
+import org.telegram.bot.services.ChatService;
+import org.telegram.bot.services.DisableCommandService;
+import org.telegram.bot.services.UserService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PermissionServiceImplTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long CHAT_ID = -1L;
+
+    @Mock
+    private UserService userService;
+    @Mock
+    private ChatService chatService;
+    @Mock
+    private DisableCommandService disableCommandService;
+
+    @InjectMocks
+    private PermissionServiceImpl permissionService;
+
+    @Test
+    void accessLevelIsCachedUntilChangeTest() {
+        when(userService.getUserAccessLevel(USER_ID)).thenReturn(AccessLevel.TRUSTED.getValue(), AccessLevel.BANNED.getValue());
+        when(chatService.getChatAccessLevel(CHAT_ID)).thenReturn(AccessLevel.FAMILIAR.getValue());
+
+        assertEquals(AccessLevel.TRUSTED, permissionService.getAccessLevel(USER_ID, CHAT_ID));
+        assertEquals(AccessLevel.TRUSTED, permissionService.getAccessLevel(USER_ID, CHAT_ID));
+        verify(userService).getUserAccessLevel(USER_ID);
+        verify(chatService).getChatAccessLevel(CHAT_ID);
+
+        permissionService.onPermissionsChanged(PermissionsChangedEvent.ofUser(USER_ID));
+
+        assertEquals(AccessLevel.BANNED, permissionService.getAccessLevel(USER_ID, CHAT_ID));
+        verify(userService, times(2)).getUserAccessLevel(USER_ID);
+    }
+
+    @Test
+    void chatLevelIsUsedWhenItIsGreaterTest() {
+        when(userService.getUserAccessLevel(USER_ID)).thenReturn(AccessLevel.NEWCOMER.getValue());
+        when(chatService.getChatAccessLevel(CHAT_ID)).thenReturn(AccessLevel.FAMILIAR.getValue(), AccessLevel.MODERATOR.getValue());
+
+        assertEquals(AccessLevel.FAMILIAR, permissionService.getAccessLevel(USER_ID, CHAT_ID));
+        permissionService.onPermissionsChanged(PermissionsChangedEvent.ofChat(CHAT_ID));
+        assertEquals(AccessLevel.MODERATOR, permissionService.getAccessLevel(USER_ID, CHAT_ID));
+    }
+
+    @Test
+    void disabledCommandsAreLoadedOnceTest() {
+        CommandProperties disabledCommand = new CommandProperties().setId(3L).setAccessLevel(AccessLevel.NEWCOMER.getValue());
+        CommandProperties enabledCommand = new CommandProperties().setId(4L).setAccessLevel(AccessLevel.NEWCOMER.getValue());
+        when(disableCommandService.getByChat(any(Chat.class)))
+                .thenReturn(List.of(new DisableCommand().setCommandProperties(disabledCommand)))
+                .thenReturn(List.of());
+        when(userService.getUserAccessLevel(USER_ID)).thenReturn(AccessLevel.NEWCOMER.getValue());
+        when(chatService.getChatAccessLevel(CHAT_ID)).thenReturn(AccessLevel.NEWCOMER.getValue());
+
+        assertTrue(permissionService.isCommandDisabled(CHAT_ID, disabledCommand));
+        assertFalse(permissionService.isCommandDisabled(CHAT_ID, enabledCommand));
+        assertFalse(permissionService.isCommandAllowed(USER_ID, CHAT_ID, disabledCommand));
+        assertTrue(permissionService.isCommandAllowed(USER_ID, CHAT_ID, enabledCommand));
+        verify(disableCommandService).getByChat(any(Chat.class));
+
+        permissionService.onPermissionsChanged(PermissionsChangedEvent.ofDisabledCommands(CHAT_ID));
+
+        assertFalse(permissionService.isCommandDisabled(CHAT_ID, disabledCommand));
+        verify(disableCommandService, times(2)).getByChat(any(Chat.class));
+    }
+
+    @Test
+    void commandWithHigherLevelIsNotAllowedTest() {
+        CommandProperties commandProperties = new CommandProperties().setId(1L).setAccessLevel(AccessLevel.ADMIN.getValue());
+        when(disableCommandService.getByChat(any(Chat.class))).thenReturn(List.of());
+        when(userService.getUserAccessLevel(USER_ID)).thenReturn(AccessLevel.MODERATOR.getValue());
+        when(chatService.getChatAccessLevel(CHAT_ID)).thenReturn(AccessLevel.NEWCOMER.getValue());
+
+        assertFalse(permissionService.isCommandAllowed(USER_ID, CHAT_ID, commandProperties));
+    }
+}
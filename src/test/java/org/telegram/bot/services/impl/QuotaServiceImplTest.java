@@ -0,0 +1,111 @@
+package org.telegram.bot.services.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.bot.domain.MetricsRegistry;
+import org.telegram.bot.domain.entities.WorkParam;
+import org.telegram.bot.domain.enums.ApiQuota;
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.domain.enums.BotSpeechTag;
+import org.telegram.bot.exception.BotException;
+import org.telegram.bot.services.SpeechService;
+import org.telegram.bot.services.WorkParamService;
+import org.telegram.bot.services.config.PropertiesConfig;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuotaServiceImplTest {
+
+    private static final String TOKEN = "token";
+    private static final ZoneId ZONE_ID = ZoneId.of("UTC");
+    private static final Instant NOW = Instant.parse("2023-08-13T10:00:00Z");
+
+    @Mock
+    private WorkParamService workParamService;
+    @Mock
+    private PropertiesConfig propertiesConfig;
+    @Mock
+    private SpeechService speechService;
+
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+
+    @BeforeEach
+    void init() {
+        when(propertiesConfig.getTelegramBotApiToken()).thenReturn(TOKEN);
+        when(propertiesConfig.getRussianPostRequestsLimit()).thenReturn(100);
+    }
+
+    @Test
+    void usageIsRestoredForTheSameDayTest() {
+        when(workParamService.get(eq(TOKEN), anyList())).thenReturn(List.of(
+                new WorkParam(TOKEN, "googleQuota").setValue(LocalDate.ofInstant(NOW, ZONE_ID) + ";95"),
+                new WorkParam(TOKEN, "wolframQuota").setValue("2023-08-12;500")));
+
+        QuotaServiceImpl quotaService = createService(NOW);
+
+        assertEquals(5, quotaService.getRemaining(ApiQuota.GOOGLE));
+        assertEquals(1000, quotaService.getRemaining(ApiQuota.WOLFRAM));
+        assertEquals(5, metricsRegistry.get(BotMetric.GOOGLE_REQUESTS));
+    }
+
+    @Test
+    void minuteQuotaIsCheckedBeforeCallTest() {
+        when(speechService.getRandomMessageByTag(BotSpeechTag.BUSY)).thenReturn("busy");
+        QuotaServiceImpl quotaService = createService(NOW);
+
+        int perMinuteLimit = ApiQuota.GOOGLE.getPerMinuteLimit();
+        IntStream.range(0, perMinuteLimit).forEach(i -> quotaService.reserve(ApiQuota.GOOGLE, (long) i));
+
+        BotException botException = assertThrows(BotException.class, () -> quotaService.reserve(ApiQuota.GOOGLE, 1L));
+        assertEquals("busy", botException.getMessage());
+        assertEquals(1, metricsRegistry.get(BotMetric.QUOTA_REJECTIONS));
+
+        quotaService.release(ApiQuota.GOOGLE, 1L);
+        assertEquals(ApiQuota.GOOGLE.getDailyLimit() - perMinuteLimit + 1, quotaService.getRemaining(ApiQuota.GOOGLE));
+        assertEquals(ApiQuota.GOOGLE.getDailyLimit() - perMinuteLimit + 1, metricsRegistry.get(BotMetric.GOOGLE_REQUESTS));
+    }
+
+    @Test
+    void dailyQuotaIsRenewedNextDayTest() {
+        when(speechService.getRandomMessageByTag(BotSpeechTag.QUOTA_EXCEEDED)).thenReturn("exceeded");
+        when(workParamService.get(eq(TOKEN), anyList())).thenReturn(List.of(
+                new WorkParam(TOKEN, "russianPostQuota").setValue(LocalDate.ofInstant(NOW, ZONE_ID) + ";100")));
+        QuotaServiceImpl quotaService = createService(NOW);
+
+        BotException botException = assertThrows(BotException.class, () -> quotaService.reserve(ApiQuota.RUSSIAN_POST, null));
+        assertEquals("exceeded", botException.getMessage());
+
+        QuotaServiceImpl nextDayQuotaService = createService(NOW.plusSeconds(86400));
+        nextDayQuotaService.reserve(ApiQuota.RUSSIAN_POST, null);
+        nextDayQuotaService.save();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WorkParam>> captor = ArgumentCaptor.forClass(List.class);
+        verify(workParamService).save(captor.capture());
+        WorkParam saved = captor.getValue()
+                .stream()
+                .filter(workParam -> workParam.getName().equals("russianPostQuota"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("2023-08-14;1", saved.getValue());
+    }
+
+    private QuotaServiceImpl createService(Instant now) {
+        return new QuotaServiceImpl(workParamService, propertiesConfig, speechService, metricsRegistry, Clock.fixed(now, ZONE_ID));
+    }
+}
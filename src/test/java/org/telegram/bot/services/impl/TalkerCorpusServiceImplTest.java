@@ -0,0 +1,118 @@
+package org.telegram.bot.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.telegram.bot.domain.TalkerCompactionReport;
+import org.telegram.bot.services.TalkerIndexService;
+import org.telegram.bot.utils.TextUtils;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TalkerCorpusServiceImplTest {
+
+    private static final Long CHAT_ID = -1L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private TalkerIndexService talkerIndexService;
+
+    @InjectMocks
+    private TalkerCorpusServiceImpl talkerCorpusService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compactHashesAndMergesPhrasesTest() throws Exception {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(jdbcTemplate.query(startsWith("SELECT phrase_id, phrase FROM"), any(RowMapper.class)))
+                .thenAnswer(invocation -> List.<Object[]>of(((RowMapper<Object[]>) invocation.getArgument(1)).mapRow(getPhraseResultSet(), 0)));
+        when(jdbcTemplate.query(startsWith("SELECT td.chatid"), any(RowMapper.class))).thenReturn(List.of());
+        doAnswer(invocation -> {
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getLong("phrase_id")).thenReturn(2L);
+            when(resultSet.getLong("keep_id")).thenReturn(1L);
+            when(resultSet.getLong("chatid")).thenReturn(CHAT_ID);
+            when(resultSet.getLong("size")).thenReturn(18L);
+            ((RowCallbackHandler) invocation.getArgument(1)).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT tp.phrase_id, tp.chatid"), any(RowCallbackHandler.class));
+        when(jdbcTemplate.update(startsWith("DELETE FROM talkerwordphrase"))).thenReturn(3, 1);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COALESCE"), eq(Long.class))).thenReturn(10L);
+        when(jdbcTemplate.update(startsWith("DELETE FROM bot.talkerword"))).thenReturn(2);
+
+        TalkerCompactionReport report = talkerCorpusService.compact();
+
+        ArgumentCaptor<List<Object[]>> hashesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE bot.talkerphrase SET hash"), hashesCaptor.capture());
+        assertArrayEquals(new Object[] {TextUtils.getPhraseHash("нормально"), 1L}, hashesCaptor.getValue().get(0));
+
+        ArgumentCaptor<List<Object[]>> movedPairsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE talkerwordphrase"), movedPairsCaptor.capture());
+        assertArrayEquals(new Object[] {1L, 2L}, movedPairsCaptor.getValue().get(0));
+        verify(jdbcTemplate).batchUpdate(startsWith("DELETE FROM bot.talkerphrase"), anyList());
+
+        assertEquals(1, report.getHashedPhrases());
+        assertEquals(1, report.getMergedPhrases());
+        assertEquals(0, report.getPrunedPhrases());
+        assertEquals(4, report.getDeletedPairs());
+        assertEquals(2, report.getDeletedWords());
+        assertEquals(28, report.getReclaimedBytes());
+        verify(talkerIndexService).invalidate(CHAT_ID);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compactPrunesPhrasesOverLimitTest() {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(jdbcTemplate.query(startsWith("SELECT phrase_id, phrase FROM"), any(RowMapper.class))).thenReturn(List.of());
+        when(jdbcTemplate.query(startsWith("SELECT td.chatid"), any(RowMapper.class)))
+                .thenReturn(List.<Object[]>of(new Object[] {CHAT_ID, 1L}));
+        doNothing().when(jdbcTemplate).query(startsWith("SELECT tp.phrase_id, tp.chatid"), any(RowCallbackHandler.class));
+        lenient().doAnswer(invocation -> {
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getLong("phrase_id")).thenReturn(5L);
+            when(resultSet.getLong("size")).thenReturn(8L);
+            ((RowCallbackHandler) invocation.getArgument(1)).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT tp.phrase_id, OCTET_LENGTH"), any(RowCallbackHandler.class), eq(CHAT_ID), eq(1L));
+
+        TalkerCompactionReport report = talkerCorpusService.compact();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("DELETE FROM talkerwordphrase WHERE phrase_id"), anyList());
+        verify(jdbcTemplate).batchUpdate(startsWith("DELETE FROM bot.talkerphrase"), anyList());
+        assertEquals(1, report.getPrunedPhrases());
+        assertEquals(8, report.getReclaimedBytes());
+        verify(talkerIndexService).invalidate(CHAT_ID);
+    }
+
+    private static ResultSet getPhraseResultSet() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString("phrase")).thenReturn("Нормально");
+        when(resultSet.getLong("phrase_id")).thenReturn(1L);
+        return resultSet;
+    }
+}
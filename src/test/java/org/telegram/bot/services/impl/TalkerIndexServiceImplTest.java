@@ -0,0 +1,74 @@
+package org.telegram.bot.services.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TalkerIndexServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2023-08-20T10:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private Clock clock;
+
+    private TalkerIndexServiceImpl talkerIndexService;
+
+    @BeforeEach
+    void init() {
+        talkerIndexService = new TalkerIndexServiceImpl(jdbcTemplate, clock);
+    }
+
+    @Test
+    void indexIsLoadedOnceTest() {
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+
+        talkerIndexService.ratePhrases(1L, List.of("как"), phrase -> true);
+        talkerIndexService.ratePhrases(1L, List.of("дела"), phrase -> true);
+
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), eq(1L));
+    }
+
+    @Test
+    void idleIndexIsEvictedTest() {
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+        talkerIndexService.ratePhrases(1L, List.of("как"), phrase -> true);
+
+        when(clock.millis()).thenReturn(NOW.plus(Duration.ofHours(7)).toEpochMilli());
+        talkerIndexService.ratePhrases(2L, List.of("как"), phrase -> true);
+        talkerIndexService.ratePhrases(1L, List.of("как"), phrase -> true);
+
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), eq(1L));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), eq(2L));
+    }
+
+    @Test
+    void leastRecentlyRequestedIndexIsEvictedOnOverflowTest() {
+        for (long chatId = 1; chatId <= 101; chatId++) {
+            when(clock.millis()).thenReturn(NOW.plusSeconds(chatId).toEpochMilli());
+            talkerIndexService.ratePhrases(chatId, List.of("как"), phrase -> true);
+        }
+
+        talkerIndexService.ratePhrases(2L, List.of("как"), phrase -> true);
+        talkerIndexService.ratePhrases(1L, List.of("как"), phrase -> true);
+
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), eq(1L));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), eq(2L));
+    }
+}
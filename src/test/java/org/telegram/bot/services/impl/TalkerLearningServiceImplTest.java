@@ -0,0 +1,149 @@
+package org.telegram.bot.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.telegram.bot.domain.entities.TalkerPhrase;
+import org.telegram.bot.services.TalkerIndexService;
+import org.telegram.bot.utils.TextUtils;
+
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TalkerLearningServiceImplTest {
+
+    private static final Long CHAT_ID = -1L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private TalkerIndexService talkerIndexService;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> wordsCaptor;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> phrasesCaptor;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> pairsCaptor;
+    @Captor
+    private ArgumentCaptor<Collection<TalkerPhrase>> indexedCaptor;
+
+    private TalkerLearningServiceImpl talkerLearningService;
+
+    @BeforeEach
+    void init() {
+        talkerLearningService = new TalkerLearningServiceImpl(jdbcTemplate, transactionTemplate, talkerIndexService);
+    }
+
+    @AfterEach
+    void shutdown() {
+        talkerLearningService.shutdown();
+    }
+
+    @Test
+    void learnDoesNotWriteToDatabaseTest() {
+        talkerLearningService.learn(CHAT_ID, List.of("как"), List.of("нормально"));
+        verifyNoInteractions(jdbcTemplate, talkerIndexService);
+    }
+
+    @Test
+    void lessonsAreDeduplicatedAndStoredByBatchTest() {
+        doAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        when(jdbcTemplate.query(startsWith("SELECT word_id, word"), any(Object[].class), anyRowMapper()))
+                .thenReturn(List.of(Map.entry("КАК", 1L)))
+                .thenReturn(List.of(Map.entry("ДЕЛА", 2L)));
+        when(jdbcTemplate.query(startsWith("SELECT phrase_id, hash"), any(Object[].class), anyRowMapper()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(Map.entry(TextUtils.getPhraseHash("нормально"), 10L)));
+        when(jdbcTemplate.query(startsWith("SELECT word_id, phrase_id"), any(Object[].class), anyRowMapper()))
+                .thenReturn(List.of());
+
+        talkerLearningService.learn(CHAT_ID, List.of("как", "дела"), List.of("нормально"));
+        talkerLearningService.learn(CHAT_ID, List.of("Как"), List.of("Нормально"));
+        talkerLearningService.flush();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO bot.talkerword"), wordsCaptor.capture());
+        assertEquals(1, wordsCaptor.getValue().size());
+        assertEquals("дела", wordsCaptor.getValue().get(0)[0]);
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO bot.talkerphrase"), phrasesCaptor.capture());
+        assertEquals(1, phrasesCaptor.getValue().size());
+        assertArrayEquals(new Object[] {"нормально", CHAT_ID, TextUtils.getPhraseHash("нормально")}, phrasesCaptor.getValue().get(0));
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO talkerwordphrase"), pairsCaptor.capture());
+        assertEquals(2, pairsCaptor.getValue().size());
+        assertArrayEquals(new Object[] {1L, 10L}, pairsCaptor.getValue().get(0));
+        assertArrayEquals(new Object[] {2L, 10L}, pairsCaptor.getValue().get(1));
+
+        verify(talkerIndexService, times(2)).add(eq(CHAT_ID), anyCollection(), indexedCaptor.capture());
+        TalkerPhrase indexed = indexedCaptor.getValue().iterator().next();
+        assertEquals(10L, indexed.getId());
+        assertEquals("нормально", indexed.getPhrase());
+    }
+
+    @Test
+    void storedPairsAreNotInsertedAgainTest() {
+        doAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        when(jdbcTemplate.query(startsWith("SELECT word_id, word"), any(Object[].class), anyRowMapper()))
+                .thenReturn(List.of(Map.entry("КАК", 1L)));
+        when(jdbcTemplate.query(startsWith("SELECT phrase_id, hash"), any(Object[].class), anyRowMapper()))
+                .thenReturn(List.of(Map.entry(TextUtils.getPhraseHash("нормально"), 10L)));
+        when(jdbcTemplate.query(startsWith("SELECT word_id, phrase_id"), any(Object[].class), anyRowMapper()))
+                .thenAnswer(invocation -> List.of(newPair(invocation.getArgument(2))));
+
+        talkerLearningService.learn(CHAT_ID, List.of("как"), List.of("нормально"));
+        talkerLearningService.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void duplicatedPhraseIsResolvedToLowestIdTest() {
+        String hash = TextUtils.getPhraseHash("нормально");
+        doAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        when(jdbcTemplate.query(startsWith("SELECT word_id, word"), any(Object[].class), anyRowMapper()))
+                .thenReturn(List.of(Map.entry("КАК", 1L)));
+        when(jdbcTemplate.query(startsWith("SELECT phrase_id, hash"), any(Object[].class), anyRowMapper()))
+                .thenReturn(List.of(Map.entry(hash, 10L), Map.entry(hash, 12L)));
+        when(jdbcTemplate.query(startsWith("SELECT word_id, phrase_id"), any(Object[].class), anyRowMapper()))
+                .thenReturn(List.of());
+
+        talkerLearningService.learn(CHAT_ID, List.of("как"), List.of("нормально"));
+        talkerLearningService.flush();
+
+        verify(jdbcTemplate).query(endsWith("ORDER BY phrase_id"), any(Object[].class), anyRowMapper());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO talkerwordphrase"), pairsCaptor.capture());
+        assertArrayEquals(new Object[] {1L, 10L}, pairsCaptor.getValue().get(0));
+    }
+
+    private static Object newPair(RowMapper<?> rowMapper) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("word_id")).thenReturn(1L);
+        when(resultSet.getLong("phrase_id")).thenReturn(10L);
+        return rowMapper.mapRow(resultSet, 0);
+    }
+
+    private static <T> RowMapper<T> anyRowMapper() {
+        return any();
+    }
+}
@@ -0,0 +1,96 @@
+package org.telegram.bot.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.telegram.bot.domain.UserStatsDeltas;
+import org.telegram.bot.domain.enums.UserStatsCounter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.telegram.bot.TestUtils.DEFAULT_CHAT_ID;
+import static org.telegram.bot.TestUtils.DEFAULT_USER_ID;
+
+@ExtendWith(MockitoExtension.class)
+class UserActivityServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private UserActivityServiceImpl userActivityService;
+
+    @Test
+    void addWritesNonZeroCountersToHourlyBucketTest() throws SQLException {
+        final LocalDateTime dateTime = LocalDateTime.of(2023, 8, 20, 10, 42, 13);
+        UserStatsDeltas userStatsDeltas = new UserStatsDeltas();
+        userStatsDeltas.add(DEFAULT_CHAT_ID, DEFAULT_USER_ID, UserStatsCounter.MESSAGES, 3);
+        userStatsDeltas.add(DEFAULT_CHAT_ID, DEFAULT_USER_ID, UserStatsCounter.KARMA, -1);
+
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenReturn(new int[] {1, 0});
+
+        userActivityService.add(userStatsDeltas.drain(), dateTime);
+
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<BatchPreparedStatementSetter> setterCaptor = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(sqlCaptor.capture(), setterCaptor.capture());
+        assertTrue(sqlCaptor.getAllValues().get(0).startsWith("UPDATE"));
+        assertTrue(sqlCaptor.getAllValues().get(1).startsWith("INSERT"));
+        assertEquals(2, setterCaptor.getAllValues().get(0).getBatchSize());
+
+        BatchPreparedStatementSetter insertSetter = setterCaptor.getAllValues().get(1);
+        assertEquals(1, insertSetter.getBatchSize());
+        PreparedStatement statement = mock(PreparedStatement.class);
+        insertSetter.setValues(statement, 0);
+        verify(statement).setLong(1, -1L);
+        verify(statement).setString(3, UserStatsCounter.KARMA.name());
+        verify(statement).setTimestamp(4, Timestamp.valueOf(LocalDateTime.of(2023, 8, 20, 10, 0)));
+        verify(statement).setString(6, "HOUR");
+    }
+
+    @Test
+    void addWithoutChangesTest() {
+        userActivityService.add(List.of(), LocalDateTime.now());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void rollUpWithoutHourlyBucketsTest() {
+        when(jdbcTemplate.query(anyString(), anyRowMapper(), any(Timestamp.class))).thenReturn(List.of());
+
+        assertEquals(0, userActivityService.rollUp(LocalDateTime.now()));
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Timestamp.class));
+    }
+
+    @Test
+    void getTopTest() {
+        final LocalDateTime from = LocalDateTime.of(2023, 8, 14, 0, 0);
+        final LocalDateTime to = LocalDateTime.of(2023, 8, 21, 0, 0);
+
+        userActivityService.getTop(DEFAULT_CHAT_ID, UserStatsCounter.MESSAGES, from, to, 30);
+
+        verify(jdbcTemplate).query(
+                anyString(), anyRowMapper(),
+                eq(DEFAULT_CHAT_ID), eq("MESSAGES"), eq(Timestamp.valueOf(from)), eq(Timestamp.valueOf(to)), eq(30));
+    }
+
+    private static <T> RowMapper<T> anyRowMapper() {
+        return any();
+    }
+}
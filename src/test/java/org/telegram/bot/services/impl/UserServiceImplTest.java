@@ -0,0 +1,107 @@
+package org.telegram.bot.services.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.telegram.bot.domain.MetricsRegistry;
+import org.telegram.bot.domain.entities.User;
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.domain.events.PermissionsChangedEvent;
+import org.telegram.bot.repositories.UserRepository;
+import org.telegram.bot.services.ChatService;
+
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceImplTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ChatService chatService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void init() {
+        userService = new UserServiceImpl(userRepository, chatService, eventPublisher, metricsRegistry, Clock.systemUTC());
+    }
+
+    @Test
+    void userIsReadFromDatabaseOnceTest() {
+        User user = new User().setUserId(USER_ID).setUsername("username");
+        when(userRepository.findByUserId(USER_ID)).thenReturn(user);
+
+        assertUser(user, userService.get(USER_ID));
+        assertUser(user, userService.get(USER_ID));
+        assertUser(user, userService.get(USER_ID));
+
+        verify(userRepository).findByUserId(USER_ID);
+        assertEquals(2, metricsRegistry.get(BotMetric.USER_CACHE_HITS));
+        assertEquals(1, metricsRegistry.get(BotMetric.USER_CACHE_MISSES));
+    }
+
+    @Test
+    void userIsFoundByUsernameOnceTest() {
+        User user = new User().setUserId(USER_ID).setUsername("username");
+        when(userRepository.findByUsername("username")).thenReturn(user);
+
+        assertUser(user, userService.get("@username"));
+        assertUser(user, userService.get("username"));
+        assertUser(user, userService.get(USER_ID));
+
+        verify(userRepository).findByUsername("username");
+        verify(userRepository, never()).findByUserId(any());
+        assertEquals(1, metricsRegistry.get(BotMetric.USERNAME_CACHE_HITS));
+        assertEquals(1, metricsRegistry.get(BotMetric.USERNAME_CACHE_MISSES));
+        assertEquals(3, metricsRegistry.get(BotMetric.USER_CACHE_HITS));
+        assertEquals(0, metricsRegistry.get(BotMetric.USER_CACHE_MISSES));
+    }
+
+    @Test
+    void savedUserIsCachedTest() {
+        User user = new User().setUserId(USER_ID).setUsername("username");
+        when(userRepository.findByUsername("username")).thenReturn(user, (User) null);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        assertUser(user, userService.get("username"));
+
+        User renamedUser = userService.save(new User().setUserId(USER_ID).setUsername("renamed"));
+
+        assertUser(renamedUser, userService.get(USER_ID));
+        assertUser(renamedUser, userService.get("renamed"));
+        assertNull(userService.get("username"));
+        verify(userRepository, never()).findByUserId(any());
+        verify(userRepository, never()).findByUsername("renamed");
+        verify(eventPublisher).publishEvent(PermissionsChangedEvent.ofUser(USER_ID));
+    }
+
+    @Test
+    void cachedUserIsNotSharedTest() {
+        User user = new User().setUserId(USER_ID).setUsername("username").setAccessLevel(1);
+        when(userRepository.findByUserId(USER_ID)).thenReturn(user);
+
+        userService.get(USER_ID).setAccessLevel(10);
+        user.setAccessLevel(5);
+
+        assertEquals(1, userService.get(USER_ID).getAccessLevel());
+    }
+
+    private void assertUser(User expected, User actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getUserId(), actual.getUserId());
+        assertEquals(expected.getUsername(), actual.getUsername());
+        assertEquals(expected.getAccessLevel(), actual.getAccessLevel());
+    }
+}
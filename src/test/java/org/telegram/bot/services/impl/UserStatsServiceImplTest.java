@@ -0,0 +1,301 @@
+package org.telegram.bot.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.telegram.bot.Bot;
+import org.telegram.bot.domain.UpdateContext;
+import org.telegram.bot.domain.UserActivityTotal;
+import org.telegram.bot.domain.entities.Chat;
+import org.telegram.bot.domain.entities.LastMessage;
+import org.telegram.bot.domain.entities.User;
+import org.telegram.bot.domain.entities.UserStats;
+import org.telegram.bot.domain.enums.UserStatsCounter;
+import org.telegram.bot.domain.enums.UserStatsPeriod;
+import org.telegram.bot.repositories.UserStatsRepository;
+import org.telegram.bot.services.ChatService;
+import org.telegram.bot.services.LastMessageService;
+import org.telegram.bot.services.UserActivityService;
+import org.telegram.bot.services.UserService;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.telegram.bot.TestUtils.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatsServiceImplTest {
+    @Mock
+    private UserStatsRepository userStatsRepository;
+    @Mock
+    private UserService userService;
+    @Mock
+    private ChatService chatService;
+    @Mock
+    private LastMessageService lastMessageService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private UserActivityService userActivityService;
+
+    @InjectMocks
+    private UserStatsServiceImpl userStatsService;
+
+    @Test
+    void updateEntitiesInfoSavesEveryUserAndChatOnceTest() {
+        List<UpdateContext> updateContexts = Stream.of("first", "second", "third")
+                .map(text -> {
+                    Update update = getUpdateFromGroup(text);
+                    update.getMessage().getFrom().setUserName("renamed");
+                    update.getMessage().getChat().setTitle("chat");
+                    return getUpdateContext(update);
+                })
+                .collect(Collectors.toList());
+
+        when(userService.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(chatService.save(any(Chat.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userStatsService.updateEntitiesInfo(updateContexts);
+
+        verify(userService).save(any(User.class));
+        verify(chatService).save(any(Chat.class));
+        User user = updateContexts.get(0).getUser();
+        assertEquals("renamed", user.getUsername());
+        updateContexts.forEach(updateContext -> {
+            assertSame(user, updateContext.getUser());
+            assertEquals("chat", updateContext.getChat().getName());
+        });
+    }
+
+    @Test
+    void updateUserStatsDoesNotWriteToDatabaseTest() {
+        userStatsService.updateUserStats(List.of(getGroupUpdateContext("first")));
+        verifyNoInteractions(userStatsRepository, jdbcTemplate, lastMessageService);
+    }
+
+    @Test
+    void flushWritesDeltasInBatchTest() throws SQLException {
+        Message editedMessage = getMessage();
+        editedMessage.setText("edited");
+        Update editedUpdate = new Update();
+        editedUpdate.setEditedMessage(editedMessage);
+        UpdateContext secondUpdateContext = getGroupUpdateContext("second");
+        List<UpdateContext> updateContexts = List.of(getGroupUpdateContext("first"), getUpdateContext(editedUpdate), secondUpdateContext);
+
+        mockTransaction();
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenReturn(new int[] {1});
+
+        userStatsService.updateUserStats(updateContexts);
+        userStatsService.incrementUserStatsCommands(new Chat().setChatId(DEFAULT_CHAT_ID), new User().setUserId(DEFAULT_USER_ID));
+        userStatsService.flush();
+
+        ArgumentCaptor<BatchPreparedStatementSetter> setterCaptor = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), setterCaptor.capture());
+
+        BatchPreparedStatementSetter countersSetter = setterCaptor.getAllValues().get(0);
+        assertEquals(1, countersSetter.getBatchSize());
+        PreparedStatement countersStatement = mock(PreparedStatement.class);
+        countersSetter.setValues(countersStatement, 0);
+        // messages: monthly, daily and all
+        verify(countersStatement).setLong(1, 2L);
+        verify(countersStatement).setLong(2, 2L);
+        verify(countersStatement).setLong(3, 2L);
+        // commands
+        int commandsIndex = UserStatsCounter.COMMANDS.ordinal() * 3 + 1;
+        verify(countersStatement).setLong(commandsIndex, 1L);
+        verify(countersStatement).setLong(UserStatsCounter.values().length * 3 + 1, DEFAULT_CHAT_ID);
+        verify(countersStatement).setLong(UserStatsCounter.values().length * 3 + 2, DEFAULT_USER_ID);
+
+        PreparedStatement lastMessageStatement = mock(PreparedStatement.class);
+        setterCaptor.getAllValues().get(1).setValues(lastMessageStatement, 0);
+        verify(lastMessageStatement).setObject(1, secondUpdateContext.getMessage().getMessageId());
+        verify(lastMessageStatement).setString(2, "second");
+
+        verify(userStatsRepository, never()).saveAll(anyList());
+        verify(userActivityService).add(anyList(), any(LocalDateTime.class));
+
+        userStatsService.flush();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    void flushCreatesAbsentUserStatsTest() {
+        Chat chat = new Chat().setChatId(DEFAULT_CHAT_ID);
+        User user = new User().setUserId(DEFAULT_USER_ID);
+        User anotherUser = new User().setUserId(DEFAULT_USER_ID + 1);
+
+        mockTransaction();
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenReturn(new int[] {0, 0, 0});
+        when(chatService.get(DEFAULT_CHAT_ID)).thenReturn(chat);
+        when(userService.get(anyLong())).thenAnswer(invocation -> anotherUser.getUserId().equals(invocation.getArgument(0)) ? anotherUser : null);
+        when(lastMessageService.save(any(LastMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userStatsService.changeKarma(chat, user, anotherUser, -1);
+        userStatsService.changeKarma(chat, new User().setUserId(DEFAULT_USER_ID + 2), anotherUser, -1);
+
+        userStatsService.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserStats>> userStatsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userStatsRepository).saveAll(userStatsCaptor.capture());
+        List<UserStats> savedUserStats = userStatsCaptor.getValue();
+        // authors of karma change are not stored
+        assertEquals(1, savedUserStats.size());
+        UserStats userStats = savedUserStats.get(0);
+        assertSame(anotherUser, userStats.getUser());
+        assertEquals(-2, userStats.getNumberOfKarma());
+        assertEquals(-2L, userStats.getNumberOfAllKarma());
+        assertEquals(0, userStats.getNumberOfMessages());
+        assertNotNull(userStats.getLastMessage());
+    }
+
+    @Test
+    void flushPostponesDeltasOfUnknownUserTest() {
+        Chat chat = new Chat().setChatId(DEFAULT_CHAT_ID);
+        User user = new User().setUserId(DEFAULT_USER_ID);
+
+        mockTransaction();
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenReturn(new int[] {0});
+        when(chatService.get(DEFAULT_CHAT_ID)).thenReturn(chat);
+        when(userService.get(DEFAULT_USER_ID)).thenReturn(null).thenReturn(user);
+        when(lastMessageService.save(any(LastMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userStatsService.incrementUserStatsCommands(chat, user);
+        userStatsService.flush();
+
+        verify(userStatsRepository, never()).saveAll(anyList());
+        verify(userActivityService).add(eq(List.of()), any(LocalDateTime.class));
+
+        userStatsService.incrementUserStatsCommands(chat, user);
+        userStatsService.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserStats>> userStatsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userStatsRepository).saveAll(userStatsCaptor.capture());
+        assertEquals(1, userStatsCaptor.getValue().size());
+        assertEquals(2, userStatsCaptor.getValue().get(0).getNumberOfCommands());
+    }
+
+    @Test
+    void failedFlushKeepsDeltasTest() {
+        Chat chat = new Chat().setChatId(DEFAULT_CHAT_ID);
+        User user = new User().setUserId(DEFAULT_USER_ID);
+
+        mockTransaction();
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[] {1});
+
+        userStatsService.incrementUserStatsCommands(chat, user);
+        assertThrows(QueryTimeoutException.class, () -> userStatsService.flush());
+
+        userStatsService.incrementUserStatsCommands(chat, user);
+        userStatsService.flush();
+
+        ArgumentCaptor<BatchPreparedStatementSetter> setterCaptor = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), setterCaptor.capture());
+        assertEquals(1, setterCaptor.getValue().getBatchSize());
+    }
+
+    @Test
+    void clearDailyStatsResetsCountersByOneQueryTest() {
+        mockTransaction();
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenReturn(new int[] {1});
+
+        userStatsService.incrementUserStatsCommands(new Chat().setChatId(DEFAULT_CHAT_ID), new User().setUserId(DEFAULT_USER_ID));
+        userStatsService.clearDailyStats();
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        inOrder.verify(jdbcTemplate).update(sqlCaptor.capture());
+
+        String sql = sqlCaptor.getValue();
+        Stream.of(UserStatsCounter.values()).forEach(counter -> assertTrue(sql.contains(counter.getPerDayColumn() + " = 0")));
+        assertFalse(sql.contains(UserStatsCounter.MESSAGES.getColumn() + " = 0"));
+        assertTrue(sql.endsWith("WHERE chatid < -1"));
+        verify(userStatsRepository, never()).findByChatChatIdLessThan(anyLong());
+        verify(userStatsRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void clearMonthlyStatsResetsCountersByOneQueryTest() {
+        when(chatService.getAllGroups()).thenReturn(List.of());
+
+        assertTrue(userStatsService.clearMonthlyStats(mock(Bot.class)).isEmpty());
+
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(sqlCaptor.capture());
+        String sql = sqlCaptor.getValue();
+        Stream.of(UserStatsCounter.values()).forEach(counter -> assertTrue(sql.contains(counter.getColumn() + " = 0")));
+        assertFalse(sql.contains("perday"));
+        verify(userStatsRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void topIsUpdatedByFlushedDeltasTest() {
+        Chat chat = new Chat().setChatId(DEFAULT_CHAT_ID);
+        User user = new User().setUserId(DEFAULT_USER_ID);
+        User anotherUser = new User().setUserId(DEFAULT_USER_ID + 1);
+
+        mockTransaction();
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenReturn(new int[] {1, 1});
+
+        assertTrue(userStatsService.getTop(chat, UserStatsCounter.KARMA, UserStatsPeriod.MONTH, 30).isEmpty());
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(DEFAULT_CHAT_ID));
+
+        userStatsService.changeKarma(chat, user, anotherUser, 1);
+        userStatsService.changeKarma(chat, anotherUser, user, -1);
+        userStatsService.changeKarma(chat, user, anotherUser, 1);
+
+        List<UserActivityTotal> top = userStatsService.getTop(chat, UserStatsCounter.KARMA, UserStatsPeriod.ALL, 30);
+        assertEquals(2, top.size());
+        assertEquals(anotherUser.getUserId(), top.get(0).getUserId());
+        assertEquals(2, top.get(0).getValue());
+        assertEquals(user.getUserId(), top.get(1).getUserId());
+        assertEquals(-1, top.get(1).getValue());
+        assertEquals(1, userStatsService.getPosition(chat, user, UserStatsCounter.GOODNESS, UserStatsPeriod.DAY));
+
+        // leaderboards of chat are loaded once
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(DEFAULT_CHAT_ID));
+    }
+
+    private UpdateContext getGroupUpdateContext(String text) {
+        Update update = getUpdateFromGroup(text);
+        update.getMessage().setDate((int) Instant.now().getEpochSecond());
+        return getUpdateContext(update);
+    }
+
+    private void mockTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> action = invocation.getArgument(0);
+            return action.doInTransaction(null);
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package org.telegram.bot.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPriorityExecutorTest {
+
+    private final BoundedPriorityExecutor executor = new BoundedPriorityExecutor(1, 4, "test-command-");
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void tasksAreExecutedInOrderOfPriorityTest() throws InterruptedException {
+        CountDownLatch blocker = blockWorker();
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(4);
+
+        List.of(0, 10, 0, 5).forEach(priority -> assertTrue(executor.execute(priority, () -> {
+            executed.add(priority);
+            latch.countDown();
+        }, null)));
+        blocker.countDown();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(10, 5, 0, 0), executed);
+    }
+
+    @Test
+    void lowPriorityTasksAreShedWhenQueueIsHalfFullTest() throws InterruptedException {
+        CountDownLatch blocker = blockWorker();
+
+        assertTrue(executor.execute(-1, () -> {}, null));
+        assertTrue(executor.execute(0, () -> {}, null));
+        assertFalse(executor.execute(-1, () -> {}, null));
+        assertTrue(executor.execute(0, () -> {}, null));
+
+        assertEquals(3, executor.getQueuedTasksCount());
+        assertEquals(1, executor.getRejectedTasksCount());
+        blocker.countDown();
+    }
+
+    @Test
+    void fullQueueDisplacesTaskWithLowestPriorityTest() throws InterruptedException {
+        CountDownLatch blocker = blockWorker();
+        AtomicInteger displaced = new AtomicInteger();
+
+        assertTrue(executor.execute(-1, () -> {}, displaced::incrementAndGet));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(executor.execute(0, () -> {}, null));
+        }
+
+        assertTrue(executor.execute(0, () -> {}, null));
+        assertFalse(executor.execute(0, () -> {}, null));
+
+        assertEquals(1, displaced.get());
+        assertEquals(1, executor.getDisplacedTasksCount());
+        assertEquals(1, executor.getRejectedTasksCount());
+        assertEquals(4, executor.getQueuedTasksCount());
+        blocker.countDown();
+    }
+
+    private CountDownLatch blockWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+
+        executor.execute(0, () -> {
+            started.countDown();
+            await(blocker);
+        }, null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        return blocker;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.telegram.bot.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatLaneExecutorTest {
+
+    private final ChatLaneExecutor chatLaneExecutor = new ChatLaneExecutor(4, 10, "test-lane-");
+
+    @AfterEach
+    void shutdown() {
+        chatLaneExecutor.shutdown();
+    }
+
+    @Test
+    void tasksOfChatAreExecutedInOrderTest() throws InterruptedException {
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(10);
+
+        for (int i = 0; i < 10; i++) {
+            int number = i;
+            assertTrue(chatLaneExecutor.execute(-1L, () -> {
+                sleep(number % 2 == 0 ? 5 : 0);
+                executed.add(number);
+                latch.countDown();
+            }));
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), executed);
+    }
+
+    @Test
+    void differentChatsAreExecutedInParallelTest() throws InterruptedException {
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch anotherChatLatch = new CountDownLatch(1);
+
+        chatLaneExecutor.execute(-1L, () -> await(blocker));
+        chatLaneExecutor.execute(-2L, anotherChatLatch::countDown);
+
+        assertTrue(anotherChatLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, chatLaneExecutor.getQueueDepth(-2L));
+        blocker.countDown();
+    }
+
+    @Test
+    void fullMailboxRejectsTasksTest() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+
+        chatLaneExecutor.execute(-1L, () -> {
+            started.countDown();
+            await(blocker);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(chatLaneExecutor.execute(-1L, () -> {}));
+        }
+        assertFalse(chatLaneExecutor.execute(-1L, () -> {}));
+
+        assertEquals(10, chatLaneExecutor.getQueueDepth(-1L));
+        assertEquals(10, chatLaneExecutor.getMaxQueueDepth());
+        assertEquals(1, chatLaneExecutor.getRejectedTasksCount());
+        blocker.countDown();
+    }
+
+    @Test
+    void removeIdleLanesTest() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        chatLaneExecutor.execute(-1L, latch::countDown);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 100 && chatLaneExecutor.getLanesCount() > 0; i++) {
+            chatLaneExecutor.removeIdleLanes();
+            sleep(10);
+        }
+
+        assertEquals(0, chatLaneExecutor.getLanesCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
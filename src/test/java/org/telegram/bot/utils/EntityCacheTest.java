@@ -0,0 +1,108 @@
+package org.telegram.bot.utils;
+
+import org.junit.jupiter.api.Test;
+import org.telegram.bot.domain.MetricsRegistry;
+import org.telegram.bot.domain.enums.BotMetric;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EntityCacheTest {
+
+    private static final Instant NOW = Instant.parse("2023-08-13T10:00:00Z");
+
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+    private final Clock clock = mock(Clock.class);
+    private final EntityCache<Long, String> cache = new EntityCache<>(
+            2, Duration.ofMinutes(1), clock, metricsRegistry, BotMetric.USER_CACHE_HITS, BotMetric.USER_CACHE_MISSES);
+
+    @Test
+    void valueIsLoadedOnceTest() {
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, String> loader = key -> {
+            loads.incrementAndGet();
+            return "value" + key;
+        };
+
+        assertEquals("value1", cache.get(1L, loader));
+        assertEquals("value1", cache.get(1L, loader));
+        assertNull(cache.get(2L, key -> null));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, metricsRegistry.get(BotMetric.USER_CACHE_HITS));
+        assertEquals(2, metricsRegistry.get(BotMetric.USER_CACHE_MISSES));
+    }
+
+    @Test
+    void entryExpiresTest() {
+        when(clock.millis()).thenReturn(NOW.toEpochMilli(), NOW.toEpochMilli(), NOW.plusSeconds(61).toEpochMilli());
+
+        cache.put(1L, "value");
+        assertEquals("value", cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedTest() {
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+
+        cache.put(1L, "first");
+        cache.put(2L, "second");
+        cache.getIfPresent(1L);
+        cache.put(3L, "third");
+
+        assertEquals("first", cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(2L));
+        assertEquals("third", cache.getIfPresent(3L));
+    }
+
+    @Test
+    void loadedValueDoesNotReplaceValuePutWhileLoadingTest() {
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+
+        String value = cache.get(1L, key -> {
+            cache.put(key, "saved");
+            return "stale";
+        });
+
+        assertEquals("saved", value);
+        assertEquals("saved", cache.getIfPresent(1L));
+    }
+
+    @Test
+    void loadedValueIsNotCachedAfterInvalidationWhileLoadingTest() {
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+
+        String value = cache.get(1L, key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertEquals("stale", value);
+        assertNull(cache.getIfPresent(1L));
+    }
+
+    @Test
+    void mutableValueIsCopiedTest() {
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+        EntityCache<Long, StringBuilder> mutableCache = new EntityCache<>(
+                2, Duration.ofMinutes(1), clock, metricsRegistry, BotMetric.USER_CACHE_HITS, BotMetric.USER_CACHE_MISSES,
+                value -> new StringBuilder(value));
+
+        StringBuilder value = new StringBuilder("value");
+        mutableCache.put(1L, value);
+        value.append(" changed");
+        mutableCache.getIfPresent(1L).append(" changed");
+
+        assertEquals("value", mutableCache.getIfPresent(1L).toString());
+    }
+}
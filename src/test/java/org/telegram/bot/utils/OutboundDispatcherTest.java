@@ -0,0 +1,152 @@
+package org.telegram.bot.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.bot.domain.enums.OutboundPriority;
+import org.telegram.telegrambots.meta.api.objects.ResponseParameters;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboundDispatcherTest {
+
+    private static final Long PRIVATE_CHAT_ID = 1L;
+    private static final Long GROUP_CHAT_ID = -1L;
+
+    private final OutboundDispatcher dispatcher = new OutboundDispatcher(100, 1, 100, 1, "test-outbound-");
+
+    @AfterEach
+    void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void messagesOfChatAreSentInOrderOfPriorityTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> response = new CompletableFuture<>();
+        List<String> sent = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<String> first = dispatcher.submit(PRIVATE_CHAT_ID, OutboundPriority.BROADCAST, () -> {
+            started.countDown();
+            return response.thenApply(value -> add(sent, value));
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        dispatcher.submit(PRIVATE_CHAT_ID, OutboundPriority.BROADCAST, () -> send(sent, "broadcast"));
+        dispatcher.submit(PRIVATE_CHAT_ID, OutboundPriority.NOTIFICATION, () -> send(sent, "notification"));
+        CompletableFuture<String> last = dispatcher.submit(PRIVATE_CHAT_ID, OutboundPriority.INTERACTIVE, () -> send(sent, "interactive"));
+        response.complete("first");
+
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        last.get(5, TimeUnit.SECONDS);
+        dispatcher.submit(PRIVATE_CHAT_ID, OutboundPriority.BROADCAST, () -> send(sent, "last")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("first", "interactive", "notification", "broadcast", "last"), sent);
+        assertEquals(5, dispatcher.getSentMessagesCount());
+    }
+
+    @Test
+    void messagesToGroupAreThrottledTest() throws Exception {
+        assertEquals("first", dispatcher.submit(GROUP_CHAT_ID, OutboundPriority.INTERACTIVE, () -> CompletableFuture.completedFuture("first")).get(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> second = dispatcher.submit(GROUP_CHAT_ID, OutboundPriority.INTERACTIVE, () -> CompletableFuture.completedFuture("second"));
+        assertThrows(TimeoutException.class, () -> second.get(300, TimeUnit.MILLISECONDS));
+        assertEquals(1, dispatcher.getQueuedMessagesCount());
+
+        assertEquals("other", dispatcher.execute(PRIVATE_CHAT_ID, OutboundPriority.INTERACTIVE, () -> CompletableFuture.completedFuture("other")));
+    }
+
+    @Test
+    void messageIsResentAfterTooManyRequestsTest() throws Exception {
+        TelegramApiRequestException tooManyRequests = getTooManyRequestsException();
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = dispatcher.execute(PRIVATE_CHAT_ID, OutboundPriority.INTERACTIVE, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                return CompletableFuture.failedFuture(tooManyRequests);
+            }
+            return CompletableFuture.completedFuture("sent");
+        });
+
+        assertEquals("sent", result);
+        assertEquals(2, attempts.get());
+        assertEquals(1, dispatcher.getRetriedMessagesCount());
+        assertEquals(0, dispatcher.getFailedMessagesCount());
+    }
+
+    @Test
+    void messageFailsWhenRetriesAreExhaustedTest() {
+        TelegramApiRequestException tooManyRequests = getTooManyRequestsException();
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = dispatcher.submit(PRIVATE_CHAT_ID, OutboundPriority.INTERACTIVE, () -> {
+            attempts.incrementAndGet();
+            throw tooManyRequests;
+        });
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertSame(tooManyRequests, exception.getCause());
+        assertEquals(2, attempts.get());
+        assertEquals(1, dispatcher.getFailedMessagesCount());
+    }
+
+    @Test
+    void notRepeatableMessageIsNotResentTest() {
+        TelegramApiRequestException tooManyRequests = getTooManyRequestsException();
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = dispatcher.submit(PRIVATE_CHAT_ID, OutboundPriority.INTERACTIVE, () -> {
+            attempts.incrementAndGet();
+            throw tooManyRequests;
+        }, false);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertSame(tooManyRequests, exception.getCause());
+        assertEquals(1, attempts.get());
+        assertEquals(0, dispatcher.getRetriedMessagesCount());
+    }
+
+    @Test
+    void chatIsReleasedAfterUnexpectedErrorTest() throws Exception {
+        RuntimeException unexpected = new IllegalStateException("unexpected");
+        TelegramApiRequestException tooManyRequests = mock(TelegramApiRequestException.class);
+        when(tooManyRequests.getErrorCode()).thenReturn(429);
+        when(tooManyRequests.getParameters()).thenThrow(unexpected);
+
+        CompletableFuture<String> result = dispatcher.submit(PRIVATE_CHAT_ID, OutboundPriority.INTERACTIVE, () -> {
+            throw tooManyRequests;
+        });
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertSame(unexpected, exception.getCause());
+        assertEquals("next", dispatcher.submit(PRIVATE_CHAT_ID, OutboundPriority.INTERACTIVE, () -> CompletableFuture.completedFuture("next"))
+                .get(5, TimeUnit.SECONDS));
+    }
+
+    private TelegramApiRequestException getTooManyRequestsException() {
+        TelegramApiRequestException exception = mock(TelegramApiRequestException.class);
+        when(exception.getErrorCode()).thenReturn(429);
+        when(exception.getParameters()).thenReturn(new ResponseParameters(null, 0));
+
+        return exception;
+    }
+
+    private static CompletableFuture<String> send(List<String> sent, String value) {
+        return CompletableFuture.completedFuture(add(sent, value));
+    }
+
+    private static String add(List<String> sent, String value) {
+        sent.add(value);
+        return value;
+    }
+}
@@ -0,0 +1,38 @@
+package org.telegram.bot.utils;
+
+import org.junit.jupiter.api.Test;
+import org.telegram.bot.domain.MetricsRegistry;
+import org.telegram.bot.domain.enums.BotMetric;
+import org.telegram.bot.domain.enums.LatencyMetric;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrometheusFormatterTest {
+
+    @Test
+    void formatTest() {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        metricsRegistry.increment(BotMetric.RECEIVED_MESSAGES);
+        metricsRegistry.incrementCommand("Uptime");
+        metricsRegistry.registerLatency(LatencyMetric.EXTERNAL_API, "api.openai.com", TimeUnit.MILLISECONDS.toNanos(7), false);
+        metricsRegistry.registerLatency(LatencyMetric.EXTERNAL_API, "api.openai.com", TimeUnit.SECONDS.toNanos(40), true);
+        metricsRegistry.registerLatency(LatencyMetric.COMMAND_PARSE, "Echo \"test\"", TimeUnit.MILLISECONDS.toNanos(1), false);
+
+        String metrics = PrometheusFormatter.format(metricsRegistry.snapshot());
+
+        assertTrue(metrics.contains("# TYPE bot_received_messages_total counter\nbot_received_messages_total 1\n"));
+        assertTrue(metrics.contains("# TYPE bot_google_requests gauge\nbot_google_requests 100\n"));
+        assertTrue(metrics.contains("bot_commands_processed_by_command_total{command=\"Uptime\"} 1\n"));
+        assertTrue(metrics.contains("# TYPE bot_external_api_request_seconds histogram\n"));
+        assertTrue(metrics.contains("bot_external_api_request_seconds_bucket{api=\"api.openai.com\",le=\"0.005\"} 0\n"));
+        assertTrue(metrics.contains("bot_external_api_request_seconds_bucket{api=\"api.openai.com\",le=\"0.01\"} 1\n"));
+        assertTrue(metrics.contains("bot_external_api_request_seconds_bucket{api=\"api.openai.com\",le=\"30.0\"} 1\n"));
+        assertTrue(metrics.contains("bot_external_api_request_seconds_bucket{api=\"api.openai.com\",le=\"+Inf\"} 2\n"));
+        assertTrue(metrics.contains("bot_external_api_request_seconds_sum{api=\"api.openai.com\"} 40.007\n"));
+        assertTrue(metrics.contains("bot_external_api_request_seconds_count{api=\"api.openai.com\"} 2\n"));
+        assertTrue(metrics.contains("bot_external_api_request_errors_total{api=\"api.openai.com\"} 1\n"));
+        assertTrue(metrics.contains("bot_command_parse_seconds_count{command=\"Echo \\\"test\\\"\"} 1\n"));
+    }
+}
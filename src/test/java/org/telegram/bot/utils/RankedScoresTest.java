@@ -0,0 +1,62 @@
+package org.telegram.bot.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedScoresTest {
+
+    @Test
+    void orderAndRankTest() {
+        RankedScores scores = new RankedScores();
+        scores.add(1L, 5);
+        scores.add(2L, 10);
+        scores.add(3L, 5);
+        scores.add(4L, -3);
+
+        assertEquals(List.of(2L, 1L, 3L, 4L), scores.getTop(10));
+        assertEquals(List.of(2L, 1L), scores.getTop(2));
+        assertEquals(1, scores.getRank(2L));
+        assertEquals(3, scores.getRank(3L));
+        assertEquals(0, scores.getRank(5L));
+
+        scores.add(4L, 20);
+
+        assertEquals(17L, scores.getScore(4L));
+        assertEquals(1, scores.getRank(4L));
+        assertEquals(List.of(4L, 2L, 1L, 3L), scores.getTop(10));
+        assertEquals(4, scores.size());
+    }
+
+    @Test
+    void randomUpdatesKeepOrderTest() {
+        Random random = new Random(42);
+        RankedScores scores = new RankedScores();
+        Map<Long, Long> expected = new HashMap<>();
+
+        for (int i = 0; i < 5000; i++) {
+            long id = random.nextInt(300);
+            long value = random.nextInt(21) - 10;
+            scores.add(id, value);
+            expected.merge(id, value, Long::sum);
+        }
+
+        List<Long> expectedOrder = expected.entrySet()
+                .stream()
+                .sorted(Comparator.comparing(Map.Entry<Long, Long>::getValue).reversed().thenComparing(Map.Entry::getKey))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+        assertEquals(expectedOrder, scores.getTop(Integer.MAX_VALUE));
+        for (int i = 0; i < expectedOrder.size(); i++) {
+            assertEquals(i + 1, scores.getRank(expectedOrder.get(i)));
+        }
+    }
+}
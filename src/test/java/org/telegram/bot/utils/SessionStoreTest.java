@@ -0,0 +1,59 @@
+package org.telegram.bot.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SessionStoreTest {
+
+    private static final Instant NOW = Instant.parse("2023-08-20T10:00:00Z");
+
+    private final Clock clock = mock(Clock.class);
+
+    @Test
+    void entryExpiresAfterTtlTest() {
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+        SessionStore<Long, String> store = new SessionStore<>(Duration.ofMinutes(1), clock);
+        store.put(1L, "first");
+
+        assertEquals("first", store.get(1L));
+        assertEquals(Map.of(1L, "first"), store.snapshot());
+
+        when(clock.millis()).thenReturn(NOW.plusSeconds(60).toEpochMilli());
+
+        assertNull(store.get(1L));
+        assertTrue(store.snapshot().isEmpty());
+    }
+
+    @Test
+    void expiredEntriesAreSweptOnPutTest() {
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+        SessionStore<Long, String> store = new SessionStore<>(Duration.ofMinutes(1), clock);
+        store.put(1L, "first");
+        store.put(2L, "second");
+
+        when(clock.millis()).thenReturn(NOW.plusSeconds(61).toEpochMilli());
+        store.put(3L, "third");
+
+        assertEquals(1, store.size());
+        assertEquals("third", store.get(3L));
+    }
+
+    @Test
+    void putOfNullRemovesEntryTest() {
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+        SessionStore<Long, String> store = new SessionStore<>(Duration.ofMinutes(1), clock);
+        store.put(1L, "first");
+        store.put(1L, null);
+
+        assertNull(store.get(1L));
+        assertEquals(0, store.size());
+    }
+}
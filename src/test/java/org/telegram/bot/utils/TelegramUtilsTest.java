@@ -0,0 +1,47 @@
+package org.telegram.bot.utils;
+
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.InputFile;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.telegram.bot.TestUtils.*;
+
+class TelegramUtilsTest {
+
+    @Test
+    void coalesceEditedMessagesTest() {
+        Update message = getUpdateFromGroup("message");
+        Update firstEdit = getEditedUpdate(DEFAULT_MESSAGE_ID, "edit 1");
+        Update anotherMessage = getUpdateFromGroup("another message");
+        Update secondEdit = getEditedUpdate(DEFAULT_MESSAGE_ID, "edit 2");
+        Update editOfAnotherMessage = getEditedUpdate(ANOTHER_MESSAGE_ID, "edit");
+
+        List<Update> result = TelegramUtils.coalesceEditedMessages(
+                List.of(message, firstEdit, anotherMessage, secondEdit, editOfAnotherMessage));
+
+        assertEquals(List.of(message, anotherMessage, secondEdit, editOfAnotherMessage), result);
+    }
+
+    @Test
+    void isUploadedFromStreamTest() {
+        assertTrue(TelegramUtils.isUploadedFromStream(new InputFile(new ByteArrayInputStream(new byte[0]), "file")));
+        assertFalse(TelegramUtils.isUploadedFromStream(new InputFile("http://example.com/image.png")));
+        assertFalse(TelegramUtils.isUploadedFromStream((InputFile) null));
+    }
+
+    private Update getEditedUpdate(Integer messageId, String text) {
+        Message message = getMessage();
+        message.setMessageId(messageId);
+        message.setText(text);
+
+        Update update = new Update();
+        update.setEditedMessage(message);
+
+        return update;
+    }
+}
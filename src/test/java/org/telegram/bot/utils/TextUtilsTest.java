@@ -36,4 +36,13 @@ class TextUtilsTest {
         String text = "<a href=\"example.com\">test</a>";
         assertEquals(cutHtmlTags(text), "test");
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPhraseHashTest() {
+        String hash = TextUtils.getPhraseHash("Как  дела? ");
+
+        assertEquals(32, hash.length());
+        assertEquals(hash, TextUtils.getPhraseHash("как дела?"));
+        assertNotEquals(hash, TextUtils.getPhraseHash("как дела"));
+    }
+}
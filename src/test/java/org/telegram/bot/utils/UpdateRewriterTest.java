@@ -0,0 +1,59 @@
+package org.telegram.bot.utils;
+
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.telegram.bot.TestUtils.*;
+
+class UpdateRewriterTest {
+
+    @Test
+    void rewriteTextOfMessageTest() {
+        Update update = getUpdateWithRepliedMessage("replied");
+        Message message = update.getMessage();
+        message.setText("alias");
+
+        Update rewritten = UpdateRewriter.rewriteText(update, "echo test");
+        Message rewrittenMessage = rewritten.getMessage();
+
+        assertEquals("echo test", rewrittenMessage.getText());
+        assertEquals("alias", message.getText());
+        assertEquals(update.getUpdateId(), rewritten.getUpdateId());
+        assertEquals(message.getMessageId(), rewrittenMessage.getMessageId());
+        assertSame(message.getFrom(), rewrittenMessage.getFrom());
+        assertSame(message.getChat(), rewrittenMessage.getChat());
+        assertSame(message.getReplyToMessage(), rewrittenMessage.getReplyToMessage());
+    }
+
+    @Test
+    void rewriteTextOfEditedMessageTest() {
+        Message message = getMessage();
+        message.setText(DEFAULT_MESSAGE_TEXT);
+        Update update = new Update();
+        update.setEditedMessage(message);
+
+        Update rewritten = UpdateRewriter.rewriteText(update, "echo test");
+
+        assertFalse(rewritten.hasMessage());
+        assertEquals("echo test", rewritten.getEditedMessage().getText());
+        assertEquals(DEFAULT_MESSAGE_TEXT, update.getEditedMessage().getText());
+    }
+
+    @Test
+    void rewriteDataOfCallbackQueryTest() {
+        Update update = getUpdateWithCallback("callback");
+
+        Update rewritten = UpdateRewriter.rewriteText(update, "echo test");
+
+        assertEquals("echo test", rewritten.getCallbackQuery().getData());
+        assertEquals("callback", update.getCallbackQuery().getData());
+        assertSame(update.getCallbackQuery().getMessage(), rewritten.getCallbackQuery().getMessage());
+    }
+
+    @Test
+    void rewriteUpdateWithoutTextTest() {
+        assertThrows(IllegalArgumentException.class, () -> UpdateRewriter.rewriteText(new Update(), "echo test"));
+    }
+}